@@ -0,0 +1,81 @@
+package co.fusionx.relay.internal.base;
+
+import co.fusionx.relay.base.Server;
+import co.fusionx.relay.base.ServerConfiguration;
+import co.fusionx.relay.interfaces.RelayConfiguration;
+import co.fusionx.relay.internal.sender.BaseSender;
+import co.fusionx.relay.internal.sender.RelayBaseSender;
+import co.fusionx.relay.internal.sender.RelayServerSender;
+import co.fusionx.relay.misc.NickStorage;
+import co.fusionx.relay.misc.RelayConfigurationProvider;
+
+public class BenchmarkUtils {
+
+    public static final String OWN_NICK = "holoirctester";
+
+    public static ServerConfiguration getFreenodeConfiguration() {
+        final ServerConfiguration.Builder builder = new ServerConfiguration.Builder();
+        builder.setTitle("Freenode");
+        builder.setUrl("irc.freenode.net");
+        builder.setPort(6667);
+        builder.setNickStorage(new NickStorage(OWN_NICK, OWN_NICK, OWN_NICK));
+        builder.setServerUserName(OWN_NICK);
+        return builder.build();
+    }
+
+    /**
+     * Creates a server which is not connected to anything - lines sent by the server are
+     * discarded
+     */
+    public static RelayServer getFreenodeServer() {
+        RelayConfigurationProvider.onInterfaceReceived(new SilentRelayConfiguration());
+
+        final BaseSender baseSender = new RelayBaseSender();
+        return new RelayServer(getFreenodeConfiguration(), baseSender,
+                new RelayServerSender(baseSender));
+    }
+
+    /**
+     * A configuration which does not log anything so that logging does not skew the results
+     */
+    public static class SilentRelayConfiguration implements RelayConfiguration {
+
+        @Override
+        public int getReconnectAttemptsCount() {
+            return 0;
+        }
+
+        @Override
+        public String getPartReason() {
+            return null;
+        }
+
+        @Override
+        public String getQuitReason() {
+            return null;
+        }
+
+        @Override
+        public boolean isSelfEventHidden() {
+            return true;
+        }
+
+        @Override
+        public boolean isMOTDShown() {
+            return true;
+        }
+
+        @Override
+        public void logMissingData(final Server server) {
+        }
+
+        @Override
+        public void logServerLine(final String line) {
+        }
+
+        @Override
+        public void handleException(final Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+}
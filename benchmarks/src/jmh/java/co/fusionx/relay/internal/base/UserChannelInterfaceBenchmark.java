@@ -0,0 +1,71 @@
+package co.fusionx.relay.internal.base;
+
+import com.google.common.base.Optional;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.Random;
+
+@State(Scope.Benchmark)
+public class UserChannelInterfaceBenchmark {
+
+    // The number of distinct nicks which are looked up in a loop
+    private static final int LOOKUP_COUNT = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    public int mUserCount;
+
+    private RelayUserChannelInterface mUserChannelInterface;
+
+    private String[] mLookupNicks;
+
+    private String mChannelName;
+
+    private int mIndex;
+
+    @Setup
+    public void setup() {
+        final RelayServer server = BenchmarkUtils.getFreenodeServer();
+        mUserChannelInterface = server.getUserChannelInterface();
+
+        // Spread the users over channels of 1000 users each
+        RelayChannel channel = null;
+        for (int i = 0; i < mUserCount; i++) {
+            if (i % 1000 == 0) {
+                channel = mUserChannelInterface.getNewChannel("#relay" + i / 1000);
+                mUserChannelInterface.coupleUserAndChannel(server.getUser(), channel);
+            }
+            mUserChannelInterface.coupleUserAndChannel(
+                    mUserChannelInterface.getNonNullUser("Nick" + i), channel);
+        }
+        mChannelName = "#RELAY0";
+
+        // Lookups use a different case to the stored nick like servers often do
+        final Random random = new Random(42);
+        mLookupNicks = new String[LOOKUP_COUNT];
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            mLookupNicks[i] = ("Nick" + random.nextInt(mUserCount)).toLowerCase(Locale.US);
+        }
+    }
+
+    @Benchmark
+    public Optional<RelayChannelUser> getUser() {
+        mIndex = (mIndex + 1) & (LOOKUP_COUNT - 1);
+        return mUserChannelInterface.getUser(mLookupNicks[mIndex]);
+    }
+
+    @Benchmark
+    public Optional<RelayChannelUser> getMissingUser() {
+        return mUserChannelInterface.getUser("missingnick");
+    }
+
+    @Benchmark
+    public Optional<RelayChannel> getChannel() {
+        return mUserChannelInterface.getChannel(mChannelName);
+    }
+}
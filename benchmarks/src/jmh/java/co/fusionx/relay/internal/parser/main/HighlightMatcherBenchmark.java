@@ -0,0 +1,58 @@
+package co.fusionx.relay.internal.parser.main;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import co.fusionx.relay.constants.CaseMapping;
+
+@State(Scope.Benchmark)
+public class HighlightMatcherBenchmark {
+
+    private static final String NICK = "holoirctester";
+
+    private static final String MESSAGE_WITHOUT_MENTION = "did anyone manage to get the build "
+            + "working with the latest release of the sdk?";
+
+    private static final String MESSAGE_WITH_MENTION = "holoirctester: did you manage to get "
+            + "the build working with the latest release of the sdk?";
+
+    private HighlightMatcher mNickMatcher;
+
+    private HighlightMatcher mKeywordMatcher;
+
+    @Setup
+    public void setup() {
+        mNickMatcher = new HighlightMatcher(NICK, CaseMapping.RFC1459,
+                Collections.<String>emptyList(), Collections.<String>emptyList());
+        mKeywordMatcher = new HighlightMatcher(NICK, CaseMapping.RFC1459,
+                Arrays.asList("relay", "holoirc", "tilal", "android", "release notes"),
+                Collections.singletonList("build (failed|broken)"));
+    }
+
+    @Benchmark
+    public String withoutMention() {
+        return mNickMatcher.match(MESSAGE_WITHOUT_MENTION);
+    }
+
+    @Benchmark
+    public String withMention() {
+        return mNickMatcher.match(MESSAGE_WITH_MENTION);
+    }
+
+    @Benchmark
+    public String keywordsWithoutMention() {
+        return mKeywordMatcher.match(MESSAGE_WITHOUT_MENTION);
+    }
+
+    @Benchmark
+    public String compile() {
+        return new HighlightMatcher(NICK, CaseMapping.RFC1459,
+                Arrays.asList("relay", "holoirc", "tilal", "android", "release notes"),
+                Collections.singletonList("build (failed|broken)")).match(MESSAGE_WITH_MENTION);
+    }
+}
@@ -0,0 +1,77 @@
+package co.fusionx.relay.internal.parser.main;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import co.fusionx.relay.internal.base.BenchmarkUtils;
+import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.sender.RelayBaseSender;
+
+@State(Scope.Benchmark)
+public class ServerLineParserBenchmark {
+
+    // A mix of lines roughly matching what a busy channel sends - the JOINs and PARTs are
+    // balanced so that the state of the channel does not grow between iterations
+    private static final String[] LINES = {
+            ":nick1!user@host.example.com PRIVMSG #relay :did anyone get the build working?",
+            ":nick2!user@host.example.com PRIVMSG #relay :holoirctester: yes it works for me",
+            ":nick3!user@host.example.com PRIVMSG #relay :\u0002build\u0002 \u000303passed",
+            ":nick4!user@host.example.com JOIN #relay",
+            ":nick1!user@host.example.com PRIVMSG #relay :\u0001ACTION waves\u0001",
+            ":ChanServ!ChanServ@services. MODE #relay +o nick4",
+            ":nick2!user@host.example.com PRIVMSG #relay :what about the tests though",
+            ":ChanServ!ChanServ@services. MODE #relay -o nick4",
+            ":nick4!user@host.example.com PART #relay :leaving",
+            ":irc.freenode.net 353 holoirctester = #relay :@ChanServ nick1 +nick2 nick3",
+            ":irc.freenode.net 366 holoirctester #relay :End of /NAMES list.",
+            ":irc.freenode.net 372 holoirctester :- Welcome to the freenode IRC network",
+            ":irc.freenode.net 251 holoirctester :There are 142 users and 90241 invisible",
+            ":irc.freenode.net 311 holoirctester nick1 user host.example.com * :Nick One",
+    };
+
+    // The numerics sent in bulk while connecting and for WHO and NAMES replies
+    private static final String[] NUMERIC_LINES = {
+            ":irc.freenode.net 251 holoirctester :There are 142 users and 90241 invisible",
+            ":irc.freenode.net 252 holoirctester 33 :IRC Operators online",
+            ":irc.freenode.net 004 holoirctester irc.freenode.net ircd-seven-1.1.3 DOQRSZ",
+            ":irc.freenode.net 352 holoirctester #relay user host irc.freenode.net nick1 H "
+                    + ":0 Nick One",
+            ":irc.freenode.net 315 holoirctester #relay :End of /WHO list.",
+            ":irc.freenode.net 372 holoirctester :- Welcome to the freenode IRC network",
+            ":irc.freenode.net 333 holoirctester #relay tilal 1420070400",
+            ":irc.freenode.net 999 holoirctester :Unknown numeric",
+    };
+
+    private ServerLineParser mParser;
+
+    @Setup
+    public void setup() {
+        final RelayServer server = BenchmarkUtils.getFreenodeServer();
+        mParser = new ServerLineParser(server, new RelayBaseSender());
+
+        mParser.parseLine(":holoirctester!holoirctester@test JOIN #relay");
+        mParser.parseLine(":irc.freenode.net 353 holoirctester = #relay "
+                + ":@ChanServ holoirctester nick1 +nick2 nick3");
+        mParser.parseLine(":irc.freenode.net 366 holoirctester #relay :End of /NAMES list.");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(14)
+    public void parseLineMix(final Blackhole blackhole) {
+        for (final String line : LINES) {
+            blackhole.consume(mParser.parseLine(line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void parseNumerics(final Blackhole blackhole) {
+        for (final String line : NUMERIC_LINES) {
+            blackhole.consume(mParser.parseLine(line));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package co.fusionx.relay.internal.sender;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.BufferedWriter;
+import java.io.Writer;
+
+import co.fusionx.relay.internal.packet.channel.ChannelMessagePacket;
+
+@State(Scope.Benchmark)
+public class RelayBaseSenderBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private RelayBaseSender mSender;
+
+    private ChannelMessagePacket mPacket;
+
+    @Setup
+    public void setup() {
+        mSender = new RelayBaseSender();
+        mSender.onOutputStreamCreated(new BufferedWriter(new NullWriter()));
+        mPacket = new ChannelMessagePacket("#relay", "did anyone get the build working?");
+    }
+
+    /**
+     * Queues a batch of lines and waits until the writer thread has written all of them
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long sendBatch() {
+        final long target = mSender.getSentLineCount() + BATCH_SIZE;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            mSender.sendPacket(mPacket);
+        }
+        while (mSender.getSentLineCount() < target) {
+            Thread.yield();
+        }
+        return mSender.getSentLineCount();
+    }
+
+    private static class NullWriter extends Writer {
+
+        @Override
+        public void write(final char[] buffer, final int offset, final int length) {
+        }
+
+        @Override
+        public void write(final String string) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
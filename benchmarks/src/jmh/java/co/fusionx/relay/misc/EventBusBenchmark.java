@@ -0,0 +1,61 @@
+package co.fusionx.relay.misc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import co.fusionx.relay.event.Event;
+import co.fusionx.relay.event.channel.ChannelEvent;
+import co.fusionx.relay.event.server.GenericServerEvent;
+import co.fusionx.relay.event.server.ServerEvent;
+
+@State(Scope.Benchmark)
+public class EventBusBenchmark {
+
+    private final GenericServerEvent mEvent = new GenericServerEvent(null, "message");
+
+    private EventBus<Event> mHandlerBus;
+
+    private EventBus<Event> mObjectBus;
+
+    private int mCount;
+
+    @Setup
+    public void setup() {
+        mHandlerBus = new EventBus<>();
+        mHandlerBus.registerHandler(ServerEvent.class, event -> mCount++);
+        mHandlerBus.registerHandler(ChannelEvent.class, event -> mCount++);
+        mHandlerBus.registerHandler(Event.class, event -> mCount++);
+
+        mObjectBus = new EventBus<>();
+        mObjectBus.register(new Subscriber());
+    }
+
+    @Benchmark
+    public int postToHandlers() {
+        mHandlerBus.post(mEvent);
+        return mCount;
+    }
+
+    @Benchmark
+    public int postToObject() {
+        mObjectBus.post(mEvent);
+        return mCount;
+    }
+
+    public final class Subscriber {
+
+        public void onEvent(final ServerEvent event) {
+            mCount++;
+        }
+
+        public void onEvent(final ChannelEvent event) {
+            mCount++;
+        }
+
+        public void onEvent(final Event event) {
+            mCount++;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package co.fusionx.relay.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class ParseUtilsBenchmark {
+
+    private static final String PRIVMSG_LINE = ":nick!user@host.example.com PRIVMSG #relay "
+            + ":did anyone manage to get the build working with the latest release?";
+
+    private static final String NAMES_LINE = ":irc.freenode.net 353 holoirctester = #relay "
+            + ":@ChanServ +tilal6991 holoirctester nick1 nick2 nick3 nick4 nick5 nick6 nick7";
+
+    @Benchmark
+    public List<String> splitPrivmsg() {
+        return ParseUtils.splitRawLine(PRIVMSG_LINE, true);
+    }
+
+    @Benchmark
+    public List<String> splitNames() {
+        return ParseUtils.splitRawLine(NAMES_LINE, true);
+    }
+
+    @Benchmark
+    public List<String> splitWithoutColonDelimiter() {
+        return ParseUtils.splitRawLine(PRIVMSG_LINE, false);
+    }
+}
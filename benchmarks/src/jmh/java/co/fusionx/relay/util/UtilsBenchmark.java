@@ -0,0 +1,42 @@
+package co.fusionx.relay.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+import co.fusionx.relay.base.FormatSpanInfo;
+import co.fusionx.relay.base.FormattedText;
+import co.fusionx.relay.misc.Pair;
+
+@State(Scope.Benchmark)
+public class UtilsBenchmark {
+
+    // Most messages do not contain any formatting at all
+    private static final String PLAIN_MESSAGE = "did anyone manage to get the build working "
+            + "with the latest release of the sdk?";
+
+    private static final String FORMATTED_MESSAGE = "\u0002build\u0002 \u000303,01passed\u0003 "
+            + "on \u001fdevelop\u001f - \u001d42 tests\u001d run \u000304failed: 0\u000f done";
+
+    @Benchmark
+    public Pair<String, List<FormatSpanInfo>> stripPlain() {
+        return Utils.parseAndStripColorsFromMessage(PLAIN_MESSAGE);
+    }
+
+    @Benchmark
+    public Pair<String, List<FormatSpanInfo>> stripFormatted() {
+        return Utils.parseAndStripColorsFromMessage(FORMATTED_MESSAGE);
+    }
+
+    @Benchmark
+    public FormattedText parsePlain() {
+        return FormattedText.parse(PLAIN_MESSAGE);
+    }
+
+    @Benchmark
+    public FormattedText parseFormatted() {
+        return FormattedText.parse(FORMATTED_MESSAGE);
+    }
+}
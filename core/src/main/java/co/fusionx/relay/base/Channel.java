@@ -0,0 +1,32 @@
+package co.fusionx.relay.base;
+
+import java.util.Collection;
+import java.util.List;
+
+import co.fusionx.relay.event.channel.ChannelEvent;
+import co.fusionx.relay.sender.ChannelSender;
+
+public interface Channel extends Conversation<ChannelEvent>, ChannelSender {
+
+    public String getName();
+
+    public Collection<? extends ChannelUser> getUsers();
+
+    /**
+     * Returns part of the users of the channel in the order they should be shown - highest level
+     * first and then by nick
+     *
+     * @param fromIndex the position of the first user to return
+     * @param count     the maximum number of users to return
+     * @return the users in order
+     */
+    public List<? extends ChannelUser> getSortedUsers(int fromIndex, int count);
+
+    /**
+     * Returns the position of the user in the list given by {@link #getSortedUsers(int, int)}
+     *
+     * @param user the user to find
+     * @return the position of the user or -1 if the user is not in the channel
+     */
+    public int getUserRank(ChannelUser user);
+}
\ No newline at end of file
@@ -1,9 +1,9 @@
 package co.fusionx.relay.base;
 
-import android.util.Pair;
-
 import java.util.Set;
 
+import co.fusionx.relay.misc.Pair;
+
 public interface ConnectionManager {
 
     /**
@@ -0,0 +1,44 @@
+package co.fusionx.relay.base;
+
+import java.util.List;
+
+import co.fusionx.relay.event.Event;
+import co.fusionx.relay.misc.EventBus;
+import co.fusionx.relay.misc.EventQueueStats;
+
+public interface Conversation<E extends Event> {
+
+    public String getId();
+
+    public Server getServer();
+
+    public List<? extends E> getBuffer();
+
+    /**
+     * Returns a page of the events which occurred before the timestamp - this also includes
+     * older events which are no longer in the buffer if they were stored on disk
+     *
+     * @param timestamp the time in milliseconds which all the events returned occurred before
+     * @param limit     the maximum number of events to return
+     * @return the events, oldest first
+     */
+    public List<? extends E> getEventsBefore(final long timestamp, final int limit);
+
+    public EventBus<? extends E> getBus();
+
+    /**
+     * Returns the state of the queue which holds events until they are delivered to the
+     * subscribers of this conversation and of the server
+     *
+     * @return a snapshot of the queue or null if events are delivered on the thread which reads
+     * from the server
+     */
+    public EventQueueStats getEventQueueStats();
+
+    /**
+     * Returns whether the conversation is valid - i.e. is it attached and managed by the server
+     *
+     * @return the validity of the conversation
+     */
+    public boolean isValid();
+}
\ No newline at end of file
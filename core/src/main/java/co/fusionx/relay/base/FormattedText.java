@@ -0,0 +1,365 @@
+package co.fusionx.relay.base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A message with its IRC formatting codes removed and the formatting kept as spans
+ *
+ * Each span is packed into a single long - the start and end take 24 bits each, the format two
+ * bits and the foreground and background colours five bits each. Messages without any
+ * formatting codes are by far the most common so they are detected with a single scan and the
+ * original string is kept as the text without being copied.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class FormattedText {
+
+    public static final char IRC_BOLD = '\u0002';
+
+    public static final char IRC_COLOR = '\u0003';
+
+    public static final char IRC_ITALIC = '\u001d';
+
+    public static final char IRC_UNDERLINE = '\u001f';
+
+    public static final char IRC_RESET_FORMATTING = '\u000f';
+
+    private static final long[] NO_SPANS = new long[0];
+
+    private static final int POSITION_BITS = 24;
+
+    private static final long POSITION_MASK = (1L << POSITION_BITS) - 1;
+
+    private static final int END_SHIFT = POSITION_BITS;
+
+    private static final int FORMAT_SHIFT = 2 * POSITION_BITS;
+
+    private static final int FOREGROUND_SHIFT = FORMAT_SHIFT + 2;
+
+    private static final int BACKGROUND_SHIFT = FOREGROUND_SHIFT + 5;
+
+    // Colours are stored as their ordinal plus one so that zero means no colour
+    private static final long COLOR_MASK = 0x1f;
+
+    private static final FormatSpanInfo.Format[] FORMATS = FormatSpanInfo.Format.values();
+
+    private static final FormatSpanInfo.Color[] COLORS = FormatSpanInfo.Color.values();
+
+    private final String mText;
+
+    private final long[] mSpans;
+
+    private FormattedText(final String text, final long[] spans) {
+        mText = text;
+        mSpans = spans;
+    }
+
+    /**
+     * Removes the formatting codes from the message and records the formatting they described
+     *
+     * @param message the message as it was received
+     * @return the text and spans of the message
+     */
+    public static FormattedText parse(final String message) {
+        if (!hasFormatting(message)) {
+            return new FormattedText(message, NO_SPANS);
+        }
+        return new Parser(message).parse();
+    }
+
+    /**
+     * Creates the formatted text for a message which has already had its formatting removed
+     *
+     * @param text    the message without formatting
+     * @param formats the spans of the message - this can be null if there are none
+     * @return the text and spans of the message
+     */
+    public static FormattedText of(final String text, final List<FormatSpanInfo> formats) {
+        if (formats == null || formats.isEmpty()) {
+            return new FormattedText(text, NO_SPANS);
+        }
+        final long[] spans = new long[formats.size()];
+        for (int i = 0; i < spans.length; i++) {
+            final FormatSpanInfo format = formats.get(i);
+            spans[i] = pack(format.start, format.end, format.format,
+                    format.fgColor == null ? -1 : format.fgColor.ordinal(),
+                    format.bgColor == null ? -1 : format.bgColor.ordinal());
+        }
+        return new FormattedText(text, spans);
+    }
+
+    /**
+     * Removes the formatting codes from the message without recording any spans
+     *
+     * @param message the message as it was received
+     * @return the message without formatting - this is the same instance if there was none
+     */
+    public static String strip(final String message) {
+        return hasFormatting(message) ? parse(message).getText() : message;
+    }
+
+    public static boolean hasFormatting(final String message) {
+        for (int i = 0, length = message.length(); i < length; i++) {
+            if (isFormatting(message.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getText() {
+        return mText;
+    }
+
+    public int getSpanCount() {
+        return mSpans.length;
+    }
+
+    public int getSpanStart(final int index) {
+        return (int) (mSpans[index] & POSITION_MASK);
+    }
+
+    public int getSpanEnd(final int index) {
+        return (int) ((mSpans[index] >>> END_SHIFT) & POSITION_MASK);
+    }
+
+    public FormatSpanInfo.Format getSpanFormat(final int index) {
+        return FORMATS[(int) ((mSpans[index] >>> FORMAT_SHIFT) & 0x3)];
+    }
+
+    /**
+     * @param index the index of the span
+     * @return the foreground colour of a colour span or null if there is none
+     */
+    public FormatSpanInfo.Color getSpanForeground(final int index) {
+        return getColor(mSpans[index] >>> FOREGROUND_SHIFT);
+    }
+
+    /**
+     * @param index the index of the span
+     * @return the background colour of a colour span or null if there is none
+     */
+    public FormatSpanInfo.Color getSpanBackground(final int index) {
+        return getColor(mSpans[index] >>> BACKGROUND_SHIFT);
+    }
+
+    /**
+     * Creates an object for every span - only needed by code which has not moved to reading the
+     * packed spans directly
+     *
+     * @return the spans in the order they were closed
+     */
+    public List<FormatSpanInfo> getFormats() {
+        if (mSpans.length == 0) {
+            return Collections.emptyList();
+        }
+        final List<FormatSpanInfo> formats = new ArrayList<>(mSpans.length);
+        for (int i = 0; i < mSpans.length; i++) {
+            final FormatSpanInfo.Format format = getSpanFormat(i);
+            formats.add(format == FormatSpanInfo.Format.COLOR
+                    ? new FormatSpanInfo(getSpanStart(i), getSpanEnd(i), getSpanForeground(i),
+                    getSpanBackground(i))
+                    : new FormatSpanInfo(getSpanStart(i), getSpanEnd(i), format));
+        }
+        return formats;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        } else if (!(o instanceof FormattedText)) {
+            return false;
+        }
+        final FormattedText that = (FormattedText) o;
+        return mText.equals(that.mText) && Arrays.equals(mSpans, that.mSpans);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * mText.hashCode() + Arrays.hashCode(mSpans);
+    }
+
+    @Override
+    public String toString() {
+        return mText;
+    }
+
+    private static boolean isFormatting(final char c) {
+        return c == IRC_BOLD || c == IRC_COLOR || c == IRC_ITALIC || c == IRC_UNDERLINE
+                || c == IRC_RESET_FORMATTING;
+    }
+
+    private static FormatSpanInfo.Color getColor(final long bits) {
+        final int color = (int) (bits & COLOR_MASK);
+        return color == 0 ? null : COLORS[color - 1];
+    }
+
+    private static long pack(final int start, final int end, final FormatSpanInfo.Format format,
+            final int foreground, final int background) {
+        return (start & POSITION_MASK)
+                | (end & POSITION_MASK) << END_SHIFT
+                | (long) format.ordinal() << FORMAT_SHIFT
+                | (long) (foreground + 1) << FOREGROUND_SHIFT
+                | (long) (background + 1) << BACKGROUND_SHIFT;
+    }
+
+    /**
+     * Walks the message once writing the text into a char array and the spans into a long
+     * array - colours are kept as ints where -1 means no colour
+     */
+    private static final class Parser {
+
+        private static final int NOT_OPEN = -1;
+
+        private static final int NO_COLOR = -1;
+
+        private final String mMessage;
+
+        private final char[] mText;
+
+        private int mLength;
+
+        private long[] mSpans = new long[4];
+
+        private int mSpanCount;
+
+        private int mBoldStart = NOT_OPEN;
+
+        private int mColorStart = NOT_OPEN;
+
+        private int mItalicStart = NOT_OPEN;
+
+        private int mUnderlineStart = NOT_OPEN;
+
+        private int mForeground = NO_COLOR;
+
+        private int mBackground = NO_COLOR;
+
+        private Parser(final String message) {
+            mMessage = message;
+            mText = new char[message.length()];
+        }
+
+        private FormattedText parse() {
+            final String line = mMessage;
+            final int length = line.length();
+            int i = 0;
+            while (i < length) {
+                final char c = line.charAt(i++);
+                if (c == IRC_BOLD) {
+                    mBoldStart = toggle(mBoldStart, FormatSpanInfo.Format.BOLD);
+                } else if (c == IRC_COLOR) {
+                    final int firstFgDigit = digitValue(line, i);
+                    final int secondFgDigit = digitValue(line, i + 1);
+                    // advance over read digits
+                    if (firstFgDigit >= 0) {
+                        i++;
+                    }
+                    if (secondFgDigit >= 0) {
+                        i++;
+                    }
+
+                    final int fg = makeColor(firstFgDigit, secondFgDigit);
+                    int bg = NO_COLOR;
+                    // check for presence of comma and at least one character after it
+                    // (if there is no additional character, the comma doesn't belong to the
+                    // color)
+                    if ((i + 1) < length && line.charAt(i) == ',') {
+                        final int firstBgDigit = digitValue(line, i + 1);
+                        final int secondBgDigit = digitValue(line, i + 2);
+
+                        // the comma only belongs to the color if a digit follows it
+                        if (firstBgDigit >= 0) {
+                            i += secondBgDigit >= 0 ? 3 : 2;
+                            bg = makeColor(firstBgDigit, secondBgDigit);
+                        }
+                    }
+                    color(fg, bg);
+                } else if (c == IRC_ITALIC) {
+                    mItalicStart = toggle(mItalicStart, FormatSpanInfo.Format.ITALIC);
+                } else if (c == IRC_UNDERLINE) {
+                    mUnderlineStart = toggle(mUnderlineStart, FormatSpanInfo.Format.UNDERLINED);
+                } else if (c == IRC_RESET_FORMATTING) {
+                    applyAndReset();
+                } else {
+                    mText[mLength++] = c;
+                }
+            }
+            applyAndReset();
+
+            final long[] spans = mSpanCount == 0 ? NO_SPANS : Arrays.copyOf(mSpans, mSpanCount);
+            return new FormattedText(new String(mText, 0, mLength), spans);
+        }
+
+        // Returns the new start of the format - a format is closed if it was open
+        private int toggle(final int start, final FormatSpanInfo.Format format) {
+            if (start >= 0 && start < mLength) {
+                addSpan(start, mLength, format, NO_COLOR, NO_COLOR);
+                return NOT_OPEN;
+            }
+            return mLength;
+        }
+
+        private void color(final int fg, final int bg) {
+            if (mColorStart >= 0 && mLength > 0 && mForeground != NO_COLOR) {
+                addSpan(mColorStart, mLength, FormatSpanInfo.Format.COLOR, mForeground,
+                        mBackground);
+            }
+            mColorStart = mLength;
+            mForeground = fg;
+            mBackground = bg;
+        }
+
+        private void applyAndReset() {
+            final int position = mLength;
+            if (position == 0) {
+                return;
+            }
+            if (mColorStart >= 0 && mColorStart < position && mForeground != NO_COLOR) {
+                addSpan(mColorStart, position, FormatSpanInfo.Format.COLOR, mForeground,
+                        mBackground);
+            }
+            if (mBoldStart >= 0 && mBoldStart < position) {
+                addSpan(mBoldStart, position, FormatSpanInfo.Format.BOLD, NO_COLOR, NO_COLOR);
+            }
+            if (mItalicStart >= 0 && mItalicStart < position) {
+                addSpan(mItalicStart, position, FormatSpanInfo.Format.ITALIC, NO_COLOR,
+                        NO_COLOR);
+            }
+            if (mUnderlineStart >= 0 && mUnderlineStart < position) {
+                addSpan(mUnderlineStart, position, FormatSpanInfo.Format.UNDERLINED, NO_COLOR,
+                        NO_COLOR);
+            }
+
+            mColorStart = mBoldStart = mItalicStart = mUnderlineStart = NOT_OPEN;
+        }
+
+        private void addSpan(final int start, final int end, final FormatSpanInfo.Format format,
+                final int foreground, final int background) {
+            if (mSpanCount == mSpans.length) {
+                mSpans = Arrays.copyOf(mSpans, mSpanCount * 2);
+            }
+            mSpans[mSpanCount++] = pack(start, end, format, foreground, background);
+        }
+
+        private static int makeColor(final int firstDigit, final int secondDigit) {
+            if (firstDigit < 0) {
+                return NO_COLOR;
+            }
+            final int colorValue = secondDigit >= 0 ? firstDigit * 10 + secondDigit : firstDigit;
+            return colorValue < COLORS.length ? colorValue : NO_COLOR;
+        }
+
+        private static int digitValue(final String line, final int pos) {
+            if (pos >= line.length()) {
+                return -1;
+            }
+            final char c = line.charAt(pos);
+            return c >= '0' && c <= '9' ? c - '0' : -1;
+        }
+    }
+}
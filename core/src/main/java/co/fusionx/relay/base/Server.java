@@ -0,0 +1,59 @@
+package co.fusionx.relay.base;
+
+import java.util.Collection;
+
+import co.fusionx.relay.dcc.DCCManager;
+import co.fusionx.relay.event.Event;
+import co.fusionx.relay.event.server.ServerEvent;
+import co.fusionx.relay.misc.EventBus;
+import co.fusionx.relay.misc.EventFilter;
+import co.fusionx.relay.misc.EventHandler;
+import co.fusionx.relay.misc.ServerSupport;
+import co.fusionx.relay.sender.ServerSender;
+
+public interface Server extends Conversation<ServerEvent>, ServerSender {
+
+    public Collection<? extends ChannelUser> getUsers();
+
+    public UserChannelInterface getUserChannelInterface();
+
+    public DCCManager getDCCManager();
+
+    public ChannelUser getUser();
+
+    public String getTitle();
+
+    public ConnectionStatus getStatus();
+
+    public EventBus<Event> getServerWideBus();
+
+    /**
+     * Subscribes to the events of every conversation of this server which match the filter
+     *
+     * Unlike the server wide bus, subscriptions are indexed by the class and conversation of
+     * their filters so an event only reaches the subscriptions which are interested in it.
+     *
+     * @param filter  the events to deliver to the handler
+     * @param handler the handler - called on the thread which delivers the events of the
+     *                conversation
+     */
+    public <E extends Event> void subscribe(final EventFilter<E> filter,
+            final EventHandler<? super E> handler);
+
+    /**
+     * Removes every subscription made with the handler
+     *
+     * @param handler the handler which was subscribed
+     */
+    public void unsubscribe(final EventHandler<?> handler);
+
+    public ServerConfiguration getConfiguration();
+
+    /**
+     * Returns the features the server has advertised so far - this starts with the defaults
+     * from the RFCs and is replaced as ISUPPORT replies are received
+     *
+     * @return the current ISUPPORT model of the server
+     */
+    public ServerSupport getServerSupport();
+}
@@ -1,27 +1,19 @@
 package co.fusionx.relay.base;
 
-import android.os.Parcel;
-import android.os.Parcelable;
-import android.text.TextUtils;
-
 import java.util.ArrayList;
 import java.util.List;
 
+import co.fusionx.relay.constants.EventOverflowPolicy;
 import co.fusionx.relay.misc.NickStorage;
 import co.fusionx.relay.util.Utils;
 
-public class ServerConfiguration implements Parcelable {
-
-    public static final Parcelable.Creator<ServerConfiguration> CREATOR =
-            new Parcelable.Creator<ServerConfiguration>() {
-                public ServerConfiguration createFromParcel(Parcel in) {
-                    return new ServerConfiguration(in);
-                }
-
-                public ServerConfiguration[] newArray(int size) {
-                    return new ServerConfiguration[size];
-                }
-            };
+/**
+ * The settings used to connect to a single server
+ *
+ * This is plain Java - on Android it can be put into a Parcel by wrapping it in a
+ * ParcelableServerConfiguration from the relay-library module.
+ */
+public class ServerConfiguration {
 
     /**
      * The informal name of the server that is being connected to
@@ -100,30 +92,54 @@ public class ServerConfiguration implements Parcelable {
      */
     private final List<String> mAutoJoinChannels;
 
-    private ServerConfiguration(final Parcel in) {
-        mTitle = in.readString();
-        mUrl = in.readString();
-        mPort = in.readInt();
+    /**
+     * The maximum number of events kept in the buffer of each conversation - zero or less means
+     * no limit
+     */
+    private final int mBufferEventLimit;
 
-        mSsl = in.readInt() == 1;
-        mSslAcceptAllCertificates = in.readInt() == 1;
+    /**
+     * The maximum estimated size in bytes of the events kept in the buffer of each conversation -
+     * zero or less means no limit
+     */
+    private final long mBufferByteLimit;
 
-        mNickStorage = in.readParcelable(NickStorage.class.getClassLoader());
-        mRealName = in.readString();
-        mNickChangeable = in.readInt() == 1;
+    /**
+     * The number of lines which can be sent at once before flood control starts delaying lines
+     */
+    private final int mFloodBurst;
 
-        mServerUserName = in.readString();
-        mServerPassword = in.readString();
-        mClientAuthenticationKeyPath = in.readString();
+    /**
+     * The time in milliseconds between lines once the flood burst is used up - zero or less
+     * disables flood control
+     */
+    private final long mFloodInterval;
 
-        mSaslUsername = in.readString();
-        mSaslPassword = in.readString();
+    /**
+     * The words which highlight a message in addition to the nick of the user
+     */
+    private final List<String> mHighlightWords;
 
-        mNickservPassword = in.readString();
+    /**
+     * The regular expressions which highlight a message when they are found in it
+     */
+    private final List<String> mHighlightPatterns;
 
-        mAutoJoinChannels = new ArrayList<>();
-        in.readStringList(mAutoJoinChannels);
-    }
+    /**
+     * The name of the charset used to decode lines from the server which are not valid UTF-8
+     */
+    private final String mFallbackCharset;
+
+    /**
+     * The number of events which can wait to be delivered to the subscribers of each
+     * conversation - zero or less delivers events on the thread which reads from the server
+     */
+    private final int mEventQueueCapacity;
+
+    /**
+     * What happens when an event is posted to a conversation whose queue is full
+     */
+    private final EventOverflowPolicy mEventOverflowPolicy;
 
     private ServerConfiguration(final Builder builder) {
         mTitle = builder.getTitle();
@@ -147,39 +163,25 @@ public class ServerConfiguration implements Parcelable {
         mNickservPassword = builder.getNickservPassword();
 
         mAutoJoinChannels = builder.getAutoJoinChannels();
-    }
 
-    public int describeContents() {
-        return 0;
-    }
+        mBufferEventLimit = builder.getBufferEventLimit();
+        mBufferByteLimit = builder.getBufferByteLimit();
 
-    // Helper methods
-    public boolean shouldSendSasl() {
-        return Utils.isNotEmpty(mSaslUsername) && Utils.isNotEmpty(mSaslPassword);
-    }
-
-    public void writeToParcel(final Parcel out, final int flags) {
-        out.writeString(mTitle);
-        out.writeString(mUrl);
-        out.writeInt(mPort);
-
-        out.writeInt(mSsl ? 1 : 0);
-        out.writeInt(mSslAcceptAllCertificates ? 1 : 0);
+        mFloodBurst = builder.getFloodBurst();
+        mFloodInterval = builder.getFloodInterval();
 
-        out.writeParcelable(mNickStorage, 0);
-        out.writeString(mRealName);
-        out.writeInt(mNickChangeable ? 1 : 0);
+        mHighlightWords = builder.getHighlightWords();
+        mHighlightPatterns = builder.getHighlightPatterns();
 
-        out.writeString(mServerUserName);
-        out.writeString(mServerPassword);
-        out.writeString(mClientAuthenticationKeyPath);
+        mFallbackCharset = builder.getFallbackCharset();
 
-        out.writeString(mSaslUsername);
-        out.writeString(mSaslPassword);
-
-        out.writeString(mNickservPassword);
+        mEventQueueCapacity = builder.getEventQueueCapacity();
+        mEventOverflowPolicy = builder.getEventOverflowPolicy();
+    }
 
-        out.writeStringList(mAutoJoinChannels);
+    // Helper methods
+    public boolean shouldSendSasl() {
+        return Utils.isNotEmpty(mSaslUsername) && Utils.isNotEmpty(mSaslPassword);
     }
 
     @Override
@@ -257,24 +259,75 @@ public class ServerConfiguration implements Parcelable {
         return mAutoJoinChannels;
     }
 
-    public static class Builder implements Parcelable {
+    public int getBufferEventLimit() {
+        return mBufferEventLimit;
+    }
+
+    public long getBufferByteLimit() {
+        return mBufferByteLimit;
+    }
+
+    public int getFloodBurst() {
+        return mFloodBurst;
+    }
+
+    public long getFloodInterval() {
+        return mFloodInterval;
+    }
+
+    public List<String> getHighlightWords() {
+        return mHighlightWords;
+    }
+
+    public List<String> getHighlightPatterns() {
+        return mHighlightPatterns;
+    }
+
+    public String getFallbackCharset() {
+        return mFallbackCharset;
+    }
+
+    public int getEventQueueCapacity() {
+        return mEventQueueCapacity;
+    }
+
+    public EventOverflowPolicy getEventOverflowPolicy() {
+        return mEventOverflowPolicy;
+    }
+
+    public static class Builder {
+
+        /**
+         * Matches the limits most servers apply before disconnecting for excess flood once an
+         * interval of around two seconds is set
+         */
+        private static final int DEFAULT_FLOOD_BURST = 5;
 
-        public static final Parcelable.Creator<Builder> CREATOR =
-                new Parcelable.Creator<Builder>() {
-                    public Builder createFromParcel(final Parcel in) {
-                        return new Builder(in);
-                    }
+        /**
+         * Flood control is off unless asked for as it holds lines back
+         */
+        private static final long DEFAULT_FLOOD_INTERVAL = 0;
 
-                    public Builder[] newArray(final int size) {
-                        return new Builder[size];
-                    }
-                };
+        /**
+         * Older networks commonly send Latin-1 - it can also decode any sequence of bytes
+         */
+        private static final String DEFAULT_FALLBACK_CHARSET = "ISO-8859-1";
 
         /**
          * The list of all the channels that will be joined when connected to the server
          */
         private final List<String> mAutoJoinChannels;
 
+        /**
+         * The words which highlight a message in addition to the nick of the user
+         */
+        private final List<String> mHighlightWords;
+
+        /**
+         * The regular expressions which highlight a message when they are found in it
+         */
+        private final List<String> mHighlightPatterns;
+
         /**
          * An integer identifier for this server - not used by the library but useful for storing
          * Builders in a database
@@ -354,6 +407,46 @@ public class ServerConfiguration implements Parcelable {
          */
         private String mNickservPassword;
 
+        /**
+         * The maximum number of events kept in the buffer of each conversation - zero or less
+         * means no limit
+         */
+        private int mBufferEventLimit;
+
+        /**
+         * The maximum estimated size in bytes of the events kept in the buffer of each
+         * conversation - zero or less means no limit
+         */
+        private long mBufferByteLimit;
+
+        /**
+         * The number of lines which can be sent at once before flood control starts delaying
+         * lines
+         */
+        private int mFloodBurst;
+
+        /**
+         * The time in milliseconds between lines once the flood burst is used up - zero or less
+         * disables flood control
+         */
+        private long mFloodInterval;
+
+        /**
+         * The name of the charset used to decode lines from the server which are not valid UTF-8
+         */
+        private String mFallbackCharset;
+
+        /**
+         * The number of events which can wait to be delivered to the subscribers of each
+         * conversation - zero or less delivers events on the thread which reads from the server
+         */
+        private int mEventQueueCapacity;
+
+        /**
+         * What happens when an event is posted to a conversation whose queue is full
+         */
+        private EventOverflowPolicy mEventOverflowPolicy;
+
         public Builder() {
             mId = -1;
 
@@ -378,48 +471,31 @@ public class ServerConfiguration implements Parcelable {
             mNickservPassword = "";
 
             mAutoJoinChannels = new ArrayList<>();
-        }
-
-        private Builder(final Parcel in) {
-            mId = in.readInt();
 
-            mTitle = in.readString();
-            mUrl = in.readString();
-            mPort = in.readInt();
+            mBufferEventLimit = 0;
+            mBufferByteLimit = 0;
 
-            mSsl = in.readInt() == 1;
-            mSslAcceptAllCertificates = in.readInt() == 1;
+            mFloodBurst = DEFAULT_FLOOD_BURST;
+            mFloodInterval = DEFAULT_FLOOD_INTERVAL;
 
-            mNickStorage = in.readParcelable(NickStorage.class.getClassLoader());
-            mRealName = in.readString();
-            mNickChangeable = in.readInt() == 1;
+            mHighlightWords = new ArrayList<>();
+            mHighlightPatterns = new ArrayList<>();
 
-            mServerUserName = in.readString();
-            mServerPassword = in.readString();
-            mClientAuthenticationKeyPath = in.readString();
+            mFallbackCharset = DEFAULT_FALLBACK_CHARSET;
 
-            mSaslUsername = in.readString();
-            mSaslPassword = in.readString();
-
-            mNickservPassword = in.readString();
-
-            mAutoJoinChannels = new ArrayList<>();
-            in.readStringList(mAutoJoinChannels);
+            mEventQueueCapacity = 0;
+            mEventOverflowPolicy = EventOverflowPolicy.DROP_OLDEST;
         }
 
         public ServerConfiguration build() {
-            if (TextUtils.isEmpty(mTitle)) {
+            if (Utils.isEmpty(mTitle)) {
                 throw new IllegalArgumentException("The server title cannot be empty");
-            } else if (TextUtils.isEmpty(mUrl)) {
+            } else if (Utils.isEmpty(mUrl)) {
                 throw new IllegalArgumentException("The server URL cannot be empty");
             }
             return new ServerConfiguration(this);
         }
 
-        public int describeContents() {
-            return 0;
-        }
-
         // Getters and setters
         public int getId() {
             return mId;
@@ -429,32 +505,6 @@ public class ServerConfiguration implements Parcelable {
             mId = id;
         }
 
-        public void writeToParcel(Parcel out, int flags) {
-            out.writeInt(mId);
-
-            out.writeString(mTitle);
-            out.writeString(mUrl);
-            out.writeInt(mPort);
-
-            out.writeInt(mSsl ? 1 : 0);
-            out.writeInt(mSslAcceptAllCertificates ? 1 : 0);
-
-            out.writeParcelable(mNickStorage, 0);
-            out.writeString(mRealName);
-            out.writeInt(mNickChangeable ? 1 : 0);
-
-            out.writeString(mServerUserName);
-            out.writeString(mServerPassword);
-            out.writeString(mClientAuthenticationKeyPath);
-
-            out.writeString(mSaslUsername);
-            out.writeString(mSaslPassword);
-
-            out.writeString(mNickservPassword);
-
-            out.writeStringList(mAutoJoinChannels);
-        }
-
         public String getTitle() {
             return mTitle;
         }
@@ -603,5 +653,93 @@ public class ServerConfiguration implements Parcelable {
             mAutoJoinChannels.add(channelName);
             return this;
         }
+
+        public int getBufferEventLimit() {
+            return mBufferEventLimit;
+        }
+
+        /**
+         * Sets the maximum number of events kept in the buffer of each conversation - the
+         * default of zero keeps every event as before so capping the buffer is opt-in
+         *
+         * @param bufferEventLimit the maximum number of events or zero for no limit
+         * @return this builder
+         */
+        public Builder setBufferEventLimit(final int bufferEventLimit) {
+            mBufferEventLimit = bufferEventLimit;
+            return this;
+        }
+
+        public long getBufferByteLimit() {
+            return mBufferByteLimit;
+        }
+
+        public Builder setBufferByteLimit(final long bufferByteLimit) {
+            mBufferByteLimit = bufferByteLimit;
+            return this;
+        }
+
+        public int getFloodBurst() {
+            return mFloodBurst;
+        }
+
+        public Builder setFloodBurst(final int floodBurst) {
+            mFloodBurst = floodBurst;
+            return this;
+        }
+
+        public long getFloodInterval() {
+            return mFloodInterval;
+        }
+
+        public Builder setFloodInterval(final long floodInterval) {
+            mFloodInterval = floodInterval;
+            return this;
+        }
+
+        public List<String> getHighlightWords() {
+            return mHighlightWords;
+        }
+
+        public Builder addHighlightWord(final String word) {
+            mHighlightWords.add(word);
+            return this;
+        }
+
+        public List<String> getHighlightPatterns() {
+            return mHighlightPatterns;
+        }
+
+        public Builder addHighlightPattern(final String pattern) {
+            mHighlightPatterns.add(pattern);
+            return this;
+        }
+
+        public String getFallbackCharset() {
+            return mFallbackCharset;
+        }
+
+        public Builder setFallbackCharset(final String fallbackCharset) {
+            mFallbackCharset = fallbackCharset;
+            return this;
+        }
+
+        public int getEventQueueCapacity() {
+            return mEventQueueCapacity;
+        }
+
+        public Builder setEventQueueCapacity(final int eventQueueCapacity) {
+            mEventQueueCapacity = eventQueueCapacity;
+            return this;
+        }
+
+        public EventOverflowPolicy getEventOverflowPolicy() {
+            return mEventOverflowPolicy;
+        }
+
+        public Builder setEventOverflowPolicy(final EventOverflowPolicy eventOverflowPolicy) {
+            mEventOverflowPolicy = eventOverflowPolicy;
+            return this;
+        }
     }
 }
\ No newline at end of file
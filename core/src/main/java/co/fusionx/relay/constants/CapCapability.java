@@ -2,10 +2,14 @@ package co.fusionx.relay.constants;
 
 public enum CapCapability {
     ACCOUNTNOTIFY("account-notify"),
+    ACCOUNTTAG("account-tag"),
     AWAYNOTIFY("away-notify"),
+    BATCH("batch"),
     EXTENDEDJOIN("extended-join"),
+    MESSAGETAGS("message-tags"),
     MULTIPREFIX("multi-prefix"),
-    SASL("sasl");
+    SASL("sasl"),
+    SERVERTIME("server-time");
 
     private final String mCapability;
 
@@ -0,0 +1,73 @@
+package co.fusionx.relay.constants;
+
+/**
+ * The rules the server uses to decide whether two nicks or channel names are equal
+ *
+ * RFC1459 considers the characters {}|^ to be the lower case forms of []\~ - this is the
+ * default as long as the server does not advertise otherwise.
+ */
+public enum CaseMapping {
+    ASCII('Z'),
+    STRICT_RFC1459(']'),
+    RFC1459('^');
+
+    // The last character which has a different lower case form
+    private final char mUpperBound;
+
+    private CaseMapping(final char upperBound) {
+        mUpperBound = upperBound;
+    }
+
+    public static CaseMapping getCaseMapping(final String name) {
+        if ("ascii".equalsIgnoreCase(name)) {
+            return ASCII;
+        } else if ("strict-rfc1459".equalsIgnoreCase(name)) {
+            return STRICT_RFC1459;
+        }
+        return RFC1459;
+    }
+
+    /**
+     * Converts the string into the form used to compare names under this mapping
+     *
+     * @param name the nick or channel name to convert
+     * @return the folded name - this is the same instance if nothing had to be changed
+     */
+    public String toLowerCase(final String name) {
+        final int length = name.length();
+        int i = 0;
+        while (i < length && toLowerCase(name.charAt(i)) == name.charAt(i)) {
+            i++;
+        }
+        if (i == length) {
+            return name;
+        }
+
+        final char[] chars = name.toCharArray();
+        for (; i < length; i++) {
+            chars[i] = toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    public char toLowerCase(final char c) {
+        if (c >= 'A' && c <= mUpperBound) {
+            // The four extra characters are exactly 32 apart from their lower case forms just
+            // like the letters are
+            return (char) (c + 32);
+        }
+        return c;
+    }
+
+    public boolean equals(final String first, final String second) {
+        if (first.length() != second.length()) {
+            return false;
+        }
+        for (int i = 0; i < first.length(); i++) {
+            if (toLowerCase(first.charAt(i)) != toLowerCase(second.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+package co.fusionx.relay.constants;
+
+/**
+ * What happens when an event is posted to a conversation whose dispatch queue is full
+ *
+ * Events are always added to the buffer of the conversation before they are queued so an
+ * event which is dropped is only missed by the subscribers - it can still be read from the
+ * buffer.
+ */
+public enum EventOverflowPolicy {
+    /**
+     * The reading thread waits until the subscribers have caught up - when the connection is
+     * read on an event loop the loop is never made to wait and the oldest event is dropped
+     * instead
+     */
+    BLOCK,
+
+    /**
+     * The oldest event which has not been delivered is dropped - this is the default
+     */
+    DROP_OLDEST,
+
+    /**
+     * An older event of the same class which has not been delivered is dropped - only the
+     * latest event of each class is delivered while the subscribers are behind. If no event of
+     * the same class is queued the oldest event is dropped instead
+     */
+    COALESCE
+}
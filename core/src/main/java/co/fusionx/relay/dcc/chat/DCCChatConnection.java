@@ -1,8 +1,5 @@
 package co.fusionx.relay.dcc.chat;
 
-import android.util.Pair;
-
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.net.Socket;
@@ -14,6 +11,8 @@ import co.fusionx.relay.dcc.event.chat.DCCChatStartedEvent;
 import co.fusionx.relay.dcc.event.chat.DCCChatWorldMessageEvent;
 import co.fusionx.relay.dcc.pending.DCCPendingConnection;
 import co.fusionx.relay.internal.parser.main.command.CTCPParser;
+import co.fusionx.relay.internal.transport.LineReader;
+import co.fusionx.relay.misc.Pair;
 import co.fusionx.relay.util.SocketUtils;
 import co.fusionx.relay.util.Utils;
 
@@ -23,7 +22,7 @@ class DCCChatConnection extends DCCConnection {
 
     private final DCCChatConversation mConversation;
 
-    protected BufferedReader mBufferedReader;
+    protected LineReader mLineReader;
 
     protected BufferedWriter mBufferedWriter;
 
@@ -42,7 +41,8 @@ class DCCChatConnection extends DCCConnection {
         try {
             mSocket = new Socket(mPendingConversation.getIP(), mPendingConversation.getPort());
 
-            mBufferedReader = SocketUtils.getSocketBufferedReader(mSocket);
+            mLineReader = SocketUtils.getSocketLineReader(mSocket,
+                    mConversation.getServer().getConfiguration());
             mBufferedWriter = SocketUtils.getSocketBufferedWriter(mSocket);
 
             startParsing();
@@ -55,8 +55,8 @@ class DCCChatConnection extends DCCConnection {
     public void stopConnection() throws IOException {
         super.stopConnection();
 
-        if (mBufferedReader != null) {
-            mBufferedReader.close();
+        if (mLineReader != null) {
+            mLineReader.close();
         }
         if (mBufferedWriter != null) {
             mBufferedWriter.close();
@@ -65,7 +65,7 @@ class DCCChatConnection extends DCCConnection {
 
     private void startParsing() throws IOException {
         String line;
-        while ((line = mBufferedReader.readLine()) != null) {
+        while ((line = mLineReader.readLine()) != null) {
             parseLine(line);
         }
     }
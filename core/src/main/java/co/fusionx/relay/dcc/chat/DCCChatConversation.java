@@ -1,40 +1,42 @@
 package co.fusionx.relay.dcc.chat;
 
-import android.os.Handler;
-import android.os.HandlerThread;
-import android.util.Pair;
-
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import co.fusionx.relay.base.FormatSpanInfo;
 import co.fusionx.relay.internal.base.RelayAbstractConversation;
 import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.dcc.RelayDCCManager;
 import co.fusionx.relay.dcc.event.chat.DCCChatEvent;
 import co.fusionx.relay.dcc.event.chat.DCCChatSelfActionEvent;
 import co.fusionx.relay.dcc.event.chat.DCCChatSelfMessageEvent;
 import co.fusionx.relay.dcc.pending.DCCPendingConnection;
+import co.fusionx.relay.misc.Pair;
 import co.fusionx.relay.misc.RelayConfigurationProvider;
 import co.fusionx.relay.util.Utils;
 
 public class DCCChatConversation extends RelayAbstractConversation<DCCChatEvent> {
 
-    private final Handler mCallHandler;
+    private final ExecutorService mCallExecutor;
 
     private final DCCChatConnection mDCCChatConnection;
 
     private final DCCPendingConnection mPendingConnection;
 
+    private final RelayDCCManager mDCCManager;
+
     public DCCChatConversation(final RelayServer server,
             final DCCPendingConnection pendingConnection) {
         super(server);
 
         mPendingConnection = pendingConnection;
+        mDCCManager = server.getDCCManager();
 
         mDCCChatConnection = new DCCChatConnection(mPendingConnection, this);
 
-        final HandlerThread handlerThread = new HandlerThread("dccConnection");
-        handlerThread.start();
-        mCallHandler = new Handler(handlerThread.getLooper());
+        mCallExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "dccConnection"));
     }
 
     public void startChat() {
@@ -42,7 +44,7 @@ public class DCCChatConversation extends RelayAbstractConversation<DCCChatEvent>
     }
 
     public void sendMessage(final String message) {
-        mCallHandler.post(() -> mDCCChatConnection.writeLine(message));
+        mCallExecutor.execute(() -> mDCCChatConnection.writeLine(message));
 
         if (RelayConfigurationProvider.getPreferences().isSelfEventHidden()) {
             return;
@@ -55,7 +57,7 @@ public class DCCChatConversation extends RelayAbstractConversation<DCCChatEvent>
 
     public void sendAction(final String action) {
         final String line = String.format("\u0001ACTION %1$s\u0001", action);
-        mCallHandler.post(() -> mDCCChatConnection.writeLine(line));
+        mCallExecutor.execute(() -> mDCCChatConnection.writeLine(line));
 
         if (RelayConfigurationProvider.getPreferences().isSelfEventHidden()) {
             return;
@@ -67,7 +69,19 @@ public class DCCChatConversation extends RelayAbstractConversation<DCCChatEvent>
     }
 
     public void closeChat() {
+        if (!isValid()) {
+            return;
+        }
+        mCallExecutor.shutdown();
+        try {
+            mDCCChatConnection.stopConnection();
+        } catch (final IOException e) {
+            e.printStackTrace();
+        }
 
+        // Stops the buffer counting towards the global budget
+        markInvalid();
+        mDCCManager.onConversationClosed(this);
     }
 
     // Conversation interface
@@ -3,6 +3,7 @@ package co.fusionx.relay.dcc.file;
 import com.google.common.collect.ImmutableList;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -12,6 +13,7 @@ import co.fusionx.relay.dcc.event.file.DCCFileGetStartedEvent;
 import co.fusionx.relay.dcc.pending.DCCPendingSendConnection;
 import co.fusionx.relay.internal.base.RelayAbstractConversation;
 import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.dcc.RelayDCCManager;
 import co.fusionx.relay.internal.sender.BaseSender;
 
 public class DCCFileConversation extends RelayAbstractConversation<DCCFileEvent> {
@@ -22,12 +24,15 @@ public class DCCFileConversation extends RelayAbstractConversation<DCCFileEvent>
 
     private final Map<String, DCCFileConnection> mConnectionList;
 
+    private final RelayDCCManager mDCCManager;
+
     public DCCFileConversation(final RelayServer server, final BaseSender baseSender,
             final String nick) {
         super(server);
 
         mBaseSender = baseSender;
         mNick = nick;
+        mDCCManager = server.getDCCManager();
 
         mConnectionList = new HashMap<>();
     }
@@ -49,6 +54,24 @@ public class DCCFileConversation extends RelayAbstractConversation<DCCFileEvent>
         return ImmutableList.copyOf(mConnectionList.values());
     }
 
+    public void close() {
+        if (!isValid()) {
+            return;
+        }
+        for (final DCCFileConnection connection : mConnectionList.values()) {
+            try {
+                connection.stopConnection();
+            } catch (final IOException e) {
+                e.printStackTrace();
+            }
+        }
+        mConnectionList.clear();
+
+        // Stops the buffer counting towards the global budget
+        markInvalid();
+        mDCCManager.onConversationClosed(this);
+    }
+
     // Conversation interface
     @Override
     public String getId() {
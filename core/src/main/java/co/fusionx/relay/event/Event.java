@@ -0,0 +1,62 @@
+package co.fusionx.relay.event;
+
+import java.util.List;
+
+import co.fusionx.relay.base.FormatSpanInfo;
+import co.fusionx.relay.misc.MessageTags;
+
+public class Event {
+
+    // Rough heap cost of the event object itself
+    private static final int BASE_SIZE = 24;
+
+    // Rough heap cost of a string object without its characters
+    private static final int STRING_SIZE = 40;
+
+    // Rough heap cost of a single format span
+    private static final int FORMAT_SIZE = 32;
+
+    // Rough heap cost of a reference to an object which is not owned by the event
+    private static final int REFERENCE_SIZE = 8;
+
+    /**
+     * The time the event occurred in milliseconds since the epoch
+     */
+    public final long timestamp;
+
+    public Event() {
+        timestamp = EventClock.currentTimeMillis();
+    }
+
+    /**
+     * Returns a rough estimate of the memory used by this event - used to decide when events
+     * should be evicted from the buffer of a conversation
+     *
+     * @return the estimated size of the event in bytes
+     */
+    public int getEstimatedSize() {
+        return BASE_SIZE;
+    }
+
+    protected static int estimateSize(final String text) {
+        return text == null ? 0 : STRING_SIZE + 2 * text.length();
+    }
+
+    protected static int estimateSize(final String text, final List<FormatSpanInfo> formats) {
+        return estimateSize(text) + (formats == null ? 0 : FORMAT_SIZE * formats.size());
+    }
+
+    // The raw message is never shorter than the message without formatting so it is used
+    // rather than removing the formatting just to estimate the size
+    protected static int estimateSize(final MessageBody body) {
+        return estimateSize(body.getRawMessage()) + FORMAT_SIZE * body.getParsedSpanCount();
+    }
+
+    protected static int estimateReferencesSize(final List<?> references) {
+        return references == null ? 0 : REFERENCE_SIZE * references.size();
+    }
+
+    protected static int estimateSize(final MessageTags tags) {
+        return tags.isEmpty() ? 0 : estimateSize(tags.getRawTags());
+    }
+}
\ No newline at end of file
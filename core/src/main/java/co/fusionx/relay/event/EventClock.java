@@ -0,0 +1,46 @@
+package co.fusionx.relay.event;
+
+/**
+ * The source of the timestamps of events
+ *
+ * Events normally take the current wall clock time when they are created. Code which recreates
+ * events which occurred in the past (for example when loading them from disk) can override the
+ * time for the current thread so that the events created by that thread take the original time
+ * instead.
+ */
+public final class EventClock {
+
+    private static final ThreadLocal<long[]> sOverride = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[]{Long.MIN_VALUE};
+        }
+    };
+
+    private EventClock() {
+    }
+
+    /**
+     * Returns the time which events created by this thread should take
+     *
+     * @return the time in milliseconds since the epoch
+     */
+    public static long currentTimeMillis() {
+        final long override = sOverride.get()[0];
+        return override == Long.MIN_VALUE ? System.currentTimeMillis() : override;
+    }
+
+    /**
+     * Makes all events created by this thread take the given time until
+     * {@link #clearOverride()} is called
+     *
+     * @param timestamp the time in milliseconds since the epoch
+     */
+    public static void setOverride(final long timestamp) {
+        sOverride.get()[0] = timestamp;
+    }
+
+    public static void clearOverride() {
+        sOverride.get()[0] = Long.MIN_VALUE;
+    }
+}
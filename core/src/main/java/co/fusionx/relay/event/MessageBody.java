@@ -0,0 +1,154 @@
+package co.fusionx.relay.event;
+
+import java.util.Collections;
+import java.util.List;
+
+import co.fusionx.relay.base.FormatSpanInfo;
+import co.fusionx.relay.base.FormattedText;
+import co.fusionx.relay.internal.parser.main.HighlightMatcher;
+
+/**
+ * The text of a message kept exactly as it was received - the text without formatting, the
+ * formats and the mention of the user are only worked out the first time they are asked for
+ *
+ * Most events are only ever stored in the buffer of a conversation so the reader thread does
+ * no more than keep a reference to the raw text. Every value is cached once it has been worked
+ * out. The values are immutable so two threads racing to work out the same value is harmless -
+ * both get equal results and one of them is kept.
+ */
+public final class MessageBody {
+
+    // Cached when the message has been searched and nothing mentioned the user - null means
+    // that the message has not been searched yet
+    private static final String NO_MENTION = new String();
+
+    private final String mRawMessage;
+
+    // Null if the message can not mention the user - e.g. when the user sent it
+    private final HighlightMatcher mMatcher;
+
+    // Set when the formatting was removed before the body was created - kept apart from the
+    // cached values so that it is safely published along with the body
+    private final FormattedText mParsedText;
+
+    private final String mParsedMentionKeyword;
+
+    private FormattedText mFormattedText;
+
+    private List<FormatSpanInfo> mFormats;
+
+    private String mMentionKeyword;
+
+    public MessageBody(final String rawMessage) {
+        this(rawMessage, null);
+    }
+
+    /**
+     * @param rawMessage the message as it was received with any formatting codes
+     * @param matcher    the matcher used to find mentions of the user or null if the message
+     *                   can not mention the user
+     */
+    public MessageBody(final String rawMessage, final HighlightMatcher matcher) {
+        mRawMessage = rawMessage;
+        mMatcher = matcher;
+        mParsedText = null;
+        mParsedMentionKeyword = null;
+    }
+
+    private MessageBody(final FormattedText formattedText, final String mentionKeyword) {
+        mRawMessage = formattedText.getText();
+        mMatcher = null;
+        mParsedText = formattedText;
+        mParsedMentionKeyword = mentionKeyword == null ? NO_MENTION : mentionKeyword;
+    }
+
+    /**
+     * Creates a body for a message which had its formatting removed when it was received
+     *
+     * @param message        the message without formatting
+     * @param formats        the formats of the message - this can be null if there are none
+     * @param mentionKeyword the keyword which mentioned the user or null if there is none
+     * @return a body with every value already worked out
+     */
+    public static MessageBody ofParsed(final String message, final List<FormatSpanInfo> formats,
+            final String mentionKeyword) {
+        return new MessageBody(FormattedText.of(message, formats), mentionKeyword);
+    }
+
+    public String getRawMessage() {
+        return mRawMessage;
+    }
+
+    public FormattedText getFormattedText() {
+        if (mParsedText != null) {
+            return mParsedText;
+        }
+        FormattedText formattedText = mFormattedText;
+        if (formattedText == null) {
+            formattedText = FormattedText.parse(mRawMessage);
+            mFormattedText = formattedText;
+        }
+        return formattedText;
+    }
+
+    /**
+     * @return the message without any formatting codes
+     */
+    public String getMessage() {
+        return getFormattedText().getText();
+    }
+
+    /**
+     * @return the formats of the message - this is empty if the message has no formatting
+     */
+    public List<FormatSpanInfo> getFormats() {
+        List<FormatSpanInfo> formats = mFormats;
+        if (formats == null) {
+            formats = Collections.unmodifiableList(getFormattedText().getFormats());
+            mFormats = formats;
+        }
+        return formats;
+    }
+
+    /**
+     * Returns the highlight word or pattern which mentioned the user
+     *
+     * @return the keyword or null if the message does not mention the user
+     */
+    public String getMentionKeyword() {
+        String keyword = mParsedMentionKeyword != null
+                ? mParsedMentionKeyword
+                : mMentionKeyword;
+        if (keyword == null) {
+            keyword = mMatcher == null ? null : mMatcher.match(getMessage());
+            if (keyword == null) {
+                keyword = NO_MENTION;
+            }
+            mMentionKeyword = keyword;
+        }
+        return keyword == NO_MENTION ? null : keyword;
+    }
+
+    public boolean isMentioned() {
+        return getMentionKeyword() != null;
+    }
+
+    /**
+     * @return whether the formatting of the message has been removed yet
+     */
+    public boolean isParsed() {
+        return mParsedText != null || mFormattedText != null;
+    }
+
+    // The number of spans if the formatting has already been removed and 0 otherwise - used to
+    // estimate the size of the body without removing the formatting
+    int getParsedSpanCount() {
+        final FormattedText formattedText = mParsedText != null ? mParsedText : mFormattedText;
+        return formattedText == null ? 0 : formattedText.getSpanCount();
+    }
+
+    @Override
+    public String toString() {
+        return mRawMessage;
+    }
+}
@@ -21,4 +21,9 @@ public class ChannelMessageEvent extends ChannelEvent {
         this.formats = formats;
         this.user = user;
     }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(message, formats);
+    }
 }
\ No newline at end of file
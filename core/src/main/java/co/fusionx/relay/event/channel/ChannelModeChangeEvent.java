@@ -0,0 +1,82 @@
+package co.fusionx.relay.event.channel;
+
+import com.google.common.base.Optional;
+
+import java.util.List;
+
+import co.fusionx.relay.base.Channel;
+import co.fusionx.relay.base.ChannelUser;
+import co.fusionx.relay.constants.UserLevel;
+
+/**
+ * Posted once for every MODE line sent to a channel no matter how many modes it changes
+ *
+ * The levels of the users named by the line have already been updated. The users, their old
+ * levels and their new levels are kept in lists of the same size rather than in an object for
+ * every user - a user appears in the lists only once even if several modes named them.
+ *
+ * This replaces the separate level change and mode events which were posted for each mode.
+ */
+public class ChannelModeChangeEvent extends ChannelEvent {
+
+    public final Optional<? extends ChannelUser> sendingUser;
+
+    public final String sendingNick;
+
+    /**
+     * The modes exactly as they were sent - e.g. "+ooo-v"
+     */
+    public final String modes;
+
+    /**
+     * The parameters of the modes in the order they were sent
+     */
+    public final List<String> parameters;
+
+    public final List<? extends ChannelUser> users;
+
+    public final List<UserLevel> oldLevels;
+
+    public final List<UserLevel> newLevels;
+
+    public ChannelModeChangeEvent(final Channel channel,
+            final Optional<? extends ChannelUser> sendingUser, final String sendingNick,
+            final String modes, final List<String> parameters,
+            final List<? extends ChannelUser> users, final List<UserLevel> oldLevels,
+            final List<UserLevel> newLevels) {
+        super(channel);
+
+        this.sendingUser = sendingUser;
+        this.sendingNick = sendingNick;
+        this.modes = modes;
+        this.parameters = parameters;
+        this.users = users;
+        this.oldLevels = oldLevels;
+        this.newLevels = newLevels;
+    }
+
+    /**
+     * Returns whether the level of any user was changed - the user list of the channel is
+     * sorted by level so it needs to be redrawn
+     *
+     * @return true if the line changed the level of at least one user
+     */
+    public boolean isUserListChangeEvent() {
+        for (int i = 0; i < users.size(); i++) {
+            if (oldLevels.get(i) != newLevels.get(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        int size = super.getEstimatedSize() + estimateSize(sendingNick) + estimateSize(modes);
+        for (final String parameter : parameters) {
+            size += estimateSize(parameter);
+        }
+        return size + estimateReferencesSize(users) + estimateReferencesSize(oldLevels)
+                + estimateReferencesSize(newLevels);
+    }
+}
@@ -5,6 +5,13 @@ import com.google.common.base.Optional;
 import co.fusionx.relay.base.Channel;
 import co.fusionx.relay.base.ChannelUser;
 
+/**
+ * Was posted for every mode in a MODE line sent to a channel
+ *
+ * @deprecated no longer posted - {@link ChannelModeChangeEvent} is posted once for the whole
+ * line instead. This class will be removed in a later release.
+ */
+@Deprecated
 public class ChannelModeEvent extends ChannelEvent {
 
     public final String recipient;
@@ -25,4 +32,4 @@ public class ChannelModeEvent extends ChannelEvent {
         this.sendingNick = sendingNick;
         this.mode = mode;
     }
-}
\ No newline at end of file
+}
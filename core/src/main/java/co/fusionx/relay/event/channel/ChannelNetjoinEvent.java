@@ -0,0 +1,50 @@
+package co.fusionx.relay.event.channel;
+
+import java.util.Collections;
+import java.util.List;
+
+import co.fusionx.relay.base.Channel;
+import co.fusionx.relay.base.ChannelUser;
+
+/**
+ * Posted once for every channel affected when split servers rejoin the network instead of a
+ * {@link ChannelWorldJoinEvent} for every user who returned
+ */
+public class ChannelNetjoinEvent extends ChannelEvent {
+
+    /**
+     * The users who returned to the channel - they have already been added to the channel
+     */
+    public final List<? extends ChannelUser> users;
+
+    /**
+     * The servers which rejoined each other - this is empty if the servers are not known
+     */
+    public final String servers;
+
+    /**
+     * The event which would have been posted for the JOIN of each user - these carry the IRCv3
+     * tags of the JOINs and are empty if the JOINs were not kept
+     */
+    public final List<ChannelWorldJoinEvent> joins;
+
+    public ChannelNetjoinEvent(final Channel channel, final List<? extends ChannelUser> users,
+            final String servers) {
+        this(channel, users, servers, Collections.<ChannelWorldJoinEvent>emptyList());
+    }
+
+    public ChannelNetjoinEvent(final Channel channel, final List<? extends ChannelUser> users,
+            final String servers, final List<ChannelWorldJoinEvent> joins) {
+        super(channel);
+
+        this.users = users;
+        this.servers = servers;
+        this.joins = joins;
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(servers)
+                + estimateReferencesSize(users) + estimateReferencesSize(joins);
+    }
+}
@@ -0,0 +1,39 @@
+package co.fusionx.relay.event.channel;
+
+import java.util.List;
+
+import co.fusionx.relay.base.Channel;
+import co.fusionx.relay.base.ChannelUser;
+
+/**
+ * Posted once for every channel affected by a netsplit instead of a
+ * {@link ChannelWorldQuitEvent} for every user who was split from the network
+ */
+public class ChannelNetsplitEvent extends ChannelEvent {
+
+    /**
+     * The users who were split from the network - they have already been removed from the
+     * channel
+     */
+    public final List<? extends ChannelUser> users;
+
+    /**
+     * The servers which split from each other as given by the server - e.g.
+     * "irc.hub.net irc.leaf.net"
+     */
+    public final String servers;
+
+    public ChannelNetsplitEvent(final Channel channel, final List<? extends ChannelUser> users,
+            final String servers) {
+        super(channel);
+
+        this.users = users;
+        this.servers = servers;
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(servers)
+                + estimateReferencesSize(users);
+    }
+}
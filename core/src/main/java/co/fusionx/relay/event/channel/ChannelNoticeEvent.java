@@ -0,0 +1,39 @@
+package co.fusionx.relay.event.channel;
+
+import java.util.List;
+
+import co.fusionx.relay.base.Channel;
+import co.fusionx.relay.base.FormatSpanInfo;
+import co.fusionx.relay.event.MessageBody;
+
+public class ChannelNoticeEvent extends ChannelEvent {
+
+    public final String originNick;
+
+    public final MessageBody body;
+
+    public ChannelNoticeEvent(final Channel channel, final String originNick,
+            final MessageBody body) {
+        super(channel);
+        this.originNick = originNick;
+        this.body = body;
+    }
+
+    public ChannelNoticeEvent(final Channel channel, final String originNick,
+            final String notice, final List<FormatSpanInfo> formats) {
+        this(channel, originNick, MessageBody.ofParsed(notice, formats, null));
+    }
+
+    public String getNotice() {
+        return body.getMessage();
+    }
+
+    public List<FormatSpanInfo> getFormats() {
+        return body.getFormats();
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(body);
+    }
+}
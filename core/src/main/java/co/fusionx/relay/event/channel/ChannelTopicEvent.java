@@ -21,4 +21,9 @@ public class ChannelTopicEvent extends ChannelEvent {
         topic = newTopic;
         formats = topicFormats;
     }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(topic, formats);
+    }
 }
\ No newline at end of file
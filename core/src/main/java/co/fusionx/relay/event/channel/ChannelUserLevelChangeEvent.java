@@ -7,6 +7,14 @@ import co.fusionx.relay.base.ChannelUser;
 import co.fusionx.relay.internal.base.RelayMainUser;
 import co.fusionx.relay.constants.UserLevel;
 
+/**
+ * Was posted when a MODE line changed the level of the user of this connection
+ *
+ * @deprecated no longer posted - {@link ChannelModeChangeEvent} is posted once for the whole
+ * line instead and lists the old and new level of every user it changed. This class will be
+ * removed in a later release.
+ */
+@Deprecated
 public class ChannelUserLevelChangeEvent extends ChannelEvent {
 
     public final UserLevel oldLevel;
@@ -34,4 +42,4 @@ public class ChannelUserLevelChangeEvent extends ChannelEvent {
         this.changingUser = changingUser;
         this.changingNick = changingNick;
     }
-}
\ No newline at end of file
+}
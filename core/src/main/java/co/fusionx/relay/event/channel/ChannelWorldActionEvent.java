@@ -0,0 +1,67 @@
+package co.fusionx.relay.event.channel;
+
+import java.util.List;
+
+import co.fusionx.relay.base.Channel;
+import co.fusionx.relay.base.ChannelUser;
+import co.fusionx.relay.base.FormatSpanInfo;
+import co.fusionx.relay.event.MessageBody;
+
+public class ChannelWorldActionEvent extends ChannelWorldUserEvent {
+
+    public final MessageBody body;
+
+    public ChannelWorldActionEvent(final Channel channel, final MessageBody body,
+            final ChannelUser sendingUser) {
+        super(channel, sendingUser, body);
+
+        this.body = body;
+    }
+
+    public ChannelWorldActionEvent(final Channel channel, final MessageBody body,
+            final String sendingNick) {
+        super(channel, sendingNick, body);
+
+        this.body = body;
+    }
+
+    public ChannelWorldActionEvent(final Channel channel, final String action,
+            final ChannelUser sendingUser, final boolean mention,
+            final List<FormatSpanInfo> formats) {
+        super(channel, sendingUser, mention);
+
+        this.body = MessageBody.ofParsed(action, formats, null);
+    }
+
+    public ChannelWorldActionEvent(final Channel channel, final String action,
+            final String sendingUser, final boolean mention, final List<FormatSpanInfo> formats) {
+        super(channel, sendingUser, mention);
+
+        this.body = MessageBody.ofParsed(action, formats, null);
+    }
+
+    public ChannelWorldActionEvent(final Channel channel, final String action,
+            final ChannelUser sendingUser, final String mentionKeyword,
+            final List<FormatSpanInfo> formats) {
+        this(channel, MessageBody.ofParsed(action, formats, mentionKeyword), sendingUser);
+    }
+
+    public ChannelWorldActionEvent(final Channel channel, final String action,
+            final String sendingNick, final String mentionKeyword,
+            final List<FormatSpanInfo> formats) {
+        this(channel, MessageBody.ofParsed(action, formats, mentionKeyword), sendingNick);
+    }
+
+    public String getAction() {
+        return body.getMessage();
+    }
+
+    public List<FormatSpanInfo> getFormats() {
+        return body.getFormats();
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(body);
+    }
+}
@@ -0,0 +1,29 @@
+package co.fusionx.relay.event.channel;
+
+import co.fusionx.relay.base.Channel;
+import co.fusionx.relay.base.ChannelUser;
+import co.fusionx.relay.misc.MessageTags;
+
+public class ChannelWorldJoinEvent extends ChannelWorldUserEvent {
+
+    /**
+     * The IRCv3 tags sent with the join - empty if the server did not send any
+     */
+    public final MessageTags tags;
+
+    public ChannelWorldJoinEvent(final Channel channel, final ChannelUser user) {
+        this(channel, user, MessageTags.EMPTY);
+    }
+
+    public ChannelWorldJoinEvent(final Channel channel, final ChannelUser user,
+            final MessageTags tags) {
+        super(channel, user);
+
+        this.tags = tags;
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(tags);
+    }
+}
\ No newline at end of file
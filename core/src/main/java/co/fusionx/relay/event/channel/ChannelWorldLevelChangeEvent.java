@@ -6,6 +6,14 @@ import co.fusionx.relay.base.Channel;
 import co.fusionx.relay.base.ChannelUser;
 import co.fusionx.relay.constants.UserLevel;
 
+/**
+ * Was posted when a MODE line changed the level of another user in the channel
+ *
+ * @deprecated no longer posted - {@link ChannelModeChangeEvent} is posted once for the whole
+ * line instead and lists the old and new level of every user it changed. This class will be
+ * removed in a later release.
+ */
+@Deprecated
 public class ChannelWorldLevelChangeEvent extends ChannelWorldUserEvent {
 
     public final String rawMode;
@@ -30,4 +38,4 @@ public class ChannelWorldLevelChangeEvent extends ChannelWorldUserEvent {
         this.changingUser = changingUser;
         this.changingNick = changingNick;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package co.fusionx.relay.event.channel;
+
+import java.util.List;
+
+import co.fusionx.relay.base.Channel;
+import co.fusionx.relay.base.ChannelUser;
+import co.fusionx.relay.base.FormatSpanInfo;
+import co.fusionx.relay.event.MessageBody;
+import co.fusionx.relay.misc.MessageTags;
+
+/**
+ * Both user and nick can be null
+ *
+ * The message is kept as it was received - the formatting is only removed and the message only
+ * searched for mentions of the user when a subscriber asks for them.
+ */
+public class ChannelWorldMessageEvent extends ChannelWorldUserEvent {
+
+    public final MessageBody body;
+
+    /**
+     * The IRCv3 tags sent with the message - empty if the server did not send any
+     */
+    public final MessageTags tags;
+
+    public ChannelWorldMessageEvent(final Channel channel, final MessageBody body,
+            final ChannelUser sendingUser, final MessageTags tags) {
+        super(channel, sendingUser, body);
+
+        this.body = body;
+        this.tags = tags;
+    }
+
+    public ChannelWorldMessageEvent(final Channel channel, final MessageBody body,
+            final String sendingNick, final MessageTags tags) {
+        super(channel, sendingNick, body);
+
+        this.body = body;
+        this.tags = tags;
+    }
+
+    public ChannelWorldMessageEvent(final Channel channel, final String message,
+            final ChannelUser sendingUser, final boolean mention, List<FormatSpanInfo> formats) {
+        super(channel, sendingUser, mention);
+
+        this.body = MessageBody.ofParsed(message, formats, null);
+        this.tags = MessageTags.EMPTY;
+    }
+
+    public ChannelWorldMessageEvent(Channel channel, String message, String sendingNick,
+            boolean mention, List<FormatSpanInfo> formats) {
+        super(channel, sendingNick, mention);
+
+        this.body = MessageBody.ofParsed(message, formats, null);
+        this.tags = MessageTags.EMPTY;
+    }
+
+    public ChannelWorldMessageEvent(final Channel channel, final String message,
+            final ChannelUser sendingUser, final String mentionKeyword,
+            final List<FormatSpanInfo> formats) {
+        this(channel, message, sendingUser, mentionKeyword, formats, MessageTags.EMPTY);
+    }
+
+    public ChannelWorldMessageEvent(final Channel channel, final String message,
+            final ChannelUser sendingUser, final String mentionKeyword,
+            final List<FormatSpanInfo> formats, final MessageTags tags) {
+        this(channel, MessageBody.ofParsed(message, formats, mentionKeyword), sendingUser, tags);
+    }
+
+    public ChannelWorldMessageEvent(final Channel channel, final String message,
+            final String sendingNick, final String mentionKeyword,
+            final List<FormatSpanInfo> formats) {
+        this(channel, message, sendingNick, mentionKeyword, formats, MessageTags.EMPTY);
+    }
+
+    public ChannelWorldMessageEvent(final Channel channel, final String message,
+            final String sendingNick, final String mentionKeyword,
+            final List<FormatSpanInfo> formats, final MessageTags tags) {
+        this(channel, MessageBody.ofParsed(message, formats, mentionKeyword), sendingNick, tags);
+    }
+
+    public String getMessage() {
+        return body.getMessage();
+    }
+
+    public List<FormatSpanInfo> getFormats() {
+        return body.getFormats();
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(body) + estimateSize(tags);
+    }
+}
@@ -0,0 +1,41 @@
+package co.fusionx.relay.event.channel;
+
+import java.util.List;
+
+import co.fusionx.relay.base.Channel;
+import co.fusionx.relay.base.ChannelUser;
+import co.fusionx.relay.base.FormatSpanInfo;
+import co.fusionx.relay.constants.UserLevel;
+import co.fusionx.relay.event.MessageBody;
+
+public class ChannelWorldQuitEvent extends ChannelWorldUserEvent {
+
+    /**
+     * The reason given for the quit - the same body is shared by the events posted to every
+     * channel the user was in
+     */
+    public final MessageBody body;
+
+    public final UserLevel level;
+
+    public ChannelWorldQuitEvent(final Channel channel, final ChannelUser user,
+            final UserLevel level, final MessageBody body) {
+        super(channel, user);
+
+        this.level = level;
+        this.body = body;
+    }
+
+    public ChannelWorldQuitEvent(final Channel channel, final ChannelUser user,
+            final UserLevel level, final String reason, final List<FormatSpanInfo> formats) {
+        this(channel, user, level, MessageBody.ofParsed(reason, formats, null));
+    }
+
+    public String getReason() {
+        return body.getMessage();
+    }
+
+    public List<FormatSpanInfo> getFormats() {
+        return body.getFormats();
+    }
+}
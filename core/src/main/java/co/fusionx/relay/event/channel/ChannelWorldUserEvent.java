@@ -0,0 +1,100 @@
+package co.fusionx.relay.event.channel;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+import co.fusionx.relay.base.Channel;
+import co.fusionx.relay.base.ChannelUser;
+import co.fusionx.relay.base.Nick;
+import co.fusionx.relay.event.MessageBody;
+
+public abstract class ChannelWorldUserEvent extends ChannelEvent {
+
+    /**
+     * The events which can change the user list of a channel - a {@link ChannelModeChangeEvent}
+     * only changes it if {@link ChannelModeChangeEvent#isUserListChangeEvent()} is true
+     */
+    public static final List<? extends Class<? extends ChannelEvent>> sUserListChangeEvents =
+            ImmutableList.of(ChannelWorldJoinEvent.class, ChannelWorldKickEvent.class,
+                    ChannelModeChangeEvent.class, ChannelWorldNickChangeEvent.class,
+                    ChannelWorldPartEvent.class, ChannelWorldQuitEvent.class);
+
+    public final ChannelUser user;
+
+    public final Nick userNick;
+
+    public final String userNickString;
+
+    private final boolean mUserMentioned;
+
+    private final String mMentionKeyword;
+
+    // Set when the mention is only worked out once a subscriber asks for it
+    private final MessageBody mMentionBody;
+
+    ChannelWorldUserEvent(final Channel channel, final ChannelUser user) {
+        this(channel, user, false);
+    }
+
+    ChannelWorldUserEvent(final Channel channel, final ChannelUser user, final boolean mentioned) {
+        this(channel, user, user.getNick().getNickAsString(), mentioned, null, null);
+    }
+
+    ChannelWorldUserEvent(final Channel channel, final ChannelUser user,
+            final String mentionKeyword) {
+        this(channel, user, user.getNick().getNickAsString(), mentionKeyword != null,
+                mentionKeyword, null);
+    }
+
+    ChannelWorldUserEvent(final Channel channel, final ChannelUser user,
+            final MessageBody mentionBody) {
+        this(channel, user, user.getNick().getNickAsString(), false, null, mentionBody);
+    }
+
+    ChannelWorldUserEvent(final Channel channel, final String nick, final boolean mention) {
+        this(channel, null, nick, mention, null, null);
+    }
+
+    ChannelWorldUserEvent(final Channel channel, final String nick,
+            final String mentionKeyword) {
+        this(channel, null, nick, mentionKeyword != null, mentionKeyword, null);
+    }
+
+    ChannelWorldUserEvent(final Channel channel, final String nick,
+            final MessageBody mentionBody) {
+        this(channel, null, nick, false, null, mentionBody);
+    }
+
+    private ChannelWorldUserEvent(final Channel channel, final ChannelUser user,
+            final String nick, final boolean mentioned, final String mentionKeyword,
+            final MessageBody mentionBody) {
+        super(channel);
+
+        this.user = user;
+        this.userNick = user == null ? null : user.getNick();
+        this.userNickString = nick;
+
+        mUserMentioned = mentioned;
+        mMentionKeyword = mentionKeyword;
+        mMentionBody = mentionBody;
+    }
+
+    public boolean isUserMentioned() {
+        return mMentionBody == null ? mUserMentioned : mMentionBody.isMentioned();
+    }
+
+    /**
+     * Returns the highlight word or pattern which mentioned the user
+     *
+     * @return the keyword - this is null if the user was not mentioned or if it is not known
+     * what mentioned the user
+     */
+    public String getMentionKeyword() {
+        return mMentionBody == null ? mMentionKeyword : mMentionBody.getMentionKeyword();
+    }
+
+    public boolean isUserListChangeEvent() {
+        return sUserListChangeEvents.contains(getClass());
+    }
+}
\ No newline at end of file
@@ -18,4 +18,9 @@ public class QueryActionSelfEvent extends QuerySelfEvent {
         this.action = action;
         this.formats = formats;
     }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(action, formats);
+    }
 }
\ No newline at end of file
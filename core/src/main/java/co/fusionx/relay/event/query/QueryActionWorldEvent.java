@@ -0,0 +1,35 @@
+package co.fusionx.relay.event.query;
+
+import java.util.List;
+
+import co.fusionx.relay.base.FormatSpanInfo;
+import co.fusionx.relay.base.QueryUser;
+import co.fusionx.relay.event.MessageBody;
+
+public class QueryActionWorldEvent extends QueryWorldEvent {
+
+    public final MessageBody body;
+
+    public QueryActionWorldEvent(final QueryUser user, final MessageBody body) {
+        super(user);
+
+        this.body = body;
+    }
+
+    public QueryActionWorldEvent(QueryUser userNick, String action, List<FormatSpanInfo> formats) {
+        this(userNick, MessageBody.ofParsed(action, formats, null));
+    }
+
+    public String getAction() {
+        return body.getMessage();
+    }
+
+    public List<FormatSpanInfo> getFormats() {
+        return body.getFormats();
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(body);
+    }
+}
@@ -18,4 +18,9 @@ public class QueryMessageSelfEvent extends QuerySelfEvent {
         this.message = message;
         this.formats = formats;
     }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(message, formats);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package co.fusionx.relay.event.query;
+
+import java.util.List;
+
+import co.fusionx.relay.base.FormatSpanInfo;
+import co.fusionx.relay.base.QueryUser;
+import co.fusionx.relay.event.MessageBody;
+import co.fusionx.relay.misc.MessageTags;
+
+public class QueryMessageWorldEvent extends QueryWorldEvent {
+
+    public final MessageBody body;
+
+    /**
+     * The IRCv3 tags sent with the message - empty if the server did not send any
+     */
+    public final MessageTags tags;
+
+    public QueryMessageWorldEvent(final QueryUser user, final MessageBody body,
+            final MessageTags tags) {
+        super(user);
+
+        this.body = body;
+        this.tags = tags;
+    }
+
+    public QueryMessageWorldEvent(final QueryUser user, final String message,
+            final List<FormatSpanInfo> formats) {
+        this(user, message, formats, MessageTags.EMPTY);
+    }
+
+    public QueryMessageWorldEvent(final QueryUser user, final String message,
+            final List<FormatSpanInfo> formats, final MessageTags tags) {
+        this(user, MessageBody.ofParsed(message, formats, null), tags);
+    }
+
+    public String getMessage() {
+        return body.getMessage();
+    }
+
+    public List<FormatSpanInfo> getFormats() {
+        return body.getFormats();
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(body) + estimateSize(tags);
+    }
+}
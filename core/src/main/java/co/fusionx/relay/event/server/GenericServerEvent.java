@@ -11,4 +11,9 @@ public class GenericServerEvent extends ServerEvent {
 
         this.message = message;
     }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(message);
+    }
 }
\ No newline at end of file
@@ -11,4 +11,9 @@ public class MotdEvent extends ServerEvent {
 
         this.motdLine = motdLine;
     }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(motdLine);
+    }
 }
\ No newline at end of file
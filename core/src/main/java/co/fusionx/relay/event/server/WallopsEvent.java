@@ -20,4 +20,9 @@ public class WallopsEvent extends ServerEvent {
         this.formats = formats;
         this.nick = nick;
     }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(message, formats);
+    }
 }
@@ -11,4 +11,9 @@ public class WhoisEvent extends ServerEvent {
 
         this.whoisMessage = whoisMessage;
     }
+
+    @Override
+    public int getEstimatedSize() {
+        return super.getEstimatedSize() + estimateSize(whoisMessage);
+    }
 }
\ No newline at end of file
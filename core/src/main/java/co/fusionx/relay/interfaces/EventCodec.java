@@ -0,0 +1,29 @@
+package co.fusionx.relay.interfaces;
+
+import co.fusionx.relay.base.Conversation;
+import co.fusionx.relay.event.Event;
+
+/**
+ * Converts events to and from bytes so that old events can be moved out of memory to disk
+ */
+public interface EventCodec {
+
+    /**
+     * Encodes the event so that it can be stored on disk
+     *
+     * @param event the event to encode
+     * @return the encoded form of the event or null if the event should not be stored
+     */
+    public byte[] encode(final Event event);
+
+    /**
+     * Decodes an event which was previously encoded by {@link #encode(Event)} - events created
+     * by this method take the time the original event occurred as their timestamp
+     *
+     * @param conversation the conversation the event is being loaded into - the decoded event
+     *                     must be of a type which can be stored in this conversation
+     * @param data         the encoded form of the event
+     * @return the decoded event or null if the event should be skipped
+     */
+    public Event decode(final Conversation<?> conversation, final byte[] data);
+}
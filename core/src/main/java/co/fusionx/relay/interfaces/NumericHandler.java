@@ -0,0 +1,22 @@
+package co.fusionx.relay.interfaces;
+
+import java.util.List;
+
+import co.fusionx.relay.base.Server;
+
+/**
+ * Handles a numeric reply which the library does not handle itself
+ */
+public interface NumericHandler {
+
+    /**
+     * Called on the thread which reads from the server whenever the server sends the numeric
+     * this handler was registered for
+     *
+     * @param server     the server which sent the reply
+     * @param code       the numeric code of the reply
+     * @param parameters the parameters of the reply after the target - the last parameter is
+     *                   the trailing text of the reply if there is any
+     */
+    public void onNumeric(final Server server, final int code, final List<String> parameters);
+}
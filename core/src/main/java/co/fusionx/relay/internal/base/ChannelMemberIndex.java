@@ -0,0 +1,301 @@
+package co.fusionx.relay.internal.base;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import co.fusionx.relay.constants.CaseMapping;
+import co.fusionx.relay.constants.UserLevel;
+
+/**
+ * The users of a channel kept in the order they are shown in a member list - highest level
+ * first and then by nick
+ *
+ * The users are kept in a treap where every node knows the size of its subtree so adding,
+ * removing and finding the rank of a user take O(log n) and a slice of the list is found
+ * without walking the users before it. The level and folded nick of a user are copied into
+ * the index when the user is added so the index has to be told about every change to either.
+ */
+class ChannelMemberIndex {
+
+    private final Map<RelayChannelUser, Node> mNodes;
+
+    private CaseMapping mCaseMapping;
+
+    private Node mRoot;
+
+    // Breaks ties between users whose folded nicks are equal so every node has a unique key
+    private long mSequence;
+
+    private int mRandom = 0x2545f491;
+
+    // The results of the last split - kept in fields to avoid allocating a pair for every split
+    private Node mSplitLeft;
+
+    private Node mSplitRight;
+
+    ChannelMemberIndex(final CaseMapping caseMapping) {
+        mNodes = new HashMap<>();
+        mCaseMapping = caseMapping;
+    }
+
+    public int size() {
+        return mNodes.size();
+    }
+
+    public boolean contains(final RelayChannelUser user) {
+        return mNodes.containsKey(user);
+    }
+
+    /**
+     * Adds the user or moves the user to the position for the level and current nick
+     *
+     * @param user  the user to add or move
+     * @param level the level of the user in the channel
+     */
+    public void put(final RelayChannelUser user, final UserLevel level) {
+        final Node old = mNodes.get(user);
+        if (old != null) {
+            mRoot = remove(mRoot, old);
+        }
+        final Node node = new Node(user, level, mCaseMapping.toLowerCase(user.getNick()
+                .getNickAsString()), mSequence++, nextPriority());
+        mNodes.put(user, node);
+        mRoot = insert(mRoot, node);
+    }
+
+    public void remove(final RelayChannelUser user) {
+        final Node node = mNodes.remove(user);
+        if (node != null) {
+            mRoot = remove(mRoot, node);
+        }
+    }
+
+    public void clear() {
+        mNodes.clear();
+        mRoot = null;
+    }
+
+    /**
+     * Changes the case mapping used to fold nicks - the whole index is rebuilt as the order of
+     * nicks may change
+     *
+     * @param caseMapping the new case mapping of the server
+     */
+    public void setCaseMapping(final CaseMapping caseMapping) {
+        if (mCaseMapping == caseMapping) {
+            return;
+        }
+        mCaseMapping = caseMapping;
+
+        final List<Node> nodes = new ArrayList<>(mNodes.values());
+        clear();
+        for (final Node node : nodes) {
+            put(node.user, node.level);
+        }
+    }
+
+    /**
+     * Returns the position of the user in the member list
+     *
+     * @param user the user to find
+     * @return the position starting from 0 or -1 if the user is not in the index
+     */
+    public int getRank(final RelayChannelUser user) {
+        final Node node = mNodes.get(user);
+        if (node == null) {
+            return -1;
+        }
+
+        int rank = 0;
+        Node current = mRoot;
+        while (current != null) {
+            final int compare = compare(node, current);
+            if (compare < 0) {
+                current = current.left;
+            } else if (compare > 0) {
+                rank += size(current.left) + 1;
+                current = current.right;
+            } else {
+                return rank + size(current.left);
+            }
+        }
+        return -1;
+    }
+
+    public RelayChannelUser get(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+
+        int remaining = index;
+        Node current = mRoot;
+        while (true) {
+            final int leftSize = size(current.left);
+            if (remaining < leftSize) {
+                current = current.left;
+            } else if (remaining == leftSize) {
+                return current.user;
+            } else {
+                remaining -= leftSize + 1;
+                current = current.right;
+            }
+        }
+    }
+
+    /**
+     * Returns a slice of the member list
+     *
+     * @param fromIndex the position of the first user to return
+     * @param count     the maximum number of users to return
+     * @return the users in order - this is shorter than count if the list ends first
+     */
+    public List<RelayChannelUser> getSlice(final int fromIndex, final int count) {
+        final int from = Math.max(0, fromIndex);
+        final int to = (int) Math.min((long) from + Math.max(0, count), size());
+        final List<RelayChannelUser> slice = new ArrayList<>(Math.max(0, to - from));
+        collect(mRoot, 0, from, to, slice);
+        return slice;
+    }
+
+    private void collect(final Node node, final int offset, final int from, final int to,
+            final List<RelayChannelUser> slice) {
+        // Offset is the rank of the first node in the subtree
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        collect(node.left, offset, from, to, slice);
+        final int rank = offset + size(node.left);
+        if (rank >= from && rank < to) {
+            slice.add(node.user);
+        }
+        collect(node.right, rank + 1, from, to, slice);
+    }
+
+    private Node insert(final Node root, final Node node) {
+        if (root == null) {
+            return node;
+        }
+        if (node.priority > root.priority) {
+            split(root, node);
+            node.left = mSplitLeft;
+            node.right = mSplitRight;
+            update(node);
+            return node;
+        }
+        if (compare(node, root) < 0) {
+            root.left = insert(root.left, node);
+        } else {
+            root.right = insert(root.right, node);
+        }
+        update(root);
+        return root;
+    }
+
+    private Node remove(final Node root, final Node node) {
+        if (root == null) {
+            return null;
+        }
+        final int compare = compare(node, root);
+        if (compare == 0) {
+            return merge(root.left, root.right);
+        } else if (compare < 0) {
+            root.left = remove(root.left, node);
+        } else {
+            root.right = remove(root.right, node);
+        }
+        update(root);
+        return root;
+    }
+
+    // Splits the tree into the nodes before the key and the nodes after it
+    private void split(final Node root, final Node key) {
+        if (root == null) {
+            mSplitLeft = null;
+            mSplitRight = null;
+        } else if (compare(root, key) < 0) {
+            split(root.right, key);
+            root.right = mSplitLeft;
+            update(root);
+            mSplitLeft = root;
+        } else {
+            split(root.left, key);
+            root.left = mSplitRight;
+            update(root);
+            mSplitRight = root;
+        }
+    }
+
+    private Node merge(final Node left, final Node right) {
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        } else if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+    }
+
+    private int nextPriority() {
+        // Xorshift is plenty random enough to keep the treap balanced
+        mRandom ^= mRandom << 13;
+        mRandom ^= mRandom >>> 17;
+        mRandom ^= mRandom << 5;
+        return mRandom;
+    }
+
+    private static int compare(final Node first, final Node second) {
+        if (first.level != second.level) {
+            // Levels are declared from the highest to the lowest
+            return first.level.ordinal() - second.level.ordinal();
+        }
+        final int compare = first.foldedNick.compareTo(second.foldedNick);
+        if (compare != 0) {
+            return compare;
+        }
+        return first.sequence < second.sequence ? -1 : first.sequence == second.sequence ? 0 : 1;
+    }
+
+    private static int size(final Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(final Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static final class Node {
+
+        final RelayChannelUser user;
+
+        final UserLevel level;
+
+        final String foldedNick;
+
+        final long sequence;
+
+        final int priority;
+
+        Node left;
+
+        Node right;
+
+        int size = 1;
+
+        private Node(final RelayChannelUser user, final UserLevel level, final String foldedNick,
+                final long sequence, final int priority) {
+            this.user = user;
+            this.level = level;
+            this.foldedNick = foldedNick;
+            this.sequence = sequence;
+            this.priority = priority;
+        }
+    }
+}
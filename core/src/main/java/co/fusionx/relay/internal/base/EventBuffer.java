@@ -0,0 +1,306 @@
+package co.fusionx.relay.internal.base;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import co.fusionx.relay.event.Event;
+
+/**
+ * A ring buffer of the events of a conversation which evicts the oldest events once either the
+ * count or the estimated size of the events goes over the limits of the conversation or of the
+ * {@link ScrollbackBudget} shared by all conversations
+ *
+ * Appending is O(1) - the backing array only grows until the event limit is reached after which
+ * the slots of evicted events are reused. Events are kept in the order of their timestamps - an
+ * event older than the newest one (e.g. history replayed with server-time) is moved back to its
+ * place which costs one step per newer event. Buffers sharing a budget are always changed while
+ * holding the lock of the budget first so that the totals of the budget stay exact.
+ */
+public class EventBuffer<T extends Event> extends AbstractList<T> implements RandomAccess {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int mMaxEvents;
+
+    private final long mMaxBytes;
+
+    private final ScrollbackBudget mBudget;
+
+    private Object[] mEvents;
+
+    private int[] mSizes;
+
+    private int mHead;
+
+    private int mCount;
+
+    private long mBytes;
+
+    private long mEvictedEvents;
+
+    private long mEvictedBytes;
+
+    private EvictionListener<T> mEvictionListener;
+
+    /**
+     * @param maxEvents the maximum number of events to keep - zero or less means no limit
+     * @param maxBytes  the maximum estimated size of the events to keep - zero or less means no
+     *                  limit
+     * @param budget    the budget shared with other buffers or null if there is none
+     */
+    public EventBuffer(final int maxEvents, final long maxBytes, final ScrollbackBudget budget) {
+        mMaxEvents = maxEvents;
+        mMaxBytes = maxBytes;
+        mBudget = budget;
+
+        final int capacity = maxEvents > 0
+                ? Math.min(maxEvents, INITIAL_CAPACITY)
+                : INITIAL_CAPACITY;
+        mEvents = new Object[capacity];
+        mSizes = new int[capacity];
+
+        if (mBudget != null) {
+            mBudget.register(this);
+        }
+    }
+
+    @Override
+    public boolean add(final T event) {
+        if (mBudget == null) {
+            append(event);
+        } else {
+            mBudget.append(this, event);
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized T get(final int location) {
+        if (location < 0 || location >= mCount) {
+            throw new IndexOutOfBoundsException("Index: " + location + ", Size: " + mCount);
+        }
+        return (T) mEvents[(mHead + location) % mEvents.length];
+    }
+
+    @Override
+    public synchronized int size() {
+        return mCount;
+    }
+
+    @Override
+    public void clear() {
+        if (mBudget == null) {
+            removeAll();
+        } else {
+            mBudget.clear(this);
+        }
+    }
+
+    /**
+     * Returns the newest events in the buffer which occurred before the timestamp
+     *
+     * @param timestamp the time in milliseconds which all events returned occurred before
+     * @param limit     the maximum number of events to return
+     * @return the events, oldest first
+     */
+    public synchronized List<T> getEventsBefore(final long timestamp, final int limit) {
+        // Events are kept in the order they occurred so the first event at or after the
+        // timestamp can be binary searched for
+        int low = 0;
+        int high = mCount;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (get(middle).timestamp < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        final int start = Math.max(0, low - Math.max(limit, 0));
+        final List<T> events = new ArrayList<>(low - start);
+        for (int i = start; i < low; i++) {
+            events.add(get(i));
+        }
+        return events;
+    }
+
+    /**
+     * Sets the listener which is told about every event evicted from this buffer - the listener
+     * is called while the buffer and the budget are locked so it should only hand the
+     * event off and return quickly
+     *
+     * @param listener the listener to notify
+     */
+    public synchronized void setEvictionListener(final EvictionListener<T> listener) {
+        mEvictionListener = listener;
+    }
+
+    /**
+     * Returns the estimated size of the events currently in the buffer
+     *
+     * @return the estimated size in bytes
+     */
+    public synchronized long getEstimatedByteCount() {
+        return mBytes;
+    }
+
+    /**
+     * Returns the number of events which were dropped from the buffer to stay within the limits
+     *
+     * @return the number of evicted events
+     */
+    public synchronized long getEvictedEventCount() {
+        return mEvictedEvents;
+    }
+
+    /**
+     * Returns the estimated size of the events which were dropped from the buffer to stay within
+     * the limits
+     *
+     * @return the estimated size in bytes of the evicted events
+     */
+    public synchronized long getEvictedByteCount() {
+        return mEvictedBytes;
+    }
+
+    /**
+     * Stops this buffer counting towards the shared budget - called once the conversation the
+     * buffer belongs to is no longer valid
+     */
+    public void release() {
+        if (mBudget != null) {
+            mBudget.unregister(this);
+        }
+    }
+
+    /**
+     * Appends the event and evicts events to stay within the limits of this buffer
+     *
+     * @param event the event to append
+     * @return the change in the number of events and their estimated size
+     */
+    synchronized long[] append(final T event) {
+        final int size = event.getEstimatedSize();
+        long evictedEvents = 0;
+        long evictedBytes = 0;
+
+        if (mCount == mEvents.length) {
+            if (mMaxEvents > 0 && mCount >= mMaxEvents) {
+                evictedBytes += evictOldestLocked();
+                evictedEvents++;
+            } else {
+                grow();
+            }
+        }
+
+        insertInOrder(event, size);
+        mBytes += size;
+        modCount++;
+
+        // Always keep the newest event even if it is bigger than the limit on its own
+        while (mMaxBytes > 0 && mBytes > mMaxBytes && mCount > 1) {
+            evictedBytes += evictOldestLocked();
+            evictedEvents++;
+        }
+        return new long[]{1 - evictedEvents, size - evictedBytes};
+    }
+
+    /**
+     * Removes all the events without counting them as evicted
+     *
+     * @return the number of events removed and their estimated size
+     */
+    synchronized long[] removeAll() {
+        final long[] removed = {mCount, mBytes};
+        for (int i = 0; i < mCount; i++) {
+            mEvents[(mHead + i) % mEvents.length] = null;
+        }
+        mHead = 0;
+        mCount = 0;
+        mBytes = 0;
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Evicts the oldest event on behalf of the shared budget
+     *
+     * @return the estimated size of the evicted event or -1 if nothing could be evicted
+     */
+    synchronized long evictOldest() {
+        // Never take away the last event of a conversation
+        if (mCount <= 1) {
+            return -1;
+        }
+        return evictOldestLocked();
+    }
+
+    @SuppressWarnings("unchecked")
+    private long evictOldestLocked() {
+        final int size = mSizes[mHead];
+        final T event = (T) mEvents[mHead];
+        mEvents[mHead] = null;
+        mHead = (mHead + 1) % mEvents.length;
+        mCount--;
+        mBytes -= size;
+        modCount++;
+
+        mEvictedEvents++;
+        mEvictedBytes += size;
+
+        if (mEvictionListener != null) {
+            mEvictionListener.onEvicted(event);
+        }
+        return size;
+    }
+
+    // Events with the same timestamp stay in the order they were appended
+    private void insertInOrder(final T event, final int size) {
+        final int length = mEvents.length;
+        int position = mCount;
+        while (position > 0 && get(position - 1).timestamp > event.timestamp) {
+            final int from = (mHead + position - 1) % length;
+            final int to = (mHead + position) % length;
+            mEvents[to] = mEvents[from];
+            mSizes[to] = mSizes[from];
+            position--;
+        }
+
+        final int index = (mHead + position) % length;
+        mEvents[index] = event;
+        mSizes[index] = size;
+        mCount++;
+    }
+
+    private void grow() {
+        int capacity = mEvents.length * 2;
+        if (mMaxEvents > 0) {
+            capacity = Math.min(capacity, mMaxEvents);
+        }
+
+        final Object[] events = new Object[capacity];
+        final int[] sizes = new int[capacity];
+        for (int i = 0; i < mCount; i++) {
+            final int index = (mHead + i) % mEvents.length;
+            events[i] = mEvents[index];
+            sizes[i] = mSizes[index];
+        }
+        mEvents = events;
+        mSizes = sizes;
+        mHead = 0;
+    }
+
+    public interface EvictionListener<T extends Event> {
+
+        /**
+         * Called when the event is removed from the buffer to stay within the limits
+         *
+         * @param event the event which was evicted
+         */
+        public void onEvicted(final T event);
+    }
+}
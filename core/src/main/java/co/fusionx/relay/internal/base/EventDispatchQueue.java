@@ -0,0 +1,193 @@
+package co.fusionx.relay.internal.base;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import co.fusionx.relay.constants.EventOverflowPolicy;
+import co.fusionx.relay.internal.function.Consumer;
+import co.fusionx.relay.internal.transport.RelayEventLoop;
+import co.fusionx.relay.misc.EventQueueStats;
+
+import static co.fusionx.relay.misc.RelayConfigurationProvider.getPreferences;
+
+/**
+ * Holds the events of a single conversation until they can be delivered on one of the dispatch
+ * threads so that slow subscribers never hold up the thread reading from the server
+ *
+ * The dispatch threads are shared by every conversation of every server. At most one task is
+ * ever scheduled for a queue so the events of a conversation are always delivered in the order
+ * they were posted - events of different conversations can be delivered in any order. A task
+ * only delivers a batch of events before giving the thread to the other conversations.
+ *
+ * Subscribers which post events from a dispatch thread are never made to wait or have their
+ * events dropped - the queue grows past its capacity instead as waiting could deadlock. An event
+ * loop is never made to wait either as it would stall every connection on the loop - the
+ * oldest event is dropped instead even if the policy is {@link EventOverflowPolicy#BLOCK}.
+ */
+class EventDispatchQueue<T> {
+
+    private static final int DISPATCH_THREAD_COUNT = 2;
+
+    private static final int DRAIN_BATCH_SIZE = 64;
+
+    private static final ThreadLocal<Boolean> sIsDispatchThread = new ThreadLocal<>();
+
+    private static ExecutorService sExecutor;
+
+    private final ArrayDeque<T> mQueue;
+
+    private final int mCapacity;
+
+    private final EventOverflowPolicy mOverflowPolicy;
+
+    private final Consumer<T> mDeliverer;
+
+    private final Runnable mDrainTask;
+
+    private boolean mScheduled;
+
+    private int mWaitingPosts;
+
+    private int mHighWaterMark;
+
+    private long mEnqueuedEvents;
+
+    private long mDeliveredEvents;
+
+    private long mDroppedEvents;
+
+    private long mCoalescedEvents;
+
+    private long mBlockedPosts;
+
+    /**
+     * @param capacity       the number of events which can wait to be delivered
+     * @param overflowPolicy what happens when an event is posted while the queue is full
+     * @param deliverer      called on a dispatch thread to deliver each event
+     */
+    EventDispatchQueue(final int capacity, final EventOverflowPolicy overflowPolicy,
+            final Consumer<T> deliverer) {
+        mQueue = new ArrayDeque<>();
+        mCapacity = capacity;
+        mOverflowPolicy = overflowPolicy;
+        mDeliverer = deliverer;
+        mDrainTask = this::drain;
+    }
+
+    public void post(final T event) {
+        final boolean schedule;
+        synchronized (this) {
+            if (mQueue.size() >= mCapacity && !isDispatchThread()) {
+                onOverflow(event);
+            }
+            mQueue.add(event);
+            mEnqueuedEvents++;
+            mHighWaterMark = Math.max(mHighWaterMark, mQueue.size());
+
+            schedule = !mScheduled;
+            mScheduled = true;
+        }
+        if (schedule) {
+            getExecutor().execute(mDrainTask);
+        }
+    }
+
+    public synchronized EventQueueStats getStats() {
+        return new EventQueueStats(mCapacity, mQueue.size(), mHighWaterMark, mEnqueuedEvents,
+                mDeliveredEvents, mDroppedEvents, mCoalescedEvents, mBlockedPosts);
+    }
+
+    // Only called with the queue locked
+    private void onOverflow(final T event) {
+        switch (mOverflowPolicy) {
+            case BLOCK:
+                if (RelayEventLoop.isLoopThread()) {
+                    mQueue.poll();
+                    mDroppedEvents++;
+                    break;
+                }
+                mBlockedPosts++;
+                mWaitingPosts++;
+                try {
+                    while (mQueue.size() >= mCapacity) {
+                        wait();
+                    }
+                } catch (final InterruptedException ex) {
+                    // Queue the event anyway rather than losing it
+                    Thread.currentThread().interrupt();
+                } finally {
+                    mWaitingPosts--;
+                }
+                break;
+            case COALESCE:
+                final Iterator<T> iterator = mQueue.iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().getClass() == event.getClass()) {
+                        iterator.remove();
+                        mCoalescedEvents++;
+                        return;
+                    }
+                }
+                mQueue.poll();
+                mDroppedEvents++;
+                break;
+            case DROP_OLDEST:
+                mQueue.poll();
+                mDroppedEvents++;
+                break;
+        }
+    }
+
+    private void drain() {
+        sIsDispatchThread.set(Boolean.TRUE);
+        for (int i = 0; i < DRAIN_BATCH_SIZE; i++) {
+            final T event;
+            synchronized (this) {
+                event = mQueue.poll();
+                if (event == null) {
+                    mScheduled = false;
+                    return;
+                }
+                if (mWaitingPosts > 0) {
+                    notifyAll();
+                }
+            }
+
+            try {
+                mDeliverer.apply(event);
+            } catch (final RuntimeException ex) {
+                // A broken subscriber must not stop the events of the conversation
+                getPreferences().handleException(ex);
+            }
+
+            synchronized (this) {
+                mDeliveredEvents++;
+            }
+        }
+
+        synchronized (this) {
+            if (mQueue.isEmpty()) {
+                mScheduled = false;
+                return;
+            }
+        }
+        getExecutor().execute(mDrainTask);
+    }
+
+    private static boolean isDispatchThread() {
+        return sIsDispatchThread.get() != null;
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (sExecutor == null) {
+            sExecutor = Executors.newFixedThreadPool(DISPATCH_THREAD_COUNT, runnable -> {
+                final Thread thread = new Thread(runnable, "relayDispatch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return sExecutor;
+    }
+}
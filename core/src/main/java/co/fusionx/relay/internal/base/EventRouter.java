@@ -0,0 +1,186 @@
+package co.fusionx.relay.internal.base;
+
+import com.google.common.base.Predicate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import co.fusionx.relay.event.Event;
+import co.fusionx.relay.misc.EventFilter;
+import co.fusionx.relay.misc.EventHandler;
+
+/**
+ * Routes the events of every conversation of a server to the subscriptions whose filters match
+ * them
+ *
+ * The subscriptions which can match each class of event are worked out the first time an event
+ * of the class is routed and split into those for any conversation and those for each
+ * conversation. Routing an event only looks at the subscriptions for its class and
+ * conversation so the cost grows with the number of interested subscriptions rather than
+ * with the total number of subscriptions. The tables are rebuilt after every subscribe and
+ * unsubscribe.
+ *
+ * Subscriptions for any conversation receive an event before the subscriptions for its
+ * conversation - otherwise subscriptions receive events in the order they were made.
+ */
+class EventRouter {
+
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+    private volatile Snapshot mSnapshot;
+
+    EventRouter() {
+        mSnapshot = new Snapshot(NO_SUBSCRIPTIONS);
+    }
+
+    public synchronized <E extends Event> void subscribe(final EventFilter<E> filter,
+            final EventHandler<? super E> handler) {
+        final Subscription[] subscriptions = mSnapshot.subscriptions;
+        final Subscription[] updated = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        updated[subscriptions.length] = new Subscription(filter.getEventClass(),
+                filter.getConversationId(), filter.getPredicate(), handler);
+        mSnapshot = new Snapshot(updated);
+    }
+
+    /**
+     * Removes every subscription made with the handler
+     *
+     * @param handler the handler which was subscribed
+     */
+    public synchronized void unsubscribe(final EventHandler<?> handler) {
+        final List<Subscription> remaining = new ArrayList<>();
+        for (final Subscription subscription : mSnapshot.subscriptions) {
+            if (subscription.handler != handler) {
+                remaining.add(subscription);
+            }
+        }
+        mSnapshot = new Snapshot(remaining.toArray(new Subscription[remaining.size()]));
+    }
+
+    /**
+     * Delivers the event to every subscription which matches it
+     *
+     * @param conversationId the id of the conversation the event was posted to
+     * @param event          the event to route
+     */
+    public void route(final String conversationId, final Event event) {
+        final Snapshot snapshot = mSnapshot;
+        if (snapshot.subscriptions.length == 0) {
+            return;
+        }
+
+        final RouteTable table = snapshot.getTable(event.getClass());
+        deliver(table.anyConversation, event);
+        if (conversationId != null && table.byConversation != null) {
+            final Subscription[] subscriptions = table.byConversation.get(conversationId);
+            if (subscriptions != null) {
+                deliver(subscriptions, event);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void deliver(final Subscription[] subscriptions, final Event event) {
+        for (final Subscription subscription : subscriptions) {
+            final Predicate<Object> predicate = (Predicate<Object>) subscription.predicate;
+            if (predicate == null || predicate.apply(event)) {
+                ((EventHandler<Object>) subscription.handler).onEvent(event);
+            }
+        }
+    }
+
+    private static final class Subscription {
+
+        final Class<?> eventClass;
+
+        final String conversationId;
+
+        final Predicate<?> predicate;
+
+        final EventHandler<?> handler;
+
+        private Subscription(final Class<?> eventClass, final String conversationId,
+                final Predicate<?> predicate, final EventHandler<?> handler) {
+            this.eventClass = eventClass;
+            this.conversationId = conversationId;
+            this.predicate = predicate;
+            this.handler = handler;
+        }
+    }
+
+    private static final class RouteTable {
+
+        final Subscription[] anyConversation;
+
+        // Null if no subscription for the class is limited to a conversation
+        final Map<String, Subscription[]> byConversation;
+
+        private RouteTable(final Subscription[] anyConversation,
+                final Map<String, Subscription[]> byConversation) {
+            this.anyConversation = anyConversation;
+            this.byConversation = byConversation;
+        }
+    }
+
+    /**
+     * The subscriptions at one point in time and the tables built from them - a new snapshot
+     * replaces this one whenever the subscriptions change
+     */
+    private static final class Snapshot {
+
+        final Subscription[] subscriptions;
+
+        final ConcurrentHashMap<Class<?>, RouteTable> tables;
+
+        private Snapshot(final Subscription[] subscriptions) {
+            this.subscriptions = subscriptions;
+            tables = new ConcurrentHashMap<>();
+        }
+
+        private RouteTable getTable(final Class<?> eventClass) {
+            final RouteTable existing = tables.get(eventClass);
+            if (existing != null) {
+                return existing;
+            }
+
+            final List<Subscription> anyConversation = new ArrayList<>();
+            final Map<String, List<Subscription>> byConversation = new HashMap<>();
+            for (final Subscription subscription : subscriptions) {
+                if (!subscription.eventClass.isAssignableFrom(eventClass)) {
+                    continue;
+                }
+                if (subscription.conversationId == null) {
+                    anyConversation.add(subscription);
+                } else {
+                    List<Subscription> list = byConversation.get(subscription.conversationId);
+                    if (list == null) {
+                        list = new ArrayList<>();
+                        byConversation.put(subscription.conversationId, list);
+                    }
+                    list.add(subscription);
+                }
+            }
+
+            Map<String, Subscription[]> conversationTables = null;
+            if (!byConversation.isEmpty()) {
+                conversationTables = new HashMap<>();
+                for (final Map.Entry<String, List<Subscription>> entry
+                        : byConversation.entrySet()) {
+                    final List<Subscription> list = entry.getValue();
+                    conversationTables.put(entry.getKey(),
+                            list.toArray(new Subscription[list.size()]));
+                }
+            }
+            final RouteTable table = new RouteTable(
+                    anyConversation.toArray(new Subscription[anyConversation.size()]),
+                    conversationTables);
+            // Two threads may build the same table - either one can be kept
+            tables.put(eventClass, table);
+            return table;
+        }
+    }
+}
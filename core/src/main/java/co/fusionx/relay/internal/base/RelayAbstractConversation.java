@@ -0,0 +1,187 @@
+package co.fusionx.relay.internal.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import co.fusionx.relay.base.Conversation;
+import co.fusionx.relay.base.Server;
+import co.fusionx.relay.base.ServerConfiguration;
+import co.fusionx.relay.event.Event;
+import co.fusionx.relay.internal.store.ScrollbackStore;
+import co.fusionx.relay.internal.store.ScrollbackWriter;
+import co.fusionx.relay.misc.EventBus;
+import co.fusionx.relay.misc.EventQueueStats;
+
+public abstract class RelayAbstractConversation<T extends Event> implements Conversation<T> {
+
+    protected final Server mServer;
+
+    protected final EventBuffer<T> mBuffer;
+
+    protected final EventBus<T> mEventBus;
+
+    protected boolean mValid;
+
+    // Null if events are delivered on the thread which posts them
+    private final EventDispatchQueue<T> mDispatchQueue;
+
+    // Null if evicted events are not stored - the store itself is opened by the writer on the
+    // first eviction or read as the id is not available in the constructor
+    private final ScrollbackWriter.Handle mScrollback;
+
+    // For RelayServer implementation, the server cane be null - RelayServer MUST override
+    // getServer however
+    public RelayAbstractConversation(final Server server) {
+        this(server, server.getConfiguration());
+    }
+
+    public RelayAbstractConversation(final Server server,
+            final ServerConfiguration configuration) {
+        mServer = server;
+        // Without global limits the buffer is only bounded by its own limits and is appended to
+        // without taking the lock of the budget
+        final ScrollbackBudget budget = ScrollbackBudget.getGlobalBudget();
+        mBuffer = new EventBuffer<>(configuration.getBufferEventLimit(),
+                configuration.getBufferByteLimit(), budget.isLimited() ? budget : null);
+        mEventBus = new EventBus<>();
+        mValid = true;
+
+        final int queueCapacity = configuration.getEventQueueCapacity();
+        mDispatchQueue = queueCapacity > 0
+                ? new EventDispatchQueue<>(queueCapacity, configuration.getEventOverflowPolicy(),
+                this::deliverEvent)
+                : null;
+
+        if (ScrollbackStore.isEnabled()) {
+            mScrollback = ScrollbackWriter.getInstance()
+                    .newHandle(() -> ScrollbackStore.open(getServer().getTitle(), getId()));
+            mBuffer.setEvictionListener(mScrollback::append);
+        } else {
+            mScrollback = null;
+        }
+    }
+
+    /**
+     * Returns the server this channel is attached to
+     *
+     * @return the server this channel belongs to
+     */
+    @Override
+    public Server getServer() {
+        return mServer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EventBus<T> getBus() {
+        return mEventBus;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EventQueueStats getEventQueueStats() {
+        return mDispatchQueue == null ? null : mDispatchQueue.getStats();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isValid() {
+        return mValid;
+    }
+
+    /**
+     * Gets the buffer of the channel - the most recent events which occured since this channel
+     * was created. Older events are evicted once the limits of the buffer are reached
+     *
+     * @return a list of the events
+     */
+    @Override
+    public EventBuffer<T> getBuffer() {
+        return mBuffer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<T> getEventsBefore(final long timestamp, final int limit) {
+        final List<T> events;
+        final ScrollbackWriter.PendingRead read;
+        // Only hold the buffer lock while the read is queued so that no event can move from
+        // memory to disk in between - the disk is read after the lock is released
+        synchronized (mBuffer) {
+            events = mBuffer.getEventsBefore(timestamp, limit);
+            read = events.size() < limit && mScrollback != null
+                    ? mScrollback.readBefore(this, timestamp, limit)
+                    : null;
+        }
+        if (read == null) {
+            return events;
+        }
+
+        // Events stamped with server-time can be evicted after newer ones so the events on
+        // disk are not all older than the events in memory
+        final List<T> storedEvents = (List<T>) (List<?>) read.get();
+        return mergeNewest(storedEvents, events, limit);
+    }
+
+    // Implementation specific methods
+    public void postAndStoreEvent(final T event) {
+        mBuffer.add(event);
+
+        if (mDispatchQueue == null) {
+            deliverEvent(event);
+        } else {
+            mDispatchQueue.post(event);
+        }
+    }
+
+    public void markInvalid() {
+        mValid = false;
+
+        // Stop counting towards the global budget - the events are only kept for as long as
+        // the conversation itself is referenced
+        mBuffer.release();
+
+        if (mScrollback != null) {
+            mScrollback.close();
+        }
+    }
+
+    // Both lists are sorted oldest first - events on disk come first when the times are equal
+    private static <T extends Event> List<T> mergeNewest(final List<T> stored,
+            final List<T> buffered, final int limit) {
+        final int count = Math.min(limit, stored.size() + buffered.size());
+        final List<T> merged = new ArrayList<>(count);
+        int storedIndex = stored.size() - 1;
+        int bufferedIndex = buffered.size() - 1;
+        while (merged.size() < count) {
+            if (bufferedIndex < 0 || (storedIndex >= 0
+                    && stored.get(storedIndex).timestamp > buffered.get(bufferedIndex).timestamp)) {
+                merged.add(stored.get(storedIndex--));
+            } else {
+                merged.add(buffered.get(bufferedIndex--));
+            }
+        }
+        Collections.reverse(merged);
+        return merged;
+    }
+
+    private void deliverEvent(final T event) {
+        mEventBus.post(event);
+
+        final Server server = getServer();
+        server.getServerWideBus().post(event);
+        if (server instanceof RelayServer) {
+            ((RelayServer) server).getEventRouter().route(getId(), event);
+        }
+    }
+}
\ No newline at end of file
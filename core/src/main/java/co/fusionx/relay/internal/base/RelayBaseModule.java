@@ -29,7 +29,8 @@ public class RelayBaseModule {
     @Singleton
     @Provides
     public BaseSender provideBaseSender() {
-        return new RelayBaseSender();
+        return new RelayBaseSender(mConfiguration.getFloodBurst(),
+                mConfiguration.getFloodInterval());
     }
 
     @Provides
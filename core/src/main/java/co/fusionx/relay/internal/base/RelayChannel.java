@@ -1,24 +1,26 @@
 package co.fusionx.relay.internal.base;
 
-import android.util.Pair;
-
 import com.google.common.base.Optional;
 import com.google.common.base.Supplier;
-import com.google.common.collect.ImmutableList;
 
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 
 import co.fusionx.relay.base.Channel;
+import co.fusionx.relay.base.ChannelUser;
 import co.fusionx.relay.base.FormatSpanInfo;
 import co.fusionx.relay.base.Server;
 import co.fusionx.relay.base.UserChannelInterface;
+import co.fusionx.relay.constants.CaseMapping;
+import co.fusionx.relay.constants.UserLevel;
 import co.fusionx.relay.event.channel.ChannelActionEvent;
 import co.fusionx.relay.event.channel.ChannelEvent;
 import co.fusionx.relay.event.channel.ChannelMessageEvent;
 import co.fusionx.relay.internal.sender.BaseSender;
 import co.fusionx.relay.internal.sender.RelayChannelSender;
+import co.fusionx.relay.misc.Pair;
+import co.fusionx.relay.misc.ServerSupport;
 import co.fusionx.relay.sender.ChannelSender;
 import co.fusionx.relay.util.Utils;
 
@@ -26,27 +28,29 @@ import static co.fusionx.relay.misc.RelayConfigurationProvider.getPreferences;
 
 public class RelayChannel extends RelayAbstractConversation<ChannelEvent> implements Channel {
 
-    // As set out in RFC2812
-    private final static ImmutableList<Character> CHANNEL_PREFIXES = ImmutableList.of('#', '&',
-            '+', '!');
-
     private final RelayMainUser mUser;
 
     private final String mChannelName;
 
     private final Collection<RelayChannelUser> mUsers;
 
+    private final ChannelMemberIndex mMemberIndex;
+
     private final ChannelSender mChannelSender;
 
+    private Symbol mSymbol;
+
     RelayChannel(final Server server, final RelayMainUser user, final BaseSender baseSender,
-            final String channelName) {
+            final String channelName, final Symbol symbol) {
         super(server);
 
         mUser = user;
         mChannelSender = new RelayChannelSender(this, baseSender);
         mChannelName = channelName;
+        mSymbol = symbol;
 
         mUsers = new HashSet<>();
+        mMemberIndex = new ChannelMemberIndex(server.getServerSupport().getCaseMapping());
 
         clearInternalData();
     }
@@ -54,11 +58,14 @@ public class RelayChannel extends RelayAbstractConversation<ChannelEvent> implem
     /**
      * Returns whether a string is a channel name based on the first character of the string
      *
+     * This only knows the channel types set out in RFC2812 - the types a server actually uses
+     * are found through {@link Server#getServerSupport()}
+     *
      * @param firstCharacter the first character of the string that is to be tested
      * @return whether the character can be one at the start of a channel
      */
     public static boolean isChannelPrefix(char firstCharacter) {
-        return CHANNEL_PREFIXES.contains(firstCharacter);
+        return ServerSupport.DEFAULT.isChannelType(firstCharacter);
     }
 
     /**
@@ -71,6 +78,24 @@ public class RelayChannel extends RelayAbstractConversation<ChannelEvent> implem
         return mUsers;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<RelayChannelUser> getSortedUsers(final int fromIndex, final int count) {
+        return mMemberIndex.getSlice(fromIndex, count);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getUserRank(final ChannelUser user) {
+        return user instanceof RelayChannelUser
+                ? mMemberIndex.getRank((RelayChannelUser) user)
+                : -1;
+    }
+
     /**
      * Gets the name of the channel
      *
@@ -93,7 +118,8 @@ public class RelayChannel extends RelayAbstractConversation<ChannelEvent> implem
 
     /*
      * A channel is equal to another if the servers are equal and if the channel's names are
-     * equal regardless of case
+     * equal regardless of case - channels interned by the same table share the same symbol so
+     * this is almost always an identity check
      */
     @Override
     public boolean equals(final Object o) {
@@ -101,16 +127,19 @@ public class RelayChannel extends RelayAbstractConversation<ChannelEvent> implem
             return false;
         }
         final RelayChannel otherChannel = (RelayChannel) o;
+        if (otherChannel.mSymbol == mSymbol) {
+            return true;
+        }
         return otherChannel.getServer().equals(getServer())
-                && otherChannel.getName().equalsIgnoreCase(mChannelName);
+                && otherChannel.mSymbol.getFolded().equals(mSymbol.getFolded());
     }
 
     /*
-     * The hashcode of a channel can simply be the same as that of its name
+     * The hash of the symbol is worked out once from the folded name
      */
     @Override
     public int hashCode() {
-        return mChannelName.toLowerCase().hashCode();
+        return mSymbol.hashCode();
     }
 
     /*
@@ -164,14 +193,53 @@ public class RelayChannel extends RelayAbstractConversation<ChannelEvent> implem
     public void clearInternalData() {
         // Clear the list of users
         mUsers.clear();
+        mMemberIndex.clear();
     }
 
     void addUser(final RelayChannelUser user) {
         mUsers.add(user);
+        if (!mMemberIndex.contains(user)) {
+            // The level is set straight afterwards when the channel is added to the user
+            mMemberIndex.put(user, UserLevel.NONE);
+        }
     }
 
     void removeUser(final RelayChannelUser user) {
         mUsers.remove(user);
+        mMemberIndex.remove(user);
+    }
+
+    /**
+     * Moves the user in the sorted list of users after the level or nick of the user changed
+     *
+     * @param user  the user which changed
+     * @param level the level of the user in this channel
+     */
+    void onUserChanged(final RelayChannelUser user, final UserLevel level) {
+        if (mMemberIndex.contains(user)) {
+            mMemberIndex.put(user, level);
+        }
+    }
+
+    /**
+     * Returns the symbol of the name of the channel in the symbol table of the server
+     *
+     * @return the symbol of the name
+     */
+    public Symbol getSymbol() {
+        return mSymbol;
+    }
+
+    /**
+     * Moves the channel to a symbol from the new symbol table - this changes the hash of the
+     * channel so any hash based collection holding the channel has to be rebuilt
+     *
+     * @param symbol      the symbol of the name under the new case mapping
+     * @param caseMapping the new case mapping of the server
+     */
+    void onCaseMappingChanged(final Symbol symbol, final CaseMapping caseMapping) {
+        mSymbol = symbol;
+        mMemberIndex.setCaseMapping(caseMapping);
     }
 
     private void sendChannelSelfMessage(final Supplier<ChannelEvent> function) {
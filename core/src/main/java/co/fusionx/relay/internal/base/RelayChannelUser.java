@@ -32,14 +32,26 @@ public class RelayChannelUser implements ChannelUser {
 
     public void addChannel(final RelayChannel channel, final UserLevel level) {
         mUserLevelMap.put(channel, level);
+        channel.onUserChanged(this, level);
     }
 
     public void removeChannel(final RelayChannel channel) {
         mUserLevelMap.remove(channel);
     }
 
+    /**
+     * Rebuilds the map of channels after the hashes of the channels changed - the order of
+     * the channels is kept
+     */
+    void onChannelsRehashed() {
+        final Map<RelayChannel, UserLevel> levels = new LinkedHashMap<>(mUserLevelMap);
+        mUserLevelMap.clear();
+        mUserLevelMap.putAll(levels);
+    }
+
     public void onModeChanged(final RelayChannel channel, final UserLevel mode) {
         mUserLevelMap.put(channel, mode);
+        channel.onUserChanged(this, mode);
     }
 
     @Override
@@ -67,6 +79,9 @@ public class RelayChannelUser implements ChannelUser {
 
     public void setNick(final String nick) {
         mNick = new RelayNick(nick);
+        for (final Map.Entry<RelayChannel, UserLevel> entry : mUserLevelMap.entrySet()) {
+            entry.getKey().onUserChanged(this, entry.getValue());
+        }
     }
 
     public boolean isNickEqual(final String nick) {
@@ -2,8 +2,7 @@ package co.fusionx.relay.internal.base;
 
 import com.google.common.collect.FluentIterable;
 
-import android.util.Pair;
-
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -13,6 +12,8 @@ import co.fusionx.relay.base.ConnectionStatus;
 import co.fusionx.relay.base.Server;
 import co.fusionx.relay.base.ServerConfiguration;
 import co.fusionx.relay.interfaces.RelayConfiguration;
+import co.fusionx.relay.internal.transport.RelayEventLoopGroup;
+import co.fusionx.relay.misc.Pair;
 import co.fusionx.relay.misc.RelayConfigurationProvider;
 import dagger.ObjectGraph;
 
@@ -22,7 +23,10 @@ public class RelayConnectionManager implements ConnectionManager {
 
     private final Map<String, RelayIRCConnection> mConnectionMap = new HashMap<>();
 
-    private RelayConnectionManager() {
+    private final RelayEventLoopGroup mEventLoopGroup;
+
+    private RelayConnectionManager(final RelayEventLoopGroup eventLoopGroup) {
+        mEventLoopGroup = eventLoopGroup;
     }
 
     /**
@@ -34,12 +38,41 @@ public class RelayConnectionManager implements ConnectionManager {
      */
     public static ConnectionManager getConnectionManager(final RelayConfiguration preferences) {
         if (sConnectionManager == null) {
-            sConnectionManager = new RelayConnectionManager();
+            sConnectionManager = new RelayConnectionManager(null);
             RelayConfigurationProvider.onInterfaceReceived(preferences);
         }
         return sConnectionManager;
     }
 
+    /**
+     * Returns a singleton connection manager which is lazily created. Rather than creating a
+     * thread for each server, the sockets of all the servers are multiplexed onto a fixed
+     * number of selector threads
+     *
+     * If the selector threads cannot be created, the manager falls back to using a thread for
+     * each server
+     *
+     * @param preferences    a concrete implementation of the
+     *                       {@link co.fusionx.relay.interfaces.RelayConfiguration} interface
+     * @param eventLoopCount the number of selector threads to share between the servers
+     * @return the connection manager which was created
+     */
+    public static ConnectionManager getConnectionManager(final RelayConfiguration preferences,
+            final int eventLoopCount) {
+        if (sConnectionManager == null) {
+            RelayConfigurationProvider.onInterfaceReceived(preferences);
+
+            RelayEventLoopGroup eventLoopGroup = null;
+            try {
+                eventLoopGroup = new RelayEventLoopGroup(eventLoopCount);
+            } catch (final IOException ex) {
+                preferences.handleException(ex);
+            }
+            sConnectionManager = new RelayConnectionManager(eventLoopGroup);
+        }
+        return sConnectionManager;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -53,7 +86,7 @@ public class RelayConnectionManager implements ConnectionManager {
             final ObjectGraph objectGraph = ObjectGraph.create(new RelayBaseModule(configuration));
             connection = objectGraph.get(RelayIRCConnection.class);
 
-            connection.startConnection();
+            startConnection(connection);
             mConnectionMap.put(configuration.getTitle(), connection);
         }
         return new Pair<>(exists, connection.getServer());
@@ -74,7 +107,7 @@ public class RelayConnectionManager implements ConnectionManager {
             throw new IllegalArgumentException("Server not in disconnected state");
         }
 
-        connection.startConnection();
+        startConnection(connection);
     }
 
     /**
@@ -129,4 +162,12 @@ public class RelayConnectionManager implements ConnectionManager {
                 .transform(RelayIRCConnection::getServer)
                 .toSet();
     }
+
+    private void startConnection(final RelayIRCConnection connection) {
+        if (mEventLoopGroup == null) {
+            connection.startConnection();
+        } else {
+            connection.startConnection(mEventLoopGroup.next());
+        }
+    }
 }
\ No newline at end of file
@@ -3,7 +3,6 @@ package co.fusionx.relay.internal.base;
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.net.Socket;
@@ -33,13 +32,18 @@ import co.fusionx.relay.internal.parser.main.ServerLineParser;
 import co.fusionx.relay.internal.sender.BaseSender;
 import co.fusionx.relay.internal.sender.RelayCapSender;
 import co.fusionx.relay.internal.sender.RelayInternalSender;
+import co.fusionx.relay.internal.transport.LineReader;
+import co.fusionx.relay.internal.transport.RelayEventLoop;
+import co.fusionx.relay.internal.transport.SelectorTransport;
 import co.fusionx.relay.util.SocketUtils;
 import co.fusionx.relay.util.Utils;
 
 import static co.fusionx.relay.internal.parser.connection.ConnectionParser.ParseStatus;
 import static co.fusionx.relay.misc.RelayConfigurationProvider.getPreferences;
 
-public class RelayIRCConnection {
+public class RelayIRCConnection implements SelectorTransport.Callback {
+
+    private static final int RECONNECT_DELAY_MILLIS = 5000;
 
     private final ServerConfiguration mServerConfiguration;
 
@@ -55,6 +59,17 @@ public class RelayIRCConnection {
 
     private Socket mSocket;
 
+    // Only used when the connection is driven by an event loop rather than its own thread
+    private RelayEventLoop mEventLoop;
+
+    private SelectorTransport mTransport;
+
+    private RelayEventLoop.ScheduledTask mReconnectTask;
+
+    private ConnectionParser mConnectionParser;
+
+    private ServerLineParser mLineParser;
+
     private int mReconnectAttempts;
 
     private boolean mStopped;
@@ -75,10 +90,27 @@ public class RelayIRCConnection {
         mConnectionThread.start();
     }
 
+    /**
+     * Starts the connection on the event loop instead of a dedicated thread - every callback
+     * and all the parsing happens on the loop thread
+     *
+     * @param eventLoop the loop which should drive this connection
+     */
+    void startConnection(final RelayEventLoop eventLoop) {
+        mEventLoop = eventLoop;
+        mEventLoop.execute(() -> {
+            onConnecting();
+            mReconnectAttempts = 0;
+            openTransport();
+        });
+    }
+
     void stopConnection() {
         if (mServer.getStatus() == ConnectionStatus.CONNECTED) {
             mStopped = true;
             mInternalSender.quitServer(getPreferences().getQuitReason());
+        } else if (mEventLoop != null) {
+            mEventLoop.execute(this::cancelTransport);
         } else if (mConnectionThread.isAlive()) {
             mConnectionThread.interrupt();
         }
@@ -150,7 +182,8 @@ public class RelayIRCConnection {
     private void initializeConnection() throws IOException {
         mSocket = SocketUtils.openSocketConnection(mServerConfiguration);
 
-        final BufferedReader socketReader = SocketUtils.getSocketBufferedReader(mSocket);
+        final LineReader socketReader = SocketUtils.getSocketLineReader(mSocket,
+                mServerConfiguration);
         final BufferedWriter socketWriter = SocketUtils.getSocketBufferedWriter(mSocket);
         mServer.onOutputStreamCreated(socketWriter);
 
@@ -186,10 +219,19 @@ public class RelayIRCConnection {
                 Utils.returnNonEmpty(mServerConfiguration.getRealName(), "RelayUser"));
     }
 
-    private void onStartParsing(final String nick, final BufferedReader reader) throws IOException {
+    private void onStartParsing(final String nick, final LineReader reader) throws IOException {
+        onStartParsing(nick);
+
+        // Initialise the parser used to parse any lines from the server
+        final ServerLineParser lineParser = new ServerLineParser(mServer, mBaseSender);
+        // Loops forever until broken
+        lineParser.parseMain(reader);
+    }
+
+    private void onStartParsing(final String nick) {
         // Since we are now connected, reset the reconnect attempts
         mReconnectAttempts = 0;
-        mServer.getUser().setNick(nick);
+        mServer.getUserChannelInterface().changeNick(mServer.getUser(), nick);
         onConnected();
 
         // Identifies with NickServ if the password exists
@@ -208,11 +250,84 @@ public class RelayIRCConnection {
                 mServer.sendJoin(channel.getName());
             }
         }
+    }
 
-        // Initialise the parser used to parse any lines from the server
-        final ServerLineParser lineParser = new ServerLineParser(mServer, mBaseSender);
-        // Loops forever until broken
-        lineParser.parseMain(reader);
+    // SelectorTransport callbacks - all of these are called on the event loop thread
+    @Override
+    public void onTransportConnected(final BufferedWriter writer) {
+        mServer.onOutputStreamCreated(writer);
+
+        // We are now in the phase where we can say we are registering to the server
+        onRegistering();
+
+        // Send the registration messages to the server
+        sendInitialMessages();
+
+        mConnectionParser = new ConnectionParser(mServer, mBaseSender);
+    }
+
+    @Override
+    public void onTransportLine(final String line) {
+        if (mLineParser != null) {
+            if (mLineParser.parseLine(line)) {
+                mTransport.close();
+            }
+            return;
+        }
+
+        final ConnectionParser.ConnectionLineParseStatus status =
+                mConnectionParser.parseLine(line);
+        if (status.getStatus() == ParseStatus.NICK && Utils.isNotEmpty(status.getNick())) {
+            onStartParsing(status.getNick());
+            mLineParser = new ServerLineParser(mServer, mBaseSender, mEventLoop);
+        } else if (status.getStatus() != ParseStatus.OTHER) {
+            mTransport.close();
+        }
+    }
+
+    @Override
+    public void onTransportClosed(final String message) {
+        if (mLineParser != null) {
+            mLineParser.flushPendingEvents();
+        }
+        mTransport = null;
+        mConnectionParser = null;
+        mLineParser = null;
+
+        if (mStopped) {
+            onStopped();
+        } else {
+            onDisconnected(message, isReconnectNeeded());
+        }
+        mServer.onConnectionTerminated();
+
+        if (mStopped) {
+            return;
+        }
+        if (isReconnectNeeded()) {
+            onReconnecting();
+            mReconnectAttempts++;
+            mReconnectTask = mEventLoop.schedule(this::openTransport, RECONNECT_DELAY_MILLIS);
+        } else {
+            onDisconnected("Disconnected from server (no reconnect pending).", false);
+        }
+    }
+
+    private void openTransport() {
+        mReconnectTask = null;
+        mTransport = new SelectorTransport(mEventLoop, mServerConfiguration, this);
+        mTransport.open();
+    }
+
+    private void cancelTransport() {
+        if (mReconnectTask != null) {
+            // Mirrors interrupting the sleeping thread - simply give up reconnecting
+            mReconnectTask.cancel();
+            mReconnectTask = null;
+        } else if (mTransport != null) {
+            mStopped = true;
+            mTransport.close();
+        }
     }
 
     private void onConnecting() {
@@ -260,6 +375,8 @@ public class RelayIRCConnection {
             user.markInvalid();
         }
 
+        mServer.getDCCManager().closeAll();
+
         mServer.postAndStoreEvent(new StopEvent(mServer));
         mServer.markInvalid();
     }
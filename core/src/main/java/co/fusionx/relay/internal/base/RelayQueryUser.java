@@ -1,8 +1,5 @@
 package co.fusionx.relay.internal.base;
 
-import android.text.TextUtils;
-import android.util.Pair;
-
 import java.util.List;
 
 import co.fusionx.relay.base.FormatSpanInfo;
@@ -15,6 +12,7 @@ import co.fusionx.relay.event.query.QueryEvent;
 import co.fusionx.relay.event.query.QueryMessageSelfEvent;
 import co.fusionx.relay.internal.sender.BaseSender;
 import co.fusionx.relay.internal.sender.RelayQuerySender;
+import co.fusionx.relay.misc.Pair;
 import co.fusionx.relay.sender.QuerySender;
 import co.fusionx.relay.util.Utils;
 
@@ -56,7 +54,7 @@ public class RelayQueryUser extends RelayAbstractConversation<QueryEvent> implem
     public void sendAction(final String action) {
         mQuerySender.sendAction(action);
 
-        if (TextUtils.isEmpty(action) || getPreferences().isSelfEventHidden()) {
+        if (Utils.isEmpty(action) || getPreferences().isSelfEventHidden()) {
             return;
         }
         final Pair<String, List<FormatSpanInfo>> actionAndColors =
@@ -69,7 +67,7 @@ public class RelayQueryUser extends RelayAbstractConversation<QueryEvent> implem
     public void sendMessage(final String message) {
         mQuerySender.sendMessage(message);
 
-        if (TextUtils.isEmpty(message) || getPreferences().isSelfEventHidden()) {
+        if (Utils.isEmpty(message) || getPreferences().isSelfEventHidden()) {
             return;
         }
         final Pair<String, List<FormatSpanInfo>> messageAndColors =
@@ -6,6 +6,7 @@ import com.google.common.collect.ImmutableSet;
 import java.io.BufferedWriter;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -14,12 +15,17 @@ import co.fusionx.relay.base.ConnectionStatus;
 import co.fusionx.relay.base.Server;
 import co.fusionx.relay.base.ServerConfiguration;
 import co.fusionx.relay.constants.CapCapability;
+import co.fusionx.relay.constants.CaseMapping;
 import co.fusionx.relay.event.Event;
 import co.fusionx.relay.event.server.NewPrivateMessageEvent;
 import co.fusionx.relay.event.server.ServerEvent;
 import co.fusionx.relay.internal.dcc.RelayDCCManager;
+import co.fusionx.relay.internal.parser.main.HighlightMatcher;
 import co.fusionx.relay.internal.sender.BaseSender;
 import co.fusionx.relay.misc.EventBus;
+import co.fusionx.relay.misc.EventFilter;
+import co.fusionx.relay.misc.EventHandler;
+import co.fusionx.relay.misc.ServerSupport;
 import co.fusionx.relay.sender.ServerSender;
 
 public class RelayServer extends RelayAbstractConversation<ServerEvent> implements Server {
@@ -28,6 +34,8 @@ public class RelayServer extends RelayAbstractConversation<ServerEvent> implemen
 
     private final EventBus<Event> mServerWideEventBus;
 
+    private final EventRouter mEventRouter;
+
     private final Set<CapCapability> mCapabilities;
 
     private final RelayUserChannelInterface mUserChannelInterface;
@@ -40,10 +48,15 @@ public class RelayServer extends RelayAbstractConversation<ServerEvent> implemen
 
     private ConnectionStatus mStatus = ConnectionStatus.DISCONNECTED;
 
+    private HighlightMatcher mHighlightMatcher;
+
+    // Replaced as a whole so other threads always see a consistent model
+    private volatile ServerSupport mServerSupport = ServerSupport.DEFAULT;
+
     @Inject
     RelayServer(final ServerConfiguration configuration,
             final BaseSender baseSender, final ServerSender serverSender) {
-        super(null);
+        super(null, configuration);
 
         mConfiguration = configuration;
         mBaseSender = baseSender;
@@ -53,6 +66,7 @@ public class RelayServer extends RelayAbstractConversation<ServerEvent> implemen
         mRelayDCCManager = new RelayDCCManager(this, baseSender);
 
         mServerWideEventBus = new EventBus<>();
+        mEventRouter = new EventRouter();
 
         mCapabilities = new HashSet<>();
     }
@@ -98,16 +112,17 @@ public class RelayServer extends RelayAbstractConversation<ServerEvent> implemen
     }
 
     // Internal methods
-    public void postAndStoreEvent(final ServerEvent event) {
-        mBuffer.add(event);
-
-        mEventBus.post(event);
-        mServerWideEventBus.post(event);
+    EventRouter getEventRouter() {
+        return mEventRouter;
     }
 
     public void onConnectionTerminated() {
         mUserChannelInterface.onConnectionTerminated();
 
+        // The server advertises its features again when the connection is made again
+        mServerSupport = ServerSupport.DEFAULT;
+        mUserChannelInterface.setCaseMapping(mServerSupport.getCaseMapping());
+
         // Need to remove anything using the old socket OutputStream in-case a reconnection occurs
         mBaseSender.onConnectionTerminated();
     }
@@ -124,10 +139,37 @@ public class RelayServer extends RelayAbstractConversation<ServerEvent> implemen
         return ImmutableSet.copyOf(mCapabilities);
     }
 
+    /**
+     * Applies the tokens of an ISUPPORT reply - names are reindexed if the case mapping of the
+     * server has changed
+     *
+     * @param tokens the tokens of the reply without the target or the trailing text
+     */
+    public void onServerSupportReceived(final List<String> tokens) {
+        mServerSupport = mServerSupport.withTokens(tokens);
+        mUserChannelInterface.setCaseMapping(mServerSupport.getCaseMapping());
+    }
+
     public void updateStatus(final ConnectionStatus status) {
         mStatus = status;
     }
 
+    /**
+     * Returns the matcher for the highlights of the user - the matcher is only recompiled when
+     * the nick of the user or the case mapping of the server has changed
+     *
+     * @return the matcher for the current nick of the user
+     */
+    public HighlightMatcher getHighlightMatcher() {
+        final String nick = getUser().getNick().getNickAsString();
+        final CaseMapping caseMapping = mUserChannelInterface.getCaseMapping();
+        if (mHighlightMatcher == null || !mHighlightMatcher.isCompiledFor(nick, caseMapping)) {
+            mHighlightMatcher = new HighlightMatcher(nick, caseMapping,
+                    mConfiguration.getHighlightWords(), mConfiguration.getHighlightPatterns());
+        }
+        return mHighlightMatcher;
+    }
+
     // Conversation Interface
     @Override
     public String getId() {
@@ -170,11 +212,27 @@ public class RelayServer extends RelayAbstractConversation<ServerEvent> implemen
         return mServerWideEventBus;
     }
 
+    @Override
+    public <E extends Event> void subscribe(final EventFilter<E> filter,
+            final EventHandler<? super E> handler) {
+        mEventRouter.subscribe(filter, handler);
+    }
+
+    @Override
+    public void unsubscribe(final EventHandler<?> handler) {
+        mEventRouter.unsubscribe(handler);
+    }
+
     @Override
     public ServerConfiguration getConfiguration() {
         return mConfiguration;
     }
 
+    @Override
+    public ServerSupport getServerSupport() {
+        return mServerSupport;
+    }
+
     @Override
     public RelayDCCManager getDCCManager() {
         return mRelayDCCManager;
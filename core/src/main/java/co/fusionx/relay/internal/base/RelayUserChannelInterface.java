@@ -1,21 +1,28 @@
 package co.fusionx.relay.internal.base;
 
 import com.google.common.base.Optional;
-import com.google.common.collect.FluentIterable;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import co.fusionx.relay.base.Server;
 import co.fusionx.relay.base.UserChannelInterface;
+import co.fusionx.relay.constants.CaseMapping;
 import co.fusionx.relay.constants.UserLevel;
 import co.fusionx.relay.internal.sender.BaseSender;
 import co.fusionx.relay.util.ParseUtils;
 
 public class RelayUserChannelInterface implements UserChannelInterface {
 
+    private static final int MIN_SYMBOLS_TO_PRUNE = 1024;
+
     private final Collection<RelayQueryUser> mQueryUsers;
 
     private final Set<RelayChannelUser> mUsers;
@@ -26,6 +33,18 @@ public class RelayUserChannelInterface implements UserChannelInterface {
 
     private final BaseSender mBaseSender;
 
+    // Indexes keyed by the symbol of the name - these have to be kept in sync with the
+    // collections above so that lookups never need to scan
+    private final Map<Symbol, RelayChannel> mChannelIndex;
+
+    private final Map<Symbol, RelayChannelUser> mUserIndex;
+
+    private final Map<Symbol, RelayQueryUser> mQueryUserIndex;
+
+    private CaseMapping mCaseMapping;
+
+    private SymbolTable mSymbols;
+
     RelayUserChannelInterface(final Server server, final BaseSender baseSender) {
         mServer = server;
         mBaseSender = baseSender;
@@ -33,8 +52,14 @@ public class RelayUserChannelInterface implements UserChannelInterface {
         // Set the nick name to the first choice nick
         mUser = new RelayMainUser(server.getConfiguration().getNickStorage().getFirst());
 
+        mCaseMapping = CaseMapping.RFC1459;
+        mSymbols = new SymbolTable(mCaseMapping);
+        mChannelIndex = new HashMap<>();
+        mUserIndex = new HashMap<>();
+        mQueryUserIndex = new HashMap<>();
+
         mUsers = new HashSet<>();
-        mUsers.add(mUser);
+        addToUsers(mUser);
 
         mQueryUsers = new LinkedHashSet<>();
     }
@@ -44,11 +69,9 @@ public class RelayUserChannelInterface implements UserChannelInterface {
      */
     @Override
     public Optional<RelayChannel> getChannel(final String name) {
-        // Channel names have to unique disregarding case - not having ignore-case here leads
+        // Channel names have to unique disregarding case - not folding the case here leads
         // to null channels when the channel does actually exist
-        return FluentIterable.from(mUser.getChannels())
-                .filter(c -> name.equalsIgnoreCase(c.getName()))
-                .first();
+        return Optional.fromNullable(get(mChannelIndex, name));
     }
 
     /**
@@ -56,9 +79,7 @@ public class RelayUserChannelInterface implements UserChannelInterface {
      */
     @Override
     public Optional<RelayChannelUser> getUser(final String nick) {
-        return FluentIterable.from(mUsers)
-                .filter(u -> nick.equals(u.getNick().getNickAsString()))
-                .first();
+        return Optional.fromNullable(get(mUserIndex, nick));
     }
 
     /**
@@ -74,9 +95,7 @@ public class RelayUserChannelInterface implements UserChannelInterface {
      */
     @Override
     public Optional<RelayQueryUser> getQueryUser(final String nick) {
-        return FluentIterable.from(mQueryUsers)
-                .filter(u -> nick.equals(u.getNick().getNickAsString()))
-                .first();
+        return Optional.fromNullable(get(mQueryUserIndex, nick));
     }
 
     /**
@@ -124,10 +143,37 @@ public class RelayUserChannelInterface implements UserChannelInterface {
      * @return the channels the user had joined
      */
     public Collection<RelayChannel> removeUser(final RelayChannelUser user) {
-        mUsers.remove(user);
+        removeFromUsers(user);
         return user.getChannels();
     }
 
+    /**
+     * Remove many users from the global list and from every channel they had joined in a single
+     * pass - used when a netsplit removes a large number of users at once
+     *
+     * @param users the users to remove
+     * @return the users removed from each channel - channels are in the order they were first
+     * found
+     */
+    public Map<RelayChannel, List<RelayChannelUser>> removeUsers(
+            final Collection<RelayChannelUser> users) {
+        final Map<RelayChannel, List<RelayChannelUser>> removed = new LinkedHashMap<>();
+        for (final RelayChannelUser user : users) {
+            removeFromUsers(user);
+            for (final RelayChannel channel : user.getChannels()) {
+                removeUserFromChannel(channel, user);
+
+                List<RelayChannelUser> channelUsers = removed.get(channel);
+                if (channelUsers == null) {
+                    channelUsers = new ArrayList<>();
+                    removed.put(channel, channelUsers);
+                }
+                channelUsers.add(user);
+            }
+        }
+        return removed;
+    }
+
     /**
      * Remove the channel from our list of channels and return the users in the channel
      *
@@ -136,6 +182,7 @@ public class RelayUserChannelInterface implements UserChannelInterface {
      */
     public Collection<RelayChannelUser> removeChannel(final RelayChannel channel) {
         mServer.getUser().getChannels().remove(channel);
+        removeFromIndex(mChannelIndex, channel.getName(), channel);
         channel.markInvalid();
         return channel.getUsers();
     }
@@ -160,9 +207,12 @@ public class RelayUserChannelInterface implements UserChannelInterface {
     void addChannelToUser(final RelayChannel channel, final RelayChannelUser user,
             final UserLevel userLevel) {
         user.addChannel(channel, userLevel);
+        if (user == mUser) {
+            mChannelIndex.put(channel.getSymbol(), channel);
+        }
 
         // Also remember to add the user to the global list
-        mUsers.add(user);
+        addToUsers(user);
     }
 
     /**
@@ -188,8 +238,10 @@ public class RelayUserChannelInterface implements UserChannelInterface {
 
         // The app user check is to make sure that the app user isn't removed from the list of
         // users
-        if (setOfChannels.size() == 0 && !(user instanceof RelayMainUser)) {
-            mUsers.remove(user);
+        if (user == mUser) {
+            removeFromIndex(mChannelIndex, channel.getName(), channel);
+        } else if (setOfChannels.size() == 0 && !(user instanceof RelayMainUser)) {
+            removeFromUsers(user);
         }
     }
 
@@ -211,18 +263,40 @@ public class RelayUserChannelInterface implements UserChannelInterface {
         return getUser(nick).or(new RelayChannelUser(nick));
     }
 
+    /**
+     * Changes the nick of the user and moves the user to the new nick in the global list - the
+     * nick of a user must never be changed directly or the user can no longer be found
+     *
+     * @param user    the user whose nick changed
+     * @param newNick the new nick of the user
+     */
+    public void changeNick(final RelayChannelUser user, final String newNick) {
+        final boolean known = removeFromIndex(mUserIndex, user.getNick().getNickAsString(), user);
+        user.setNick(newNick);
+        if (known) {
+            mUserIndex.put(mSymbols.intern(newNick), user);
+        }
+    }
+
     public RelayChannel getNewChannel(final String channelName) {
-        return new RelayChannel(mServer, mUser, mBaseSender, channelName);
+        return new RelayChannel(mServer, mUser, mBaseSender, channelName,
+                mSymbols.intern(channelName));
+    }
+
+    public SymbolTable getSymbolTable() {
+        return mSymbols;
     }
 
     public RelayQueryUser addQueryUser(final String nick) {
         final RelayQueryUser user = new RelayQueryUser(mServer, this, mBaseSender, nick);
         mQueryUsers.add(user);
+        mQueryUserIndex.put(mSymbols.intern(nick), user);
         return user;
     }
 
     public void removeQueryUser(final RelayQueryUser user) {
         mQueryUsers.remove(user);
+        removeFromIndex(mQueryUserIndex, user.getNick().getNickAsString(), user);
         user.markInvalid();
     }
 
@@ -234,11 +308,99 @@ public class RelayUserChannelInterface implements UserChannelInterface {
         return mUser;
     }
 
+    public CaseMapping getCaseMapping() {
+        return mCaseMapping;
+    }
+
+    /**
+     * Changes the rules used to compare names - every index is rebuilt as names which were
+     * equal under the old mapping may not be under the new one
+     *
+     * @param caseMapping the case mapping advertised by the server
+     */
+    public void setCaseMapping(final CaseMapping caseMapping) {
+        if (mCaseMapping == caseMapping) {
+            return;
+        }
+        mCaseMapping = caseMapping;
+        mSymbols = new SymbolTable(caseMapping);
+
+        final List<RelayChannel> channels = new ArrayList<>(mChannelIndex.values());
+        mChannelIndex.clear();
+        for (final RelayChannel channel : channels) {
+            channel.onCaseMappingChanged(mSymbols.intern(channel.getName()), caseMapping);
+            mChannelIndex.put(channel.getSymbol(), channel);
+        }
+
+        // The hashes of the channels may have changed so the maps of the users holding them
+        // have to be rebuilt
+        mUserIndex.clear();
+        for (final RelayChannelUser user : mUsers) {
+            user.onChannelsRehashed();
+            mUserIndex.put(mSymbols.intern(user.getNick().getNickAsString()), user);
+        }
+
+        mQueryUserIndex.clear();
+        for (final RelayQueryUser user : mQueryUsers) {
+            mQueryUserIndex.put(mSymbols.intern(user.getNick().getNickAsString()), user);
+        }
+    }
+
     public void onConnectionTerminated() {
         // Clear the global list of users - it's now invalid
         mUsers.clear();
+        mUserIndex.clear();
 
         // Keep our own user inside though
-        mUsers.add(mUser);
+        addToUsers(mUser);
+        pruneSymbols();
+    }
+
+    private void addToUsers(final RelayChannelUser user) {
+        if (mUsers.add(user)) {
+            mUserIndex.put(mSymbols.intern(user.getNick().getNickAsString()), user);
+        }
+    }
+
+    private void removeFromUsers(final RelayChannelUser user) {
+        if (mUsers.remove(user)) {
+            removeFromIndex(mUserIndex, user.getNick().getNickAsString(), user);
+
+            // Symbols of users who have left are only dropped once they make up most of the
+            // table so the cost of pruning is spread over many removals
+            if (mSymbols.size() > MIN_SYMBOLS_TO_PRUNE
+                    && mSymbols.size() > 2 * (mUserIndex.size() + mChannelIndex.size()
+                    + mQueryUserIndex.size())) {
+                pruneSymbols();
+            }
+        }
+    }
+
+    private void pruneSymbols() {
+        final Set<Symbol> symbols = new HashSet<>(mUserIndex.keySet());
+        symbols.addAll(mChannelIndex.keySet());
+        symbols.addAll(mQueryUserIndex.keySet());
+        mSymbols.retainAll(symbols);
+    }
+
+    private <T> T get(final Map<Symbol, T> index, final String name) {
+        final Symbol symbol = mSymbols.find(name);
+        return symbol == null ? null : index.get(symbol);
+    }
+
+    /**
+     * Removes the value from the index only if it is still the one stored for the name - a
+     * different object may have taken its place in the meantime
+     *
+     * @return whether the value was removed
+     */
+    private <T> boolean removeFromIndex(final Map<Symbol, T> index, final String name,
+            final T value) {
+        final Symbol key = mSymbols.find(name);
+        if (key != null && index.get(key) == value) {
+            index.remove(key);
+            return true;
+        }
+        return false;
     }
 }
\ No newline at end of file
@@ -0,0 +1,257 @@
+package co.fusionx.relay.internal.base;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import co.fusionx.relay.event.Event;
+
+/**
+ * Limits the number and estimated size of the events stored by all the conversations of all the
+ * servers together
+ *
+ * Once a limit is exceeded, the oldest events of the conversation which is appending are evicted
+ * if it holds more than its fair share of the budget - otherwise the oldest events of the
+ * largest conversation are evicted instead so that quiet conversations keep their history.
+ *
+ * Only buffers created while a limit is set share the budget - buffers of a budget without
+ * limits never take its lock. The usage of every buffer is kept sorted so that the largest
+ * buffer is found in O(log n) rather than by scanning every conversation.
+ */
+public class ScrollbackBudget {
+
+    private static final ScrollbackBudget sGlobalBudget = new ScrollbackBudget();
+
+    private static final Comparator<Usage> sByEvents = (lhs, rhs) -> {
+        if (lhs.mEvents != rhs.mEvents) {
+            return lhs.mEvents < rhs.mEvents ? -1 : 1;
+        }
+        return compareSequence(lhs, rhs);
+    };
+
+    private static final Comparator<Usage> sByBytes = (lhs, rhs) -> {
+        if (lhs.mBytes != rhs.mBytes) {
+            return lhs.mBytes < rhs.mBytes ? -1 : 1;
+        }
+        return compareSequence(lhs, rhs);
+    };
+
+    private final Map<EventBuffer<?>, Usage> mUsages;
+
+    private final TreeSet<Usage> mUsagesByEvents;
+
+    private final TreeSet<Usage> mUsagesByBytes;
+
+    private long mNextSequence;
+
+    private int mMaxEvents;
+
+    private long mMaxBytes;
+
+    private long mEventCount;
+
+    private long mByteCount;
+
+    private long mEvictedEvents;
+
+    private long mEvictedBytes;
+
+    ScrollbackBudget() {
+        // Identity is needed as buffers are lists which are equal when their contents are
+        mUsages = new IdentityHashMap<>();
+        mUsagesByEvents = new TreeSet<>(sByEvents);
+        mUsagesByBytes = new TreeSet<>(sByBytes);
+    }
+
+    /**
+     * Returns the budget shared by the buffers of every conversation created by the library
+     *
+     * @return the global budget
+     */
+    public static ScrollbackBudget getGlobalBudget() {
+        return sGlobalBudget;
+    }
+
+    /**
+     * Sets the limits of this budget - these are enforced the next time an event is appended
+     *
+     * Conversations only count towards the budget if a limit was set when they were created so
+     * the limits should be set before any server is created.
+     *
+     * @param maxEvents the maximum number of events across all buffers - zero or less means no
+     *                  limit
+     * @param maxBytes  the maximum estimated size of the events across all buffers - zero or less
+     *                  means no limit
+     */
+    public synchronized void setLimits(final int maxEvents, final long maxBytes) {
+        mMaxEvents = maxEvents;
+        mMaxBytes = maxBytes;
+    }
+
+    /**
+     * Returns whether either limit of this budget is set
+     *
+     * @return true if new buffers should share this budget
+     */
+    public synchronized boolean isLimited() {
+        return mMaxEvents > 0 || mMaxBytes > 0;
+    }
+
+    public synchronized long getEventCount() {
+        return mEventCount;
+    }
+
+    public synchronized long getEstimatedByteCount() {
+        return mByteCount;
+    }
+
+    /**
+     * Returns the number of events which were evicted because this budget was exceeded
+     *
+     * @return the number of evicted events
+     */
+    public synchronized long getEvictedEventCount() {
+        return mEvictedEvents;
+    }
+
+    /**
+     * Returns the estimated size of the events which were evicted because this budget was
+     * exceeded
+     *
+     * @return the estimated size in bytes of the evicted events
+     */
+    public synchronized long getEvictedByteCount() {
+        return mEvictedBytes;
+    }
+
+    synchronized void register(final EventBuffer<?> buffer) {
+        if (mUsages.containsKey(buffer)) {
+            return;
+        }
+        final Usage usage = new Usage(buffer, mNextSequence++);
+        synchronized (buffer) {
+            usage.mEvents = buffer.size();
+            usage.mBytes = buffer.getEstimatedByteCount();
+        }
+        mUsages.put(buffer, usage);
+        mUsagesByEvents.add(usage);
+        mUsagesByBytes.add(usage);
+        mEventCount += usage.mEvents;
+        mByteCount += usage.mBytes;
+    }
+
+    synchronized void unregister(final EventBuffer<?> buffer) {
+        final Usage usage = mUsages.remove(buffer);
+        if (usage != null) {
+            mUsagesByEvents.remove(usage);
+            mUsagesByBytes.remove(usage);
+            mEventCount -= usage.mEvents;
+            mByteCount -= usage.mBytes;
+        }
+    }
+
+    synchronized <T extends Event> void append(final EventBuffer<T> buffer, final T event) {
+        final long[] change = buffer.append(event);
+        final Usage usage = mUsages.get(buffer);
+        if (usage == null) {
+            return;
+        }
+        onUsageChanged(usage, change[0], change[1]);
+
+        while (isOverLimit()) {
+            if (!evictFrom(getVictim(buffer)) && !evictFrom(getLargestBuffer())) {
+                // Every buffer is down to its last event - nothing more can be done
+                break;
+            }
+        }
+    }
+
+    synchronized void clear(final EventBuffer<?> buffer) {
+        final long[] removed = buffer.removeAll();
+        final Usage usage = mUsages.get(buffer);
+        if (usage != null) {
+            onUsageChanged(usage, -removed[0], -removed[1]);
+        }
+    }
+
+    private boolean isOverLimit() {
+        return isOverEventLimit() || (mMaxBytes > 0 && mByteCount > mMaxBytes);
+    }
+
+    private boolean isOverEventLimit() {
+        return mMaxEvents > 0 && mEventCount > mMaxEvents;
+    }
+
+    private EventBuffer<?> getVictim(final EventBuffer<?> appendingBuffer) {
+        final long fairShare;
+        final long used;
+        if (isOverEventLimit()) {
+            fairShare = mEventCount / mUsages.size();
+            used = appendingBuffer.size();
+        } else {
+            fairShare = mByteCount / mUsages.size();
+            used = appendingBuffer.getEstimatedByteCount();
+        }
+        return used > fairShare ? appendingBuffer : getLargestBuffer();
+    }
+
+    private EventBuffer<?> getLargestBuffer() {
+        final TreeSet<Usage> usages = isOverEventLimit() ? mUsagesByEvents : mUsagesByBytes;
+        return usages.isEmpty() ? null : usages.last().mBuffer;
+    }
+
+    private boolean evictFrom(final EventBuffer<?> buffer) {
+        final Usage usage = buffer == null ? null : mUsages.get(buffer);
+        if (usage == null) {
+            return false;
+        }
+        final long size = buffer.evictOldest();
+        if (size < 0) {
+            return false;
+        }
+        onUsageChanged(usage, -1, -size);
+        mEvictedEvents++;
+        mEvictedBytes += size;
+        return true;
+    }
+
+    // The sorted sets have to be updated around the change as their order depends on the usage
+    private void onUsageChanged(final Usage usage, final long events, final long bytes) {
+        mUsagesByEvents.remove(usage);
+        mUsagesByBytes.remove(usage);
+        usage.mEvents += events;
+        usage.mBytes += bytes;
+        mUsagesByEvents.add(usage);
+        mUsagesByBytes.add(usage);
+
+        mEventCount += events;
+        mByteCount += bytes;
+    }
+
+    private static int compareSequence(final Usage lhs, final Usage rhs) {
+        if (lhs.mSequence == rhs.mSequence) {
+            return 0;
+        }
+        return lhs.mSequence < rhs.mSequence ? -1 : 1;
+    }
+
+    // The usage of a buffer as last counted by the budget - the live size of the buffer can not
+    // be used to order the sets as it changes before the sets are updated
+    private static class Usage {
+
+        private final EventBuffer<?> mBuffer;
+
+        // Breaks ties so that buffers of the same size are still distinct in the sets
+        private final long mSequence;
+
+        private long mEvents;
+
+        private long mBytes;
+
+        private Usage(final EventBuffer<?> buffer, final long sequence) {
+            mBuffer = buffer;
+            mSequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package co.fusionx.relay.internal.base;
+
+/**
+ * A nick or channel name interned by a {@link SymbolTable}
+ *
+ * A table only ever holds one symbol for a folded name so symbols from the same table are
+ * compared by identity. The hash is worked out from the folded name once when the symbol is
+ * created - symbols with the same folded name have the same hash even across tables.
+ */
+public final class Symbol {
+
+    private final String mFolded;
+
+    private final int mHash;
+
+    Symbol(final String folded, final int hash) {
+        mFolded = folded;
+        mHash = hash;
+    }
+
+    /**
+     * Returns the name folded with the case mapping of the table which created this symbol
+     *
+     * @return the folded name
+     */
+    public String getFolded() {
+        return mFolded;
+    }
+
+    @Override
+    public int hashCode() {
+        return mHash;
+    }
+
+    @Override
+    public String toString() {
+        return mFolded;
+    }
+}
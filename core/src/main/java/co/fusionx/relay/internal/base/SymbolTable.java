@@ -0,0 +1,138 @@
+package co.fusionx.relay.internal.base;
+
+import java.util.Collection;
+
+import co.fusionx.relay.constants.CaseMapping;
+
+/**
+ * Interns the nicks and channel names of a server as {@link Symbol}s
+ *
+ * Names are folded with the case mapping of the server as they are hashed and compared so
+ * finding the symbol of a name which has already been interned does not create any objects.
+ * The symbols are kept in an open addressed table which is only ever pruned by
+ * {@link #retainAll(java.util.Collection)}.
+ */
+public class SymbolTable {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final CaseMapping mCaseMapping;
+
+    private Symbol[] mSymbols;
+
+    private int mSize;
+
+    public SymbolTable(final CaseMapping caseMapping) {
+        mCaseMapping = caseMapping;
+        mSymbols = new Symbol[INITIAL_CAPACITY];
+    }
+
+    public CaseMapping getCaseMapping() {
+        return mCaseMapping;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Finds the symbol of the name without interning it
+     *
+     * @param name the nick or channel name in any case
+     * @return the symbol or null if the name has not been interned
+     */
+    public Symbol find(final String name) {
+        final int hash = hash(name);
+        for (int i = hash & (mSymbols.length - 1); ; i = (i + 1) & (mSymbols.length - 1)) {
+            final Symbol symbol = mSymbols[i];
+            if (symbol == null || symbol.hashCode() == hash && matches(symbol, name)) {
+                return symbol;
+            }
+        }
+    }
+
+    /**
+     * Returns the symbol of the name - creating it if the name has not been seen before
+     *
+     * @param name the nick or channel name in any case
+     * @return the symbol shared by every name which folds to the same form
+     */
+    public Symbol intern(final String name) {
+        final Symbol existing = find(name);
+        if (existing != null) {
+            return existing;
+        }
+        final Symbol symbol = new Symbol(mCaseMapping.toLowerCase(name), hash(name));
+        add(symbol);
+        return symbol;
+    }
+
+    /**
+     * Drops every symbol which is not in the collection - symbols which are kept stay the same
+     * objects
+     *
+     * @param symbols the symbols which are still in use
+     */
+    public void retainAll(final Collection<Symbol> symbols) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < symbols.size() * 2) {
+            capacity *= 2;
+        }
+        mSymbols = new Symbol[capacity];
+        mSize = 0;
+        for (final Symbol symbol : symbols) {
+            if (find(symbol.getFolded()) == null) {
+                add(symbol);
+            }
+        }
+    }
+
+    private void add(final Symbol symbol) {
+        // Keep the table at most half full so probe sequences stay short
+        if ((mSize + 1) * 2 > mSymbols.length) {
+            final Symbol[] old = mSymbols;
+            mSymbols = new Symbol[old.length * 2];
+            for (final Symbol s : old) {
+                if (s != null) {
+                    insert(s);
+                }
+            }
+        }
+        insert(symbol);
+        mSize++;
+    }
+
+    private void insert(final Symbol symbol) {
+        int i = symbol.hashCode() & (mSymbols.length - 1);
+        while (mSymbols[i] != null) {
+            i = (i + 1) & (mSymbols.length - 1);
+        }
+        mSymbols[i] = symbol;
+    }
+
+    private boolean matches(final Symbol symbol, final String name) {
+        final String folded = symbol.getFolded();
+        if (folded.length() != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < folded.length(); i++) {
+            if (folded.charAt(i) != mCaseMapping.toLowerCase(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int hash(final String name) {
+        int hash = 0;
+        for (int i = 0, length = name.length(); i < length; i++) {
+            hash = 31 * hash + mCaseMapping.toLowerCase(name.charAt(i));
+        }
+        return spread(hash);
+    }
+
+    // The low bits pick the slot so the high bits are mixed into them
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -39,6 +39,8 @@ public class CommandConstants {
 
     public static final String AWAY = "AWAY";
 
+    public static final String BATCH = "BATCH";
+
     private CommandConstants() {
     }
 }
\ No newline at end of file
@@ -366,11 +366,10 @@ public final class ServerReplyCodes {
 
     private static final int RPL_MYINFO = 4;
 
-    private static final int RPL_PROTOCTL = 5;
+    public static final int RPL_ISUPPORT = 5;
 
     // Codes we know about and choose to ignore
-    public static final ImmutableList<Integer> doNothingCodes = ImmutableList.of
-            (RPL_MYINFO, RPL_PROTOCTL);
+    public static final ImmutableList<Integer> doNothingCodes = ImmutableList.of(RPL_MYINFO);
 
     private static final int RPL_STATSCONN = 250;
 
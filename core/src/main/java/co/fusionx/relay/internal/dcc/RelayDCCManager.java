@@ -1,7 +1,5 @@
 package co.fusionx.relay.internal.dcc;
 
-import com.google.common.base.Optional;
-import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableSet;
 
 import java.io.File;
@@ -72,16 +70,12 @@ public class RelayDCCManager implements DCCManager {
         // This chat is no longer pending - remove it
         mPendingConnections.remove(connection);
 
-        // Check if we have an existing conversation
-        final Optional<DCCFileConversation> optConversation = FluentIterable
-                .from(mFileConversations.values())
-                .filter(f -> f.getId().equals(connection.getDccRequestNick()))
-                .first();
-        // Get the conversation or a new one if it does not exist
-        final DCCFileConversation conversation = optConversation
-                .or(new DCCFileConversation(mServer, mBaseSender, connection.getDccRequestNick()));
-        // If the conversation was not present add it
-        if (!optConversation.isPresent()) {
+        // Get the existing conversation or a new one if it does not exist - the new one is
+        // only created when needed as every conversation holds on to a buffer
+        DCCFileConversation conversation = mFileConversations.get(connection.getDccRequestNick());
+        if (conversation == null) {
+            conversation = new DCCFileConversation(mServer, mBaseSender,
+                    connection.getDccRequestNick());
             mFileConversations.put(connection.getDccRequestNick(), conversation);
         }
         // A pending send becomes a get here
@@ -112,4 +106,25 @@ public class RelayDCCManager implements DCCManager {
     public DCCFileConversation getFileConversation(final String nick) {
         return mFileConversations.get(nick);
     }
+
+    /**
+     * Closes every conversation - called when the server is stopped
+     */
+    public void closeAll() {
+        for (final DCCChatConversation conversation : getChatConversations()) {
+            conversation.closeChat();
+        }
+        for (final DCCFileConversation conversation : getFileConversations()) {
+            conversation.close();
+        }
+        mPendingConnections.clear();
+    }
+
+    public void onConversationClosed(final DCCChatConversation conversation) {
+        mChatConversations.values().remove(conversation);
+    }
+
+    public void onConversationClosed(final DCCFileConversation conversation) {
+        mFileConversations.values().remove(conversation);
+    }
 }
\ No newline at end of file
@@ -10,6 +10,10 @@ public class JoinPacket implements Packet {
         this.channelName = channelName;
     }
 
+    public String getChannelName() {
+        return channelName;
+    }
+
     @Override
     public String getLine() {
         return String.format("JOIN %s", channelName);
@@ -1,8 +1,7 @@
 package co.fusionx.relay.internal.packet.server;
 
-import android.text.TextUtils;
-
 import co.fusionx.relay.internal.packet.Packet;
+import co.fusionx.relay.util.Utils;
 
 public class QuitPacket implements Packet {
 
@@ -14,6 +13,6 @@ public class QuitPacket implements Packet {
 
     @Override
     public String getLine() {
-        return TextUtils.isEmpty(mQuitReason) ? "QUIT" : String.format("QUIT :%s", mQuitReason);
+        return Utils.isEmpty(mQuitReason) ? "QUIT" : String.format("QUIT :%s", mQuitReason);
     }
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
 package co.fusionx.relay.internal.packet.server.cap;
 
-import android.util.Base64;
+import org.spongycastle.util.encoders.Base64;
+
+import java.nio.charset.Charset;
 
 import co.fusionx.relay.internal.packet.Packet;
 
 public class CAPPlainSASLAuthPacket implements Packet {
 
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     public final String mSaslUsername;
 
     public final String mSaslPassword;
@@ -18,7 +22,7 @@ public class CAPPlainSASLAuthPacket implements Packet {
     @Override
     public String getLine() {
         final String authentication = mSaslUsername + "\0" + mSaslUsername + "\0" + mSaslPassword;
-        final String encoded = Base64.encodeToString(authentication.getBytes(), Base64.DEFAULT);
+        final String encoded = Base64.toBase64String(authentication.getBytes(UTF_8));
         return String.format("AUTHENTICATE %s", encoded);
     }
 }
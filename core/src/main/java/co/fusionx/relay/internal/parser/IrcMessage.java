@@ -0,0 +1,407 @@
+package co.fusionx.relay.internal.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import co.fusionx.relay.internal.constants.CommandConstants;
+import co.fusionx.relay.misc.MessageTags;
+
+/**
+ * A reusable, flyweight view of a single line received from the server
+ *
+ * The line is copied into a buffer which is kept across calls to {@link #reset(CharSequence)}
+ * and tokenized into offsets - no strings are created until one of the getters asks for it.
+ * Instances are NOT thread safe and should be owned by the thread reading from the server.
+ */
+public final class IrcMessage {
+
+    private static final int NOT_PRESENT = -1;
+
+    // RFC2812 allows at most 15 parameters but some servers ignore this - the arrays grow if
+    // this is exceeded
+    private static final int INITIAL_PARAM_CAPACITY = 15;
+
+    // RFC2812 limits lines to 512 characters including the CRLF
+    private static final int INITIAL_BUFFER_CAPACITY = 512;
+
+    private static final String[] KNOWN_COMMANDS = {
+            CommandConstants.PRIVMSG, CommandConstants.JOIN, CommandConstants.PART,
+            CommandConstants.QUIT, CommandConstants.MODE, CommandConstants.NICK,
+            CommandConstants.NOTICE, CommandConstants.PING, CommandConstants.PONG,
+            CommandConstants.KICK, CommandConstants.TOPIC, CommandConstants.INVITE,
+            CommandConstants.ERROR, CommandConstants.CAP, CommandConstants.AUTHENTICATE,
+            CommandConstants.WALLOPS, CommandConstants.ACCOUNT, CommandConstants.AWAY,
+            CommandConstants.BATCH
+    };
+
+    private char[] mBuffer;
+
+    private int mLength;
+
+    private int mTagsStart;
+
+    private int mTagsEnd;
+
+    private int mPrefixStart;
+
+    private int mPrefixEnd;
+
+    private int mCommandStart;
+
+    private int mCommandEnd;
+
+    private int mNumeric;
+
+    private int[] mParamStarts;
+
+    private int[] mParamEnds;
+
+    private int mParamCount;
+
+    // Lazily created strings - only valid for the current line
+    private MessageTags mTags;
+
+    private String mPrefix;
+
+    private String mCommand;
+
+    private String[] mParams;
+
+    public IrcMessage() {
+        mBuffer = new char[INITIAL_BUFFER_CAPACITY];
+        mParamStarts = new int[INITIAL_PARAM_CAPACITY];
+        mParamEnds = new int[INITIAL_PARAM_CAPACITY];
+        mParams = new String[INITIAL_PARAM_CAPACITY];
+    }
+
+    /**
+     * Points this message at a new line from the server
+     *
+     * @param line the raw line without the trailing CRLF
+     * @return false if the line contained nothing to parse and should be silently ignored as
+     * RFC2812 requires
+     */
+    public boolean reset(final CharSequence line) {
+        clear();
+        if (line == null) {
+            return false;
+        }
+
+        final int length = line.length();
+        ensureBufferCapacity(length);
+        for (int i = 0; i < length; i++) {
+            mBuffer[i] = line.charAt(i);
+        }
+        mLength = length;
+        return tokenize();
+    }
+
+    /**
+     * Points this message at a new line from the server which is held in a char array
+     *
+     * @param chars  the array containing the line
+     * @param offset the start of the line in the array
+     * @param length the length of the line without the trailing CRLF
+     * @return false if the line contained nothing to parse and should be silently ignored as
+     * RFC2812 requires
+     */
+    public boolean reset(final char[] chars, final int offset, final int length) {
+        clear();
+        ensureBufferCapacity(length);
+        System.arraycopy(chars, offset, mBuffer, 0, length);
+        mLength = length;
+        return tokenize();
+    }
+
+    // Tags
+    public boolean hasTags() {
+        return mTagsStart != NOT_PRESENT;
+    }
+
+    /**
+     * Returns the IRCv3 tags of the line - the values are not decoded until they are asked for
+     *
+     * @return the tags or {@link MessageTags#EMPTY} if the line has no tags
+     */
+    public MessageTags getTags() {
+        if (mTags == null) {
+            mTags = hasTags()
+                    ? new MessageTags(substring(mTagsStart, mTagsEnd))
+                    : MessageTags.EMPTY;
+        }
+        return mTags;
+    }
+
+    // Prefix
+    public boolean hasPrefix() {
+        return mPrefixStart != NOT_PRESENT;
+    }
+
+    /**
+     * Returns the prefix of the line without the leading colon
+     *
+     * @return the prefix or the empty string if the line has no prefix
+     */
+    public String getPrefix() {
+        if (mPrefix == null) {
+            mPrefix = hasPrefix() ? substring(mPrefixStart, mPrefixEnd) : "";
+        }
+        return mPrefix;
+    }
+
+    /**
+     * Returns the nick part of the prefix without creating the whole prefix
+     *
+     * @return the nick of the source of the line
+     */
+    public String getPrefixNick() {
+        if (!hasPrefix()) {
+            return "";
+        }
+        for (int i = mPrefixStart; i < mPrefixEnd; i++) {
+            if (mBuffer[i] == '!') {
+                return substring(mPrefixStart, i);
+            }
+        }
+        return getPrefix();
+    }
+
+    // Command
+    /**
+     * Returns the command of the line - commands known by the library are returned as the
+     * constants in {@link co.fusionx.relay.internal.constants.CommandConstants} so no string is
+     * created for them
+     *
+     * @return the command of the line
+     */
+    public String getCommand() {
+        if (mCommand == null) {
+            mCommand = resolveCommand();
+        }
+        return mCommand;
+    }
+
+    public boolean isCommand(final String command) {
+        return regionEquals(mCommandStart, mCommandEnd, command);
+    }
+
+    public boolean isNumeric() {
+        return mNumeric != NOT_PRESENT;
+    }
+
+    /**
+     * Returns the numeric reply code of this line
+     *
+     * @return the reply code or -1 if the command is not numeric
+     */
+    public int getNumeric() {
+        return mNumeric;
+    }
+
+    // Parameters
+    public int getParamCount() {
+        return mParamCount;
+    }
+
+    public String getParam(final int index) {
+        checkParamIndex(index);
+        if (mParams[index] == null) {
+            mParams[index] = substring(mParamStarts[index], mParamEnds[index]);
+        }
+        return mParams[index];
+    }
+
+    public int getParamLength(final int index) {
+        checkParamIndex(index);
+        return mParamEnds[index] - mParamStarts[index];
+    }
+
+    public char getParamCharAt(final int index, final int position) {
+        checkParamIndex(index);
+        final int bufferPosition = mParamStarts[index] + position;
+        if (position < 0 || bufferPosition >= mParamEnds[index]) {
+            throw new StringIndexOutOfBoundsException(position);
+        }
+        return mBuffer[bufferPosition];
+    }
+
+    public boolean isParamEqual(final int index, final String value) {
+        checkParamIndex(index);
+        return regionEquals(mParamStarts[index], mParamEnds[index], value);
+    }
+
+    /**
+     * Materializes the parameters starting at the given index into a new mutable list - this
+     * is the same list {@link co.fusionx.relay.util.ParseUtils#splitRawLine(String, boolean)}
+     * would produce once the prefix, command and the skipped parameters were removed
+     *
+     * @param fromIndex the index of the first parameter to add
+     * @return a new list containing the parameters
+     */
+    public List<String> getParams(final int fromIndex) {
+        final List<String> params = new ArrayList<>(Math.max(mParamCount - fromIndex, 0));
+        for (int i = fromIndex; i < mParamCount; i++) {
+            params.add(getParam(i));
+        }
+        return params;
+    }
+
+    @Override
+    public String toString() {
+        return new String(mBuffer, 0, mLength);
+    }
+
+    private void clear() {
+        mLength = 0;
+        mTagsStart = mTagsEnd = NOT_PRESENT;
+        mPrefixStart = mPrefixEnd = NOT_PRESENT;
+        mCommandStart = mCommandEnd = 0;
+        mNumeric = NOT_PRESENT;
+
+        mTags = null;
+        mPrefix = null;
+        mCommand = null;
+        if (mParamCount > 0) {
+            Arrays.fill(mParams, 0, mParamCount, null);
+        }
+        mParamCount = 0;
+    }
+
+    private boolean tokenize() {
+        int position = skipWhitespace(0);
+        final int end = trimTrailingWhitespace(position);
+        if (position >= end) {
+            return false;
+        }
+
+        if (mBuffer[position] == '@') {
+            mTagsStart = position + 1;
+            mTagsEnd = nextSpace(mTagsStart, end);
+            position = skipSpaces(mTagsEnd, end);
+            if (position >= end) {
+                return false;
+            }
+        }
+
+        if (mBuffer[position] == ':') {
+            mPrefixStart = position + 1;
+            mPrefixEnd = nextSpace(mPrefixStart, end);
+            position = skipSpaces(mPrefixEnd, end);
+            if (position >= end) {
+                return false;
+            }
+        }
+
+        mCommandStart = position;
+        mCommandEnd = nextSpace(position, end);
+        mNumeric = parseNumeric(mCommandStart, mCommandEnd);
+        position = skipSpaces(mCommandEnd, end);
+
+        while (position < end) {
+            if (mBuffer[position] == ':') {
+                addParam(position + 1, end);
+                break;
+            }
+            final int paramEnd = nextSpace(position, end);
+            addParam(position, paramEnd);
+            position = skipSpaces(paramEnd, end);
+        }
+        return true;
+    }
+
+    private void addParam(final int start, final int end) {
+        if (mParamCount == mParamStarts.length) {
+            final int newCapacity = mParamCount * 2;
+            mParamStarts = Arrays.copyOf(mParamStarts, newCapacity);
+            mParamEnds = Arrays.copyOf(mParamEnds, newCapacity);
+            mParams = Arrays.copyOf(mParams, newCapacity);
+        }
+        mParamStarts[mParamCount] = start;
+        mParamEnds[mParamCount] = end;
+        mParamCount++;
+    }
+
+    private int parseNumeric(final int start, final int end) {
+        // Numerics are always three digits
+        if (end - start != 3) {
+            return NOT_PRESENT;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            final char c = mBuffer[i];
+            if (c < '0' || c > '9') {
+                return NOT_PRESENT;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private String resolveCommand() {
+        for (final String command : KNOWN_COMMANDS) {
+            if (regionEquals(mCommandStart, mCommandEnd, command)) {
+                return command;
+            }
+        }
+        return substring(mCommandStart, mCommandEnd);
+    }
+
+    private boolean regionEquals(final int start, final int end, final String value) {
+        final int length = end - start;
+        if (length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (mBuffer[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String substring(final int start, final int end) {
+        return new String(mBuffer, start, end - start);
+    }
+
+    private int nextSpace(int position, final int end) {
+        while (position < end && mBuffer[position] != ' ') {
+            position++;
+        }
+        return position;
+    }
+
+    private int skipSpaces(int position, final int end) {
+        while (position < end && mBuffer[position] == ' ') {
+            position++;
+        }
+        return position;
+    }
+
+    private int skipWhitespace(int position) {
+        while (position < mLength && Character.isWhitespace(mBuffer[position])) {
+            position++;
+        }
+        return position;
+    }
+
+    private int trimTrailingWhitespace(final int start) {
+        int end = mLength;
+        while (end > start && Character.isWhitespace(mBuffer[end - 1])) {
+            end--;
+        }
+        return end;
+    }
+
+    private void ensureBufferCapacity(final int length) {
+        if (mBuffer.length < length) {
+            mBuffer = new char[Math.max(length, mBuffer.length * 2)];
+        }
+    }
+
+    private void checkParamIndex(final int index) {
+        if (index < 0 || index >= mParamCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mParamCount);
+        }
+    }
+}
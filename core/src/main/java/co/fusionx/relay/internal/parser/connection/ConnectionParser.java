@@ -1,21 +1,18 @@
 package co.fusionx.relay.internal.parser.connection;
 
-import android.text.TextUtils;
-
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.List;
 
 import co.fusionx.relay.base.ServerConfiguration;
 import co.fusionx.relay.event.server.NoticeEvent;
 import co.fusionx.relay.internal.base.RelayServer;
 import co.fusionx.relay.internal.constants.CommandConstants;
 import co.fusionx.relay.internal.constants.ServerReplyCodes;
+import co.fusionx.relay.internal.parser.IrcMessage;
 import co.fusionx.relay.internal.parser.connection.cap.CapParser;
 import co.fusionx.relay.internal.sender.BaseSender;
 import co.fusionx.relay.internal.sender.RelayInternalSender;
+import co.fusionx.relay.internal.transport.LineReader;
 import co.fusionx.relay.misc.NickStorage;
-import co.fusionx.relay.util.ParseUtils;
 
 public class ConnectionParser {
 
@@ -27,6 +24,8 @@ public class ConnectionParser {
 
     private final CapParser mCapParser;
 
+    private final IrcMessage mMessage;
+
     private int mIndex;
 
     private int mSuffix;
@@ -37,12 +36,13 @@ public class ConnectionParser {
 
         mInternalSender = new RelayInternalSender(sender);
         mCapParser = new CapParser(server, sender);
+        mMessage = new IrcMessage();
 
         mIndex = 1;
         mSuffix = 1;
     }
 
-    public ConnectionLineParseStatus parseConnect(final BufferedReader reader) throws IOException {
+    public ConnectionLineParseStatus parseConnect(final LineReader reader) throws IOException {
         String line;
         while ((line = reader.readLine()) != null) {
             final ConnectionLineParseStatus parseStatus = parseLine(line);
@@ -53,63 +53,58 @@ public class ConnectionParser {
         return new ConnectionLineParseStatus(ParseStatus.ERROR, null);
     }
 
-    ConnectionLineParseStatus parseLine(final String line) {
+    public ConnectionLineParseStatus parseLine(final String line) {
         // RFC2812 states that an empty line should be silently ignored
-        if (TextUtils.isEmpty(line)) {
+        if (!mMessage.reset(line)) {
             return new ConnectionLineParseStatus(ParseStatus.OTHER, null);
         }
 
-        final List<String> parsedArray = ParseUtils.splitRawLine(line, true);
-        final String prefix = ParseUtils.extractAndRemovePrefix(parsedArray);
-        final String command = parsedArray.remove(0);
-
-        if (ParseUtils.isCommandCode(command)) {
-            final int code = Integer.parseInt(command);
-            return parseConnectionCode(parsedArray, code);
+        if (mMessage.isNumeric()) {
+            return parseConnectionCode(mMessage, mMessage.getNumeric());
         } else {
-            return parseConnectionCommand(parsedArray, prefix, command);
+            return parseConnectionCommand(mMessage, mMessage.getCommand());
         }
     }
 
-    private ConnectionLineParseStatus parseConnectionCommand(final List<String> parsedArray,
-            final String prefix, final String command) {
+    private ConnectionLineParseStatus parseConnectionCommand(final IrcMessage message,
+            final String command) {
         switch (command) {
             case CommandConstants.PING:
-                parsePing(parsedArray);
+                parsePing(message);
                 break;
             case CommandConstants.ERROR:
                 // We are finished - the server has kicked us out for some reason
                 return new ConnectionLineParseStatus(ParseStatus.ERROR, null);
             case CommandConstants.NOTICE:
-                parseNotice(parsedArray, prefix);
+                parseNotice(message);
                 break;
             case CommandConstants.CAP:
-                mCapParser.parseCAP(parsedArray);
+                mCapParser.parseCAP(message.getParams(0));
                 break;
             case CommandConstants.AUTHENTICATE:
-                mCapParser.parseAuthenticate(parsedArray);
+                mCapParser.parseAuthenticate(message.getParams(0));
                 break;
         }
         return new ConnectionLineParseStatus(ParseStatus.OTHER, null);
     }
 
-    private void parsePing(final List<String> parsedArray) {
+    private void parsePing(final IrcMessage message) {
         // Immediately return
-        final String source = parsedArray.get(0);
+        final String source = message.getParam(0);
         mInternalSender.pongServer(source);
     }
 
-    private void parseNotice(final List<String> parsedArray, final String prefix) {
-        final String sender = ParseUtils.getNickFromPrefix(prefix);
+    private void parseNotice(final IrcMessage message) {
+        final String sender = message.getPrefixNick();
 
-        // final String target = parsedArray.get(0);
-        final String notice = parsedArray.get(1);
+        // final String target = message.getParam(0);
+        final String notice = message.getParam(1);
         mServer.postAndStoreEvent(new NoticeEvent(mServer, sender, notice));
     }
 
-    private ConnectionLineParseStatus parseConnectionCode(final List<String> parsedArray,
+    private ConnectionLineParseStatus parseConnectionCode(final IrcMessage message,
             final int code) {
-        final String target = parsedArray.remove(0); // Remove the target of the reply - ourselves
+        final String target = message.getParam(0); // The target of the reply - ourselves
         switch (code) {
             case ServerReplyCodes.RPL_WELCOME:
                 // We are now logged in.
@@ -122,7 +117,7 @@ public class ConnectionParser {
                 break;
         }
         if (ServerReplyCodes.saslCodes.contains(code)) {
-            mCapParser.parseCode(code, parsedArray);
+            mCapParser.parseCode(code, message.getParams(1));
         }
         return new ConnectionLineParseStatus(ParseStatus.OTHER, null);
     }
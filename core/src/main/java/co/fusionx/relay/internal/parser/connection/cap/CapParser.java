@@ -4,8 +4,6 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Iterables;
 
-import android.util.Pair;
-
 import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
@@ -21,6 +19,7 @@ import co.fusionx.relay.internal.constants.ServerReplyCodes;
 import co.fusionx.relay.internal.function.Consumer;
 import co.fusionx.relay.internal.sender.BaseSender;
 import co.fusionx.relay.internal.sender.RelayCapSender;
+import co.fusionx.relay.misc.Pair;
 import co.fusionx.relay.util.ParseUtils;
 
 import static co.fusionx.relay.constants.CapCapability.SASL;
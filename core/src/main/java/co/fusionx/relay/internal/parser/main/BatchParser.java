@@ -0,0 +1,293 @@
+package co.fusionx.relay.internal.parser.main;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import co.fusionx.relay.event.channel.ChannelNetjoinEvent;
+import co.fusionx.relay.event.channel.ChannelNetsplitEvent;
+import co.fusionx.relay.event.channel.ChannelWorldJoinEvent;
+import co.fusionx.relay.event.query.QueryQuitWorldEvent;
+import co.fusionx.relay.internal.base.RelayChannel;
+import co.fusionx.relay.internal.base.RelayChannelUser;
+import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.base.RelayUserChannelInterface;
+import co.fusionx.relay.internal.constants.CommandConstants;
+import co.fusionx.relay.internal.function.Consumer;
+import co.fusionx.relay.internal.function.Optionals;
+import co.fusionx.relay.internal.parser.IrcMessage;
+import co.fusionx.relay.internal.parser.main.command.JoinParser;
+import co.fusionx.relay.misc.MessageTags;
+import co.fusionx.relay.util.IRCUtils;
+
+/**
+ * Collects the lines sent inside IRCv3 batches and applies each batch once it has ended
+ *
+ * The users of netsplit and netjoin batches are removed from or added to their channels in a
+ * single pass and a single event is posted to each channel affected - the JOINs of a netjoin are
+ * still applied by the {@link JoinParser}. The lines of any other
+ * batch (e.g. chathistory) are parsed as normal once the batch has ended so that the whole batch
+ * is applied at once.
+ *
+ * Nested batches are treated as separate batches which are applied when they end.
+ *
+ * A batch which the server never ends must not hold on to lines forever - once a batch holds
+ * {@link #MAX_BATCH_LINES} lines they are applied and the batch carries on collecting from
+ * scratch, and a batch which has been open for {@link #MAX_BATCH_AGE_MILLIS} is applied
+ * and forgotten so that its later lines are parsed as they arrive. Both are counted.
+ */
+class BatchParser {
+
+    private static final String NETSPLIT = "netsplit";
+
+    private static final String NETJOIN = "netjoin";
+
+    static final int MAX_BATCH_LINES = 4096;
+
+    static final long MAX_BATCH_AGE_MILLIS = 60 * 1000;
+
+    private final RelayServer mServer;
+
+    private final RelayUserChannelInterface mUserChannelInterface;
+
+    private final JoinParser mJoinParser;
+
+    // Parses lines which cannot be applied as part of a batch
+    private final Consumer<String> mLineParser;
+
+    private final Map<String, Batch> mOpenBatches;
+
+    // Only used while a batch is being applied
+    private final IrcMessage mMessage;
+
+    private final int mMaxLines;
+
+    private final long mMaxAgeNanos;
+
+    private long mOverflowedBatches;
+
+    private long mExpiredBatches;
+
+    BatchParser(final RelayServer server, final JoinParser joinParser,
+            final Consumer<String> lineParser) {
+        this(server, joinParser, lineParser, MAX_BATCH_LINES, MAX_BATCH_AGE_MILLIS);
+    }
+
+    BatchParser(final RelayServer server, final JoinParser joinParser,
+            final Consumer<String> lineParser, final int maxLines, final long maxAgeMillis) {
+        mServer = server;
+        mUserChannelInterface = server.getUserChannelInterface();
+        mJoinParser = joinParser;
+        mLineParser = lineParser;
+        mMaxLines = maxLines;
+        mMaxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+
+        mOpenBatches = new HashMap<>();
+        mMessage = new IrcMessage();
+    }
+
+    /**
+     * Returns the number of times a batch grew too large and its lines were applied before the
+     * batch ended
+     *
+     * @return the number of overflowed batches
+     */
+    long getOverflowedBatchCount() {
+        return mOverflowedBatches;
+    }
+
+    /**
+     * Returns the number of batches which were applied because they were never ended
+     *
+     * @return the number of expired batches
+     */
+    long getExpiredBatchCount() {
+        return mExpiredBatches;
+    }
+
+    /**
+     * Handles BATCH commands and collects the lines which belong to a batch
+     *
+     * @param message the tokenized line
+     * @param line    the line as it was received
+     * @return true if the line was handled and should not be parsed any further
+     */
+    boolean onLine(final IrcMessage message, final String line) {
+        if (message.isCommand(CommandConstants.BATCH)) {
+            onBatchCommand(message);
+            return true;
+        }
+        if (mOpenBatches.isEmpty()) {
+            return false;
+        }
+        if (applyExpiredBatches()) {
+            // Applying the lines of the batches reused the message
+            message.reset(line);
+        }
+        if (!message.hasTags()) {
+            return false;
+        }
+
+        final String reference = message.getTags().get(MessageTags.BATCH);
+        final Batch batch = reference == null ? null : mOpenBatches.get(reference);
+        if (batch == null) {
+            return false;
+        }
+        if (batch.mLines.size() >= mMaxLines) {
+            // The batch is closed while it is applied so that its lines are not collected again
+            mOverflowedBatches++;
+            mOpenBatches.remove(reference);
+            applyBatch(batch);
+            batch.mLines.clear();
+            mOpenBatches.put(reference, batch);
+        }
+        batch.mLines.add(line);
+        return true;
+    }
+
+    private void onBatchCommand(final IrcMessage message) {
+        if (message.getParamCount() == 0 || message.getParamLength(0) < 2) {
+            return;
+        }
+
+        final String parameter = message.getParam(0);
+        final String reference = parameter.substring(1);
+        if (parameter.charAt(0) == '+') {
+            final String type = message.getParamCount() > 1 ? message.getParam(1) : "";
+            final String servers = IRCUtils.concatenateStringList(message.getParams(2));
+            mOpenBatches.put(reference, new Batch(type, servers, System.nanoTime()));
+        } else if (parameter.charAt(0) == '-') {
+            final Batch batch = mOpenBatches.remove(reference);
+            if (batch != null) {
+                applyBatch(batch);
+            }
+        }
+    }
+
+    private boolean applyExpiredBatches() {
+        final long now = System.nanoTime();
+        List<Batch> expired = null;
+        for (final Iterator<Batch> iterator = mOpenBatches.values().iterator();
+                iterator.hasNext(); ) {
+            final Batch batch = iterator.next();
+            if (now - batch.mStartTime >= mMaxAgeNanos) {
+                iterator.remove();
+                if (expired == null) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(batch);
+            }
+        }
+        if (expired == null) {
+            return false;
+        }
+
+        // Only applied once removed as applying the lines can come back into this parser
+        for (final Batch batch : expired) {
+            mExpiredBatches++;
+            applyBatch(batch);
+        }
+        return true;
+    }
+
+    private void applyBatch(final Batch batch) {
+        switch (batch.mType) {
+            case NETSPLIT:
+                applyNetsplit(batch);
+                break;
+            case NETJOIN:
+                applyNetjoin(batch);
+                break;
+            default:
+                for (final String line : batch.mLines) {
+                    mLineParser.apply(line);
+                }
+                break;
+        }
+    }
+
+    private void applyNetsplit(final Batch batch) {
+        final List<RelayChannelUser> users = new ArrayList<>(batch.mLines.size());
+        for (final String line : batch.mLines) {
+            if (!mMessage.reset(line) || !mMessage.isCommand(CommandConstants.QUIT)
+                    || mServer.getUser().isNickEqual(mMessage.getPrefixNick())) {
+                mLineParser.apply(line);
+                continue;
+            }
+
+            final String nick = mMessage.getPrefixNick();
+            Optionals.ifPresent(mUserChannelInterface.getUser(nick), users::add);
+            Optionals.ifPresent(mUserChannelInterface.getQueryUser(nick),
+                    queryUser -> queryUser.postAndStoreEvent(new QueryQuitWorldEvent(queryUser)));
+        }
+
+        final Map<RelayChannel, List<RelayChannelUser>> removed =
+                mUserChannelInterface.removeUsers(users);
+        for (final Map.Entry<RelayChannel, List<RelayChannelUser>> entry : removed.entrySet()) {
+            final RelayChannel channel = entry.getKey();
+            channel.postAndStoreEvent(new ChannelNetsplitEvent(channel, entry.getValue(),
+                    batch.mServers));
+        }
+    }
+
+    private void applyNetjoin(final Batch batch) {
+        final Map<RelayChannel, List<RelayChannelUser>> joined = new LinkedHashMap<>();
+        final Map<RelayChannel, List<ChannelWorldJoinEvent>> joins = new HashMap<>();
+        for (final String line : batch.mLines) {
+            if (!mMessage.reset(line) || !mMessage.isCommand(CommandConstants.JOIN)
+                    || mServer.getUser().isNickEqual(mMessage.getPrefixNick())) {
+                mLineParser.apply(line);
+                continue;
+            }
+
+            final RelayChannel channel = mUserChannelInterface.getChannel(mMessage.getParam(0))
+                    .orNull();
+            if (channel == null) {
+                mLineParser.apply(line);
+                continue;
+            }
+
+            final RelayChannelUser user = mUserChannelInterface
+                    .getNonNullUser(mMessage.getPrefixNick());
+            final ChannelWorldJoinEvent event = mJoinParser.onParseNetjoin(user, channel,
+                    mMessage);
+
+            List<RelayChannelUser> channelUsers = joined.get(channel);
+            if (channelUsers == null) {
+                channelUsers = new ArrayList<>();
+                joined.put(channel, channelUsers);
+                joins.put(channel, new ArrayList<>());
+            }
+            channelUsers.add(user);
+            joins.get(channel).add(event);
+        }
+
+        for (final Map.Entry<RelayChannel, List<RelayChannelUser>> entry : joined.entrySet()) {
+            final RelayChannel channel = entry.getKey();
+            channel.postAndStoreEvent(new ChannelNetjoinEvent(channel, entry.getValue(),
+                    batch.mServers, joins.get(channel)));
+        }
+    }
+
+    private static class Batch {
+
+        private final String mType;
+
+        private final String mServers;
+
+        private final List<String> mLines;
+
+        private final long mStartTime;
+
+        private Batch(final String type, final String servers, final long startTime) {
+            mType = type;
+            mServers = servers;
+            mLines = new ArrayList<>();
+            mStartTime = startTime;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package co.fusionx.relay.internal.parser.main;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import co.fusionx.relay.constants.CaseMapping;
+
+import static co.fusionx.relay.misc.RelayConfigurationProvider.getPreferences;
+
+/**
+ * Finds the nick of the user and any other highlight words in messages
+ *
+ * All the keywords are compiled once into an Aho-Corasick automaton so a message is scanned in
+ * a single pass no matter how many keywords there are. A keyword only matches when it is not
+ * surrounded by letters, digits or underscores. Highlight patterns are compiled separately with
+ * their own flags (e.g. (?i) for case insensitive) and are only run if none of the keywords
+ * matched.
+ *
+ * A matcher is immutable - a new one has to be compiled when the nick of the user changes.
+ */
+public class HighlightMatcher {
+
+    private static final int ROOT = 0;
+
+    private static final int NO_STATE = -1;
+
+    // Transitions out of the root for these characters are looked up directly
+    private static final int ROOT_TABLE_SIZE = 128;
+
+    private final String mNick;
+
+    private final CaseMapping mCaseMapping;
+
+    private final String[] mKeywords;
+
+    private final int[] mKeywordLengths;
+
+    private final int[] mRootTransitions;
+
+    // The sorted characters leading out of each state and the states they lead to
+    private final char[][] mTransitionChars;
+
+    private final int[][] mTransitionStates;
+
+    private final int[] mFailureStates;
+
+    // The keyword which ends at each state or -1 if none does
+    private final int[] mStateKeywords;
+
+    // The next state along the failure chain which ends a keyword or -1 if there is none
+    private final int[] mOutputStates;
+
+    private final Pattern[] mPatterns;
+
+    // The patterns as they were given to this matcher
+    private final String[] mPatternSources;
+
+    /**
+     * @param nick        the nick of the user - this can be null if the nick is not known
+     * @param caseMapping the case mapping of the server - used to fold the nick and the words
+     * @param words       the extra words which should highlight a message
+     * @param patterns    the regular expressions which should highlight a message - each is
+     *                    compiled as given and invalid expressions are skipped
+     */
+    public HighlightMatcher(final String nick, final CaseMapping caseMapping,
+            final List<String> words, final List<String> patterns) {
+        mNick = nick;
+        mCaseMapping = caseMapping;
+
+        final List<String> keywords = new ArrayList<>();
+        if (nick != null && !nick.isEmpty()) {
+            keywords.add(nick);
+        }
+        for (final String word : words) {
+            if (word != null && !word.isEmpty()) {
+                keywords.add(word);
+            }
+        }
+        mKeywords = keywords.toArray(new String[keywords.size()]);
+        mKeywordLengths = new int[mKeywords.length];
+
+        final List<Map<Character, Integer>> trie = buildTrie();
+        final int stateCount = trie.size();
+        mTransitionChars = new char[stateCount][];
+        mTransitionStates = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            final Map<Character, Integer> transitions = trie.get(state);
+            final char[] chars = new char[transitions.size()];
+            int i = 0;
+            for (final Character c : transitions.keySet()) {
+                chars[i++] = c;
+            }
+            Arrays.sort(chars);
+
+            final int[] states = new int[chars.length];
+            for (i = 0; i < chars.length; i++) {
+                states[i] = transitions.get(chars[i]);
+            }
+            mTransitionChars[state] = chars;
+            mTransitionStates[state] = states;
+        }
+
+        mRootTransitions = new int[ROOT_TABLE_SIZE];
+        Arrays.fill(mRootTransitions, NO_STATE);
+        for (int i = 0; i < mTransitionChars[ROOT].length; i++) {
+            final char c = mTransitionChars[ROOT][i];
+            if (c < ROOT_TABLE_SIZE) {
+                mRootTransitions[c] = mTransitionStates[ROOT][i];
+            }
+        }
+
+        mStateKeywords = new int[stateCount];
+        Arrays.fill(mStateKeywords, NO_STATE);
+        for (int i = 0; i < mKeywords.length; i++) {
+            final int state = getKeywordState(mKeywords[i]);
+            // Keep the first of any duplicate keywords
+            if (mStateKeywords[state] == NO_STATE) {
+                mStateKeywords[state] = i;
+            }
+            mKeywordLengths[i] = mKeywords[i].length();
+        }
+
+        mFailureStates = new int[stateCount];
+        mOutputStates = new int[stateCount];
+        buildFailureStates();
+
+        // Combining the patterns into one expression would renumber their backreferences and
+        // force the same flags on all of them
+        final List<Pattern> compiled = new ArrayList<>();
+        final List<String> sources = new ArrayList<>();
+        for (final String pattern : patterns) {
+            try {
+                compiled.add(Pattern.compile(pattern));
+            } catch (final PatternSyntaxException ex) {
+                getPreferences().handleException(ex);
+                continue;
+            }
+            sources.add(pattern);
+        }
+        mPatterns = compiled.toArray(new Pattern[compiled.size()]);
+        mPatternSources = sources.toArray(new String[sources.size()]);
+    }
+
+    /**
+     * Returns whether this matcher was compiled for the nick and case mapping
+     *
+     * @param nick        the current nick of the user
+     * @param caseMapping the current case mapping of the server
+     * @return true if the matcher does not need to be recompiled
+     */
+    public boolean isCompiledFor(final String nick, final CaseMapping caseMapping) {
+        return mCaseMapping == caseMapping
+                && (mNick == null ? nick == null : mNick.equals(nick));
+    }
+
+    /**
+     * Finds the first keyword or pattern which highlights the message
+     *
+     * @param message the message to search - formatting should already have been removed
+     * @return the keyword or pattern as it was given to this matcher or null if nothing
+     * highlights the message
+     */
+    public String match(final String message) {
+        final int length = message.length();
+        int state = ROOT;
+        for (int i = 0; i < length; i++) {
+            final char c = fold(message.charAt(i));
+
+            int next = getTransition(state, c);
+            while (next == NO_STATE && state != ROOT) {
+                state = mFailureStates[state];
+                next = getTransition(state, c);
+            }
+            state = next == NO_STATE ? ROOT : next;
+
+            int output = mStateKeywords[state] == NO_STATE ? mOutputStates[state] : state;
+            for (; output != NO_STATE; output = mOutputStates[output]) {
+                final int keyword = mStateKeywords[output];
+                final int start = i - mKeywordLengths[keyword] + 1;
+                if (isBoundary(message, start - 1) && isBoundary(message, i + 1)) {
+                    return mKeywords[keyword];
+                }
+            }
+        }
+
+        for (int i = 0; i < mPatterns.length; i++) {
+            if (mPatterns[i].matcher(message).find()) {
+                return mPatternSources[i];
+            }
+        }
+        return null;
+    }
+
+    private List<Map<Character, Integer>> buildTrie() {
+        final List<Map<Character, Integer>> trie = new ArrayList<>();
+        trie.add(new HashMap<>());
+        for (final String keyword : mKeywords) {
+            int state = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                final char c = fold(keyword.charAt(i));
+                final Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    trie.get(state).put(c, trie.size());
+                    state = trie.size();
+                    trie.add(new HashMap<>());
+                } else {
+                    state = next;
+                }
+            }
+        }
+        return trie;
+    }
+
+    private int getKeywordState(final String keyword) {
+        int state = ROOT;
+        for (int i = 0; i < keyword.length(); i++) {
+            state = getTransition(state, fold(keyword.charAt(i)));
+        }
+        return state;
+    }
+
+    private void buildFailureStates() {
+        mFailureStates[ROOT] = ROOT;
+        mOutputStates[ROOT] = NO_STATE;
+
+        // States are visited in order of depth so the failure state of the parent of a state is
+        // always known by the time the state is visited
+        final Queue<Integer> queue = new ArrayDeque<>();
+        for (final int child : mTransitionStates[ROOT]) {
+            mFailureStates[child] = ROOT;
+            mOutputStates[child] = NO_STATE;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            final char[] chars = mTransitionChars[state];
+            for (int i = 0; i < chars.length; i++) {
+                final int child = mTransitionStates[state][i];
+
+                int failure = mFailureStates[state];
+                int next = getTransition(failure, chars[i]);
+                while (next == NO_STATE && failure != ROOT) {
+                    failure = mFailureStates[failure];
+                    next = getTransition(failure, chars[i]);
+                }
+                final int failureState = next == NO_STATE ? ROOT : next;
+                mFailureStates[child] = failureState;
+                mOutputStates[child] = mStateKeywords[failureState] != NO_STATE
+                        ? failureState
+                        : mOutputStates[failureState];
+                queue.add(child);
+            }
+        }
+    }
+
+    private int getTransition(final int state, final char c) {
+        if (state == ROOT && c < ROOT_TABLE_SIZE) {
+            return mRootTransitions[c];
+        }
+        final int index = Arrays.binarySearch(mTransitionChars[state], c);
+        return index < 0 ? NO_STATE : mTransitionStates[state][index];
+    }
+
+    private char fold(final char c) {
+        return c < ROOT_TABLE_SIZE ? mCaseMapping.toLowerCase(c) : Character.toLowerCase(c);
+    }
+
+    private static boolean isBoundary(final String message, final int index) {
+        if (index < 0 || index >= message.length()) {
+            return true;
+        }
+        final char c = message.charAt(index);
+        return !Character.isLetterOrDigit(c) && c != '_';
+    }
+}
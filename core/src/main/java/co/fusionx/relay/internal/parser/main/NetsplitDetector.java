@@ -0,0 +1,325 @@
+package co.fusionx.relay.internal.parser.main;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import co.fusionx.relay.constants.CapCapability;
+import co.fusionx.relay.event.channel.ChannelNetjoinEvent;
+import co.fusionx.relay.event.channel.ChannelNetsplitEvent;
+import co.fusionx.relay.event.channel.ChannelWorldJoinEvent;
+import co.fusionx.relay.event.query.QueryQuitWorldEvent;
+import co.fusionx.relay.internal.base.RelayChannel;
+import co.fusionx.relay.internal.base.RelayChannelUser;
+import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.base.RelayUserChannelInterface;
+import co.fusionx.relay.internal.constants.CommandConstants;
+import co.fusionx.relay.internal.function.Optionals;
+import co.fusionx.relay.internal.parser.IrcMessage;
+import co.fusionx.relay.internal.parser.main.command.JoinParser;
+import co.fusionx.relay.internal.transport.RelayEventLoop;
+
+/**
+ * Detects netsplits and netjoins on servers which do not support IRCv3 batches
+ *
+ * A QUIT whose reason is the names of two servers (e.g. "irc.hub.net irc.leaf.net") is taken to
+ * be part of a netsplit and a JOIN from a user who was recently split is taken to be part of a
+ * netjoin. The users are removed from or added to their channels straight away but the events
+ * are held back and merged into a single {@link ChannelNetsplitEvent} or
+ * {@link ChannelNetjoinEvent} per channel. The merged events are posted as soon as a line which
+ * is not part of the split or join is received, no line has been part of it for a second or the
+ * split or join has gone on for longer than a few seconds.
+ *
+ * JOINs are applied by the {@link JoinParser} so they are handled exactly like any other JOIN -
+ * the event it would have posted for each user is kept in the merged event.
+ *
+ * The timer runs on the event loop of the connection when there is one and on a shared
+ * background thread otherwise so the detector is locked while lines are handled.
+ */
+class NetsplitDetector {
+
+    // The longest time a single merged event covers
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    // How long a split user is remembered for so their JOIN is seen as part of a netjoin
+    private static final long REJOIN_NANOS = TimeUnit.MINUTES.toNanos(15);
+
+    // How long to wait for another line of the split or join before posting the merged events
+    private static final long FLUSH_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static ScheduledExecutorService sTimer;
+
+    private final RelayServer mServer;
+
+    private final RelayUserChannelInterface mUserChannelInterface;
+
+    private final JoinParser mJoinParser;
+
+    // Null if the lines are not parsed on an event loop
+    private final RelayEventLoop mEventLoop;
+
+    // The users split from or joined to each channel since the events were last posted
+    private final Map<RelayChannel, List<RelayChannelUser>> mPendingUsers;
+
+    // The events the JoinParser returned for each channel since the events were last posted
+    private final Map<RelayChannel, List<ChannelWorldJoinEvent>> mPendingJoins;
+
+    // The folded nicks of recently split users mapped to the time they were split
+    private final LinkedHashMap<String, Long> mSplitNicks;
+
+    private boolean mPendingJoin;
+
+    private String mPendingServers;
+
+    private long mPendingStart;
+
+    private long mLastPendingLine;
+
+    // Cancels the flush timer - null if the timer is not running
+    private Runnable mCancelFlush;
+
+    // Changed whenever the timer is cancelled so a timer which fires late does nothing
+    private int mFlushGeneration;
+
+    NetsplitDetector(final RelayServer server, final JoinParser joinParser,
+            final RelayEventLoop eventLoop) {
+        mServer = server;
+        mUserChannelInterface = server.getUserChannelInterface();
+        mJoinParser = joinParser;
+        mEventLoop = eventLoop;
+
+        mPendingUsers = new LinkedHashMap<>();
+        mPendingJoins = new LinkedHashMap<>();
+        mSplitNicks = new LinkedHashMap<>();
+    }
+
+    /**
+     * Handles the line if it is part of a netsplit or netjoin - otherwise any held back events
+     * are posted so that they come before the events of this line
+     *
+     * @param message the tokenized line
+     * @return true if the line was handled and should not be parsed any further
+     */
+    synchronized boolean onLine(final IrcMessage message) {
+        if (message.isCommand(CommandConstants.QUIT)) {
+            if (onQuit(message)) {
+                return true;
+            }
+        } else if (message.isCommand(CommandConstants.JOIN)) {
+            if (onJoin(message)) {
+                return true;
+            }
+        }
+        flush();
+        return false;
+    }
+
+    /**
+     * Posts any events which are being held back
+     */
+    synchronized void flush() {
+        cancelFlush();
+        for (final Map.Entry<RelayChannel, List<RelayChannelUser>> entry
+                : mPendingUsers.entrySet()) {
+            final RelayChannel channel = entry.getKey();
+            channel.postAndStoreEvent(mPendingJoin
+                    ? new ChannelNetjoinEvent(channel, entry.getValue(), mPendingServers,
+                    mPendingJoins.get(channel))
+                    : new ChannelNetsplitEvent(channel, entry.getValue(), mPendingServers));
+        }
+        mPendingUsers.clear();
+        mPendingJoins.clear();
+        mPendingServers = null;
+    }
+
+    /**
+     * Returns whether the QUIT reason looks like the one sent by a server during a netsplit
+     *
+     * @param reason the reason for the QUIT
+     * @return true if the reason is the names of two different servers
+     */
+    static boolean isSplitReason(final String reason) {
+        final int space = reason.indexOf(' ');
+        if (space == -1 || space != reason.lastIndexOf(' ')) {
+            return false;
+        }
+        final int length = reason.length();
+        final boolean sameServer = length - space - 1 == space
+                && reason.regionMatches(0, reason, space + 1, space);
+        return !sameServer && isServerName(reason, 0, space)
+                && isServerName(reason, space + 1, length);
+    }
+
+    private static boolean isServerName(final String name, final int start, final int end) {
+        if (end - start < 3 || name.charAt(start) == '.' || name.charAt(end - 1) == '.') {
+            return false;
+        }
+        boolean dot = false;
+        for (int i = start; i < end; i++) {
+            final char c = name.charAt(i);
+            if (c == '.') {
+                // Empty labels are not allowed
+                if (name.charAt(i - 1) == '.') {
+                    return false;
+                }
+                dot = true;
+            } else if (!Character.isLetterOrDigit(c) && c != '-' && c != '*') {
+                // Some networks hide the names of their servers behind wildcards e.g. *.net
+                return false;
+            }
+        }
+        return dot;
+    }
+
+    private boolean onQuit(final IrcMessage message) {
+        if (message.getParamCount() == 0 || !isSplitReason(message.getParam(0))
+                || mServer.getUser().isNickEqual(message.getPrefixNick())
+                || mServer.getCapabilities().contains(CapCapability.BATCH)) {
+            return false;
+        }
+
+        final String servers = message.getParam(0);
+        final long now = System.nanoTime();
+        startPending(false, servers, now);
+        mLastPendingLine = now;
+
+        final String nick = message.getPrefixNick();
+        Optionals.ifPresent(mUserChannelInterface.getQueryUser(nick),
+                queryUser -> queryUser.postAndStoreEvent(new QueryQuitWorldEvent(queryUser)));
+        Optionals.ifPresent(mUserChannelInterface.getUser(nick), user -> {
+            final Map<RelayChannel, List<RelayChannelUser>> removed =
+                    mUserChannelInterface.removeUsers(Collections.singletonList(user));
+            for (final RelayChannel channel : removed.keySet()) {
+                addPendingUser(channel, user);
+            }
+        });
+
+        pruneSplitNicks(now);
+        final String foldedNick = mUserChannelInterface.getCaseMapping().toLowerCase(nick);
+        mSplitNicks.remove(foldedNick);
+        mSplitNicks.put(foldedNick, now);
+        return true;
+    }
+
+    private boolean onJoin(final IrcMessage message) {
+        if (mSplitNicks.isEmpty() || message.getParamCount() == 0) {
+            return false;
+        }
+
+        final long now = System.nanoTime();
+        pruneSplitNicks(now);
+        final String nick = message.getPrefixNick();
+        final String foldedNick = mUserChannelInterface.getCaseMapping().toLowerCase(nick);
+        if (!mSplitNicks.containsKey(foldedNick)) {
+            return false;
+        }
+        final RelayChannel channel = mUserChannelInterface.getChannel(message.getParam(0))
+                .orNull();
+        if (channel == null) {
+            return false;
+        }
+
+        // The servers which rejoined are not known
+        startPending(true, "", now);
+        mLastPendingLine = now;
+
+        final RelayChannelUser user = mUserChannelInterface.getNonNullUser(nick);
+        final ChannelWorldJoinEvent event = mJoinParser.onParseNetjoin(user, channel, message);
+        addPendingUser(channel, user);
+
+        List<ChannelWorldJoinEvent> joins = mPendingJoins.get(channel);
+        if (joins == null) {
+            joins = new ArrayList<>();
+            mPendingJoins.put(channel, joins);
+        }
+        joins.add(event);
+        return true;
+    }
+
+    private void startPending(final boolean join, final String servers, final long now) {
+        if (mPendingServers != null && mPendingJoin == join && mPendingServers.equals(servers)
+                && now - mPendingStart < WINDOW_NANOS) {
+            return;
+        }
+        flush();
+        mPendingJoin = join;
+        mPendingServers = servers;
+        mPendingStart = now;
+        scheduleFlush(FLUSH_DELAY_NANOS);
+    }
+
+    private void scheduleFlush(final long delayNanos) {
+        final int generation = mFlushGeneration;
+        final Runnable task = () -> onFlushTimer(generation);
+        final long delayMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(delayNanos));
+        if (mEventLoop == null) {
+            final ScheduledFuture<?> future = getTimer()
+                    .schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+            mCancelFlush = () -> future.cancel(false);
+        } else {
+            mCancelFlush = mEventLoop.schedule(task, delayMillis)::cancel;
+        }
+    }
+
+    private synchronized void onFlushTimer(final int generation) {
+        if (generation != mFlushGeneration) {
+            return;
+        }
+        mCancelFlush = null;
+
+        // The timer is only started once for each split or join so check whether lines have
+        // kept arriving since it was started
+        final long now = System.nanoTime();
+        final long quietDelay = mLastPendingLine + FLUSH_DELAY_NANOS - now;
+        final long windowDelay = mPendingStart + WINDOW_NANOS - now;
+        final long delay = Math.min(quietDelay, windowDelay);
+        if (delay > 0) {
+            scheduleFlush(delay);
+        } else {
+            flush();
+        }
+    }
+
+    private void cancelFlush() {
+        mFlushGeneration++;
+        if (mCancelFlush != null) {
+            mCancelFlush.run();
+            mCancelFlush = null;
+        }
+    }
+
+    private void addPendingUser(final RelayChannel channel, final RelayChannelUser user) {
+        List<RelayChannelUser> users = mPendingUsers.get(channel);
+        if (users == null) {
+            users = new ArrayList<>();
+            mPendingUsers.put(channel, users);
+        }
+        users.add(user);
+    }
+
+    private static synchronized ScheduledExecutorService getTimer() {
+        if (sTimer == null) {
+            sTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "relayNetsplit");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return sTimer;
+    }
+
+    private void pruneSplitNicks(final long now) {
+        // Nicks are kept in the order they were split so only the oldest need checking
+        final Iterator<Long> iterator = mSplitNicks.values().iterator();
+        while (iterator.hasNext() && now - iterator.next() > REJOIN_NANOS) {
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package co.fusionx.relay.internal.parser.main;
+
+import java.io.IOException;
+import java.util.Map;
+
+import co.fusionx.relay.event.EventClock;
+import co.fusionx.relay.event.server.GenericServerEvent;
+import co.fusionx.relay.event.server.WhoisEvent;
+import co.fusionx.relay.interfaces.NumericHandler;
+import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.constants.CommandConstants;
+import co.fusionx.relay.internal.parser.IrcMessage;
+import co.fusionx.relay.internal.parser.main.code.CodeParser;
+import co.fusionx.relay.internal.parser.main.code.NumericDispatchTable;
+import co.fusionx.relay.internal.parser.main.command.CommandParser;
+import co.fusionx.relay.internal.parser.main.command.JoinParser;
+import co.fusionx.relay.internal.parser.main.command.QuitParser;
+import co.fusionx.relay.internal.sender.BaseSender;
+import co.fusionx.relay.internal.sender.RelayInternalSender;
+import co.fusionx.relay.internal.transport.LineReader;
+import co.fusionx.relay.internal.transport.RelayEventLoop;
+import co.fusionx.relay.util.IRCUtils;
+import co.fusionx.relay.util.IRCv3Utils;
+
+public class ServerLineParser {
+
+    private final RelayServer mServer;
+
+    private final RelayInternalSender mInternalSender;
+
+    private final Map<String, CommandParser> mCommandParserMap;
+
+    private final CodeParser[] mCodeParsers;
+
+    private final IrcMessage mMessage;
+
+    private final BatchParser mBatchParser;
+
+    private final NetsplitDetector mNetsplitDetector;
+
+    public ServerLineParser(final RelayServer server, final BaseSender sender) {
+        this(server, sender, null);
+    }
+
+    /**
+     * @param eventLoop the event loop the lines are parsed on - this is used to time events
+     *                  which are held back and may be null if the lines are parsed on a thread
+     *                  of their own
+     */
+    public ServerLineParser(final RelayServer server, final BaseSender sender,
+            final RelayEventLoop eventLoop) {
+        mServer = server;
+        mInternalSender = new RelayInternalSender(sender);
+
+        mCodeParsers = CodeParser.getParsers(server);
+        mCommandParserMap = CommandParser.getParserMap(server, sender);
+
+        mMessage = new IrcMessage();
+        final JoinParser joinParser = (JoinParser) mCommandParserMap.get(CommandConstants.JOIN);
+        mBatchParser = new BatchParser(server, joinParser, this::parseLine);
+        mNetsplitDetector = new NetsplitDetector(server, joinParser, eventLoop);
+    }
+
+    /**
+     * A loop which reads each line from the server as it is received and passes it on to parse
+     *
+     * @param reader the reader associated with the server stream
+     */
+    public void parseMain(final LineReader reader)
+            throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            final boolean quit = parseLine(line);
+            if (quit) {
+                break;
+            }
+        }
+        flushPendingEvents();
+    }
+
+    /**
+     * Posts any events which are being held back to be merged with the events of later lines -
+     * this should be called once no more lines are going to be parsed
+     */
+    public void flushPendingEvents() {
+        mNetsplitDetector.flush();
+    }
+
+    /**
+     * Returns the number of batches which were applied before they ended because they held too
+     * many lines or were never ended by the server
+     *
+     * @return the number of batches applied early
+     */
+    public long getEarlyBatchCount() {
+        return mBatchParser.getOverflowedBatchCount() + mBatchParser.getExpiredBatchCount();
+    }
+
+    /**
+     * Parses a line from the server
+     *
+     * @return a boolean indicating whether the server has disconnected
+     */
+    public boolean parseLine(final String line) {
+        // RFC2812 states that an empty line should be silently ignored
+        if (!mMessage.reset(line)) {
+            return false;
+        }
+
+        // Lines inside a batch are held back until the whole batch has been received
+        if (mBatchParser.onLine(mMessage, line)) {
+            return false;
+        }
+
+        // Events from lines replayed by a bouncer or history should take the original time
+        final long serverTime = mMessage.hasTags()
+                ? IRCv3Utils.parseServerTime(mMessage.getTags().getTime())
+                : IRCv3Utils.INVALID_SERVER_TIME;
+        if (serverTime == IRCv3Utils.INVALID_SERVER_TIME) {
+            return parseMessage(mMessage);
+        }
+
+        EventClock.setOverride(serverTime);
+        try {
+            return parseMessage(mMessage);
+        } finally {
+            EventClock.clearOverride();
+        }
+    }
+
+    private boolean parseMessage(final IrcMessage message) {
+        // Netsplits and netjoins are merged into a single event per channel
+        if (mNetsplitDetector.onLine(message)) {
+            return false;
+        }
+
+        // Check if the command is a numeric code
+        if (message.isNumeric()) {
+            parseServerCode(message, message.getNumeric());
+        } else {
+            return parserServerCommand(message, message.getCommand());
+        }
+        return false;
+    }
+
+    // The server is sending a command to us - parse what it is
+    private boolean parserServerCommand(final IrcMessage message, final String command) {
+        switch (command) {
+            case CommandConstants.PING:
+                // Immediately respond & return
+                final String source = message.getParam(0);
+                mInternalSender.pongServer(source);
+                return false;
+            case CommandConstants.ERROR:
+                // We are finished - the server has kicked us
+                // out for some reason
+                return true;
+        }
+
+        // Parse the command
+        final CommandParser parser = mCommandParserMap.get(command);
+        // Silently fail if the parser is null - just ignore this line
+        if (parser == null) {
+            return false;
+        }
+        parser.onParseCommand(message);
+
+        if (parser instanceof QuitParser) {
+            final QuitParser quitParser = (QuitParser) parser;
+            return quitParser.isUserQuit();
+        }
+        return false;
+    }
+
+    private void parseServerCode(final IrcMessage message, final int code) {
+        // Parameter 0 is the target of the reply - ourselves
+        final int route = NumericDispatchTable.getRoute(code);
+        switch (route) {
+            case NumericDispatchTable.ROUTE_GENERIC:
+                final String text = message.getParam(1);
+                mServer.postAndStoreEvent(new GenericServerEvent(mServer, text));
+                break;
+            case NumericDispatchTable.ROUTE_WHOIS:
+                final String response = IRCUtils.concatenateStringList(message.getParams(1));
+                mServer.postAndStoreEvent(new WhoisEvent(mServer, response));
+                break;
+            case NumericDispatchTable.ROUTE_IGNORED:
+                final NumericHandler handler = NumericDispatchTable.getHandler(code);
+                if (handler != null) {
+                    handler.onNumeric(mServer, code, message.getParams(1));
+                }
+                break;
+            default:
+                mCodeParsers[route].onParseCode(message, code);
+                break;
+        }
+    }
+}
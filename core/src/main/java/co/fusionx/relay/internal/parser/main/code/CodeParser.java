@@ -0,0 +1,52 @@
+package co.fusionx.relay.internal.parser.main.code;
+
+import java.util.List;
+
+import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.base.RelayUserChannelInterface;
+import co.fusionx.relay.internal.parser.IrcMessage;
+import co.fusionx.relay.misc.EventBus;
+
+public abstract class CodeParser {
+
+    final RelayUserChannelInterface mUserChannelInterface;
+
+    final RelayServer mServer;
+
+    final EventBus mEventBus;
+
+    CodeParser(final RelayServer server) {
+        mServer = server;
+        mUserChannelInterface = server.getUserChannelInterface();
+        mEventBus = server.getServerWideBus();
+    }
+
+    /**
+     * Creates the code parsers for the server indexed by their route in the
+     * {@link NumericDispatchTable}
+     */
+    public static CodeParser[] getParsers(final RelayServer server) {
+        final CodeParser[] parsers = new CodeParser[NumericDispatchTable.ROUTE_COUNT];
+        parsers[NumericDispatchTable.ROUTE_TOPIC] = new TopicParser(server);
+        parsers[NumericDispatchTable.ROUTE_NAMES] = new NameParser(server);
+        parsers[NumericDispatchTable.ROUTE_MOTD] = new MotdParser(server);
+        parsers[NumericDispatchTable.ROUTE_ERROR] = new ErrorParser(server);
+        parsers[NumericDispatchTable.ROUTE_ISUPPORT] = new ISupportParser(server);
+        return parsers;
+    }
+
+    public abstract void onParseCode(final List<String> parsedArray, final int code);
+
+    /**
+     * Parses the code straight from the tokenized line. By default this materializes the
+     * parameters after the target of the reply and delegates to
+     * {@link #onParseCode(java.util.List, int)}
+     *
+     * @param message the tokenized line from the server
+     * @param code    the numeric code of the line
+     */
+    public void onParseCode(final IrcMessage message, final int code) {
+        // Skip the target of the reply - ourselves
+        onParseCode(message.getParams(1), code);
+    }
+}
\ No newline at end of file
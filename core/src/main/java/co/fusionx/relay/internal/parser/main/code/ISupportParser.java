@@ -0,0 +1,20 @@
+package co.fusionx.relay.internal.parser.main.code;
+
+import java.util.List;
+
+import co.fusionx.relay.internal.base.RelayServer;
+
+class ISupportParser extends CodeParser {
+
+    public ISupportParser(final RelayServer server) {
+        super(server);
+    }
+
+    @Override
+    public void onParseCode(final List<String> parsedArray, final int code) {
+        // The last parameter is the "are supported by this server" text rather than a token
+        if (parsedArray.size() > 1) {
+            mServer.onServerSupportReceived(parsedArray.subList(0, parsedArray.size() - 1));
+        }
+    }
+}
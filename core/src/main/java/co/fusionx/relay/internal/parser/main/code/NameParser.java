@@ -1,7 +1,5 @@
 package co.fusionx.relay.internal.parser.main.code;
 
-import android.util.Pair;
-
 import java.util.List;
 
 import co.fusionx.relay.internal.base.RelayChannel;
@@ -9,6 +7,7 @@ import co.fusionx.relay.internal.base.RelayChannelUser;
 import co.fusionx.relay.internal.base.RelayServer;
 import co.fusionx.relay.constants.UserLevel;
 import co.fusionx.relay.event.channel.ChannelNameEvent;
+import co.fusionx.relay.misc.Pair;
 import co.fusionx.relay.util.ParseUtils;
 
 import static co.fusionx.relay.internal.constants.ServerReplyCodes.RPL_NAMREPLY;
@@ -0,0 +1,113 @@
+package co.fusionx.relay.internal.parser.main.code;
+
+import java.util.Arrays;
+
+import co.fusionx.relay.interfaces.NumericHandler;
+import co.fusionx.relay.internal.constants.ServerReplyCodes;
+
+/**
+ * Maps every numeric reply from 0 to 999 to the way it is handled
+ *
+ * The table is built once and shared by all connections so routing a numeric is a single array
+ * lookup. Numerics which are not explicitly routed are ignored unless an application has
+ * registered a {@link NumericHandler} for them.
+ */
+public final class NumericDispatchTable {
+
+    public static final int NUMERIC_COUNT = 1000;
+
+    /**
+     * The numeric is not handled by the library
+     */
+    public static final int ROUTE_IGNORED = 0;
+
+    /**
+     * The text of the numeric is shown as a generic server event
+     */
+    public static final int ROUTE_GENERIC = 1;
+
+    /**
+     * The numeric is part of the reply to a WHOIS
+     */
+    public static final int ROUTE_WHOIS = 2;
+
+    // Routes handled by the code parser of the connection with the same index
+    public static final int ROUTE_TOPIC = 3;
+
+    public static final int ROUTE_NAMES = 4;
+
+    public static final int ROUTE_MOTD = 5;
+
+    public static final int ROUTE_ERROR = 6;
+
+    public static final int ROUTE_ISUPPORT = 7;
+
+    public static final int ROUTE_COUNT = 8;
+
+    private static final byte[] sRoutes = buildRoutes();
+
+    private static volatile NumericHandler[] sHandlers = new NumericHandler[NUMERIC_COUNT];
+
+    private NumericDispatchTable() {
+    }
+
+    public static int getRoute(final int code) {
+        return code >= 0 && code < NUMERIC_COUNT ? sRoutes[code] : ROUTE_IGNORED;
+    }
+
+    /**
+     * Returns the handler registered by the application for the numeric
+     *
+     * @param code the numeric code
+     * @return the handler or null if there is none
+     */
+    public static NumericHandler getHandler(final int code) {
+        return code >= 0 && code < NUMERIC_COUNT ? sHandlers[code] : null;
+    }
+
+    /**
+     * Registers a handler for a numeric which the library ignores - the handler is used by all
+     * connections
+     *
+     * @param code    the numeric code to handle
+     * @param handler the handler or null to remove the current handler
+     * @throws IllegalArgumentException if the numeric is out of range or is already handled by
+     *                                  the library
+     */
+    public static synchronized void registerHandler(final int code,
+            final NumericHandler handler) {
+        if (code < 0 || code >= NUMERIC_COUNT || getRoute(code) != ROUTE_IGNORED) {
+            throw new IllegalArgumentException("Numeric " + code + " cannot be handled");
+        }
+        // Copied so that readers never need to lock
+        final NumericHandler[] handlers = Arrays.copyOf(sHandlers, NUMERIC_COUNT);
+        handlers[code] = handler;
+        sHandlers = handlers;
+    }
+
+    private static byte[] buildRoutes() {
+        final byte[] routes = new byte[NUMERIC_COUNT];
+        for (final int code : ServerReplyCodes.genericCodes) {
+            routes[code] = ROUTE_GENERIC;
+        }
+        for (final int code : ServerReplyCodes.whoisCodes) {
+            routes[code] = ROUTE_WHOIS;
+        }
+
+        routes[ServerReplyCodes.RPL_TOPIC] = ROUTE_TOPIC;
+        routes[ServerReplyCodes.RPL_TOPICWHOTIME] = ROUTE_TOPIC;
+
+        routes[ServerReplyCodes.RPL_NAMREPLY] = ROUTE_NAMES;
+        routes[ServerReplyCodes.RPL_ENDOFNAMES] = ROUTE_NAMES;
+
+        routes[ServerReplyCodes.RPL_MOTDSTART] = ROUTE_MOTD;
+        routes[ServerReplyCodes.RPL_MOTD] = ROUTE_MOTD;
+        routes[ServerReplyCodes.RPL_ENDOFMOTD] = ROUTE_MOTD;
+
+        routes[ServerReplyCodes.ERR_NOSUCHNICK] = ROUTE_ERROR;
+        routes[ServerReplyCodes.ERR_NICKNAMEINUSE] = ROUTE_ERROR;
+
+        routes[ServerReplyCodes.RPL_ISUPPORT] = ROUTE_ISUPPORT;
+        return routes;
+    }
+}
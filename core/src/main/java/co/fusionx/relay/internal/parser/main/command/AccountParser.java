@@ -1,7 +1,5 @@
 package co.fusionx.relay.internal.parser.main.command;
 
-import android.util.Log;
-
 import java.util.List;
 
 import co.fusionx.relay.internal.base.RelayServer;
@@ -15,7 +13,6 @@ public class AccountParser extends CommandParser {
     @Override
     public void onParseCommand(final List<String> parsedArray, final String prefix) {
         final String accountName = parsedArray.get(0);
-        Log.e("Relay", "ACCOUNT: " + accountName);
 
         if (accountName.equals("*")) {
             // The user has logged out
@@ -1,13 +1,10 @@
 package co.fusionx.relay.internal.parser.main.command;
 
-import android.text.TextUtils;
-import android.util.Pair;
-
 import com.google.common.base.Optional;
 
 import java.util.List;
 
-import co.fusionx.relay.base.FormatSpanInfo;
+import co.fusionx.relay.event.MessageBody;
 import co.fusionx.relay.event.channel.ChannelEvent;
 import co.fusionx.relay.event.channel.ChannelWorldActionEvent;
 import co.fusionx.relay.event.query.QueryActionWorldEvent;
@@ -19,7 +16,6 @@ import co.fusionx.relay.internal.base.RelayQueryUser;
 import co.fusionx.relay.internal.base.RelayServer;
 import co.fusionx.relay.internal.base.RelayUserChannelInterface;
 import co.fusionx.relay.internal.function.Optionals;
-import co.fusionx.relay.internal.parser.main.MentionParser;
 import co.fusionx.relay.internal.sender.BaseSender;
 import co.fusionx.relay.internal.sender.RelayCtcpResponseSender;
 import co.fusionx.relay.util.LogUtils;
@@ -82,43 +78,38 @@ public class CTCPParser {
 
     private void onAction(final String recipient, final String sendingNick, final String message) {
         final String action = message.replace("ACTION ", "");
-        final Pair<String, List<FormatSpanInfo>> actionAndColors =
-                Utils.parseAndStripColorsFromMessage(action);
-        if (RelayChannel.isChannelPrefix(recipient.charAt(0))) {
-            onParseChannelAction(recipient, sendingNick,
-                    actionAndColors.first, actionAndColors.second);
+        if (mServer.getServerSupport().isChannel(recipient)) {
+            onParseChannelAction(recipient, sendingNick, action);
         } else {
-            onParseUserAction(recipient, actionAndColors.first, actionAndColors.second);
+            onParseUserAction(recipient, action);
         }
     }
 
-    private void onParseUserAction(final String nick, final String action,
-            final List<FormatSpanInfo> formats) {
+    private void onParseUserAction(final String nick, final String action) {
         final Optional<RelayQueryUser> optional = mUserChannelInterface.getQueryUser(nick);
         final RelayQueryUser user = optional.or(mUserChannelInterface.addQueryUser(nick));
         if (!optional.isPresent()) {
             mServer.postAndStoreEvent(new NewPrivateMessageEvent(user));
         }
-        user.postAndStoreEvent(new QueryActionWorldEvent(user, action, formats));
+        user.postAndStoreEvent(new QueryActionWorldEvent(user, new MessageBody(action)));
     }
 
     private void onParseChannelAction(final String channelName, final String sendingNick,
-            final String action, final List<FormatSpanInfo> formats) {
+            final String action) {
         final Optional<RelayChannel> optChannel = mUserChannelInterface.getChannel(channelName);
 
         LogUtils.logOptionalBug(optChannel, mServer);
         Optionals.ifPresent(optChannel, channel -> {
             final Optional<RelayChannelUser> optUser = mUserChannelInterface.getUser(sendingNick);
             final String ownNick = mServer.getUser().getNick().getNickAsString();
-            final boolean mention = !TextUtils.equals(sendingNick, ownNick)
-                    ? MentionParser.onMentionableCommand(action, ownNick) : false;
+            final MessageBody body = new MessageBody(action, !Utils.equals(sendingNick, ownNick)
+                    ? mServer.getHighlightMatcher() : null);
 
             final ChannelEvent event;
             if (optUser.isPresent()) {
-                event = new ChannelWorldActionEvent(channel, action,
-                        optUser.get(), mention, formats);
+                event = new ChannelWorldActionEvent(channel, body, optUser.get());
             } else {
-                event = new ChannelWorldActionEvent(channel, action, sendingNick, mention, formats);
+                event = new ChannelWorldActionEvent(channel, body, sendingNick);
             }
             channel.postAndStoreEvent(event);
         });
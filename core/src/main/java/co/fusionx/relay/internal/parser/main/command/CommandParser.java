@@ -8,6 +8,7 @@ import co.fusionx.relay.constants.CapCapability;
 import co.fusionx.relay.internal.base.RelayServer;
 import co.fusionx.relay.internal.base.RelayUserChannelInterface;
 import co.fusionx.relay.internal.constants.CommandConstants;
+import co.fusionx.relay.internal.parser.IrcMessage;
 import co.fusionx.relay.internal.sender.BaseSender;
 import co.fusionx.relay.misc.EventBus;
 
@@ -56,4 +57,15 @@ public abstract class CommandParser {
     }
 
     public abstract void onParseCommand(final List<String> parsedArray, final String prefix);
+
+    /**
+     * Parses the command straight from the tokenized line. By default this materializes the
+     * parameters and delegates to {@link #onParseCommand(java.util.List, String)} - parsers on
+     * the hot path override this to avoid creating strings they do not need
+     *
+     * @param message the tokenized line from the server
+     */
+    public void onParseCommand(final IrcMessage message) {
+        onParseCommand(message.getParams(0), message.getPrefix());
+    }
 }
\ No newline at end of file
@@ -12,8 +12,11 @@ import co.fusionx.relay.event.server.ServerEvent;
 import co.fusionx.relay.internal.base.RelayChannel;
 import co.fusionx.relay.internal.base.RelayChannelUser;
 import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.parser.IrcMessage;
+import co.fusionx.relay.misc.MessageTags;
+import co.fusionx.relay.util.ParseUtils;
 
-class JoinParser extends CommandParser {
+public class JoinParser extends CommandParser {
 
     public JoinParser(final RelayServer server) {
         super(server);
@@ -21,10 +24,35 @@ class JoinParser extends CommandParser {
 
     @Override
     public void onParseCommand(final List<String> parsedArray, final String prefix) {
-        final String channelName = parsedArray.get(0);
+        onParseJoin(ParseUtils.getNickFromPrefix(prefix), parsedArray.get(0), parsedArray.size(),
+                MessageTags.EMPTY);
+    }
+
+    @Override
+    public void onParseCommand(final IrcMessage message) {
+        onParseJoin(message.getPrefixNick(), message.getParam(0), message.getParamCount(),
+                message.getTags());
+    }
+
+    /**
+     * Applies a JOIN which is part of a netjoin - the user is added to the channel exactly as
+     * for any other JOIN but the event is returned instead of being posted so that it can be
+     * merged with the JOINs of the other users who returned
+     *
+     * @param user    the user who joined - this must not be the app user
+     * @param channel the channel which was joined
+     * @param message the tokenized JOIN line
+     * @return the event which would have been posted for the JOIN
+     */
+    public ChannelWorldJoinEvent onParseNetjoin(final RelayChannelUser user,
+            final RelayChannel channel, final IrcMessage message) {
+        return applyJoin(user, channel, message.getParamCount(), message.getTags());
+    }
 
+    private void onParseJoin(final String nick, final String channelName, final int paramCount,
+            final MessageTags tags) {
         // Retrieve the user and channel
-        final RelayChannelUser user = mUserChannelInterface.getUserFromPrefix(prefix);
+        final RelayChannelUser user = mUserChannelInterface.getNonNullUser(nick);
         final Optional<RelayChannel> optChannel = mUserChannelInterface.getChannel(channelName);
         RelayChannel channel = optChannel.orNull();
 
@@ -38,21 +66,9 @@ class JoinParser extends CommandParser {
             // If the channel is not null then we simply clear the data of the channel
             channel.clearInternalData();
         }
-        // Put the user and channel together
-        mUserChannelInterface.coupleUserAndChannel(user, channel);
-
-        if (mServer.getCapabilities().contains(CapCapability.EXTENDEDJOIN)) {
-            // We should have 2 parameters after the channel name
-            if (parsedArray.size() == 3) {
-                final String accountName = parsedArray.get(1);
-                final String realName = parsedArray.get(2);
-            } else {
-                // TODO - this should never happen - the server is messing up if this is the case
-            }
-        }
 
         // Post the event to the channel
-        final ChannelEvent event = new ChannelWorldJoinEvent(channel, user);
+        final ChannelEvent event = applyJoin(user, channel, paramCount, tags);
         channel.postAndStoreEvent(event);
 
         if (appUser) {
@@ -61,4 +77,20 @@ class JoinParser extends CommandParser {
             mServer.postAndStoreEvent(joinEvent);
         }
     }
+
+    private ChannelWorldJoinEvent applyJoin(final RelayChannelUser user,
+            final RelayChannel channel, final int paramCount, final MessageTags tags) {
+        // Put the user and channel together
+        mUserChannelInterface.coupleUserAndChannel(user, channel);
+
+        if (mServer.getCapabilities().contains(CapCapability.EXTENDEDJOIN)) {
+            // We should have 2 parameters after the channel name - the account name and real name
+            if (paramCount == 3) {
+                // TODO - the account name and real name are not stored yet
+            } else {
+                // TODO - this should never happen - the server is messing up if this is the case
+            }
+        }
+        return new ChannelWorldJoinEvent(channel, user, tags);
+    }
 }
\ No newline at end of file
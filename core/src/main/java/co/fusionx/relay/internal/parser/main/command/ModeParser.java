@@ -0,0 +1,141 @@
+package co.fusionx.relay.internal.parser.main.command;
+
+import com.google.common.base.Optional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import co.fusionx.relay.constants.UserLevel;
+import co.fusionx.relay.event.channel.ChannelModeChangeEvent;
+import co.fusionx.relay.internal.base.RelayChannel;
+import co.fusionx.relay.internal.base.RelayChannelUser;
+import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.function.Optionals;
+import co.fusionx.relay.misc.ServerSupport;
+import co.fusionx.relay.util.LogUtils;
+import co.fusionx.relay.util.ParseUtils;
+
+/**
+ * Parses MODE lines sent to channels
+ *
+ * Every mode in the line is walked and matched up with its parameter using the PREFIX and
+ * CHANMODES the server advertised. The level of each user named by the line is worked out
+ * from all the modes which name them and set once at the end - a single
+ * {@link ChannelModeChangeEvent} is then posted for the whole line.
+ */
+class ModeParser extends CommandParser {
+
+    public ModeParser(final RelayServer server) {
+        super(server);
+    }
+
+    @Override
+    public void onParseCommand(final List<String> parsedArray, final String prefix) {
+        if (parsedArray.size() < 2) {
+            return;
+        }
+        final String sendingUser = ParseUtils.getNickFromPrefix(prefix);
+        final String recipient = parsedArray.get(0);
+
+        if (mServer.getServerSupport().isChannel(recipient)) {
+            parseChannelMode(parsedArray, recipient, sendingUser);
+        } else {
+            // A user is changing a mode about themselves
+            // TODO - implement this?
+        }
+    }
+
+    private void parseChannelMode(final List<String> parsedArray, final String recipient,
+            final String sendingUser) {
+        // The recipient is a channel (i.e. the mode of a user in the channel is being changed
+        // or possibly the mode of the channel itself)
+        final Optional<RelayChannel> optChannel = mUserChannelInterface.getChannel(recipient);
+
+        LogUtils.logOptionalBug(optChannel, mServer);
+        Optionals.ifPresent(optChannel, channel -> onChannelModes(parsedArray, sendingUser,
+                channel));
+    }
+
+    private void onChannelModes(final List<String> parsedArray, final String sendingNick,
+            final RelayChannel channel) {
+        final ServerSupport support = mServer.getServerSupport();
+        final String modes = parsedArray.get(1);
+        final List<String> parameters = parsedArray.subList(2, parsedArray.size());
+
+        final List<RelayChannelUser> users = new ArrayList<>();
+        final List<UserLevel> oldLevels = new ArrayList<>();
+        final List<UserLevel> newLevels = new ArrayList<>();
+
+        boolean adding = true;
+        int parameterIndex = 0;
+        for (int i = 0, length = modes.length(); i < length; i++) {
+            final char mode = modes.charAt(i);
+            if (mode == '+' || mode == '-') {
+                adding = mode == '+';
+                continue;
+            }
+
+            switch (support.getChannelModeType(mode)) {
+                case ServerSupport.MODE_TYPE_PREFIX:
+                    if (parameterIndex < parameters.size()) {
+                        final String nick = parameters.get(parameterIndex++);
+                        onLevelMode(channel, nick, support.getLevelFromMode(mode), adding,
+                                users, oldLevels, newLevels);
+                    }
+                    break;
+                case ServerSupport.MODE_TYPE_LIST:
+                case ServerSupport.MODE_TYPE_ALWAYS_PARAMETER:
+                    parameterIndex++;
+                    break;
+                case ServerSupport.MODE_TYPE_SET_PARAMETER:
+                    if (adding) {
+                        parameterIndex++;
+                    }
+                    break;
+            }
+        }
+
+        for (int i = 0; i < users.size(); i++) {
+            if (oldLevels.get(i) != newLevels.get(i)) {
+                users.get(i).onModeChanged(channel, newLevels.get(i));
+            }
+        }
+
+        final Optional<RelayChannelUser> optSending = mUserChannelInterface.getUser(sendingNick);
+        channel.postAndStoreEvent(new ChannelModeChangeEvent(channel, optSending, sendingNick,
+                modes, new ArrayList<>(parameters), users, oldLevels, newLevels));
+    }
+
+    private void onLevelMode(final RelayChannel channel, final String nick,
+            final UserLevel level, final boolean adding, final List<RelayChannelUser> users,
+            final List<UserLevel> oldLevels, final List<UserLevel> newLevels) {
+        // Nullity can occur when the server sends a nick which is not in the channel
+        final Optional<RelayChannelUser> optUser = mServer.getUser().isNickEqual(nick)
+                ? Optional.of(mServer.getUser())
+                : mUserChannelInterface.getUser(nick);
+        if (!optUser.isPresent()) {
+            return;
+        }
+
+        final RelayChannelUser user = optUser.get();
+        int index = users.indexOf(user);
+        if (index == -1) {
+            index = users.size();
+            final UserLevel oldLevel = user.getChannelPrivileges(channel);
+            users.add(user);
+            oldLevels.add(oldLevel);
+            newLevels.add(oldLevel);
+        }
+
+        final UserLevel current = newLevels.get(index);
+        if (adding) {
+            // Only the highest level of a user is known so a lower mode does not change it
+            if (level.compareTo(current) < 0) {
+                newLevels.set(index, level);
+            }
+        } else if (level == current) {
+            // Any lower modes the user still has are not known until the next NAMES
+            newLevels.set(index, UserLevel.NONE);
+        }
+    }
+}
@@ -38,7 +38,7 @@ class NickParser extends CommandParser {
         Optionals.ifPresent(optUser, user -> {
             final String newNick = parsedArray.get(0);
             final Nick oldNick = user.getNick();
-            user.setNick(newNick);
+            mUserChannelInterface.changeNick(user, newNick);
 
             if (appUser) {
                 mServer.postAndStoreEvent(new ServerNickChangeEvent(mServer, oldNick, user));
@@ -1,20 +1,18 @@
 package co.fusionx.relay.internal.parser.main.command;
 
-import android.util.Pair;
-
 import com.google.common.base.Optional;
 
 import java.util.List;
 
-import co.fusionx.relay.base.FormatSpanInfo;
 import co.fusionx.relay.internal.base.RelayChannel;
 import co.fusionx.relay.internal.base.RelayQueryUser;
 import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.event.MessageBody;
 import co.fusionx.relay.event.channel.ChannelNoticeEvent;
 import co.fusionx.relay.event.query.QueryMessageWorldEvent;
 import co.fusionx.relay.event.server.NoticeEvent;
+import co.fusionx.relay.misc.MessageTags;
 import co.fusionx.relay.util.ParseUtils;
-import co.fusionx.relay.util.Utils;
 
 class NoticeParser extends CommandParser {
 
@@ -36,25 +34,21 @@ class NoticeParser extends CommandParser {
         } else {
             final String sendingNick = ParseUtils.getNickFromPrefix(prefix);
             final String recipient = parsedArray.get(0);
-            final Pair<String, List<FormatSpanInfo>> noticeAndColors =
-                    Utils.parseAndStripColorsFromMessage(notice);
-
-            if (RelayChannel.isChannelPrefix(recipient.charAt(0))) {
-                onParseChannelNotice(recipient, sendingNick,
-                        noticeAndColors.first, noticeAndColors.second);
+            if (mServer.getServerSupport().isChannel(recipient)) {
+                onParseChannelNotice(recipient, sendingNick, notice);
             } else if (recipient.equals(mServer.getUser().getNick().getNickAsString())) {
-                onParseUserNotice(sendingNick, noticeAndColors.first, noticeAndColors.second);
+                onParseUserNotice(sendingNick, notice);
             }
         }
     }
 
     private void onParseChannelNotice(final String channelName, final String sendingNick,
-            final String notice, final List<FormatSpanInfo> formats) {
+            final String notice) {
         final Optional<RelayChannel> optChannel = mUserChannelInterface.getChannel(channelName);
         if (optChannel.isPresent()) {
             final RelayChannel channel = optChannel.get();
-            channel.postAndStoreEvent(new ChannelNoticeEvent(channel,
-                    sendingNick, notice, formats));
+            channel.postAndStoreEvent(new ChannelNoticeEvent(channel, sendingNick,
+                    new MessageBody(notice)));
         } else {
             // If we're not in this channel then send the notice to the server instead
             // TODO - maybe figure out why this is happening
@@ -62,12 +56,12 @@ class NoticeParser extends CommandParser {
         }
     }
 
-    private void onParseUserNotice(final String sendingNick, final String notice,
-            final List<FormatSpanInfo> formats) {
+    private void onParseUserNotice(final String sendingNick, final String notice) {
         final Optional<RelayQueryUser> optUser = mUserChannelInterface.getQueryUser(sendingNick);
         if (optUser.isPresent()) {
             final RelayQueryUser user = optUser.get();
-            user.postAndStoreEvent(new QueryMessageWorldEvent(user, notice, formats));
+            user.postAndStoreEvent(new QueryMessageWorldEvent(user, new MessageBody(notice),
+                    MessageTags.EMPTY));
         } else {
             mServer.postAndStoreEvent(new NoticeEvent(mServer, sendingNick, notice));
         }
@@ -1,7 +1,5 @@
 package co.fusionx.relay.internal.parser.main.command;
 
-import android.util.Pair;
-
 import com.google.common.base.Optional;
 
 import java.util.Collection;
@@ -16,6 +14,7 @@ import co.fusionx.relay.constants.UserLevel;
 import co.fusionx.relay.event.channel.ChannelWorldPartEvent;
 import co.fusionx.relay.event.channel.ChannelWorldUserEvent;
 import co.fusionx.relay.event.channel.PartEvent;
+import co.fusionx.relay.misc.Pair;
 import co.fusionx.relay.util.ParseUtils;
 import co.fusionx.relay.util.Utils;
 
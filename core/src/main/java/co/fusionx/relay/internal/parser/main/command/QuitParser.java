@@ -1,23 +1,20 @@
 package co.fusionx.relay.internal.parser.main.command;
 
-import android.util.Pair;
-
 import com.google.common.base.Optional;
 
 import java.util.Collection;
 import java.util.List;
 
-import co.fusionx.relay.base.FormatSpanInfo;
 import co.fusionx.relay.internal.base.RelayChannel;
 import co.fusionx.relay.internal.base.RelayChannelUser;
 import co.fusionx.relay.internal.base.RelayQueryUser;
 import co.fusionx.relay.internal.base.RelayServer;
 import co.fusionx.relay.constants.UserLevel;
+import co.fusionx.relay.event.MessageBody;
 import co.fusionx.relay.event.channel.ChannelWorldQuitEvent;
 import co.fusionx.relay.event.query.QueryQuitWorldEvent;
 import co.fusionx.relay.internal.function.Optionals;
 import co.fusionx.relay.util.ParseUtils;
-import co.fusionx.relay.util.Utils;
 
 public class QuitParser extends CommandParser {
 
@@ -46,13 +43,13 @@ public class QuitParser extends CommandParser {
         Optionals.ifPresent(optUser, user -> {
             final Collection<RelayChannel> channels = mUserChannelInterface.removeUser(user);
             final String reason = parsed.size() == 2 ? parsed.get(1).replace("\"", "") : "";
-            final Pair<String, List<FormatSpanInfo>> reasonAndColors =
-                    Utils.parseAndStripColorsFromMessage(reason);
+            // Shared by every channel so the formatting is removed at most once
+            final MessageBody body = new MessageBody(reason);
             for (final RelayChannel channel : channels) {
                 final UserLevel level = user.getChannelPrivileges(channel);
                 mUserChannelInterface.removeUserFromChannel(channel, user);
-                channel.postAndStoreEvent(new ChannelWorldQuitEvent(channel,
-                        user, level, reasonAndColors.first, reasonAndColors.second));
+                channel.postAndStoreEvent(new ChannelWorldQuitEvent(channel, user, level,
+                        body));
             }
         });
 
@@ -1,7 +1,5 @@
 package co.fusionx.relay.internal.parser.main.command;
 
-import android.util.Pair;
-
 import com.google.common.base.Optional;
 
 import java.util.List;
@@ -12,6 +10,7 @@ import co.fusionx.relay.internal.base.RelayChannel;
 import co.fusionx.relay.internal.base.RelayServer;
 import co.fusionx.relay.event.channel.ChannelTopicEvent;
 import co.fusionx.relay.internal.function.Optionals;
+import co.fusionx.relay.misc.Pair;
 import co.fusionx.relay.util.LogUtils;
 import co.fusionx.relay.util.Utils;
 
@@ -1,12 +1,11 @@
 package co.fusionx.relay.internal.parser.main.command;
 
-import android.util.Pair;
-
 import java.util.List;
 
 import co.fusionx.relay.base.FormatSpanInfo;
 import co.fusionx.relay.internal.base.RelayServer;
 import co.fusionx.relay.event.server.WallopsEvent;
+import co.fusionx.relay.misc.Pair;
 import co.fusionx.relay.util.ParseUtils;
 import co.fusionx.relay.util.Utils;
 
@@ -0,0 +1,364 @@
+package co.fusionx.relay.internal.sender;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import co.fusionx.relay.internal.packet.Packet;
+import co.fusionx.relay.internal.packet.server.JoinPacket;
+import co.fusionx.relay.internal.packet.server.internal.PongPacket;
+
+import static co.fusionx.relay.misc.RelayConfigurationProvider.getPreferences;
+
+/**
+ * Writes packets to the server from a single writer thread
+ *
+ * Any thread can queue a line without taking a lock. The writer drains every line which is
+ * queued at the time into the writer of the connection and flushes once for the whole batch.
+ *
+ * PONGs are written ahead of everything else and are never held back as they do not depend on
+ * any other line. Every other line is written in the order it was sent so a JOIN always reaches
+ * the server before the PRIVMSGs to the channel and a QUIT after the lines queued before it.
+ * If flood control is enabled, those lines are rate limited by a token bucket and JOINs which
+ * are next to each other in the queue are merged into a single line.
+ */
+public class RelayBaseSender implements BaseSender {
+
+    private static final String LINE_TERMINATOR = "\r\n";
+
+    // RFC2812 limits lines to 512 characters including the CRLF
+    private static final int MAX_LINE_LENGTH = 510;
+
+    private static final String JOIN_PREFIX = "JOIN ";
+
+    private final ConcurrentLinkedQueue<QueuedLine> mPongLines;
+
+    private final ConcurrentLinkedQueue<QueuedLine> mLines;
+
+    // The number of times the writer has been asked to drain - the writer only stops once it
+    // has caught up with all of them so a line can never be left in the queue
+    private final AtomicInteger mDrainRequests;
+
+    private final ExecutorService mWriterExecutor;
+
+    private final Runnable mDrainTask;
+
+    private final TokenBucket mTokenBucket;
+
+    // Used to wake the writer up early when it is waiting for a token and a PONG arrives
+    private final Object mThrottleLock = new Object();
+
+    // Metrics
+    private final AtomicInteger mQueueDepth;
+
+    private final AtomicInteger mMaxQueueDepth;
+
+    private final AtomicLong mSentLines;
+
+    private final AtomicLong mTotalLatencyNanos;
+
+    private final AtomicLong mMaxLatencyNanos;
+
+    private final AtomicLong mThrottledNanos;
+
+    private final AtomicLong mMergedJoins;
+
+    private volatile BufferedWriter mBufferedWriter;
+
+    private volatile boolean mTokenBucketResetRequested;
+
+    public RelayBaseSender() {
+        this(0, 0);
+    }
+
+    /**
+     * @param floodBurst          the number of lines which can be sent at once before the flood
+     *                            control starts delaying lines
+     * @param floodIntervalMillis the time between lines once the burst is used up - zero or less
+     *                            disables flood control
+     */
+    public RelayBaseSender(final int floodBurst, final long floodIntervalMillis) {
+        mPongLines = new ConcurrentLinkedQueue<>();
+        mLines = new ConcurrentLinkedQueue<>();
+        mDrainRequests = new AtomicInteger();
+        // The writer thread is allowed to die when the connection is idle
+        mWriterExecutor = new ThreadPoolExecutor(0, 1, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>());
+        mDrainTask = this::drain;
+        mTokenBucket = new TokenBucket(floodBurst, floodIntervalMillis);
+
+        mQueueDepth = new AtomicInteger();
+        mMaxQueueDepth = new AtomicInteger();
+        mSentLines = new AtomicLong();
+        mTotalLatencyNanos = new AtomicLong();
+        mMaxLatencyNanos = new AtomicLong();
+        mThrottledNanos = new AtomicLong();
+        mMergedJoins = new AtomicLong();
+    }
+
+    @Override
+    public void sendPacket(final Packet packet) {
+        final boolean pong = packet instanceof PongPacket;
+        final String joinChannel = packet instanceof JoinPacket
+                ? getMergeableChannel((JoinPacket) packet)
+                : null;
+        final QueuedLine queuedLine = new QueuedLine(packet.getLine(), joinChannel,
+                System.nanoTime());
+        (pong ? mPongLines : mLines).add(queuedLine);
+        updateMax(mMaxQueueDepth, mQueueDepth.incrementAndGet());
+
+        if (mDrainRequests.getAndIncrement() == 0) {
+            mWriterExecutor.execute(mDrainTask);
+        } else if (pong) {
+            synchronized (mThrottleLock) {
+                mThrottleLock.notify();
+            }
+        }
+    }
+
+    @Override
+    public void onOutputStreamCreated(final BufferedWriter writer) {
+        mBufferedWriter = writer;
+        mTokenBucketResetRequested = true;
+    }
+
+    @Override
+    public void onConnectionTerminated() {
+        mBufferedWriter = null;
+    }
+
+    /**
+     * Returns the number of lines which are waiting to be written
+     *
+     * @return the current depth of the queue
+     */
+    public int getQueueDepth() {
+        return mQueueDepth.get();
+    }
+
+    /**
+     * Returns the largest number of lines which were waiting to be written at the same time
+     *
+     * @return the maximum depth of the queue
+     */
+    public int getMaxQueueDepth() {
+        return mMaxQueueDepth.get();
+    }
+
+    public long getSentLineCount() {
+        return mSentLines.get();
+    }
+
+    /**
+     * Returns the average time between a line being queued and it being flushed to the server
+     *
+     * @return the average latency in nanoseconds
+     */
+    public long getAverageWriteLatencyNanos() {
+        final long sentLines = mSentLines.get();
+        return sentLines == 0 ? 0 : mTotalLatencyNanos.get() / sentLines;
+    }
+
+    /**
+     * Returns the longest time between a line being queued and it being flushed to the server
+     *
+     * @return the maximum latency in nanoseconds
+     */
+    public long getMaxWriteLatencyNanos() {
+        return mMaxLatencyNanos.get();
+    }
+
+    /**
+     * Returns the total time the writer spent waiting because of flood control
+     *
+     * @return the time spent waiting in nanoseconds
+     */
+    public long getThrottledNanos() {
+        return mThrottledNanos.get();
+    }
+
+    /**
+     * Returns the number of JOINs which were merged into the JOIN of another channel
+     *
+     * @return the number of merged JOINs
+     */
+    public long getMergedJoinCount() {
+        return mMergedJoins.get();
+    }
+
+    private static String getMergeableChannel(final JoinPacket packet) {
+        final String channelName = packet.getChannelName();
+        // A JOIN with a key cannot be merged with other JOINs without keys
+        if (channelName == null || channelName.indexOf(' ') != -1
+                || channelName.indexOf(',') != -1) {
+            return null;
+        }
+        return channelName;
+    }
+
+    private void drain() {
+        int requests = mDrainRequests.get();
+        while (true) {
+            writeQueuedLines();
+
+            requests = mDrainRequests.addAndGet(-requests);
+            if (requests == 0) {
+                return;
+            }
+        }
+    }
+
+    private void writeQueuedLines() {
+        final BufferedWriter writer = mBufferedWriter;
+        if (mTokenBucketResetRequested) {
+            mTokenBucketResetRequested = false;
+            mTokenBucket.reset(System.nanoTime());
+        }
+
+        final Batch batch = new Batch();
+        try {
+            while (true) {
+                QueuedLine queuedLine = mPongLines.poll();
+                if (queuedLine == null) {
+                    if (mLines.isEmpty()) {
+                        break;
+                    }
+
+                    // Lines which are only going to be logged do not use up any tokens
+                    if (writer != null) {
+                        final long wait = mTokenBucket.tryAcquire(System.nanoTime());
+                        if (wait > 0) {
+                            batch.flush(writer);
+                            awaitToken(wait);
+                            continue;
+                        }
+                    }
+                    queuedLine = pollLine();
+                } else {
+                    mQueueDepth.decrementAndGet();
+                }
+
+                if (writer == null) {
+                    getPreferences().logServerLine(queuedLine.mLine);
+                } else {
+                    batch.write(writer, queuedLine);
+                }
+            }
+            batch.flush(writer);
+        } catch (final IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private QueuedLine pollLine() {
+        final QueuedLine first = mLines.poll();
+        mQueueDepth.decrementAndGet();
+        if (first.mJoinChannel == null || !mTokenBucket.isEnabled()) {
+            return first;
+        }
+
+        // Each line costs a token so fold the JOINs queued straight after this one into it -
+        // only JOINs next to each other are merged so no line is moved ahead of another
+        final StringBuilder builder = new StringBuilder(JOIN_PREFIX).append(first.mJoinChannel);
+        QueuedLine next;
+        while ((next = mLines.peek()) != null && next.mJoinChannel != null
+                && builder.length() + 1 + next.mJoinChannel.length() <= MAX_LINE_LENGTH) {
+            mLines.poll();
+            mQueueDepth.decrementAndGet();
+            mMergedJoins.incrementAndGet();
+            builder.append(',').append(next.mJoinChannel);
+        }
+        return new QueuedLine(builder.toString(), null, first.mEnqueueTime);
+    }
+
+    private void awaitToken(final long waitNanos) {
+        final long start = System.nanoTime();
+        synchronized (mThrottleLock) {
+            // PONGs must not wait for a token so skip waiting if one is already queued
+            if (mPongLines.isEmpty()) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(mThrottleLock, waitNanos);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        mThrottledNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    private static void updateMax(final AtomicInteger max, final int value) {
+        int current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // Retry until either the value is no longer the max or the update succeeds
+        }
+    }
+
+    private static void updateMax(final AtomicLong max, final long value) {
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // Retry until either the value is no longer the max or the update succeeds
+        }
+    }
+
+    private static class QueuedLine {
+
+        private final String mLine;
+
+        // The channel of a JOIN which can be merged with other JOINs or null otherwise
+        private final String mJoinChannel;
+
+        private final long mEnqueueTime;
+
+        private QueuedLine(final String line, final String joinChannel, final long enqueueTime) {
+            mLine = line;
+            mJoinChannel = joinChannel;
+            mEnqueueTime = enqueueTime;
+        }
+    }
+
+    /**
+     * The lines written since the last flush - used to work out the latency metrics
+     */
+    private class Batch {
+
+        private int mWritten;
+
+        private long mOldestEnqueueTime;
+
+        // The sum of how much later than the oldest line each line was queued
+        private long mTotalEnqueueOffset;
+
+        private void write(final BufferedWriter writer, final QueuedLine queuedLine)
+                throws IOException {
+            writer.write(queuedLine.mLine);
+            writer.write(LINE_TERMINATOR);
+
+            if (mWritten == 0) {
+                mOldestEnqueueTime = queuedLine.mEnqueueTime;
+            }
+            mTotalEnqueueOffset += queuedLine.mEnqueueTime - mOldestEnqueueTime;
+            mWritten++;
+        }
+
+        private void flush(final BufferedWriter writer) throws IOException {
+            if (mWritten == 0) {
+                return;
+            }
+            writer.flush();
+
+            final long oldestLatency = System.nanoTime() - mOldestEnqueueTime;
+            mTotalLatencyNanos.addAndGet(oldestLatency * mWritten - mTotalEnqueueOffset);
+            mSentLines.addAndGet(mWritten);
+            updateMax(mMaxLatencyNanos, oldestLatency);
+
+            mWritten = 0;
+            mTotalEnqueueOffset = 0;
+        }
+    }
+}
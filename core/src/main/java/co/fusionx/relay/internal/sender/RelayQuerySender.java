@@ -1,11 +1,10 @@
 package co.fusionx.relay.internal.sender;
 
-import android.text.TextUtils;
-
 import co.fusionx.relay.internal.base.RelayQueryUser;
 import co.fusionx.relay.internal.packet.query.QueryActionPacket;
 import co.fusionx.relay.internal.packet.query.QueryMessagePacket;
 import co.fusionx.relay.sender.QuerySender;
+import co.fusionx.relay.util.Utils;
 
 public class RelayQuerySender implements QuerySender {
 
@@ -20,7 +19,7 @@ public class RelayQuerySender implements QuerySender {
 
     @Override
     public void sendAction(final String action) {
-        if (TextUtils.isEmpty(action)) {
+        if (Utils.isEmpty(action)) {
             return;
         }
         mSender.sendPacket(new QueryActionPacket(mQueryUser.getNick().getNickAsString(), action));
@@ -28,7 +27,7 @@ public class RelayQuerySender implements QuerySender {
 
     @Override
     public void sendMessage(final String message) {
-        if (TextUtils.isEmpty(message)) {
+        if (Utils.isEmpty(message)) {
             return;
         }
         mSender.sendPacket(new QueryMessagePacket(mQueryUser.getNick().getNickAsString(), message));
@@ -0,0 +1,80 @@
+package co.fusionx.relay.internal.sender;
+
+/**
+ * A token bucket which allows a burst of lines to be sent at once and then one line every
+ * interval after that - this mirrors how servers decide whether a client is flooding
+ *
+ * Not thread safe - only used by the writer thread of a sender.
+ */
+class TokenBucket {
+
+    private final int mCapacity;
+
+    private final long mIntervalNanos;
+
+    private int mTokens;
+
+    private long mLastRefillNanos;
+
+    /**
+     * @param capacity       the number of lines which can be sent at once
+     * @param intervalMillis the time it takes for a single token to be added back to the bucket -
+     *                       zero or less disables the bucket
+     */
+    TokenBucket(final int capacity, final long intervalMillis) {
+        mCapacity = Math.max(capacity, 1);
+        mIntervalNanos = intervalMillis * 1000000L;
+        mTokens = mCapacity;
+        mLastRefillNanos = System.nanoTime();
+    }
+
+    boolean isEnabled() {
+        return mIntervalNanos > 0;
+    }
+
+    /**
+     * Takes a token from the bucket if there is one
+     *
+     * @param nowNanos the current value of {@link System#nanoTime()}
+     * @return zero if a token was taken or the time in nanoseconds until the next token is
+     * available
+     */
+    long tryAcquire(final long nowNanos) {
+        if (!isEnabled()) {
+            return 0;
+        }
+
+        refill(nowNanos);
+        if (mTokens > 0) {
+            mTokens--;
+            return 0;
+        }
+        return Math.max(mLastRefillNanos + mIntervalNanos - nowNanos, 1);
+    }
+
+    /**
+     * Fills the bucket back up - used when a new connection is made
+     *
+     * @param nowNanos the current value of {@link System#nanoTime()}
+     */
+    void reset(final long nowNanos) {
+        mTokens = mCapacity;
+        mLastRefillNanos = nowNanos;
+    }
+
+    private void refill(final long nowNanos) {
+        final long elapsed = nowNanos - mLastRefillNanos;
+        if (elapsed < mIntervalNanos) {
+            return;
+        }
+
+        final long newTokens = elapsed / mIntervalNanos;
+        if (mTokens + newTokens >= mCapacity) {
+            mTokens = mCapacity;
+            mLastRefillNanos = nowNanos;
+        } else {
+            mTokens += newTokens;
+            mLastRefillNanos += newTokens * mIntervalNanos;
+        }
+    }
+}
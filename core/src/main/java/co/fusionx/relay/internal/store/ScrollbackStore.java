@@ -0,0 +1,483 @@
+package co.fusionx.relay.internal.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import co.fusionx.relay.base.Conversation;
+import co.fusionx.relay.constants.CaseMapping;
+import co.fusionx.relay.event.Event;
+import co.fusionx.relay.event.EventClock;
+import co.fusionx.relay.interfaces.EventCodec;
+import co.fusionx.relay.util.IOUtils;
+
+import static co.fusionx.relay.misc.RelayConfigurationProvider.getPreferences;
+
+/**
+ * Stores the events of a single conversation which were evicted from memory in append-only
+ * segment files on disk
+ *
+ * Each record in a segment is made up of the length of the encoded event, the timestamp of the
+ * event and the encoded event itself. Records are split into blocks of {@link #INDEX_INTERVAL}
+ * records and the offset and timestamp bounds of every block are remembered in memory so that
+ * reads only need to decode the records close to the requested time.
+ *
+ * Records are normally stored in the order they occurred but events stamped with server-time
+ * can arrive late, so the bounds are kept such that they stay sorted regardless and reads do
+ * not assume the records themselves are.
+ *
+ * Only a limited amount of disk is used for each conversation - once the segments grow past
+ * it the oldest segments are deleted.
+ */
+public class ScrollbackStore {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    // Segments are rolled once they grow past this size
+    private static final long SEGMENT_SIZE_LIMIT = 1024 * 1024;
+
+    /**
+     * The disk used for each conversation unless another limit is given
+     */
+    public static final long DEFAULT_MAX_BYTES = 16 * SEGMENT_SIZE_LIMIT;
+
+    private static final int INDEX_INTERVAL = 64;
+
+    // Length and timestamp of each record
+    private static final int RECORD_HEADER_SIZE = 4 + 8;
+
+    private static File sDirectory;
+
+    private static EventCodec sCodec;
+
+    private static long sMaxBytes;
+
+    private final File mDirectory;
+
+    private final EventCodec mCodec;
+
+    private final long mMaxBytes;
+
+    private final List<Segment> mSegments;
+
+    // The sequence number which will be given to the next segment created
+    private int mNextSegment;
+
+    private DataOutputStream mOutput;
+
+    private ScrollbackStore(final File directory, final EventCodec codec, final long maxBytes)
+            throws IOException {
+        mDirectory = directory;
+        mCodec = codec;
+        mMaxBytes = maxBytes;
+        mSegments = new ArrayList<>();
+
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            throw new IOException("Unable to create " + mDirectory);
+        }
+        loadSegments();
+    }
+
+    /**
+     * Enables storing events evicted from memory on disk for all conversations created after
+     * this call
+     *
+     * @param directory the directory to store the events in - each conversation gets a
+     *                  directory inside this one
+     * @param codec     the codec used to convert the events to and from bytes
+     */
+    public static void setStorage(final File directory, final EventCodec codec) {
+        setStorage(directory, codec, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Enables storing events evicted from memory on disk for all conversations created after
+     * this call
+     *
+     * @param directory the directory to store the events in - each conversation gets a
+     *                  directory inside this one
+     * @param codec     the codec used to convert the events to and from bytes
+     * @param maxBytes  the disk each conversation may use before its oldest events are
+     *                  deleted - at least one segment is always kept and 0 means no limit
+     */
+    public static synchronized void setStorage(final File directory, final EventCodec codec,
+            final long maxBytes) {
+        sDirectory = directory;
+        sCodec = codec;
+        sMaxBytes = maxBytes;
+    }
+
+    public static synchronized boolean isEnabled() {
+        return sDirectory != null && sCodec != null;
+    }
+
+    /**
+     * Opens the store for the conversation picking up any events stored by previous instances
+     *
+     * @param serverTitle    the title of the server the conversation belongs to
+     * @param conversationId the id of the conversation
+     * @return the store or null if storing events is disabled or the store could not be opened
+     */
+    public static synchronized ScrollbackStore open(final String serverTitle,
+            final String conversationId) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        final File serverDirectory = new File(sDirectory, toFileName(serverTitle));
+        try {
+            return new ScrollbackStore(new File(serverDirectory, toFileName(conversationId)),
+                    sCodec, sMaxBytes);
+        } catch (final IOException ex) {
+            getPreferences().handleException(ex);
+            return null;
+        }
+    }
+
+    /**
+     * Appends the event to the end of the newest segment
+     *
+     * @param event the event to store
+     */
+    public synchronized void append(final Event event) {
+        final byte[] data = mCodec.encode(event);
+        if (data == null) {
+            return;
+        }
+
+        try {
+            Segment segment = mSegments.isEmpty() ? null : mSegments.get(mSegments.size() - 1);
+            if (segment == null || segment.mSize >= SEGMENT_SIZE_LIMIT) {
+                closeOutput();
+                segment = new Segment(new File(mDirectory, getSegmentName(mNextSegment++)));
+                mSegments.add(segment);
+                deleteOldSegments();
+            }
+            if (mOutput == null) {
+                mOutput = new DataOutputStream(new BufferedOutputStream(
+                        new FileOutputStream(segment.mFile, true)));
+            }
+
+            mOutput.writeInt(data.length);
+            mOutput.writeLong(event.timestamp);
+            mOutput.write(data);
+            segment.onRecordAdded(event.timestamp, RECORD_HEADER_SIZE + data.length);
+        } catch (final IOException ex) {
+            closeOutput();
+            getPreferences().handleException(ex);
+        }
+    }
+
+    /**
+     * Reads the newest stored events which occurred before the timestamp
+     *
+     * @param conversation the conversation the events are being loaded into
+     * @param timestamp    the time in milliseconds which all events returned occurred before
+     * @param limit        the maximum number of events to return
+     * @return the events, oldest first
+     */
+    public synchronized List<Event> readBefore(final Conversation<?> conversation,
+            final long timestamp, final int limit) {
+        final List<Event> events = new ArrayList<>();
+        if (limit <= 0) {
+            return events;
+        }
+
+        try {
+            if (mOutput != null) {
+                mOutput.flush();
+            }
+
+            // Blocks are read newest first and the events sorted by time at the end
+            long newestEarlier = Long.MIN_VALUE;
+            final long[] newestBefore = new long[mSegments.size()];
+            for (int i = 0; i < mSegments.size(); i++) {
+                newestBefore[i] = newestEarlier;
+                newestEarlier = Math.max(newestEarlier, mSegments.get(i).getNewestTimestamp());
+            }
+            for (int i = mSegments.size() - 1; i >= 0; i--) {
+                final Segment segment = mSegments.get(i);
+                if (segment.mCount == 0 || segment.getOldestTimestamp() >= timestamp) {
+                    continue;
+                }
+                if (readSegmentBefore(conversation, segment, newestBefore[i], timestamp, limit,
+                        events)) {
+                    break;
+                }
+            }
+        } catch (final IOException ex) {
+            getPreferences().handleException(ex);
+        }
+        return getNewest(events, limit);
+    }
+
+    /**
+     * Closes the file which is being appended to - the store can still be used afterwards
+     */
+    public synchronized void close() {
+        closeOutput();
+    }
+
+    // Returns true once no record left to read can be newer than the events already read
+    private boolean readSegmentBefore(final Conversation<?> conversation, final Segment segment,
+            final long newestBefore, final long timestamp, final int limit,
+            final List<Event> events) throws IOException {
+        int block = segment.getLastBlockBefore(timestamp);
+        final RandomAccessFile file = new RandomAccessFile(segment.mFile, "r");
+        try {
+            for (; block >= 0; block--) {
+                final long start = segment.mIndexOffsets[block];
+                final long end = block + 1 < segment.mIndexCount
+                        ? segment.mIndexOffsets[block + 1]
+                        : segment.mSize;
+                final byte[] bytes = new byte[(int) (end - start)];
+                file.seek(start);
+                file.readFully(bytes);
+
+                final List<Event> blockEvents = decodeBlock(conversation, bytes, timestamp);
+                for (int i = blockEvents.size() - 1; i >= 0; i--) {
+                    events.add(blockEvents.get(i));
+                }
+
+                final long newestEarlier = block == 0
+                        ? newestBefore
+                        : Math.max(newestBefore, segment.mIndexNewest[block - 1]);
+                if (events.size() >= limit
+                        && newestEarlier <= getOldestTimestamp(events, limit)) {
+                    return true;
+                }
+            }
+        } finally {
+            IOUtils.closeQuietly(file);
+        }
+        return false;
+    }
+
+    // Events are in reverse order of storage - ties are broken by storage order
+    private static List<Event> getNewest(final List<Event> events, final int limit) {
+        final List<Event> sorted = new ArrayList<>(events);
+        Collections.reverse(sorted);
+        Collections.sort(sorted, (lhs, rhs) -> lhs.timestamp == rhs.timestamp
+                ? 0
+                : lhs.timestamp < rhs.timestamp ? -1 : 1);
+        return new ArrayList<>(sorted.subList(Math.max(0, sorted.size() - limit),
+                sorted.size()));
+    }
+
+    private static long getOldestTimestamp(final List<Event> events, final int limit) {
+        return getNewest(events, limit).get(0).timestamp;
+    }
+
+    private List<Event> decodeBlock(final Conversation<?> conversation, final byte[] bytes,
+            final long timestamp) throws IOException {
+        final List<Event> events = new ArrayList<>();
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        while (input.available() > 0) {
+            final byte[] data = new byte[input.readInt()];
+            final long recordTimestamp = input.readLong();
+            input.readFully(data);
+            if (recordTimestamp >= timestamp) {
+                continue;
+            }
+
+            // The decoded event needs to take the time it originally occurred
+            final Event event;
+            EventClock.setOverride(recordTimestamp);
+            try {
+                event = mCodec.decode(conversation, data);
+            } finally {
+                EventClock.clearOverride();
+            }
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    // The newest segment is always kept even if it is bigger than the limit on its own
+    private void deleteOldSegments() {
+        long size = 0;
+        for (final Segment segment : mSegments) {
+            size += segment.mSize;
+        }
+        while (mMaxBytes > 0 && mSegments.size() > 1 && size > mMaxBytes) {
+            final Segment oldest = mSegments.remove(0);
+            size -= oldest.mSize;
+            if (!oldest.mFile.delete()) {
+                getPreferences().handleException(new IOException("Unable to delete "
+                        + oldest.mFile));
+            }
+        }
+    }
+
+    private void loadSegments() throws IOException {
+        final File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        // Segment names are zero padded sequence numbers so they sort by age
+        Arrays.sort(files);
+        for (final File file : files) {
+            final String name = file.getName();
+            if (name.endsWith(SEGMENT_SUFFIX)) {
+                mSegments.add(loadSegment(file));
+                final String sequence = name.substring(0, name.length() - SEGMENT_SUFFIX.length());
+                mNextSegment = Integer.parseInt(sequence) + 1;
+            }
+        }
+        deleteOldSegments();
+    }
+
+    private Segment loadSegment(final File file) throws IOException {
+        final Segment segment = new Segment(file);
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(file)));
+        try {
+            while (true) {
+                final int length = input.readInt();
+                final long timestamp = input.readLong();
+                if (input.skipBytes(length) != length) {
+                    break;
+                }
+                segment.onRecordAdded(timestamp, RECORD_HEADER_SIZE + length);
+            }
+        } catch (final EOFException ignored) {
+            // Expected once the end of the segment is reached
+        } finally {
+            IOUtils.closeQuietly(input);
+        }
+
+        // A record may have been half written if the process died - drop it so that new
+        // records are not appended after garbage
+        if (file.length() != segment.mSize) {
+            final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+            try {
+                randomAccessFile.setLength(segment.mSize);
+            } finally {
+                IOUtils.closeQuietly(randomAccessFile);
+            }
+        }
+        return segment;
+    }
+
+    private void closeOutput() {
+        if (mOutput != null) {
+            IOUtils.closeQuietly(mOutput);
+            mOutput = null;
+        }
+    }
+
+    private static String getSegmentName(final int sequence) {
+        return String.format("%010d%s", sequence, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Converts the name into one which is safe to use as a file name on any file system -
+     * names which only differ in case end up in the same file
+     */
+    private static String toFileName(final String name) {
+        final String folded = CaseMapping.RFC1459.toLowerCase(name);
+        final StringBuilder builder = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            final char c = folded.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_') {
+                builder.append(c);
+            } else {
+                builder.append('%').append(Integer.toHexString(c));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static class Segment {
+
+        private final File mFile;
+
+        private long mSize;
+
+        private int mCount;
+
+        // The offset of the first record of every block
+        private long[] mIndexOffsets;
+
+        // The oldest timestamp of this block and every later block - never decreases from one
+        // block to the next so it can be binary searched
+        private long[] mIndexOldest;
+
+        // The newest timestamp of this block and every earlier block - never decreases either
+        private long[] mIndexNewest;
+
+        private int mIndexCount;
+
+        private Segment(final File file) {
+            mFile = file;
+            mIndexOffsets = new long[16];
+            mIndexOldest = new long[16];
+            mIndexNewest = new long[16];
+        }
+
+        private void onRecordAdded(final long timestamp, final int recordSize) {
+            if (mCount % INDEX_INTERVAL == 0) {
+                if (mIndexCount == mIndexOffsets.length) {
+                    mIndexOffsets = Arrays.copyOf(mIndexOffsets, mIndexCount * 2);
+                    mIndexOldest = Arrays.copyOf(mIndexOldest, mIndexCount * 2);
+                    mIndexNewest = Arrays.copyOf(mIndexNewest, mIndexCount * 2);
+                }
+                mIndexOffsets[mIndexCount] = mSize;
+                mIndexOldest[mIndexCount] = Long.MAX_VALUE;
+                mIndexNewest[mIndexCount] = mIndexCount == 0
+                        ? Long.MIN_VALUE
+                        : mIndexNewest[mIndexCount - 1];
+                mIndexCount++;
+            }
+
+            final int block = mIndexCount - 1;
+            mIndexNewest[block] = Math.max(mIndexNewest[block], timestamp);
+            // A late record lowers the oldest timestamp of the earlier blocks as well
+            for (int i = block; i >= 0 && mIndexOldest[i] > timestamp; i--) {
+                mIndexOldest[i] = timestamp;
+            }
+            mCount++;
+            mSize += recordSize;
+        }
+
+        private long getOldestTimestamp() {
+            return mIndexOldest[0];
+        }
+
+        private long getNewestTimestamp() {
+            return mIndexCount == 0 ? Long.MIN_VALUE : mIndexNewest[mIndexCount - 1];
+        }
+
+        /**
+         * Returns the last block which holds a record which occurred before the timestamp
+         */
+        private int getLastBlockBefore(final long timestamp) {
+            int low = 0;
+            int high = mIndexCount - 1;
+            while (low < high) {
+                final int middle = (low + high + 1) >>> 1;
+                if (mIndexOldest[middle] < timestamp) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        }
+    }
+}
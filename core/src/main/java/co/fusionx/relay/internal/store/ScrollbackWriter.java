@@ -0,0 +1,232 @@
+package co.fusionx.relay.internal.store;
+
+import com.google.common.base.Supplier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import co.fusionx.relay.base.Conversation;
+import co.fusionx.relay.event.Event;
+
+import static co.fusionx.relay.misc.RelayConfigurationProvider.getPreferences;
+
+/**
+ * Writes the events evicted from the buffers of conversations to their stores on a single
+ * background thread
+ *
+ * Events are evicted while the buffer and the global budget are locked so eviction only hands
+ * the event to a queue - the store is opened and written to by the writer thread. Only a
+ * limited number of events can wait in the queue: once it is full the event is dropped and
+ * counted rather than holding up the thread which is appending.
+ *
+ * Reads and closes go through the same queue so they never block the thread which asks for
+ * them and they see exactly the events which were handed over before them.
+ */
+public class ScrollbackWriter {
+
+    private static final int QUEUE_CAPACITY = 4096;
+
+    private static final ScrollbackWriter sWriter = new ScrollbackWriter(QUEUE_CAPACITY);
+
+    // Only events count towards the capacity - reads and closes are never dropped
+    private final BlockingQueue<Task> mQueue;
+
+    private final int mCapacity;
+
+    private final AtomicInteger mQueuedEvents;
+
+    private final AtomicLong mDroppedEvents;
+
+    private Thread mThread;
+
+    ScrollbackWriter(final int capacity) {
+        mQueue = new LinkedBlockingQueue<>();
+        mCapacity = capacity;
+        mQueuedEvents = new AtomicInteger();
+        mDroppedEvents = new AtomicLong();
+    }
+
+    /**
+     * Returns the writer shared by the conversations of every server
+     *
+     * @return the shared writer
+     */
+    public static ScrollbackWriter getInstance() {
+        return sWriter;
+    }
+
+    /**
+     * Creates a handle which writes to the store of a single conversation
+     *
+     * @param opener opens the store of the conversation - this is called the first time the
+     *               store is needed and may return null if the store could not be opened
+     * @return the handle
+     */
+    public Handle newHandle(final Supplier<ScrollbackStore> opener) {
+        return new Handle(opener);
+    }
+
+    /**
+     * Returns the number of evicted events which were not stored because the queue was full
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedEventCount() {
+        return mDroppedEvents.get();
+    }
+
+    private synchronized void ensureStarted() {
+        if (mThread == null) {
+            mThread = new Thread(this::run, "relayScrollback");
+            mThread.setDaemon(true);
+            mThread.start();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            final Task task;
+            try {
+                task = mQueue.take();
+            } catch (final InterruptedException ex) {
+                return;
+            }
+
+            try {
+                task.run();
+            } catch (final RuntimeException ex) {
+                getPreferences().handleException(ex);
+            }
+        }
+    }
+
+    private interface Task {
+
+        public void run();
+    }
+
+    /**
+     * A read which has been queued behind the writes handed over before it
+     */
+    public static class PendingRead {
+
+        private final FutureTask<List<Event>> mTask;
+
+        private PendingRead(final FutureTask<List<Event>> task) {
+            mTask = task;
+        }
+
+        /**
+         * Waits for the read to happen on the writer thread - this must not be called while
+         * holding a lock which an appending thread needs
+         *
+         * @return the events read, oldest first - empty if the read failed
+         */
+        public List<Event> get() {
+            try {
+                return mTask.get();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (final ExecutionException ex) {
+                getPreferences().handleException(ex);
+            }
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * The store of a single conversation as seen through the writer
+     */
+    public class Handle {
+
+        private final Supplier<ScrollbackStore> mOpener;
+
+        // Only touched on the writer thread
+        private ScrollbackStore mStore;
+
+        private boolean mStoreOpened;
+
+        private Handle(final Supplier<ScrollbackStore> opener) {
+            mOpener = opener;
+        }
+
+        /**
+         * Hands the event to the writer thread without blocking - this is safe to call while
+         * locks are held
+         *
+         * @param event the event to store
+         * @return false if the queue was full and the event was dropped
+         */
+        public boolean append(final Event event) {
+            ensureStarted();
+
+            if (mQueuedEvents.incrementAndGet() > mCapacity) {
+                mQueuedEvents.decrementAndGet();
+                mDroppedEvents.incrementAndGet();
+                return false;
+            }
+            mQueue.add(() -> {
+                mQueuedEvents.decrementAndGet();
+                final ScrollbackStore store = getStore();
+                if (store != null) {
+                    store.append(event);
+                }
+            });
+            return true;
+        }
+
+        /**
+         * Queues a read of the newest stored events which occurred before the timestamp
+         * without blocking - the read sees every event handed to the writer before this call
+         * and none handed over after it so this can be called while the buffer is locked to
+         * line the read up with a snapshot of the buffer
+         *
+         * @param conversation the conversation the events are being loaded into
+         * @param timestamp    the time in milliseconds which all events returned occurred
+         *                     before
+         * @param limit        the maximum number of events to return
+         * @return the read which can be waited on once the locks are released
+         */
+        public PendingRead readBefore(final Conversation<?> conversation, final long timestamp,
+                final int limit) {
+            ensureStarted();
+
+            final FutureTask<List<Event>> task = new FutureTask<>(() -> {
+                final ScrollbackStore store = getStore();
+                return store == null
+                        ? new ArrayList<>()
+                        : store.readBefore(conversation, timestamp, limit);
+            });
+            mQueue.add(task::run);
+            return new PendingRead(task);
+        }
+
+        /**
+         * Closes the store once every event already handed to the writer has been written -
+         * this never blocks
+         */
+        public void close() {
+            ensureStarted();
+
+            mQueue.add(() -> {
+                if (mStore != null) {
+                    mStore.close();
+                }
+            });
+        }
+
+        private ScrollbackStore getStore() {
+            if (!mStoreOpened) {
+                mStoreOpened = true;
+                mStore = mOpener.get();
+            }
+            return mStore;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package co.fusionx.relay.internal.transport;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Splits the raw bytes received from a server into decoded lines
+ *
+ * Bytes are scanned for the line feed and copied into a single buffer which is reused for every
+ * line. Lines are limited to 512 bytes including the CRLF - a line starting with IRCv3 tags may
+ * have up to 8191 bytes of tags on top of that. Longer lines are dropped as soon as they pass
+ * the limit instead of being buffered.
+ *
+ * Lines are decoded as UTF-8 and then with the fallback charset if they are not valid UTF-8.
+ * Lines which cannot be decoded with either are dropped. Empty lines are skipped.
+ */
+public class LineFramer {
+
+    // Both limits exclude the CRLF
+    private static final int MAX_LINE_LENGTH = 510;
+
+    // Includes the leading @ and the space after the tags
+    private static final int MAX_TAGS_LENGTH = 8191;
+
+    private static final int BUFFER_SIZE = MAX_TAGS_LENGTH + MAX_LINE_LENGTH + 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final byte[] mLine;
+
+    private final ByteBuffer mLineBytes;
+
+    private final char[] mChars;
+
+    private final CharBuffer mLineChars;
+
+    private final CharsetDecoder mUtf8Decoder;
+
+    private final CharsetDecoder mFallbackDecoder;
+
+    private int mLength;
+
+    // Whether the rest of the current line should be thrown away because it is too long
+    private boolean mDiscarding;
+
+    private long mDroppedOversizeLines;
+
+    private long mDroppedInvalidLines;
+
+    /**
+     * @param fallbackCharset the charset used to decode lines which are not valid UTF-8
+     */
+    public LineFramer(final Charset fallbackCharset) {
+        mLine = new byte[BUFFER_SIZE];
+        mLineBytes = ByteBuffer.wrap(mLine);
+
+        final int maxCharsPerByte = (int) Math.ceil(Math.max(1,
+                fallbackCharset.newDecoder().maxCharsPerByte()));
+        mChars = new char[BUFFER_SIZE * maxCharsPerByte];
+        mLineChars = CharBuffer.wrap(mChars);
+
+        mUtf8Decoder = newDecoder(UTF_8);
+        mFallbackDecoder = newDecoder(fallbackCharset);
+    }
+
+    /**
+     * Frames the remaining bytes of the buffer - the buffer is fully consumed
+     *
+     * @param buffer   the bytes received from the server
+     * @param listener called with every complete line
+     */
+    public void feed(final ByteBuffer buffer, final LineListener listener) {
+        if (buffer.hasArray()) {
+            final int offset = buffer.arrayOffset() + buffer.position();
+            feed(buffer.array(), offset, buffer.remaining(), listener);
+            buffer.position(buffer.limit());
+        } else {
+            final byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            feed(bytes, 0, bytes.length, listener);
+        }
+    }
+
+    /**
+     * Frames the bytes - any partial line at the end is kept until more bytes are fed
+     *
+     * @param data     the bytes received from the server
+     * @param offset   the index of the first byte
+     * @param count    the number of bytes
+     * @param listener called with every complete line
+     */
+    public void feed(final byte[] data, final int offset, final int count,
+            final LineListener listener) {
+        final int end = offset + count;
+        int start = offset;
+        while (start < end) {
+            int newline = start;
+            while (newline < end && data[newline] != '\n') {
+                newline++;
+            }
+            append(data, start, newline - start);
+
+            if (newline == end) {
+                return;
+            }
+            completeLine(listener);
+            start = newline + 1;
+        }
+    }
+
+    /**
+     * Returns the number of lines which were dropped because they were too long
+     *
+     * @return the number of oversize lines
+     */
+    public long getDroppedOversizeLineCount() {
+        return mDroppedOversizeLines;
+    }
+
+    /**
+     * Returns the number of lines which were dropped because they could not be decoded
+     *
+     * @return the number of invalid lines
+     */
+    public long getDroppedInvalidLineCount() {
+        return mDroppedInvalidLines;
+    }
+
+    private void append(final byte[] data, final int offset, final int count) {
+        if (mDiscarding) {
+            return;
+        }
+        if (count == 0) {
+            return;
+        }
+        final boolean tagged = (mLength == 0 ? data[offset] : mLine[0]) == '@';
+        // Leave room for the CR which is only stripped once the line is complete
+        final int limit = tagged ? mLine.length : MAX_LINE_LENGTH + 1;
+        if (mLength + count > limit) {
+            mDiscarding = true;
+            mLength = 0;
+            return;
+        }
+        System.arraycopy(data, offset, mLine, mLength, count);
+        mLength += count;
+    }
+
+    private void completeLine(final LineListener listener) {
+        int length = mLength;
+        final boolean discarded = mDiscarding;
+        mLength = 0;
+        mDiscarding = false;
+
+        if (discarded) {
+            mDroppedOversizeLines++;
+            return;
+        }
+        if (length > 0 && mLine[length - 1] == '\r') {
+            length--;
+        }
+        if (length == 0) {
+            return;
+        }
+        if (isOversize(length)) {
+            mDroppedOversizeLines++;
+            return;
+        }
+
+        final String line = decode(length);
+        if (line == null) {
+            mDroppedInvalidLines++;
+            return;
+        }
+        listener.onLine(line);
+    }
+
+    private boolean isOversize(final int length) {
+        if (mLine[0] != '@') {
+            return length > MAX_LINE_LENGTH;
+        }
+
+        int tagsLength = 0;
+        while (tagsLength < length && mLine[tagsLength] != ' ') {
+            tagsLength++;
+        }
+        // Count the space as part of the tags
+        tagsLength = Math.min(tagsLength + 1, length);
+        return tagsLength > MAX_TAGS_LENGTH || length - tagsLength > MAX_LINE_LENGTH;
+    }
+
+    private String decode(final int length) {
+        // Most lines are plain ASCII which needs no decoder at all
+        int i = 0;
+        while (i < length && mLine[i] >= 0) {
+            mChars[i] = (char) mLine[i];
+            i++;
+        }
+        if (i == length) {
+            return new String(mChars, 0, length);
+        }
+
+        final String line = decode(mUtf8Decoder, length);
+        return line == null ? decode(mFallbackDecoder, length) : line;
+    }
+
+    private String decode(final CharsetDecoder decoder, final int length) {
+        mLineBytes.clear();
+        mLineBytes.limit(length);
+        mLineChars.clear();
+
+        decoder.reset();
+        if (!isComplete(decoder.decode(mLineBytes, mLineChars, true))
+                || !isComplete(decoder.flush(mLineChars))) {
+            return null;
+        }
+        return new String(mChars, 0, mLineChars.position());
+    }
+
+    private static boolean isComplete(final CoderResult result) {
+        return !result.isError() && !result.isOverflow();
+    }
+
+    private static CharsetDecoder newDecoder(final Charset charset) {
+        return charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+
+    public interface LineListener {
+
+        /**
+         * Called for every line without the trailing CRLF
+         *
+         * @param line the decoded line
+         */
+        void onLine(String line);
+    }
+}
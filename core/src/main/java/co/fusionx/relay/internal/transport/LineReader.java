@@ -0,0 +1,69 @@
+package co.fusionx.relay.internal.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Reads lines from a blocking stream using a {@link LineFramer}
+ */
+public class LineReader implements Closeable {
+
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    private final InputStream mInputStream;
+
+    private final LineFramer mFramer;
+
+    private final byte[] mReadBuffer;
+
+    // Lines which have been framed but not read yet
+    private final Queue<String> mLines;
+
+    private final LineFramer.LineListener mListener;
+
+    /**
+     * @param inputStream     the stream to read from
+     * @param fallbackCharset the charset used to decode lines which are not valid UTF-8
+     */
+    public LineReader(final InputStream inputStream, final Charset fallbackCharset) {
+        mInputStream = inputStream;
+        mFramer = new LineFramer(fallbackCharset);
+        mReadBuffer = new byte[READ_BUFFER_SIZE];
+        mLines = new ArrayDeque<>();
+        mListener = mLines::add;
+    }
+
+    /**
+     * Blocks until the next valid line is received
+     *
+     * @return the line without the trailing CRLF or null if the end of the stream was reached
+     * @throws IOException if the stream could not be read
+     */
+    public String readLine() throws IOException {
+        while (mLines.isEmpty()) {
+            final int read = mInputStream.read(mReadBuffer);
+            if (read < 0) {
+                return null;
+            }
+            mFramer.feed(mReadBuffer, 0, read, mListener);
+        }
+        return mLines.poll();
+    }
+
+    public long getDroppedOversizeLineCount() {
+        return mFramer.getDroppedOversizeLineCount();
+    }
+
+    public long getDroppedInvalidLineCount() {
+        return mFramer.getDroppedInvalidLineCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+        mInputStream.close();
+    }
+}
@@ -0,0 +1,273 @@
+package co.fusionx.relay.internal.transport;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static co.fusionx.relay.misc.RelayConfigurationProvider.getPreferences;
+
+/**
+ * A single thread which multiplexes the sockets of many connections using a selector
+ *
+ * Everything registered with the loop (socket handlers, tasks and timers) is run on the loop
+ * thread so it must never block. Work which has to block (e.g. DNS lookups) should be handed to
+ * {@link #executeBlocking(Runnable)} which posts back to the loop once done.
+ *
+ * Both the loop thread and the blocking thread are daemon threads like the event dispatch threads
+ * so an idle loop does not keep the process alive.
+ */
+public class RelayEventLoop implements Runnable {
+
+    private static final ThreadLocal<Boolean> sIsLoopThread = new ThreadLocal<>();
+
+    private final Selector mSelector;
+
+    private final Queue<Runnable> mTasks;
+
+    private final PriorityQueue<ScheduledTask> mScheduledTasks;
+
+    private final ExecutorService mBlockingExecutor;
+
+    private final Thread mThread;
+
+    private volatile boolean mRunning;
+
+    public RelayEventLoop(final String name) throws IOException {
+        mSelector = Selector.open();
+        mTasks = new ConcurrentLinkedQueue<>();
+        mScheduledTasks = new PriorityQueue<>();
+        mBlockingExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, name + "Blocking");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        mThread = new Thread(this, name);
+        mThread.setDaemon(true);
+    }
+
+    public void start() {
+        mRunning = true;
+        mThread.start();
+    }
+
+    public void shutdown() {
+        mRunning = false;
+        mSelector.wakeup();
+        mBlockingExecutor.shutdownNow();
+    }
+
+    public boolean isInEventLoop() {
+        return Thread.currentThread() == mThread;
+    }
+
+    /**
+     * Returns whether the current thread is the thread of any event loop - code which may be
+     * called from a loop uses this to avoid blocking
+     *
+     * @return true if the current thread is running an event loop
+     */
+    public static boolean isLoopThread() {
+        return sIsLoopThread.get() != null;
+    }
+
+    /**
+     * Runs the task on the loop thread - this can be called from any thread
+     *
+     * @param task the task to run
+     */
+    public void execute(final Runnable task) {
+        mTasks.add(task);
+        if (!isInEventLoop()) {
+            mSelector.wakeup();
+        }
+    }
+
+    /**
+     * Runs the task on the loop thread after the delay - this can be called from any thread
+     *
+     * @param task        the task to run
+     * @param delayMillis the time to wait before running the task
+     * @return a handle which can be used to cancel the task
+     */
+    public ScheduledTask schedule(final Runnable task, final long delayMillis) {
+        final ScheduledTask scheduledTask = new ScheduledTask(task,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        execute(() -> {
+            // The task may have been cancelled before it was ever queued
+            if (!scheduledTask.mCancelled) {
+                mScheduledTasks.add(scheduledTask);
+            }
+        });
+        return scheduledTask;
+    }
+
+    /**
+     * Runs the task on a separate thread which is allowed to block
+     *
+     * @param task the task to run
+     */
+    public void executeBlocking(final Runnable task) {
+        mBlockingExecutor.submit(task);
+    }
+
+    SelectionKey register(final SelectableChannel channel, final int ops,
+            final SelectionHandler handler) throws ClosedChannelException {
+        return channel.register(mSelector, ops, handler);
+    }
+
+    @Override
+    public void run() {
+        sIsLoopThread.set(Boolean.TRUE);
+        while (mRunning) {
+            try {
+                final long timeout = getSelectTimeout();
+                if (timeout < 0) {
+                    mSelector.selectNow();
+                } else {
+                    mSelector.select(timeout);
+                }
+            } catch (final IOException ex) {
+                getPreferences().handleException(ex);
+                continue;
+            }
+
+            processSelectedKeys();
+            runTasks();
+            runScheduledTasks();
+        }
+
+        for (final SelectionKey key : mSelector.keys()) {
+            ((SelectionHandler) key.attachment()).onLoopShutdown();
+        }
+        try {
+            mSelector.close();
+        } catch (final IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private long getSelectTimeout() {
+        if (!mTasks.isEmpty()) {
+            return -1;
+        }
+        final ScheduledTask next = mScheduledTasks.peek();
+        if (next == null) {
+            // Zero means block until woken up
+            return 0;
+        }
+        final long delayNanos = next.mDeadline - System.nanoTime();
+        if (delayNanos <= 0) {
+            return -1;
+        }
+        // Round up so the loop does not wake up just before the deadline and spin
+        return TimeUnit.NANOSECONDS.toMillis(delayNanos + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    }
+
+    private void processSelectedKeys() {
+        final Iterator<SelectionKey> iterator = mSelector.selectedKeys().iterator();
+        while (iterator.hasNext()) {
+            final SelectionKey key = iterator.next();
+            iterator.remove();
+
+            final SelectionHandler handler = (SelectionHandler) key.attachment();
+            try {
+                handler.onSelected(key);
+            } catch (final RuntimeException ex) {
+                getPreferences().handleException(ex);
+                handler.onLoopShutdown();
+            }
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = mTasks.poll()) != null) {
+            runSafely(task);
+        }
+    }
+
+    private void runScheduledTasks() {
+        final long now = System.nanoTime();
+        ScheduledTask task;
+        while ((task = mScheduledTasks.peek()) != null && task.mDeadline - now <= 0) {
+            mScheduledTasks.poll();
+            if (!task.mCancelled) {
+                runSafely(task.mTask);
+            }
+        }
+    }
+
+    private void runSafely(final Runnable task) {
+        try {
+            task.run();
+        } catch (final RuntimeException ex) {
+            getPreferences().handleException(ex);
+        }
+    }
+
+    interface SelectionHandler {
+
+        /**
+         * Called on the loop thread when the channel is ready for one of its interest ops
+         *
+         * @param key the key of the channel which is ready
+         */
+        void onSelected(SelectionKey key);
+
+        /**
+         * Called on the loop thread when the loop is going away or when handling a selection
+         * failed unexpectedly - the handler should release its channel
+         */
+        void onLoopShutdown();
+    }
+
+    public final class ScheduledTask implements Comparable<ScheduledTask> {
+
+        private final Runnable mTask;
+
+        // In System.nanoTime() units so changes to the wall clock do not move the deadline
+        private final long mDeadline;
+
+        private volatile boolean mCancelled;
+
+        private ScheduledTask(final Runnable task, final long deadline) {
+            mTask = task;
+            mDeadline = deadline;
+        }
+
+        /**
+         * Stops the task from running and removes it from the loop - this can be called from any
+         * thread
+         */
+        public void cancel() {
+            if (mCancelled) {
+                return;
+            }
+            mCancelled = true;
+
+            // Cancelled timeouts would otherwise stay queued until their deadline
+            if (isInEventLoop()) {
+                mScheduledTasks.remove(this);
+            } else {
+                execute(() -> mScheduledTasks.remove(this));
+            }
+        }
+
+        @Override
+        public int compareTo(final ScheduledTask other) {
+            // Compare the difference as nanoTime values may overflow
+            final long difference = mDeadline - other.mDeadline;
+            return difference < 0 ? -1 : (difference == 0 ? 0 : 1);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package co.fusionx.relay.internal.transport;
+
+import java.io.IOException;
+
+/**
+ * A fixed set of event loops which connections are spread over in a round robin fashion
+ */
+public class RelayEventLoopGroup {
+
+    private final RelayEventLoop[] mEventLoops;
+
+    private int mNextIndex;
+
+    public RelayEventLoopGroup(final int eventLoopCount) throws IOException {
+        if (eventLoopCount <= 0) {
+            throw new IllegalArgumentException("At least one event loop is required");
+        }
+
+        mEventLoops = new RelayEventLoop[eventLoopCount];
+        for (int i = 0; i < eventLoopCount; i++) {
+            mEventLoops[i] = new RelayEventLoop("RelayEventLoop-" + i);
+        }
+        for (final RelayEventLoop eventLoop : mEventLoops) {
+            eventLoop.start();
+        }
+    }
+
+    /**
+     * Returns the event loop which the next connection should be placed on
+     *
+     * @return the next event loop
+     */
+    public synchronized RelayEventLoop next() {
+        final RelayEventLoop eventLoop = mEventLoops[mNextIndex];
+        mNextIndex = (mNextIndex + 1) % mEventLoops.length;
+        return eventLoop;
+    }
+
+    public void shutdown() {
+        for (final RelayEventLoop eventLoop : mEventLoops) {
+            eventLoop.shutdown();
+        }
+    }
+}
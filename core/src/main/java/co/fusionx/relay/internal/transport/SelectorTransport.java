@@ -0,0 +1,542 @@
+package co.fusionx.relay.internal.transport;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.security.NoSuchAlgorithmException;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+
+import co.fusionx.relay.base.ServerConfiguration;
+import co.fusionx.relay.util.SocketUtils;
+
+/**
+ * A non-blocking connection to a server which is driven by a {@link RelayEventLoop}
+ *
+ * Handles connecting, TLS (using an {@link SSLEngine}), splitting the stream into lines and
+ * writing queued output. Every callback is made on the event loop thread.
+ */
+public class SelectorTransport implements RelayEventLoop.SelectionHandler {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    private final RelayEventLoop mEventLoop;
+
+    private final ServerConfiguration mConfiguration;
+
+    private final Callback mCallback;
+
+    private final Charset mCharset;
+
+    // Written by any thread, drained by the loop thread
+    private final ByteArrayOutputStream mPendingOutput;
+
+    private SocketChannel mChannel;
+
+    private SelectionKey mKey;
+
+    private SSLEngine mEngine;
+
+    // Plain text which is waiting to be written (or wrapped when using TLS)
+    private ByteBuffer mAppOut;
+
+    // TLS records which are waiting to be written
+    private ByteBuffer mNetOut;
+
+    // TLS records which have been read but not unwrapped
+    private ByteBuffer mNetIn;
+
+    // Plain text which has been read but not split into lines
+    private ByteBuffer mAppIn;
+
+    private final LineFramer mLineFramer;
+
+    private final LineFramer.LineListener mLineListener;
+
+    private RelayEventLoop.ScheduledTask mConnectTimeout;
+
+    // Set on the loop thread while the engine's delegated tasks run on the blocking thread
+    private boolean mRunningDelegatedTasks;
+
+    private volatile boolean mClosed;
+
+    public SelectorTransport(final RelayEventLoop eventLoop,
+            final ServerConfiguration configuration, final Callback callback) {
+        mEventLoop = eventLoop;
+        mConfiguration = configuration;
+        mCallback = callback;
+
+        // Match the charset used by the blocking writer
+        mCharset = Charset.defaultCharset();
+        mPendingOutput = new ByteArrayOutputStream();
+        mLineFramer = new LineFramer(SocketUtils.getFallbackCharset(configuration));
+        mLineListener = line -> {
+            // Closing the transport in the callback should stop any further lines
+            if (!mClosed) {
+                mCallback.onTransportLine(line);
+            }
+        };
+    }
+
+    /**
+     * Starts connecting to the server - this can be called from any thread
+     */
+    public void open() {
+        // Resolving the host and loading certificates can block so keep it off the loop
+        mEventLoop.executeBlocking(() -> {
+            try {
+                final InetSocketAddress address = new InetSocketAddress(mConfiguration.getUrl(),
+                        mConfiguration.getPort());
+                if (address.isUnresolved()) {
+                    throw new IOException("Unable to resolve " + mConfiguration.getUrl());
+                }
+                final SSLContext context = mConfiguration.isSslEnabled()
+                        ? getSSLContext() : null;
+                mEventLoop.execute(() -> connect(address, context));
+            } catch (final IOException ex) {
+                mEventLoop.execute(() -> close(ex.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Closes the connection - this can be called from any thread
+     */
+    public void close() {
+        if (mEventLoop.isInEventLoop()) {
+            close("");
+        } else {
+            mEventLoop.execute(() -> close(""));
+        }
+    }
+
+    public long getDroppedOversizeLineCount() {
+        return mLineFramer.getDroppedOversizeLineCount();
+    }
+
+    public long getDroppedInvalidLineCount() {
+        return mLineFramer.getDroppedInvalidLineCount();
+    }
+
+    // SelectionHandler interface
+    @Override
+    public void onSelected(final SelectionKey key) {
+        try {
+            if (!key.isValid()) {
+                close("");
+                return;
+            }
+            if (key.isConnectable()) {
+                onConnectable();
+            }
+            if (!mClosed && key.isValid() && key.isReadable()) {
+                onReadable();
+            }
+            if (!mClosed && key.isValid() && key.isWritable()) {
+                flushOutput();
+            }
+        } catch (final IOException ex) {
+            close(ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onLoopShutdown() {
+        close("");
+    }
+
+    private SSLContext getSSLContext() throws IOException {
+        final SSLContext context = SocketUtils.getSSLContext(mConfiguration);
+        if (context != null) {
+            return context;
+        }
+        try {
+            return SSLContext.getDefault();
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IOException(ex.getMessage());
+        }
+    }
+
+    private void connect(final InetSocketAddress address, final SSLContext context) {
+        if (mClosed) {
+            return;
+        }
+
+        try {
+            mChannel = SocketChannel.open();
+            mChannel.configureBlocking(false);
+            mChannel.socket().setKeepAlive(true);
+
+            if (context != null) {
+                mEngine = context.createSSLEngine(mConfiguration.getUrl(),
+                        mConfiguration.getPort());
+                mEngine.setUseClientMode(true);
+            }
+
+            if (mChannel.connect(address)) {
+                mKey = mEventLoop.register(mChannel, SelectionKey.OP_READ, this);
+                onConnected();
+            } else {
+                mKey = mEventLoop.register(mChannel, SelectionKey.OP_CONNECT, this);
+                mConnectTimeout = mEventLoop.schedule(() -> close("Connection timed out"),
+                        CONNECT_TIMEOUT_MILLIS);
+            }
+        } catch (final IOException ex) {
+            close(ex.getMessage());
+        }
+    }
+
+    private void onConnectable() throws IOException {
+        if (!mChannel.finishConnect()) {
+            return;
+        }
+        mConnectTimeout.cancel();
+        mKey.interestOps(SelectionKey.OP_READ);
+        onConnected();
+    }
+
+    private void onConnected() throws IOException {
+        mAppOut = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        mAppIn = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        if (mEngine != null) {
+            final int packetSize = mEngine.getSession().getPacketBufferSize();
+            mNetIn = ByteBuffer.allocate(packetSize);
+            mNetOut = ByteBuffer.allocate(packetSize);
+            mEngine.beginHandshake();
+        }
+
+        mCallback.onTransportConnected(new BufferedWriter(new TransportWriter()));
+
+        // Kicks off the TLS handshake as well as sending anything written in the callback
+        flushOutput();
+    }
+
+    private void onReadable() throws IOException {
+        final ByteBuffer target = mEngine == null ? mAppIn : mNetIn;
+        final int read = mChannel.read(target);
+        if (read < 0) {
+            close("");
+            return;
+        }
+
+        if (mEngine == null) {
+            deliverLines();
+        } else {
+            unwrap();
+        }
+    }
+
+    private void unwrap() throws IOException {
+        mNetIn.flip();
+        try {
+            while (!mClosed && !mRunningDelegatedTasks) {
+                final SSLEngineResult result = mEngine.unwrap(mNetIn, mAppIn);
+                switch (result.getStatus()) {
+                    case BUFFER_OVERFLOW:
+                        mAppIn = enlarge(mAppIn, mEngine.getSession().getApplicationBufferSize());
+                        continue;
+                    case BUFFER_UNDERFLOW:
+                        final int packetSize = mEngine.getSession().getPacketBufferSize();
+                        if (mNetIn.capacity() < packetSize) {
+                            mNetIn.compact();
+                            mNetIn = enlarge(mNetIn, packetSize);
+                            mNetIn.flip();
+                        }
+                        return;
+                    case CLOSED:
+                        close("");
+                        return;
+                }
+
+                if (result.bytesProduced() > 0) {
+                    deliverLines();
+                }
+                if (handleHandshake(result.getHandshakeStatus())) {
+                    continue;
+                }
+                if (!mNetIn.hasRemaining()) {
+                    return;
+                }
+            }
+        } finally {
+            if (!mClosed) {
+                mNetIn.compact();
+            }
+        }
+    }
+
+    /**
+     * Drives the handshake forward
+     *
+     * @return whether unwrapping should be attempted again straight away
+     */
+    private boolean handleHandshake(SSLEngineResult.HandshakeStatus status) throws IOException {
+        switch (status) {
+            case NEED_TASK:
+                runDelegatedTasks();
+                return false;
+            case NEED_WRAP:
+                flushOutput();
+                return mEngine.getHandshakeStatus()
+                        == SSLEngineResult.HandshakeStatus.NEED_UNWRAP && mNetIn.hasRemaining();
+            case NEED_UNWRAP:
+                return mNetIn.hasRemaining();
+            case FINISHED:
+                // Anything written during the handshake can now be sent
+                flushOutput();
+                return mNetIn.hasRemaining();
+        }
+        return false;
+    }
+
+    /**
+     * Runs the engine's delegated tasks (e.g. certificate checks) on the blocking thread - the
+     * socket is left alone until they are done and the handshake is resumed on the loop
+     */
+    private void runDelegatedTasks() {
+        if (mRunningDelegatedTasks) {
+            return;
+        }
+        mRunningDelegatedTasks = true;
+        mKey.interestOps(0);
+
+        final SSLEngine engine = mEngine;
+        mEventLoop.executeBlocking(() -> {
+            Runnable task;
+            while ((task = engine.getDelegatedTask()) != null) {
+                task.run();
+            }
+            mEventLoop.execute(this::onDelegatedTasksDone);
+        });
+    }
+
+    private void onDelegatedTasksDone() {
+        mRunningDelegatedTasks = false;
+        if (mClosed) {
+            return;
+        }
+        try {
+            // Sends anything the handshake needs and restores the interest ops
+            flushOutput();
+            if (!mClosed && mNetIn.position() > 0) {
+                unwrap();
+            }
+        } catch (final IOException ex) {
+            close(ex.getMessage());
+        }
+    }
+
+    private void deliverLines() {
+        mAppIn.flip();
+        mLineFramer.feed(mAppIn, mLineListener);
+        mAppIn.clear();
+    }
+
+    private void flushOutput() throws IOException {
+        if (mClosed || mAppOut == null || mRunningDelegatedTasks) {
+            // Output is picked up again once the delegated tasks are done
+            return;
+        }
+
+        final byte[] pending;
+        synchronized (mPendingOutput) {
+            pending = mPendingOutput.toByteArray();
+            mPendingOutput.reset();
+        }
+        if (mAppOut.remaining() < pending.length) {
+            mAppOut = enlarge(mAppOut, mAppOut.position() + pending.length);
+        }
+        mAppOut.put(pending);
+
+        final boolean complete = mEngine == null ? writePlain() : writeEncrypted();
+        if (mClosed) {
+            return;
+        }
+        final int interestOps;
+        if (mRunningDelegatedTasks) {
+            // Wrapped records which did not fit are written once the tasks are done
+            interestOps = 0;
+        } else {
+            interestOps = complete
+                    ? SelectionKey.OP_READ
+                    : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+        }
+        if (mKey.interestOps() != interestOps) {
+            mKey.interestOps(interestOps);
+        }
+    }
+
+    private boolean writePlain() throws IOException {
+        mAppOut.flip();
+        try {
+            mChannel.write(mAppOut);
+            return !mAppOut.hasRemaining();
+        } finally {
+            mAppOut.compact();
+        }
+    }
+
+    private boolean writeEncrypted() throws IOException {
+        // Anything previously wrapped has to go out first
+        if (!writeNetOut()) {
+            return false;
+        }
+
+        mAppOut.flip();
+        try {
+            while (!mClosed) {
+                final SSLEngineResult.HandshakeStatus handshakeStatus =
+                        mEngine.getHandshakeStatus();
+                final boolean handshaking = handshakeStatus
+                        != SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING
+                        && handshakeStatus != SSLEngineResult.HandshakeStatus.FINISHED;
+                if (handshaking && handshakeStatus != SSLEngineResult.HandshakeStatus.NEED_WRAP) {
+                    // Application data has to wait until the handshake is done
+                    return true;
+                }
+                if (!handshaking && !mAppOut.hasRemaining()) {
+                    return true;
+                }
+
+                final SSLEngineResult result = mEngine.wrap(mAppOut, mNetOut);
+                switch (result.getStatus()) {
+                    case BUFFER_OVERFLOW:
+                        mNetOut = enlarge(mNetOut, mEngine.getSession().getPacketBufferSize());
+                        continue;
+                    case CLOSED:
+                        close("");
+                        return true;
+                }
+
+                if (result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK) {
+                    runDelegatedTasks();
+                }
+                if (!writeNetOut()) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            if (!mClosed) {
+                mAppOut.compact();
+            }
+        }
+    }
+
+    private boolean writeNetOut() throws IOException {
+        mNetOut.flip();
+        try {
+            mChannel.write(mNetOut);
+            return !mNetOut.hasRemaining();
+        } finally {
+            mNetOut.compact();
+        }
+    }
+
+    private void close(final String message) {
+        if (mClosed) {
+            return;
+        }
+        mClosed = true;
+
+        if (mConnectTimeout != null) {
+            mConnectTimeout.cancel();
+        }
+        if (mKey != null) {
+            mKey.cancel();
+        }
+        if (mEngine != null) {
+            mEngine.closeOutbound();
+            try {
+                mEngine.closeInbound();
+            } catch (final SSLException ignored) {
+                // The server did not send close_notify - this is expected when the socket dies
+            }
+        }
+        if (mChannel != null) {
+            try {
+                mChannel.close();
+            } catch (final IOException e) {
+                e.printStackTrace();
+            }
+        }
+        mCallback.onTransportClosed(message == null ? "" : message);
+    }
+
+    private static ByteBuffer enlarge(final ByteBuffer buffer, final int minimumCapacity) {
+        final int capacity = Math.max(minimumCapacity, buffer.capacity() * 2);
+        final ByteBuffer newBuffer = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        newBuffer.put(buffer);
+        return newBuffer;
+    }
+
+    public interface Callback {
+
+        /**
+         * Called once the socket is connected - anything written to the writer is sent once
+         * flushed
+         *
+         * @param writer the writer for the connection
+         */
+        void onTransportConnected(BufferedWriter writer);
+
+        /**
+         * Called for every line received from the server without the trailing CRLF
+         *
+         * @param line the line received
+         */
+        void onTransportLine(String line);
+
+        /**
+         * Called once when the connection is closed or could not be opened
+         *
+         * @param message the reason for the closure - this may be empty
+         */
+        void onTransportClosed(String message);
+    }
+
+    /**
+     * Queues characters for the loop to write - a flush wakes up the loop to send them
+     */
+    private final class TransportWriter extends Writer {
+
+        @Override
+        public void write(final char[] buffer, final int offset, final int count) {
+            final byte[] bytes = new String(buffer, offset, count).getBytes(mCharset);
+            synchronized (mPendingOutput) {
+                mPendingOutput.write(bytes, 0, bytes.length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (mClosed) {
+                throw new IOException("Connection closed");
+            }
+            mEventLoop.execute(() -> {
+                try {
+                    flushOutput();
+                } catch (final IOException ex) {
+                    SelectorTransport.this.close(ex.getMessage());
+                }
+            });
+        }
+
+        @Override
+        public void close() {
+            SelectorTransport.this.close();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package co.fusionx.relay.logging;
 
+import com.google.common.base.Predicate;
+
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -15,6 +17,8 @@ import co.fusionx.relay.event.Event;
 import co.fusionx.relay.event.channel.ChannelEvent;
 import co.fusionx.relay.event.query.QueryEvent;
 import co.fusionx.relay.event.server.ServerEvent;
+import co.fusionx.relay.misc.EventFilter;
+import co.fusionx.relay.misc.EventHandler;
 
 /**
  * This class is NOT thread safe
@@ -103,58 +107,65 @@ public abstract class LoggingManager {
 
     private final class LogHandler {
 
-        private static final int LOG_PRIORITY = 500;
-
         private final Server mServer;
 
+        private final EventHandler<ServerEvent> mServerHandler = this::onEvent;
+
+        private final EventHandler<ChannelEvent> mChannelHandler = this::onEvent;
+
+        private final EventHandler<QueryEvent> mQueryHandler = this::onEvent;
+
         public LogHandler(final Server server) {
             mServer = server;
         }
 
         public void startLogging() {
-            mServer.getServerWideBus().register(this, LOG_PRIORITY);
+            // Events which should not be logged are filtered out before they reach the handlers
+            final Predicate<Event> shouldLog = LoggingManager.this::shouldLogEvent;
+            mServer.subscribe(EventFilter.of(ServerEvent.class).matching(shouldLog),
+                    mServerHandler);
+            mServer.subscribe(EventFilter.of(ChannelEvent.class).matching(shouldLog),
+                    mChannelHandler);
+            mServer.subscribe(EventFilter.of(QueryEvent.class).matching(shouldLog),
+                    mQueryHandler);
         }
 
         public void stopLogging() {
-            mServer.getServerWideBus().unregister(this);
+            mServer.unsubscribe(mServerHandler);
+            mServer.unsubscribe(mChannelHandler);
+            mServer.unsubscribe(mQueryHandler);
         }
 
         public void onEvent(final ServerEvent event) {
-            if (shouldLogEvent(event)) {
-                final CharSequence sequence = getMessageFromEvent(mServer, event);
-                // If logging path is null then that's an issue
-                if (sequence != null && mLoggingPreferences.getLoggingPath() != null) {
-                    sLoggingService.submit(new LoggingRunnable(mServer, event,
-                            sequence.toString(), ""));
-                } else {
-                    // TODO - throw an exception
-                }
+            final CharSequence sequence = getMessageFromEvent(mServer, event);
+            // If logging path is null then that's an issue
+            if (sequence != null && mLoggingPreferences.getLoggingPath() != null) {
+                sLoggingService.submit(new LoggingRunnable(mServer, event,
+                        sequence.toString(), ""));
+            } else {
+                // TODO - throw an exception
             }
         }
 
         public void onEvent(final ChannelEvent event) {
-            if (shouldLogEvent(event)) {
-                final CharSequence sequence = getMessageFromEvent(mServer, event);
-                // If logging path is null then that's an issue
-                if (sequence != null && mLoggingPreferences.getLoggingPath() != null) {
-                    sLoggingService.submit(new LoggingRunnable(mServer, event, sequence.toString(),
-                            event.channel.getName()));
-                } else {
-                    // TODO - throw an exception
-                }
+            final CharSequence sequence = getMessageFromEvent(mServer, event);
+            // If logging path is null then that's an issue
+            if (sequence != null && mLoggingPreferences.getLoggingPath() != null) {
+                sLoggingService.submit(new LoggingRunnable(mServer, event, sequence.toString(),
+                        event.channel.getName()));
+            } else {
+                // TODO - throw an exception
             }
         }
 
         public void onEvent(final QueryEvent event) {
-            if (shouldLogEvent(event)) {
-                final CharSequence sequence = getMessageFromEvent(mServer, event);
-                // If logging path is null then that's an issue
-                if (sequence != null && mLoggingPreferences.getLoggingPath() != null) {
-                    sLoggingService.submit(new LoggingRunnable(mServer, event, sequence.toString(),
-                            event.user.getNick().getNickAsString()));
-                } else {
-                    // TODO - throw an exception
-                }
+            final CharSequence sequence = getMessageFromEvent(mServer, event);
+            // If logging path is null then that's an issue
+            if (sequence != null && mLoggingPreferences.getLoggingPath() != null) {
+                sLoggingService.submit(new LoggingRunnable(mServer, event, sequence.toString(),
+                        event.user.getNick().getNickAsString()));
+            } else {
+                // TODO - throw an exception
             }
         }
     }
@@ -181,7 +192,7 @@ public abstract class LoggingManager {
         public void run() {
             final String path = getServerPath(mServer);
             final String line = mLoggingPreferences.shouldLogTimestamps()
-                    ? String.format("%s: %s", mEvent.timestamp.format("%H:%M:%S"), mLogString)
+                    ? String.format("%tT: %s", mEvent.timestamp, mLogString)
                     : mLogString;
             final File file = new File(String.format("%s/%s", path, mDirectory),
                     String.format("%s.txt", sStaticFormat.format(new Date())));
@@ -0,0 +1,211 @@
+package co.fusionx.relay.misc;
+
+import com.fusionx.bus.Bus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivers events to handlers registered for an event class and to objects with onEvent
+ * methods
+ *
+ * Handlers and objects which receive each class of event are kept together in one array sorted
+ * by priority, highest first, with ties going to whichever was registered first. The array for a
+ * class is built the first time an event of the class is posted and is rebuilt straight away
+ * whenever anything is registered or unregistered, so posting an event is a map lookup and a loop
+ * over the array. Handlers are called directly while each object has its own reflective bus
+ * which finds its onEvent methods.
+ *
+ * Registering and unregistering can happen on any thread while events are being posted.
+ */
+public class EventBus<T> {
+
+    private static final Registration[] NO_REGISTRATIONS = new Registration[0];
+
+    private volatile Snapshot mSnapshot;
+
+    private long mSequence;
+
+    public EventBus() {
+        mSnapshot = new Snapshot(NO_REGISTRATIONS, Collections.<Class<?>>emptySet());
+    }
+
+    public void register(final Object object) {
+        register(object, 0);
+    }
+
+    /**
+     * Registers an object whose onEvent methods receive events
+     *
+     * @param object   the object to register
+     * @param priority objects and handlers with a higher priority receive events first
+     */
+    public synchronized void register(final Object object, final int priority) {
+        final Bus bus = new Bus();
+        bus.register(object);
+        addRegistration(Object.class, bus::post, object, priority);
+    }
+
+    /**
+     * Unregisters the object however many times it was registered
+     *
+     * @param object the object to unregister
+     */
+    public synchronized void unregister(final Object object) {
+        removeRegistrations(object, null);
+    }
+
+    public <E extends T> void registerHandler(final Class<E> eventClass,
+            final EventHandler<? super E> handler) {
+        registerHandler(eventClass, handler, 0);
+    }
+
+    /**
+     * Registers a handler for events of the class and all its subclasses
+     *
+     * @param eventClass the class of events to deliver to the handler
+     * @param handler    the handler - a handler can be registered for more than one class
+     * @param priority   handlers and objects with a higher priority receive events first -
+     *                   those with the same priority receive events in the order they were
+     *                   registered
+     */
+    public synchronized <E extends T> void registerHandler(final Class<E> eventClass,
+            final EventHandler<? super E> handler, final int priority) {
+        addRegistration(eventClass, handler, null, priority);
+    }
+
+    /**
+     * Unregisters the handler from every class it was registered for
+     *
+     * @param handler the handler to unregister
+     */
+    public synchronized void unregisterHandler(final EventHandler<?> handler) {
+        removeRegistrations(null, handler);
+    }
+
+    public void post(final T event) {
+        final Snapshot snapshot = mSnapshot;
+        if (snapshot.registrations.length > 0) {
+            final EventHandler<Object>[] handlers = snapshot.getHandlers(event.getClass());
+            for (final EventHandler<Object> handler : handlers) {
+                handler.onEvent(event);
+            }
+        }
+    }
+
+    private void addRegistration(final Class<?> eventClass, final EventHandler<?> handler,
+            final Object object, final int priority) {
+        final Registration[] registrations = mSnapshot.registrations;
+        final Registration[] updated = Arrays.copyOf(registrations, registrations.length + 1);
+        updated[registrations.length] = new Registration(eventClass, handler, object, priority,
+                mSequence++);
+        mSnapshot = new Snapshot(updated, mSnapshot.tables.keySet());
+    }
+
+    private void removeRegistrations(final Object object, final EventHandler<?> handler) {
+        final List<Registration> remaining = new ArrayList<>();
+        for (final Registration registration : mSnapshot.registrations) {
+            final boolean matches = object != null
+                    ? registration.object == object
+                    : registration.handler == handler;
+            if (!matches) {
+                remaining.add(registration);
+            }
+        }
+        mSnapshot = new Snapshot(remaining.toArray(new Registration[remaining.size()]),
+                mSnapshot.tables.keySet());
+    }
+
+    private static final class Registration implements Comparable<Registration> {
+
+        private final Class<?> eventClass;
+
+        private final EventHandler<?> handler;
+
+        // The object the handler posts to through its own bus or null for a plain handler
+        private final Object object;
+
+        private final int priority;
+
+        private final long sequence;
+
+        private Registration(final Class<?> eventClass, final EventHandler<?> handler,
+                final Object object, final int priority, final long sequence) {
+            this.eventClass = eventClass;
+            this.handler = handler;
+            this.object = object;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(final Registration other) {
+            if (priority != other.priority) {
+                return priority > other.priority ? -1 : 1;
+            }
+            return sequence < other.sequence ? -1 : sequence == other.sequence ? 0 : 1;
+        }
+    }
+
+    /**
+     * The registrations at one point in time and the dispatch tables built from them - a new
+     * snapshot replaces this one whenever the registrations change
+     */
+    private static final class Snapshot {
+
+        private final Registration[] registrations;
+
+        private final ConcurrentHashMap<Class<?>, EventHandler<Object>[]> tables;
+
+        /**
+         * @param registrations the handlers registered
+         * @param eventClasses  the classes of events posted so far - their tables are built
+         *                      straight away rather than when the next event is posted
+         */
+        private Snapshot(final Registration[] registrations,
+                final Collection<Class<?>> eventClasses) {
+            this.registrations = registrations;
+            tables = new ConcurrentHashMap<>();
+            for (final Class<?> eventClass : eventClasses) {
+                tables.put(eventClass, buildTable(eventClass));
+            }
+        }
+
+        private EventHandler<Object>[] getHandlers(final Class<?> eventClass) {
+            EventHandler<Object>[] handlers = tables.get(eventClass);
+            if (handlers == null) {
+                // Two threads may build the same table - either one can be kept
+                handlers = buildTable(eventClass);
+                tables.put(eventClass, handlers);
+            }
+            return handlers;
+        }
+
+        private EventHandler<Object>[] buildTable(final Class<?> eventClass) {
+            final List<Registration> matching = new ArrayList<>();
+            for (final Registration registration : registrations) {
+                if (registration.eventClass.isAssignableFrom(eventClass)) {
+                    matching.add(registration);
+                }
+            }
+            Collections.sort(matching);
+            return toHandlers(matching);
+        }
+
+        // Every handler in the table was registered for a superclass of the class the table is
+        // for so it can be given any event the table is used for
+        @SuppressWarnings("unchecked")
+        private static EventHandler<Object>[] toHandlers(final List<Registration> registrations) {
+            final EventHandler<Object>[] table =
+                    (EventHandler<Object>[]) new EventHandler<?>[registrations.size()];
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (EventHandler<Object>) registrations.get(i).handler;
+            }
+            return table;
+        }
+    }
+}
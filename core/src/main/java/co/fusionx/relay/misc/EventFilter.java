@@ -0,0 +1,87 @@
+package co.fusionx.relay.misc;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+
+import co.fusionx.relay.event.Event;
+
+/**
+ * Describes the events a subscription made with
+ * {@link co.fusionx.relay.base.Server#subscribe(EventFilter, EventHandler)} receives
+ *
+ * The class and conversation are used to index the subscription so that events which do not
+ * match them never reach it - the predicate is only tested against the events which do.
+ *
+ * Filters are immutable - every method returns a new filter.
+ *
+ * @param <E> the class of events matched
+ */
+public final class EventFilter<E extends Event> {
+
+    private final Class<E> mEventClass;
+
+    private final String mConversationId;
+
+    private final Predicate<? super E> mPredicate;
+
+    private EventFilter(final Class<E> eventClass, final String conversationId,
+            final Predicate<? super E> predicate) {
+        mEventClass = eventClass;
+        mConversationId = conversationId;
+        mPredicate = predicate;
+    }
+
+    /**
+     * Creates a filter which matches every event of the class and its subclasses from every
+     * conversation of the server
+     *
+     * @param eventClass the class of events to match
+     * @return the filter
+     */
+    public static <E extends Event> EventFilter<E> of(final Class<E> eventClass) {
+        return new EventFilter<>(eventClass, null, null);
+    }
+
+    /**
+     * Restricts the filter to the events of a single conversation
+     *
+     * @param conversationId the id of the conversation exactly as returned by
+     *                       {@link co.fusionx.relay.base.Conversation#getId()}
+     * @return the new filter
+     */
+    public EventFilter<E> forConversation(final String conversationId) {
+        return new EventFilter<>(mEventClass, conversationId, mPredicate);
+    }
+
+    /**
+     * Restricts the filter to the events the predicate accepts - this is combined with any
+     * predicate the filter already has
+     *
+     * @param predicate the predicate - called on the thread which delivers events
+     * @return the new filter
+     */
+    public EventFilter<E> matching(final Predicate<? super E> predicate) {
+        return new EventFilter<>(mEventClass, mConversationId, mPredicate == null
+                ? predicate
+                : Predicates.and(mPredicate, predicate));
+    }
+
+    public Class<E> getEventClass() {
+        return mEventClass;
+    }
+
+    /**
+     * @return the id of the conversation matched or null if events from every conversation are
+     * matched
+     */
+    public String getConversationId() {
+        return mConversationId;
+    }
+
+    /**
+     * @return the predicate or null if every event of the class and conversation is matched
+     */
+    public Predicate<? super E> getPredicate() {
+        return mPredicate;
+    }
+}
@@ -0,0 +1,11 @@
+package co.fusionx.relay.misc;
+
+/**
+ * Receives the events of a single class and its subclasses from an {@link EventBus}
+ *
+ * @param <E> the class of events handled
+ */
+public interface EventHandler<E> {
+
+    public void onEvent(final E event);
+}
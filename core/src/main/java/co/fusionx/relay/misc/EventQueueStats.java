@@ -0,0 +1,101 @@
+package co.fusionx.relay.misc;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * A snapshot of the queue which holds the events of a conversation until they are delivered to
+ * the subscribers of the conversation and of the server
+ */
+public final class EventQueueStats {
+
+    private final int mCapacity;
+
+    private final int mQueuedEvents;
+
+    private final int mHighWaterMark;
+
+    private final long mEnqueuedEvents;
+
+    private final long mDeliveredEvents;
+
+    private final long mDroppedEvents;
+
+    private final long mCoalescedEvents;
+
+    private final long mBlockedPosts;
+
+    public EventQueueStats(final int capacity, final int queuedEvents, final int highWaterMark,
+            final long enqueuedEvents, final long deliveredEvents, final long droppedEvents,
+            final long coalescedEvents, final long blockedPosts) {
+        mCapacity = capacity;
+        mQueuedEvents = queuedEvents;
+        mHighWaterMark = highWaterMark;
+        mEnqueuedEvents = enqueuedEvents;
+        mDeliveredEvents = deliveredEvents;
+        mDroppedEvents = droppedEvents;
+        mCoalescedEvents = coalescedEvents;
+        mBlockedPosts = blockedPosts;
+    }
+
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    /**
+     * @return the number of events waiting to be delivered
+     */
+    public int getQueuedEvents() {
+        return mQueuedEvents;
+    }
+
+    /**
+     * @return the largest number of events which have been waiting at once
+     */
+    public int getHighWaterMark() {
+        return mHighWaterMark;
+    }
+
+    public long getEnqueuedEvents() {
+        return mEnqueuedEvents;
+    }
+
+    public long getDeliveredEvents() {
+        return mDeliveredEvents;
+    }
+
+    /**
+     * @return the number of events dropped because the queue was full and no older event of the
+     * same class was waiting
+     */
+    public long getDroppedEvents() {
+        return mDroppedEvents;
+    }
+
+    /**
+     * @return the number of events dropped because a newer event of the same class replaced them
+     */
+    public long getCoalescedEvents() {
+        return mCoalescedEvents;
+    }
+
+    /**
+     * @return the number of times the reading thread had to wait for the queue to have space
+     */
+    public long getBlockedPosts() {
+        return mBlockedPosts;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("capacity", mCapacity)
+                .add("queued", mQueuedEvents)
+                .add("highWaterMark", mHighWaterMark)
+                .add("enqueued", mEnqueuedEvents)
+                .add("delivered", mDeliveredEvents)
+                .add("dropped", mDroppedEvents)
+                .add("coalesced", mCoalescedEvents)
+                .add("blocked", mBlockedPosts)
+                .toString();
+    }
+}
@@ -0,0 +1,160 @@
+package co.fusionx.relay.misc;
+
+/**
+ * The IRCv3 tags sent at the start of a line from the server
+ *
+ * The tags are kept exactly as they were received and a value is only found and unescaped when
+ * it is asked for - most tags are never looked at so this avoids creating a map for every line.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class MessageTags {
+
+    public static final MessageTags EMPTY = new MessageTags("");
+
+    public static final String MESSAGE_ID = "msgid";
+
+    public static final String TIME = "time";
+
+    public static final String ACCOUNT = "account";
+
+    public static final String BATCH = "batch";
+
+    private final String mRawTags;
+
+    /**
+     * @param rawTags the tags without the leading @ or the trailing space
+     */
+    public MessageTags(final String rawTags) {
+        mRawTags = rawTags;
+    }
+
+    public boolean isEmpty() {
+        return mRawTags.isEmpty();
+    }
+
+    /**
+     * Returns whether the tag was sent - tags sent without a value are present but empty
+     *
+     * @param key the key of the tag including any client prefix or vendor
+     * @return true if the tag was sent
+     */
+    public boolean contains(final String key) {
+        return findValueStart(key) != -1;
+    }
+
+    /**
+     * Finds and unescapes the value of the tag
+     *
+     * @param key the key of the tag including any client prefix or vendor
+     * @return the value of the tag, the empty string if the tag was sent without a value or
+     * null if the tag was not sent
+     */
+    public String get(final String key) {
+        final int start = findValueStart(key);
+        if (start == -1) {
+            return null;
+        }
+        int end = mRawTags.indexOf(';', start);
+        if (end == -1) {
+            end = mRawTags.length();
+        }
+        return unescape(start, end);
+    }
+
+    public String getMessageId() {
+        return get(MESSAGE_ID);
+    }
+
+    public String getTime() {
+        return get(TIME);
+    }
+
+    public String getAccount() {
+        return get(ACCOUNT);
+    }
+
+    /**
+     * Returns the tags exactly as they were received
+     *
+     * @return the tags without the leading @
+     */
+    public String getRawTags() {
+        return mRawTags;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o
+                || o instanceof MessageTags && mRawTags.equals(((MessageTags) o).mRawTags);
+    }
+
+    @Override
+    public int hashCode() {
+        return mRawTags.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return mRawTags;
+    }
+
+    // Returns the start of the value of the last tag with the key or -1 if there is no such tag
+    private int findValueStart(final String key) {
+        final int length = mRawTags.length();
+        final int keyLength = key.length();
+        int valueStart = -1;
+        int tagStart = 0;
+        while (tagStart < length) {
+            int tagEnd = mRawTags.indexOf(';', tagStart);
+            if (tagEnd == -1) {
+                tagEnd = length;
+            }
+            final int keyEnd = tagStart + keyLength;
+            if (keyEnd <= tagEnd && mRawTags.regionMatches(tagStart, key, 0, keyLength)) {
+                if (keyEnd == tagEnd) {
+                    valueStart = keyEnd;
+                } else if (mRawTags.charAt(keyEnd) == '=') {
+                    valueStart = keyEnd + 1;
+                }
+            }
+            tagStart = tagEnd + 1;
+        }
+        return valueStart;
+    }
+
+    private String unescape(final int start, final int end) {
+        final int escape = mRawTags.indexOf('\\', start);
+        if (escape == -1 || escape >= end) {
+            return mRawTags.substring(start, end);
+        }
+
+        final StringBuilder builder = new StringBuilder(end - start);
+        builder.append(mRawTags, start, escape);
+        for (int i = escape; i < end; i++) {
+            final char c = mRawTags.charAt(i);
+            if (c != '\\') {
+                builder.append(c);
+            } else if (++i < end) {
+                // A backslash at the end of the value is dropped
+                builder.append(unescape(mRawTags.charAt(i)));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static char unescape(final char c) {
+        switch (c) {
+            case ':':
+                return ';';
+            case 's':
+                return ' ';
+            case 'r':
+                return '\r';
+            case 'n':
+                return '\n';
+            default:
+                // Covers an escaped backslash as well as invalid escapes
+                return c;
+        }
+    }
+}
@@ -4,26 +4,10 @@ import com.google.common.collect.FluentIterable;
 
 import org.apache.commons.lang3.StringUtils;
 
-import android.os.Parcel;
-import android.os.Parcelable;
-
 import java.util.ArrayList;
 import java.util.List;
 
-public class NickStorage implements Parcelable {
-
-    public static final Parcelable.Creator<NickStorage> CREATOR = new Parcelable
-            .Creator<NickStorage>() {
-        public NickStorage createFromParcel(Parcel in) {
-            final List<String> nicks = new ArrayList<>();
-            in.readStringList(nicks);
-            return new NickStorage(nicks);
-        }
-
-        public NickStorage[] newArray(int size) {
-            return new NickStorage[size];
-        }
-    };
+public class NickStorage {
 
     private final List<String> mNicks = new ArrayList<>();
 
@@ -39,16 +23,6 @@ public class NickStorage implements Parcelable {
         fluentIterable.filter(StringUtils::isNotEmpty).copyInto(mNicks);
     }
 
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    @Override
-    public void writeToParcel(Parcel parcel, int i) {
-        parcel.writeStringList(mNicks);
-    }
-
     @Override
     public boolean equals(Object o) {
         if (o instanceof NickStorage) {
@@ -74,4 +48,13 @@ public class NickStorage implements Parcelable {
     public int getNickCount() {
         return mNicks.size();
     }
+
+    /**
+     * Returns every nick in order of preference
+     *
+     * @return a copy of the nicks
+     */
+    public List<String> getNicks() {
+        return new ArrayList<>(mNicks);
+    }
 }
\ No newline at end of file
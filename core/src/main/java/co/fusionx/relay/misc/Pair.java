@@ -0,0 +1,48 @@
+package co.fusionx.relay.misc;
+
+/**
+ * An immutable pair of values which does not depend on the Android framework
+ *
+ * @param <F> the type of the first value
+ * @param <S> the type of the second value
+ */
+public final class Pair<F, S> {
+
+    public final F first;
+
+    public final S second;
+
+    public Pair(final F first, final S second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    public static <A, B> Pair<A, B> create(final A first, final B second) {
+        return new Pair<>(first, second);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        } else if (!(o instanceof Pair)) {
+            return false;
+        }
+
+        final Pair<?, ?> that = (Pair<?, ?>) o;
+        return (first == null ? that.first == null : first.equals(that.first))
+                && (second == null ? that.second == null : second.equals(that.second));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = first == null ? 0 : first.hashCode();
+        result = 31 * result + (second == null ? 0 : second.hashCode());
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Pair{" + first + ", " + second + "}";
+    }
+}
@@ -0,0 +1,310 @@
+package co.fusionx.relay.misc;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import co.fusionx.relay.constants.CaseMapping;
+import co.fusionx.relay.constants.UserLevel;
+
+/**
+ * The features a server advertises in its ISUPPORT (005) replies
+ *
+ * The tokens which are needed while parsing every line - CHANTYPES, PREFIX, CHANMODES and
+ * CASEMAPPING - are turned into lookup tables indexed by character when the model is created so
+ * that checking a character is a single array access. Until the server sends its own values the
+ * defaults match the behaviour set out in RFC1459 and RFC2812.
+ *
+ * Instances are immutable and can be shared between threads - new tokens create a new model.
+ */
+public final class ServerSupport {
+
+    /**
+     * The mode is not known to the server
+     */
+    public static final int MODE_TYPE_UNKNOWN = 0;
+
+    /**
+     * The mode adds or removes an entry of a list and always has a parameter (type A)
+     */
+    public static final int MODE_TYPE_LIST = 1;
+
+    /**
+     * The mode changes a setting and always has a parameter (type B)
+     */
+    public static final int MODE_TYPE_ALWAYS_PARAMETER = 2;
+
+    /**
+     * The mode changes a setting and only has a parameter when it is set (type C)
+     */
+    public static final int MODE_TYPE_SET_PARAMETER = 3;
+
+    /**
+     * The mode changes a setting and never has a parameter (type D)
+     */
+    public static final int MODE_TYPE_NO_PARAMETER = 4;
+
+    /**
+     * The mode changes the level of a user in the channel and always has a parameter
+     */
+    public static final int MODE_TYPE_PREFIX = 5;
+
+    public static final String CASEMAPPING = "CASEMAPPING";
+
+    public static final String CHANMODES = "CHANMODES";
+
+    public static final String CHANTYPES = "CHANTYPES";
+
+    public static final String NETWORK = "NETWORK";
+
+    public static final String PREFIX = "PREFIX";
+
+    // Characters outside this range are never channel types, prefixes or modes
+    private static final int TABLE_SIZE = 128;
+
+    // As set out in RFC2812
+    private static final String DEFAULT_CHANTYPES = "#&+!";
+
+    private static final String DEFAULT_PREFIX = "(qaohv)~&@%+";
+
+    private static final String DEFAULT_CHANMODES = "beI,k,l,imnpst";
+
+    public static final ServerSupport DEFAULT = new ServerSupport(
+            ImmutableMap.<String, String>of());
+
+    private final ImmutableMap<String, String> mTokens;
+
+    private final CaseMapping mCaseMapping;
+
+    private final boolean[] mChannelTypes;
+
+    // The level given by each prefix and mode or null if the character is not a prefix or mode
+    private final UserLevel[] mPrefixLevels;
+
+    private final UserLevel[] mModeLevels;
+
+    private final byte[] mModeTypes;
+
+    private ServerSupport(final ImmutableMap<String, String> tokens) {
+        mTokens = tokens;
+        mCaseMapping = CaseMapping.getCaseMapping(tokens.get(CASEMAPPING));
+
+        mChannelTypes = new boolean[TABLE_SIZE];
+        final String channelTypes = tokens.get(CHANTYPES);
+        fillChannelTypes(channelTypes == null ? DEFAULT_CHANTYPES : channelTypes);
+
+        mPrefixLevels = new UserLevel[TABLE_SIZE];
+        mModeLevels = new UserLevel[TABLE_SIZE];
+        final String prefix = tokens.get(PREFIX);
+        if (prefix == null || !fillPrefixes(prefix)) {
+            fillPrefixes(DEFAULT_PREFIX);
+        }
+
+        mModeTypes = new byte[TABLE_SIZE];
+        final String channelModes = tokens.get(CHANMODES);
+        fillModeTypes(channelModes == null ? DEFAULT_CHANMODES : channelModes);
+    }
+
+    /**
+     * Creates a model with the tokens of an ISUPPORT reply applied on top of this one
+     *
+     * Tokens look like KEY, KEY=VALUE or -KEY - the last removes a token sent earlier.
+     *
+     * @param tokens the tokens of the reply without the target or the trailing text
+     * @return the new model
+     */
+    public ServerSupport withTokens(final List<String> tokens) {
+        final Map<String, String> merged = new LinkedHashMap<>(mTokens);
+        for (final String token : tokens) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (token.charAt(0) == '-') {
+                merged.remove(token.substring(1));
+                continue;
+            }
+            final int equals = token.indexOf('=');
+            if (equals == -1) {
+                merged.put(token, "");
+            } else {
+                merged.put(token.substring(0, equals), unescape(token.substring(equals + 1)));
+            }
+        }
+        return new ServerSupport(ImmutableMap.copyOf(merged));
+    }
+
+    /**
+     * Returns the value of a token exactly as the server sent it after unescaping
+     *
+     * @param key the name of the token
+     * @return the value, the empty string if the token has no value or null if the token was
+     * not sent
+     */
+    public String getValue(final String key) {
+        return mTokens.get(key);
+    }
+
+    public boolean contains(final String key) {
+        return mTokens.containsKey(key);
+    }
+
+    public ImmutableMap<String, String> getTokens() {
+        return mTokens;
+    }
+
+    public String getNetwork() {
+        return mTokens.get(NETWORK);
+    }
+
+    public CaseMapping getCaseMapping() {
+        return mCaseMapping;
+    }
+
+    /**
+     * Returns whether the character can start the name of a channel on the server
+     *
+     * @param c the first character of the name
+     * @return true if names starting with the character are channels
+     */
+    public boolean isChannelType(final char c) {
+        return c < TABLE_SIZE && mChannelTypes[c];
+    }
+
+    public boolean isChannel(final String name) {
+        return !name.isEmpty() && isChannelType(name.charAt(0));
+    }
+
+    public boolean isPrefix(final char c) {
+        return c < TABLE_SIZE && mPrefixLevels[c] != null;
+    }
+
+    /**
+     * Returns the level which the prefix in front of a nick gives the user
+     *
+     * @param prefix the character in front of the nick
+     * @return the level or {@link UserLevel#NONE} if the character is not a prefix
+     */
+    public UserLevel getLevelFromPrefix(final char prefix) {
+        return isPrefix(prefix) ? mPrefixLevels[prefix] : UserLevel.NONE;
+    }
+
+    /**
+     * Returns the level which the channel mode gives the user
+     *
+     * @param mode the mode character
+     * @return the level or {@link UserLevel#NONE} if the mode does not change the level of users
+     */
+    public UserLevel getLevelFromMode(final char mode) {
+        return mode < TABLE_SIZE && mModeLevels[mode] != null
+                ? mModeLevels[mode]
+                : UserLevel.NONE;
+    }
+
+    /**
+     * Returns how the parameters of a channel mode are sent
+     *
+     * @param mode the mode character
+     * @return one of the MODE_TYPE constants
+     */
+    public int getChannelModeType(final char mode) {
+        return mode < TABLE_SIZE ? mModeTypes[mode] : MODE_TYPE_UNKNOWN;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerSupport{" + mTokens + "}";
+    }
+
+    private void fillChannelTypes(final String channelTypes) {
+        for (int i = 0; i < channelTypes.length(); i++) {
+            final char c = channelTypes.charAt(i);
+            if (c < TABLE_SIZE) {
+                mChannelTypes[c] = true;
+            }
+        }
+    }
+
+    /**
+     * Fills the prefix tables from a value such as (ov)@+ - modes are listed from the highest
+     * level to the lowest
+     *
+     * @return false if the value is malformed
+     */
+    private boolean fillPrefixes(final String prefix) {
+        // An empty value means that the server has no prefixes at all
+        if (prefix.isEmpty()) {
+            return true;
+        }
+        final int close = prefix.indexOf(')');
+        if (prefix.charAt(0) != '(' || close == -1
+                || close - 1 != prefix.length() - close - 1) {
+            return false;
+        }
+
+        // Modes which the library does not know take the level of the next known mode below
+        // them so that users are never treated as having more privileges than they do
+        UserLevel below = UserLevel.VOICE;
+        for (int i = close - 1; i > 0; i--) {
+            final char mode = prefix.charAt(i);
+            final char symbol = prefix.charAt(close + i);
+            if (mode >= TABLE_SIZE || symbol >= TABLE_SIZE) {
+                continue;
+            }
+
+            UserLevel level = UserLevel.getLevelFromMode(mode);
+            if (level == UserLevel.NONE) {
+                level = UserLevel.getLevelFromPrefix(symbol);
+            }
+            if (level == UserLevel.NONE) {
+                level = below;
+            } else {
+                below = level;
+            }
+            mModeLevels[mode] = level;
+            mPrefixLevels[symbol] = level;
+        }
+        return true;
+    }
+
+    private void fillModeTypes(final String channelModes) {
+        int type = MODE_TYPE_LIST;
+        for (int i = 0; i < channelModes.length() && type <= MODE_TYPE_NO_PARAMETER; i++) {
+            final char c = channelModes.charAt(i);
+            if (c == ',') {
+                type++;
+            } else if (c < TABLE_SIZE) {
+                mModeTypes[c] = (byte) type;
+            }
+        }
+        // PREFIX takes priority over CHANMODES for any mode listed in both
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            if (mModeLevels[c] != null) {
+                mModeTypes[c] = MODE_TYPE_PREFIX;
+            }
+        }
+    }
+
+    // Values can contain characters escaped as \xHH - mostly spaces in NETWORK
+    private static String unescape(final String value) {
+        if (value.indexOf('\\') == -1) {
+            return value;
+        }
+        final StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' && i + 3 < value.length() && value.charAt(i + 1) == 'x') {
+                final int high = Character.digit(value.charAt(i + 2), 16);
+                final int low = Character.digit(value.charAt(i + 3), 16);
+                if (high != -1 && low != -1) {
+                    builder.append((char) (high * 16 + low));
+                    i += 3;
+                    continue;
+                }
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
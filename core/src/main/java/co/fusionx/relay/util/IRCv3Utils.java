@@ -0,0 +1,139 @@
+package co.fusionx.relay.util;
+
+import co.fusionx.relay.constants.CapCapability;
+import co.fusionx.relay.constants.UserLevel;
+import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.misc.Pair;
+import co.fusionx.relay.misc.ServerSupport;
+
+public class IRCv3Utils {
+
+    /**
+     * Returned by {@link #parseServerTime(String)} when the time is missing or invalid - -1 is
+     * not used as it is a valid time just before the epoch
+     */
+    public static final long INVALID_SERVER_TIME = Long.MIN_VALUE;
+
+    public static Pair<String, UserLevel> consumeNickPrefixes(final RelayServer server,
+            final String rawNick) {
+        final ServerSupport support = server.getServerSupport();
+        if (server.getCapabilities().contains(CapCapability.MULTIPREFIX)) {
+            UserLevel level = UserLevel.NONE;
+            for (int i = 0, length = rawNick.length(); i < length; i++) {
+                final char c = rawNick.charAt(i);
+                final UserLevel charLevel = support.getLevelFromPrefix(c);
+                if (charLevel == UserLevel.NONE) {
+                    return new Pair<>(rawNick.substring(i), level);
+                } else if (level == UserLevel.NONE) {
+                    level = charLevel;
+                }
+            }
+            // This should never happen
+            return null;
+        }
+
+        final UserLevel level = support.getLevelFromPrefix(rawNick.charAt(0));
+        final String nick = level == UserLevel.NONE ? rawNick : rawNick.substring(1);
+        return new Pair<>(nick, level);
+    }
+
+    /**
+     * Parses the value of the IRCv3 server-time tag without creating any objects
+     *
+     * The tag is an ISO 8601 time such as 2011-10-19T16:40:51.620Z - any number of fraction
+     * digits and numeric offsets are also accepted.
+     *
+     * @param time the value of the time tag - this can be null
+     * @return the time in milliseconds since the epoch or {@link #INVALID_SERVER_TIME} if the
+     * time is missing or invalid
+     */
+    public static long parseServerTime(final String time) {
+        if (time == null || time.length() < 19 || time.charAt(4) != '-'
+                || time.charAt(7) != '-' || time.charAt(10) != 'T' || time.charAt(13) != ':'
+                || time.charAt(16) != ':') {
+            return INVALID_SERVER_TIME;
+        }
+
+        final int year = parseDigits(time, 0, 4);
+        final int month = parseDigits(time, 5, 2);
+        final int day = parseDigits(time, 8, 2);
+        final int hour = parseDigits(time, 11, 2);
+        final int minute = parseDigits(time, 14, 2);
+        final int second = parseDigits(time, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 60) {
+            return INVALID_SERVER_TIME;
+        }
+
+        final int length = time.length();
+        int position = 19;
+        int millis = 0;
+        if (position < length && time.charAt(position) == '.') {
+            position++;
+            int digits = 0;
+            for (; position < length && isDigit(time.charAt(position)); position++, digits++) {
+                // Anything more precise than milliseconds is ignored
+                if (digits < 3) {
+                    millis = millis * 10 + time.charAt(position) - '0';
+                }
+            }
+            if (digits == 0) {
+                return INVALID_SERVER_TIME;
+            }
+            for (; digits < 3; digits++) {
+                millis *= 10;
+            }
+        }
+
+        long offsetMillis = 0;
+        if (position < length) {
+            final char sign = time.charAt(position);
+            if (sign == 'Z' && position + 1 == length) {
+                // Times in UTC need no adjustment
+            } else if ((sign == '+' || sign == '-') && position + 6 == length
+                    && time.charAt(position + 3) == ':') {
+                final int offsetHours = parseDigits(time, position + 1, 2);
+                final int offsetMinutes = parseDigits(time, position + 4, 2);
+                if (offsetHours < 0 || offsetMinutes < 0) {
+                    return INVALID_SERVER_TIME;
+                }
+                offsetMillis = (offsetHours * 60 + offsetMinutes) * 60000L;
+                if (sign == '-') {
+                    offsetMillis = -offsetMillis;
+                }
+            } else {
+                return INVALID_SERVER_TIME;
+            }
+        }
+
+        final long days = daysFromCivil(year, month, day);
+        return ((days * 24 + hour) * 60 + minute) * 60000L + second * 1000L + millis
+                - offsetMillis;
+    }
+
+    private static int parseDigits(final String string, final int start, final int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            final char c = string.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // The number of days between the epoch and the date in the proleptic Gregorian calendar
+    private static long daysFromCivil(final int year, final int month, final int day) {
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = (y >= 0 ? y : y - 399) / 400;
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+}
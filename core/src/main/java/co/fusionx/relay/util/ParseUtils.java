@@ -4,13 +4,13 @@ import com.google.common.base.CharMatcher;
 
 import org.apache.commons.lang3.StringUtils;
 
-import android.text.TextUtils;
-
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import co.fusionx.relay.misc.MessageTags;
+
 public class ParseUtils {
 
     private static final Pattern QUOTE_SPLIT_PATTERN = Pattern.compile("([^\"]\\S*|\".+?\")\\s*");
@@ -28,16 +28,18 @@ public class ParseUtils {
      */
     public static List<String> splitRawLine(final String input, final boolean colonDelimiter) {
         final List<String> stringParts = new ArrayList<>();
-        if (TextUtils.isEmpty(input)) {
+        if (Utils.isEmpty(input)) {
             return stringParts;
         }
 
         String trimmedInput = CharMatcher.WHITESPACE.trimFrom(input);
         int pos = 0, end;
         while ((end = trimmedInput.indexOf(' ', pos)) >= 0) {
+            // The prefix follows the IRCv3 tags so it must not be taken as the last parameter
+            final boolean tags = pos == 0 && trimmedInput.charAt(0) == '@';
             stringParts.add(trimmedInput.substring(pos, end));
             pos = end + 1;
-            if (trimmedInput.charAt(pos) == ':' && colonDelimiter) {
+            if (trimmedInput.charAt(pos) == ':' && colonDelimiter && !tags) {
                 stringParts.add(trimmedInput.substring(pos + 1));
                 return stringParts;
             }
@@ -47,7 +49,30 @@ public class ParseUtils {
         return stringParts;
     }
 
+    /**
+     * Removes the IRCv3 tags from the start of a line split by
+     * {@link #splitRawLine(String, boolean)}
+     *
+     * @param parsedArray the split line
+     * @return the tags or {@link MessageTags#EMPTY} if the line has no tags
+     */
+    public static MessageTags extractAndRemoveTags(final List<String> parsedArray) {
+        if (parsedArray.size() == 0 || parsedArray.get(0).charAt(0) != '@') {
+            return MessageTags.EMPTY;
+        }
+        return new MessageTags(parsedArray.remove(0).substring(1));
+    }
+
+    /**
+     * Removes the prefix from the start of a line split by
+     * {@link #splitRawLine(String, boolean)} - any tags before the prefix are discarded so
+     * {@link #extractAndRemoveTags(List)} should be called first if they are needed
+     *
+     * @param parsedArray the split line
+     * @return the prefix without the leading colon or the empty string if there is no prefix
+     */
     public static String extractAndRemovePrefix(final List<String> parsedArray) {
+        extractAndRemoveTags(parsedArray);
         if (parsedArray.size() == 0) {
             return "";
         }
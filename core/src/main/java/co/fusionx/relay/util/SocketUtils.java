@@ -9,9 +9,6 @@ import org.spongycastle.jce.provider.BouncyCastleProvider;
 import org.spongycastle.openssl.PEMParser;
 import org.spongycastle.openssl.jcajce.JcaPEMKeyConverter;
 
-import android.text.TextUtils;
-
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -20,6 +17,7 @@ import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.charset.Charset;
 import java.security.KeyStore;
 import java.security.PrivateKey;
 import java.security.SecureRandom;
@@ -35,6 +33,9 @@ import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 
 import co.fusionx.relay.base.ServerConfiguration;
+import co.fusionx.relay.internal.transport.LineReader;
+
+import static co.fusionx.relay.misc.RelayConfigurationProvider.getPreferences;
 
 public class SocketUtils {
 
@@ -57,9 +58,23 @@ public class SocketUtils {
     }
 
     private static SSLSocketFactory getSSLSocketFactory(final ServerConfiguration configuration) {
+        final SSLContext context = getSSLContext(configuration);
+        return context == null
+                ? (SSLSocketFactory) SSLSocketFactory.getDefault()
+                : context.getSocketFactory();
+    }
+
+    /**
+     * Creates the SSL context for the configuration - this takes into account whether all
+     * certificates should be accepted and the client certificate to authenticate with
+     *
+     * @param configuration the configuration of the server
+     * @return the SSL context or null if the platform default should be used
+     */
+    public static SSLContext getSSLContext(final ServerConfiguration configuration) {
         if (!configuration.shouldAcceptAllSSLCertificates() &&
-                TextUtils.isEmpty(configuration.getClientAuthenticationKeyPath())) {
-            return (SSLSocketFactory) SSLSocketFactory.getDefault();
+                Utils.isEmpty(configuration.getClientAuthenticationKeyPath())) {
+            return null;
         }
 
         TrustManager[] tm = null;
@@ -82,9 +97,9 @@ public class SocketUtils {
 
         try {
             final SSLContext context = SSLContext.getInstance("SSL");
-            if (TextUtils.isEmpty(configuration.getClientAuthenticationKeyPath())) {
+            if (Utils.isEmpty(configuration.getClientAuthenticationKeyPath())) {
                 context.init(new KeyManager[0], tm, new SecureRandom());
-                return context.getSocketFactory();
+                return context;
             }
 
             Security.addProvider(new BouncyCastleProvider());
@@ -117,18 +132,34 @@ public class SocketUtils {
             kmf.init(keystore, null);
             context.init(kmf.getKeyManagers(), tm, new SecureRandom());
 
-            return context.getSocketFactory();
+            return context;
         } catch (Exception e) {
             e.printStackTrace();
         }
-        return (SSLSocketFactory) SSLSocketFactory.getDefault();
+        return null;
     }
 
     public static BufferedWriter getSocketBufferedWriter(final Socket socket) throws IOException {
         return new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
     }
 
-    public static BufferedReader getSocketBufferedReader(final Socket socket) throws IOException {
-        return new BufferedReader(new InputStreamReader(socket.getInputStream()));
+    public static LineReader getSocketLineReader(final Socket socket,
+            final ServerConfiguration configuration) throws IOException {
+        return new LineReader(socket.getInputStream(), getFallbackCharset(configuration));
+    }
+
+    /**
+     * Returns the charset used to decode lines from the server which are not valid UTF-8
+     *
+     * @param configuration the configuration of the server
+     * @return the configured charset or Latin-1 if the configured charset is not supported
+     */
+    public static Charset getFallbackCharset(final ServerConfiguration configuration) {
+        try {
+            return Charset.forName(configuration.getFallbackCharset());
+        } catch (final IllegalArgumentException ex) {
+            getPreferences().handleException(ex);
+            return Charset.forName("ISO-8859-1");
+        }
     }
 }
\ No newline at end of file
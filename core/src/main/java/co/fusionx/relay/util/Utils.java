@@ -0,0 +1,55 @@
+package co.fusionx.relay.util;
+
+import java.util.List;
+
+import co.fusionx.relay.base.FormatSpanInfo;
+import co.fusionx.relay.base.FormattedText;
+import co.fusionx.relay.misc.Pair;
+
+public class Utils {
+
+    public static boolean isEmpty(final CharSequence cs) {
+        return cs == null || cs.length() == 0;
+    }
+
+    public static boolean isNotEmpty(final CharSequence cs) {
+        return !isEmpty(cs);
+    }
+
+    public static boolean equals(final CharSequence a, final CharSequence b) {
+        if (a == b) {
+            return true;
+        } else if (a == null || b == null || a.length() != b.length()) {
+            return false;
+        } else if (a instanceof String && b instanceof String) {
+            return a.equals(b);
+        }
+        for (int i = 0; i < a.length(); i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the formatting codes from the message
+     *
+     * @param line the message as it was received
+     * @return the message without formatting and the formatting spans or null if there were
+     * none
+     * @see FormattedText#parse(String)
+     */
+    public static Pair<String, List<FormatSpanInfo>> parseAndStripColorsFromMessage(
+            final String line) {
+        if (!FormattedText.hasFormatting(line)) {
+            return Pair.create(line, null);
+        }
+        final FormattedText text = FormattedText.parse(line);
+        return Pair.create(text.getText(), text.getSpanCount() == 0 ? null : text.getFormats());
+    }
+
+    public static String returnNonEmpty(final String first, final String second) {
+        return Utils.isNotEmpty(first) ? first : second;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package co.fusionx.relay.internal.base;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import co.fusionx.relay.constants.CaseMapping;
+import co.fusionx.relay.constants.UserLevel;
+import co.fusionx.relay.misc.IRCUserComparator;
+import co.fusionx.relay.misc.RelayConfigurationProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChannelMemberIndexTest {
+
+    @Test
+    public void testOrder() {
+        final ChannelMemberIndex index = new ChannelMemberIndex(CaseMapping.RFC1459);
+        final RelayChannelUser voice = new RelayChannelUser("Voice");
+        final RelayChannelUser op = new RelayChannelUser("zop");
+        final RelayChannelUser first = new RelayChannelUser("alpha");
+        final RelayChannelUser second = new RelayChannelUser("Beta");
+        index.put(second, UserLevel.NONE);
+        index.put(voice, UserLevel.VOICE);
+        index.put(first, UserLevel.NONE);
+        index.put(op, UserLevel.OP);
+
+        assertThat(index.getSlice(0, 10))
+                .containsExactly(op, voice, first, second);
+        assertThat(index.getRank(first))
+                .isEqualTo(2);
+
+        index.put(second, UserLevel.OWNER);
+        index.remove(voice);
+        assertThat(index.getSlice(1, 2))
+                .containsExactly(op, first);
+        assertThat(index.get(0))
+                .isSameAs(second);
+        assertThat(index.getRank(voice))
+                .isEqualTo(-1);
+    }
+
+    @Test
+    public void testChannelKeepsUsersSorted() {
+        RelayConfigurationProvider.onInterfaceReceived(new TestUtils.DefaultRelayConfiguration());
+
+        final RelayServer server = TestUtils.getFreenodeServer();
+        final RelayUserChannelInterface userChannelInterface = server.getUserChannelInterface();
+        final RelayChannel channel = userChannelInterface.getNewChannel("#relay");
+        userChannelInterface.coupleUserAndChannel(server.getUser(), channel);
+
+        final UserLevel[] levels = UserLevel.values();
+        for (int i = 0; i < 500; i++) {
+            final RelayChannelUser user = userChannelInterface.getNonNullUser("user" + (i * 7919
+                    % 500));
+            userChannelInterface.coupleUserAndChannel(user, channel, levels[i % levels.length]);
+        }
+        final RelayChannelUser renamed = userChannelInterface.getUser("user42").get();
+        userChannelInterface.changeNick(renamed, "aaa");
+        renamed.onModeChanged(channel, UserLevel.NONE);
+
+        final List<RelayChannelUser> expected = new ArrayList<>(channel.getUsers());
+        Collections.sort(expected, new IRCUserComparator(channel));
+        assertThat(channel.getSortedUsers(0, expected.size()))
+                .isEqualTo(expected);
+        assertThat(channel.getUserRank(renamed))
+                .isEqualTo(expected.indexOf(renamed));
+    }
+}
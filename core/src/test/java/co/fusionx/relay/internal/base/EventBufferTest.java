@@ -0,0 +1,127 @@
+package co.fusionx.relay.internal.base;
+
+import org.junit.Test;
+
+import co.fusionx.relay.event.EventClock;
+import co.fusionx.relay.event.server.GenericServerEvent;
+import co.fusionx.relay.event.server.ServerEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventBufferTest {
+
+    @Test
+    public void testEventLimit() {
+        final EventBuffer<ServerEvent> buffer = new EventBuffer<>(3, 0, null);
+        final ServerEvent[] events = new ServerEvent[5];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new GenericServerEvent(null, "message " + i);
+            buffer.add(events[i]);
+        }
+
+        assertThat(buffer)
+                .containsExactly(events[2], events[3], events[4]);
+        assertThat(buffer.getEvictedEventCount())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void testByteLimit() {
+        final ServerEvent first = new GenericServerEvent(null, "first");
+        final ServerEvent second = new GenericServerEvent(null, "second");
+        final EventBuffer<ServerEvent> buffer = new EventBuffer<>(0,
+                second.getEstimatedSize(), null);
+        buffer.add(first);
+        buffer.add(second);
+
+        assertThat(buffer)
+                .containsExactly(second);
+        assertThat(buffer.getEvictedByteCount())
+                .isEqualTo(first.getEstimatedSize());
+    }
+
+    @Test
+    public void testBudgetEvictsFromLargestBuffer() {
+        final ScrollbackBudget budget = new ScrollbackBudget();
+        budget.setLimits(4, 0);
+
+        final EventBuffer<ServerEvent> busy = new EventBuffer<>(0, 0, budget);
+        final EventBuffer<ServerEvent> quiet = new EventBuffer<>(0, 0, budget);
+        for (int i = 0; i < 3; i++) {
+            busy.add(new GenericServerEvent(null, "busy " + i));
+        }
+        final ServerEvent quietEvent = new GenericServerEvent(null, "quiet");
+        quiet.add(quietEvent);
+        quiet.add(new GenericServerEvent(null, "quiet again"));
+
+        assertThat(busy)
+                .hasSize(2);
+        assertThat(quiet.get(0))
+                .isSameAs(quietEvent);
+        assertThat(budget.getEventCount())
+                .isEqualTo(4);
+        assertThat(budget.getEvictedEventCount())
+                .isEqualTo(1);
+
+        busy.release();
+        assertThat(budget.getEventCount())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void testBudgetTracksLargestBufferAfterClear() {
+        final ScrollbackBudget budget = new ScrollbackBudget();
+        budget.setLimits(5, 0);
+
+        final EventBuffer<ServerEvent> first = new EventBuffer<>(0, 0, budget);
+        final EventBuffer<ServerEvent> second = new EventBuffer<>(0, 0, budget);
+        final EventBuffer<ServerEvent> third = new EventBuffer<>(0, 0, budget);
+        for (int i = 0; i < 2; i++) {
+            first.add(new GenericServerEvent(null, "first " + i));
+        }
+        for (int i = 0; i < 3; i++) {
+            second.add(new GenericServerEvent(null, "second " + i));
+        }
+        // The budget must forget the cleared events when picking the largest buffer
+        first.clear();
+        third.add(new GenericServerEvent(null, "third"));
+        first.add(new GenericServerEvent(null, "first again"));
+        first.add(new GenericServerEvent(null, "first again"));
+
+        assertThat(second)
+                .hasSize(2);
+        assertThat(first)
+                .hasSize(2);
+        assertThat(third)
+                .hasSize(1);
+        assertThat(budget.getEventCount())
+                .isEqualTo(5);
+    }
+
+    @Test
+    public void testLateEventsAreKeptInOrder() {
+        final EventBuffer<ServerEvent> buffer = new EventBuffer<>(3, 0, null);
+        buffer.add(getEvent(10));
+        buffer.add(getEvent(30));
+        buffer.add(getEvent(20));
+        buffer.add(getEvent(40));
+
+        assertThat(buffer)
+                .hasSize(3);
+        assertThat(buffer.get(0).timestamp)
+                .isEqualTo(20);
+        assertThat(buffer.get(1).timestamp)
+                .isEqualTo(30);
+        assertThat(buffer.getEventsBefore(30, 10))
+                .containsExactly(buffer.get(0));
+    }
+
+    private static ServerEvent getEvent(final long timestamp) {
+        EventClock.setOverride(timestamp);
+        try {
+            return new GenericServerEvent(null, String.valueOf(timestamp));
+        } finally {
+            EventClock.clearOverride();
+        }
+    }
+}
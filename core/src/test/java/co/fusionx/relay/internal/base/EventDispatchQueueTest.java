@@ -0,0 +1,182 @@
+package co.fusionx.relay.internal.base;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import co.fusionx.relay.constants.EventOverflowPolicy;
+import co.fusionx.relay.internal.transport.RelayEventLoop;
+import co.fusionx.relay.misc.EventQueueStats;
+import co.fusionx.relay.misc.RelayConfigurationProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventDispatchQueueTest {
+
+    private final List<Object> mDelivered = Collections.synchronizedList(new ArrayList<>());
+
+    // Released once by the dispatch thread for every event delivered
+    private final Semaphore mDeliveries = new Semaphore(0);
+
+    // Holds the dispatch thread inside the first delivery until it is released
+    private final CountDownLatch mFirstDelivery = new CountDownLatch(1);
+
+    private final CountDownLatch mRelease = new CountDownLatch(1);
+
+    public EventDispatchQueueTest() {
+        RelayConfigurationProvider.onInterfaceReceived(new TestUtils.DefaultRelayConfiguration());
+    }
+
+    @Test
+    public void testOrder() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(200);
+        final EventDispatchQueue<Object> queue = new EventDispatchQueue<>(1000,
+                EventOverflowPolicy.BLOCK, event -> {
+            mDelivered.add(event);
+            done.countDown();
+        });
+        for (int i = 0; i < 200; i++) {
+            queue.post(i);
+        }
+        assertThat(done.await(5, TimeUnit.SECONDS))
+                .isTrue();
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(mDelivered.get(i))
+                    .isEqualTo(i);
+        }
+        final EventQueueStats stats = queue.getStats();
+        assertThat(stats.getEnqueuedEvents())
+                .isEqualTo(200);
+        assertThat(stats.getDroppedEvents())
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void testDropOldest() throws InterruptedException {
+        final EventDispatchQueue<Object> queue = getHeldQueue(EventOverflowPolicy.DROP_OLDEST);
+        queue.post(1);
+        queue.post(2);
+        queue.post(3);
+        queue.post(4);
+
+        final EventQueueStats stats = queue.getStats();
+        assertThat(stats.getQueuedEvents())
+                .isEqualTo(2);
+        assertThat(stats.getDroppedEvents())
+                .isEqualTo(2);
+
+        release(3);
+        assertThat(mDelivered)
+                .containsExactly("first", 3, 4);
+    }
+
+    @Test
+    public void testCoalesce() throws InterruptedException {
+        final EventDispatchQueue<Object> queue = getHeldQueue(EventOverflowPolicy.COALESCE);
+        queue.post(1);
+        queue.post("second");
+        queue.post(3);
+
+        final EventQueueStats stats = queue.getStats();
+        assertThat(stats.getCoalescedEvents())
+                .isEqualTo(1);
+        assertThat(stats.getDroppedEvents())
+                .isEqualTo(0);
+
+        release(3);
+        assertThat(mDelivered)
+                .containsExactly("first", "second", 3);
+    }
+
+    @Test
+    public void testBlock() throws InterruptedException {
+        final EventDispatchQueue<Object> queue = getHeldQueue(EventOverflowPolicy.BLOCK);
+        queue.post(1);
+        queue.post(2);
+
+        final Thread poster = new Thread(() -> queue.post(3));
+        poster.start();
+        poster.join(200);
+        assertThat(poster.isAlive())
+                .isTrue();
+
+        mRelease.countDown();
+        poster.join(5000);
+        assertThat(poster.isAlive())
+                .isFalse();
+
+        awaitDelivered(4);
+        assertThat(mDelivered)
+                .containsExactly("first", 1, 2, 3);
+        assertThat(queue.getStats().getBlockedPosts())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testBlockNeverWaitsOnEventLoop() throws InterruptedException, IOException {
+        final EventDispatchQueue<Object> queue = getHeldQueue(EventOverflowPolicy.BLOCK);
+        queue.post(1);
+        queue.post(2);
+
+        final RelayEventLoop eventLoop = new RelayEventLoop("testLoop");
+        eventLoop.start();
+        final CountDownLatch posted = new CountDownLatch(1);
+        try {
+            eventLoop.execute(() -> {
+                queue.post(3);
+                posted.countDown();
+            });
+            assertThat(posted.await(5, TimeUnit.SECONDS))
+                    .isTrue();
+        } finally {
+            eventLoop.shutdown();
+        }
+
+        final EventQueueStats stats = queue.getStats();
+        assertThat(stats.getBlockedPosts())
+                .isEqualTo(0);
+        assertThat(stats.getDroppedEvents())
+                .isEqualTo(1);
+
+        release(3);
+        assertThat(mDelivered)
+                .containsExactly("first", 2, 3);
+    }
+
+    // Returns a queue with a capacity of 2 whose dispatch thread is stuck delivering "first"
+    private EventDispatchQueue<Object> getHeldQueue(final EventOverflowPolicy policy)
+            throws InterruptedException {
+        final EventDispatchQueue<Object> queue = new EventDispatchQueue<>(2, policy, event -> {
+            mDelivered.add(event);
+            if ("first".equals(event)) {
+                mFirstDelivery.countDown();
+                try {
+                    mRelease.await(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException ignored) {
+                }
+            }
+            mDeliveries.release();
+        });
+        queue.post("first");
+        assertThat(mFirstDelivery.await(5, TimeUnit.SECONDS))
+                .isTrue();
+        return queue;
+    }
+
+    private void release(final int count) throws InterruptedException {
+        mRelease.countDown();
+        awaitDelivered(count);
+    }
+
+    private void awaitDelivered(final int count) throws InterruptedException {
+        assertThat(mDeliveries.tryAcquire(count, 5, TimeUnit.SECONDS))
+                .isTrue();
+    }
+}
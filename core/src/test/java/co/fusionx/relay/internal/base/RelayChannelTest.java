@@ -0,0 +1,117 @@
+package co.fusionx.relay.internal.base;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.List;
+
+import co.fusionx.relay.base.Channel;
+import co.fusionx.relay.base.Conversation;
+import co.fusionx.relay.event.Event;
+import co.fusionx.relay.event.EventClock;
+import co.fusionx.relay.event.channel.ChannelEvent;
+import co.fusionx.relay.event.channel.ChannelWorldJoinEvent;
+import co.fusionx.relay.event.server.GenericServerEvent;
+import co.fusionx.relay.interfaces.EventCodec;
+import co.fusionx.relay.internal.store.ScrollbackStore;
+import co.fusionx.relay.misc.RelayConfigurationProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RelayChannelTest {
+
+    @Rule
+    public final TemporaryFolder mFolder = new TemporaryFolder();
+
+    public static RelayChannel getTestChannel() {
+        return getTestChannel("#relay");
+    }
+
+    public static RelayChannel getTestChannel(final String channelName) {
+        return null;
+    }
+
+    public static void populateTestChannel(final Channel channel) {
+    }
+
+    @Test
+    public void testIsChannelPrefix() {
+        assertThat(RelayChannel.isChannelPrefix('+'))
+                .isTrue();
+        assertThat(RelayChannel.isChannelPrefix('#'))
+                .isTrue();
+        assertThat(RelayChannel.isChannelPrefix('&'))
+                .isTrue();
+        assertThat(RelayChannel.isChannelPrefix('!'))
+                .isTrue();
+        // TODO - any other character should be false
+    }
+
+    @Test
+    public void testWipeChannelData() {
+
+    }
+
+    @Test
+    public void testOnChannelEvent() {
+
+    }
+
+    @Test
+    public void testEventsBeforeMergesStoredEvents() throws IOException {
+        RelayConfigurationProvider.onInterfaceReceived(new TestUtils.DefaultRelayConfiguration());
+        ScrollbackStore.setStorage(mFolder.newFolder("scrollback"), new TimestampCodec());
+        try {
+            final RelayServer server = TestUtils.getServerFromConfiguration(
+                    TestUtils.getFreenodeBuilder().setBufferEventLimit(2).build());
+            final RelayChannel channel = server.getUserChannelInterface()
+                    .getNewChannel("#relay");
+
+            postEvent(channel, server, 10);
+            postEvent(channel, server, 20);
+            postEvent(channel, server, 30);
+            // Late history evicts 20 to disk while it stays in memory itself
+            postEvent(channel, server, 15);
+
+            final List<? extends ChannelEvent> events = channel.getEventsBefore(100, 10);
+            assertThat(events)
+                    .hasSize(4);
+            assertThat(events.get(0).timestamp)
+                    .isEqualTo(10);
+            assertThat(events.get(1).timestamp)
+                    .isEqualTo(15);
+            assertThat(events.get(2).timestamp)
+                    .isEqualTo(20);
+            assertThat(events.get(3).timestamp)
+                    .isEqualTo(30);
+        } finally {
+            ScrollbackStore.setStorage(null, null);
+        }
+    }
+
+    private static void postEvent(final RelayChannel channel, final RelayServer server,
+            final long timestamp) {
+        EventClock.setOverride(timestamp);
+        try {
+            channel.postAndStoreEvent(new ChannelWorldJoinEvent(channel, server.getUser()));
+        } finally {
+            EventClock.clearOverride();
+        }
+    }
+
+    // Only the timestamp is needed and it is stored alongside the encoded event
+    private static class TimestampCodec implements EventCodec {
+
+        @Override
+        public byte[] encode(final Event event) {
+            return new byte[0];
+        }
+
+        @Override
+        public Event decode(final Conversation<?> conversation, final byte[] data) {
+            return new GenericServerEvent(null, "");
+        }
+    }
+}
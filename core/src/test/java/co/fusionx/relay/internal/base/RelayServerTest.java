@@ -0,0 +1,87 @@
+package co.fusionx.relay.internal.base;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import co.fusionx.relay.event.Event;
+import co.fusionx.relay.event.channel.ChannelEvent;
+import co.fusionx.relay.event.channel.ChannelNameEvent;
+import co.fusionx.relay.event.server.GenericServerEvent;
+import co.fusionx.relay.event.server.ServerEvent;
+import co.fusionx.relay.misc.EventFilter;
+import co.fusionx.relay.misc.EventHandler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RelayServerTest {
+
+    @Test
+    public void testOnServerEvent() {
+        final RelayServer server = TestUtils.getFreenodeServer();
+        final ServerEvent event = new GenericServerEvent(server, "This is a test message");
+        server.postAndStoreEvent(event);
+        assertThat(server.getBuffer())
+                .contains(event);
+    }
+
+    @Test
+    public void testServerSupportChangesCaseMapping() {
+        final RelayServer server = TestUtils.getFreenodeServer();
+        final RelayUserChannelInterface userChannelInterface = server.getUserChannelInterface();
+        final RelayChannel channel = userChannelInterface.getNewChannel("#relay[dev]");
+        userChannelInterface.coupleUserAndChannel(server.getUser(), channel);
+
+        // Under RFC1459 [] and {} are the same characters
+        assertThat(userChannelInterface.getChannel("#relay{dev}").isPresent())
+                .isTrue();
+
+        server.onServerSupportReceived(Arrays.asList("CASEMAPPING=ascii"));
+        assertThat(userChannelInterface.getChannel("#relay{dev}").isPresent())
+                .isFalse();
+        assertThat(userChannelInterface.getChannel("#RELAY[dev]").isPresent())
+                .isTrue();
+    }
+
+    @Test
+    public void testFilteredSubscriptions() {
+        final RelayServer server = TestUtils.getFreenodeServer();
+        final RelayUserChannelInterface userChannelInterface = server.getUserChannelInterface();
+        final RelayChannel relay = userChannelInterface.getNewChannel("#relay");
+        final RelayChannel other = userChannelInterface.getNewChannel("#other");
+
+        final List<Event> channelEvents = new ArrayList<>();
+        final List<Event> relayEvents = new ArrayList<>();
+        final List<Event> serverEvents = new ArrayList<>();
+        final EventHandler<ChannelEvent> relayHandler = relayEvents::add;
+        server.subscribe(EventFilter.of(ChannelEvent.class), channelEvents::add);
+        server.subscribe(EventFilter.of(ChannelNameEvent.class).forConversation("#relay"),
+                relayHandler);
+        server.subscribe(EventFilter.of(ServerEvent.class)
+                .matching(event -> event instanceof GenericServerEvent), serverEvents::add);
+
+        final ChannelNameEvent relayNames = new ChannelNameEvent(relay, Collections.emptyList());
+        final ChannelNameEvent otherNames = new ChannelNameEvent(other, Collections.emptyList());
+        relay.postAndStoreEvent(relayNames);
+        other.postAndStoreEvent(otherNames);
+        final GenericServerEvent generic = new GenericServerEvent(server, "message");
+        server.postAndStoreEvent(generic);
+
+        assertThat(channelEvents)
+                .containsExactly(relayNames, otherNames);
+        assertThat(relayEvents)
+                .containsExactly(relayNames);
+        assertThat(serverEvents)
+                .containsExactly(generic);
+
+        server.unsubscribe(relayHandler);
+        relay.postAndStoreEvent(relayNames);
+        assertThat(relayEvents)
+                .hasSize(1);
+        assertThat(channelEvents)
+                .hasSize(3);
+    }
+}
@@ -0,0 +1,18 @@
+package co.fusionx.relay.internal.base;
+
+import org.junit.Test;
+
+import co.fusionx.relay.base.ServerConfiguration;
+
+import static org.junit.Assert.assertEquals;
+
+public class ServerConfigurationTest {
+
+    // Configuration tests
+    @Test
+    public void testBuild() {
+        final ServerConfiguration.Builder builder = TestUtils.getFreenodeBuilder();
+        final ServerConfiguration configuration = TestUtils.getFreenodeConfiguration();
+        assertEquals(builder.getTitle(), configuration.getTitle());
+    }
+}
@@ -0,0 +1,40 @@
+package co.fusionx.relay.internal.base;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import co.fusionx.relay.constants.CaseMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SymbolTableTest {
+
+    @Test
+    public void testIntern() {
+        final SymbolTable table = new SymbolTable(CaseMapping.RFC1459);
+        final Symbol symbol = table.intern("Relay[Bot]");
+        assertThat(table.intern("relay{bot}"))
+                .isSameAs(symbol);
+        assertThat(table.find("RELAY[BOT]"))
+                .isSameAs(symbol);
+        assertThat(table.find("relay"))
+                .isNull();
+        assertThat(symbol.getFolded())
+                .isEqualTo("relay{bot}");
+
+        for (int i = 0; i < 1000; i++) {
+            table.intern("nick" + i);
+        }
+        assertThat(table.find("Relay{Bot}"))
+                .isSameAs(symbol);
+
+        table.retainAll(Collections.singletonList(symbol));
+        assertThat(table.size())
+                .isEqualTo(1);
+        assertThat(table.find("nick1"))
+                .isNull();
+        assertThat(table.intern("relay[bot]"))
+                .isSameAs(symbol);
+    }
+}
@@ -1,7 +1,5 @@
 package co.fusionx.relay.internal.base;
 
-import android.util.Log;
-
 import co.fusionx.relay.base.Server;
 import co.fusionx.relay.base.ServerConfiguration;
 import co.fusionx.relay.interfaces.RelayConfiguration;
@@ -81,12 +79,12 @@ public class TestUtils {
 
         @Override
         public void logMissingData(final Server server) {
-            Log.e("Relay", server.getTitle());
+            System.err.println(server.getTitle());
         }
 
         @Override
         public void logServerLine(final String line) {
-            Log.e("Relay", line);
+            System.err.println(line);
         }
 
         @Override
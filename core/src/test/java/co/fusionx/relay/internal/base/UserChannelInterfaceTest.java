@@ -0,0 +1,61 @@
+package co.fusionx.relay.internal.base;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserChannelInterfaceTest {
+
+    @Test
+    public void testGetChannelIgnoresCase() {
+        final RelayServer server = TestUtils.getFreenodeServer();
+        final RelayUserChannelInterface userChannelInterface = server.getUserChannelInterface();
+        final RelayChannel channel = userChannelInterface.getNewChannel("#Relay[dev]");
+        userChannelInterface.coupleUserAndChannel(server.getUser(), channel);
+
+        assertThat(userChannelInterface.getChannel("#relay{DEV}").orNull())
+                .isSameAs(channel);
+
+        userChannelInterface.removeChannel(channel);
+        assertThat(userChannelInterface.getChannel("#relay[dev]").isPresent())
+                .isFalse();
+    }
+
+    @Test
+    public void testGetUserAfterNickChange() {
+        final RelayServer server = TestUtils.getFreenodeServer();
+        final RelayUserChannelInterface userChannelInterface = server.getUserChannelInterface();
+        final RelayChannel channel = userChannelInterface.getNewChannel("#relay");
+        final RelayChannelUser user = userChannelInterface.getNonNullUser("Tilal");
+        userChannelInterface.coupleUserAndChannel(user, channel);
+
+        assertThat(userChannelInterface.getUser("tilal").orNull())
+                .isSameAs(user);
+
+        userChannelInterface.changeNick(user, "tilal|away");
+        assertThat(userChannelInterface.getUser("Tilal").isPresent())
+                .isFalse();
+        assertThat(userChannelInterface.getUser("TILAL\\AWAY").orNull())
+                .isSameAs(user);
+
+        userChannelInterface.decoupleUserAndChannel(user, channel);
+        assertThat(userChannelInterface.getUser("tilal|away").isPresent())
+                .isFalse();
+    }
+
+    @Test
+    public void testMainUserKeptOnConnectionTerminated() {
+        final RelayServer server = TestUtils.getFreenodeServer();
+        final RelayUserChannelInterface userChannelInterface = server.getUserChannelInterface();
+        final RelayChannel channel = userChannelInterface.getNewChannel("#relay");
+        userChannelInterface.coupleUserAndChannel(userChannelInterface.getNonNullUser("Tilal"),
+                channel);
+
+        userChannelInterface.onConnectionTerminated();
+        assertThat(userChannelInterface.getUser("Tilal").isPresent())
+                .isFalse();
+        assertThat(userChannelInterface.getUser(server.getUser().getNick().getNickAsString())
+                .orNull())
+                .isSameAs(server.getUser());
+    }
+}
@@ -0,0 +1,108 @@
+package co.fusionx.relay.internal.parser;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import co.fusionx.relay.internal.constants.CommandConstants;
+import co.fusionx.relay.misc.MessageTags;
+import co.fusionx.relay.util.ParseUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IrcMessageTest {
+
+    @Test
+    public void testCommandWithPrefix() {
+        final IrcMessage message = new IrcMessage();
+        final String line = ":nick!user@host PRIVMSG #relay :hello there world";
+        assertThat(message.reset(line)).isTrue();
+
+        assertThat(message.hasPrefix()).isTrue();
+        assertThat(message.getPrefix()).isEqualTo("nick!user@host");
+        assertThat(message.getPrefixNick()).isEqualTo("nick");
+
+        // Known commands should resolve to the constant itself
+        assertThat(message.getCommand()).isSameAs(CommandConstants.PRIVMSG);
+        assertThat(message.isNumeric()).isFalse();
+
+        assertThat(message.getParamCount()).isEqualTo(2);
+        assertThat(message.isParamEqual(0, "#relay")).isTrue();
+        assertThat(message.getParamCharAt(0, 0)).isEqualTo('#');
+        assertThat(message.getParam(1)).isEqualTo("hello there world");
+    }
+
+    @Test
+    public void testNumericWithoutPrefix() {
+        final IrcMessage message = new IrcMessage();
+        assertThat(message.reset("001 holoirctester :Welcome to the network")).isTrue();
+
+        assertThat(message.hasPrefix()).isFalse();
+        assertThat(message.getPrefix()).isEmpty();
+        assertThat(message.isNumeric()).isTrue();
+        assertThat(message.getNumeric()).isEqualTo(1);
+        assertThat(message.getParams(1)).containsExactly("Welcome to the network");
+    }
+
+    @Test
+    public void testEmptyLinesIgnored() {
+        final IrcMessage message = new IrcMessage();
+        assertThat(message.reset("")).isFalse();
+        assertThat(message.reset("   ")).isFalse();
+        assertThat(message.reset(null)).isFalse();
+    }
+
+    @Test
+    public void testReuseClearsPreviousLine() {
+        final IrcMessage message = new IrcMessage();
+        message.reset(":server.net 353 nick = #relay :@op +voice user");
+        assertThat(message.getParamCount()).isEqualTo(4);
+
+        message.reset("PING :server.net");
+        assertThat(message.hasPrefix()).isFalse();
+        assertThat(message.getCommand()).isEqualTo(CommandConstants.PING);
+        assertThat(message.getParams(0)).containsExactly("server.net");
+    }
+
+    @Test
+    public void testMatchesSplitRawLine() {
+        final String line = ":test.server CAP * LS :sasl multi-prefix";
+        final IrcMessage message = new IrcMessage();
+        message.reset(line);
+
+        final List<String> parsed = ParseUtils.splitRawLine(line, true);
+        final String prefix = ParseUtils.extractAndRemovePrefix(parsed);
+        final String command = parsed.remove(0);
+
+        assertThat(message.getPrefix()).isEqualTo(prefix);
+        assertThat(message.getCommand()).isEqualTo(command);
+        assertThat(message.getParams(0)).isEqualTo(parsed);
+    }
+
+    @Test
+    public void testTags() {
+        final String line = "@msgid=abc;time=2016-01-01T00:00:00.000Z;+example.com/note=a\\sb\\:c;"
+                + "account :nick!user@host PRIVMSG #relay :hello";
+        final IrcMessage message = new IrcMessage();
+        assertThat(message.reset(line)).isTrue();
+
+        assertThat(message.hasTags()).isTrue();
+        assertThat(message.getPrefixNick()).isEqualTo("nick");
+        assertThat(message.getCommand()).isSameAs(CommandConstants.PRIVMSG);
+        assertThat(message.getParams(0)).containsExactly("#relay", "hello");
+
+        final MessageTags tags = message.getTags();
+        assertThat(tags.getMessageId()).isEqualTo("abc");
+        assertThat(tags.getTime()).isEqualTo("2016-01-01T00:00:00.000Z");
+        assertThat(tags.get("+example.com/note")).isEqualTo("a b;c");
+        assertThat(tags.getAccount()).isEmpty();
+        assertThat(tags.get("msg")).isNull();
+
+        // Splitting the line by hand should give the same prefix
+        final List<String> parsed = ParseUtils.splitRawLine(line, true);
+        assertThat(ParseUtils.extractAndRemovePrefix(parsed)).isEqualTo("nick!user@host");
+
+        message.reset("PING :server.net");
+        assertThat(message.getTags()).isSameAs(MessageTags.EMPTY);
+    }
+}
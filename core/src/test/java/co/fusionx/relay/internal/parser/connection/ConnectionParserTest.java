@@ -1,9 +1,6 @@
 package co.fusionx.relay.internal.parser.connection;
 
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
@@ -19,8 +16,6 @@ import co.fusionx.relay.internal.sender.RelayBaseSender;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
-@Config(emulateSdk = 18)
-@RunWith(RobolectricTestRunner.class)
 public class ConnectionParserTest {
 
     @Test
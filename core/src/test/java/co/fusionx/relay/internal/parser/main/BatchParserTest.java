@@ -0,0 +1,128 @@
+package co.fusionx.relay.internal.parser.main;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import co.fusionx.relay.event.channel.ChannelEvent;
+import co.fusionx.relay.event.channel.ChannelNetjoinEvent;
+import co.fusionx.relay.event.channel.ChannelNetsplitEvent;
+import co.fusionx.relay.internal.base.RelayChannel;
+import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.base.RelayUserChannelInterface;
+import co.fusionx.relay.internal.base.TestUtils;
+import co.fusionx.relay.internal.parser.IrcMessage;
+import co.fusionx.relay.internal.parser.main.command.JoinParser;
+import co.fusionx.relay.internal.sender.RelayBaseSender;
+import co.fusionx.relay.misc.RelayConfigurationProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchParserTest {
+
+    @Test
+    public void testNetsplitAndNetjoinBatches() {
+        RelayConfigurationProvider.onInterfaceReceived(new TestUtils.DefaultRelayConfiguration());
+
+        final RelayServer server = TestUtils.getFreenodeServer();
+        final RelayUserChannelInterface userChannelInterface = server.getUserChannelInterface();
+        final RelayChannel channel = userChannelInterface.getNewChannel("#relay");
+        userChannelInterface.coupleUserAndChannel(server.getUser(), channel);
+        for (int i = 0; i < 100; i++) {
+            userChannelInterface.coupleUserAndChannel(
+                    userChannelInterface.getNonNullUser("user" + i), channel);
+        }
+
+        final ServerLineParser parser = new ServerLineParser(server, new RelayBaseSender());
+        parser.parseLine(":irc.hub.net BATCH +split netsplit irc.hub.net irc.leaf.net");
+        for (int i = 0; i < 100; i++) {
+            parser.parseLine("@batch=split :user" + i + "!user@host QUIT "
+                    + ":irc.hub.net irc.leaf.net");
+        }
+
+        // Nothing should be applied until the batch ends
+        assertThat(channel.getUsers())
+                .hasSize(101);
+        parser.parseLine(":irc.hub.net BATCH -split");
+
+        assertThat(channel.getUsers())
+                .containsOnly(server.getUser());
+        assertThat(userChannelInterface.getUser("user0").isPresent())
+                .isFalse();
+        final ChannelEvent splitEvent = channel.getBuffer().get(channel.getBuffer().size() - 1);
+        assertThat(splitEvent)
+                .isInstanceOf(ChannelNetsplitEvent.class);
+        assertThat(((ChannelNetsplitEvent) splitEvent).users)
+                .hasSize(100);
+
+        parser.parseLine(":irc.hub.net BATCH +join netjoin irc.hub.net irc.leaf.net");
+        parser.parseLine("@batch=join :user0!user@host JOIN #relay");
+        parser.parseLine("@batch=join :user1!user@host JOIN #relay");
+        parser.parseLine(":irc.hub.net BATCH -join");
+
+        assertThat(channel.getUsers())
+                .hasSize(3);
+        final ChannelEvent joinEvent = channel.getBuffer().get(channel.getBuffer().size() - 1);
+        assertThat(((ChannelNetjoinEvent) joinEvent).users)
+                .hasSize(2);
+    }
+
+    @Test
+    public void testOverflowingBatchIsAppliedEarly() {
+        RelayConfigurationProvider.onInterfaceReceived(new TestUtils.DefaultRelayConfiguration());
+
+        final List<String> parsed = new ArrayList<>();
+        final RelayServer server = TestUtils.getFreenodeServer();
+        final BatchParser parser = new BatchParser(server, new JoinParser(server), parsed::add, 2,
+                BatchParser.MAX_BATCH_AGE_MILLIS);
+        final IrcMessage message = new IrcMessage();
+
+        final String[] lines = {
+                ":irc.freenode.net BATCH +history chathistory #relay",
+                "@batch=history :a!a@host PRIVMSG #relay :1",
+                "@batch=history :a!a@host PRIVMSG #relay :2",
+                "@batch=history :a!a@host PRIVMSG #relay :3"
+        };
+        for (final String line : lines) {
+            message.reset(line);
+            assertThat(parser.onLine(message, line))
+                    .isTrue();
+        }
+
+        // The first two lines are applied to make room for the third
+        assertThat(parsed)
+                .containsExactly(lines[1], lines[2]);
+        assertThat(parser.getOverflowedBatchCount())
+                .isEqualTo(1);
+
+        final String end = ":irc.freenode.net BATCH -history";
+        message.reset(end);
+        parser.onLine(message, end);
+        assertThat(parsed)
+                .containsExactly(lines[1], lines[2], lines[3]);
+    }
+
+    @Test
+    public void testUnendedBatchExpires() {
+        RelayConfigurationProvider.onInterfaceReceived(new TestUtils.DefaultRelayConfiguration());
+
+        final List<String> parsed = new ArrayList<>();
+        final RelayServer server = TestUtils.getFreenodeServer();
+        final BatchParser parser = new BatchParser(server, new JoinParser(server), parsed::add,
+                BatchParser.MAX_BATCH_LINES, 0);
+        final IrcMessage message = new IrcMessage();
+
+        final String start = ":irc.freenode.net BATCH +history chathistory #relay";
+        message.reset(start);
+        parser.onLine(message, start);
+
+        // The batch has already been open for too long so the line is parsed as normal
+        final String line = "@batch=history :a!a@host PRIVMSG #relay :1";
+        message.reset(line);
+        assertThat(parser.onLine(message, line))
+                .isFalse();
+        assertThat(parser.getExpiredBatchCount())
+                .isEqualTo(1);
+    }
+}
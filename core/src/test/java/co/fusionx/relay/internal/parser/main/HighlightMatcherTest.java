@@ -0,0 +1,92 @@
+package co.fusionx.relay.internal.parser.main;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import co.fusionx.relay.constants.CaseMapping;
+import co.fusionx.relay.internal.base.TestUtils;
+import co.fusionx.relay.misc.RelayConfigurationProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HighlightMatcherTest {
+
+    @Test
+    public void testNickOnlyMatchesWholeWords() {
+        final HighlightMatcher matcher = new HighlightMatcher("Tilal[away]", CaseMapping.RFC1459,
+                Collections.<String>emptyList(), Collections.<String>emptyList());
+
+        assertThat(matcher.match("tilal{AWAY}: are you there?"))
+                .isEqualTo("Tilal[away]");
+        assertThat(matcher.match("ping @tilal[away]"))
+                .isEqualTo("Tilal[away]");
+        assertThat(matcher.match("xtilal[away] is not a mention"))
+                .isNull();
+        assertThat(matcher.match("nothing to see here"))
+                .isNull();
+    }
+
+    @Test
+    public void testOverlappingKeywords() {
+        final HighlightMatcher matcher = new HighlightMatcher("holo", CaseMapping.RFC1459,
+                Arrays.asList("holoirc", "irc"), Collections.<String>emptyList());
+
+        // The keyword ending first wins - holo is not a whole word here but the others are
+        assertThat(matcher.match("I use HoloIRC"))
+                .isEqualTo("holoirc");
+        assertThat(matcher.match("holoirctester joined irc"))
+                .isEqualTo("irc");
+        assertThat(matcher.match("holo!"))
+                .isEqualTo("holo");
+    }
+
+    @Test
+    public void testPatterns() {
+        // Invalid patterns are reported to the configuration
+        RelayConfigurationProvider.onInterfaceReceived(new TestUtils.DefaultRelayConfiguration());
+
+        final HighlightMatcher matcher = new HighlightMatcher("relay", CaseMapping.RFC1459,
+                Collections.<String>emptyList(),
+                Arrays.asList("(invalid", "(?i)build (failed|broken)", "release \\d+"));
+
+        assertThat(matcher.match("the Build Broken again"))
+                .isEqualTo("(?i)build (failed|broken)");
+        assertThat(matcher.match("release 42 is out"))
+                .isEqualTo("release \\d+");
+        assertThat(matcher.match("release notes"))
+                .isNull();
+        assertThat(matcher.isCompiledFor("relay", CaseMapping.RFC1459))
+                .isTrue();
+        assertThat(matcher.isCompiledFor("relay_", CaseMapping.RFC1459))
+                .isFalse();
+    }
+
+    @Test
+    public void testPatternBackreferences() {
+        // The backreference of the second pattern must not refer to a group of the first
+        final HighlightMatcher matcher = new HighlightMatcher("relay", CaseMapping.RFC1459,
+                Collections.<String>emptyList(), Arrays.asList("(deploy) now", "(\\w+) \\1"));
+
+        assertThat(matcher.match("hello hello"))
+                .isEqualTo("(\\w+) \\1");
+        assertThat(matcher.match("deploy now"))
+                .isEqualTo("(deploy) now");
+        assertThat(matcher.match("hello world"))
+                .isNull();
+    }
+
+    @Test
+    public void testPatternsKeepTheirOwnFlags() {
+        final HighlightMatcher matcher = new HighlightMatcher("relay", CaseMapping.RFC1459,
+                Collections.<String>emptyList(), Arrays.asList("URGENT", "(?i)outage"));
+
+        assertThat(matcher.match("this is urgent"))
+                .isNull();
+        assertThat(matcher.match("this is URGENT"))
+                .isEqualTo("URGENT");
+        assertThat(matcher.match("major OUTAGE"))
+                .isEqualTo("(?i)outage");
+    }
+}
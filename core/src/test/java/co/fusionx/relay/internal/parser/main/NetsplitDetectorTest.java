@@ -0,0 +1,110 @@
+package co.fusionx.relay.internal.parser.main;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import co.fusionx.relay.event.channel.ChannelEvent;
+import co.fusionx.relay.event.channel.ChannelNetjoinEvent;
+import co.fusionx.relay.event.channel.ChannelNetsplitEvent;
+import co.fusionx.relay.event.channel.ChannelWorldMessageEvent;
+import co.fusionx.relay.internal.base.RelayChannel;
+import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.base.RelayUserChannelInterface;
+import co.fusionx.relay.internal.base.TestUtils;
+import co.fusionx.relay.internal.sender.RelayBaseSender;
+import co.fusionx.relay.misc.RelayConfigurationProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NetsplitDetectorTest {
+
+    @Test
+    public void testIsSplitReason() {
+        assertThat(NetsplitDetector.isSplitReason("irc.hub.net irc.leaf.net"))
+                .isTrue();
+        assertThat(NetsplitDetector.isSplitReason("*.net *.split"))
+                .isTrue();
+
+        assertThat(NetsplitDetector.isSplitReason("Quit: leaving"))
+                .isFalse();
+        assertThat(NetsplitDetector.isSplitReason("irc.hub.net irc.hub.net"))
+                .isFalse();
+        assertThat(NetsplitDetector.isSplitReason("see you.. later"))
+                .isFalse();
+    }
+
+    @Test
+    public void testSplitAndJoinMerged() {
+        RelayConfigurationProvider.onInterfaceReceived(new TestUtils.DefaultRelayConfiguration());
+
+        final RelayServer server = TestUtils.getFreenodeServer();
+        final RelayUserChannelInterface userChannelInterface = server.getUserChannelInterface();
+        final RelayChannel channel = userChannelInterface.getNewChannel("#relay");
+        userChannelInterface.coupleUserAndChannel(server.getUser(), channel);
+        for (int i = 0; i < 50; i++) {
+            userChannelInterface.coupleUserAndChannel(
+                    userChannelInterface.getNonNullUser("user" + i), channel);
+        }
+
+        final ServerLineParser parser = new ServerLineParser(server, new RelayBaseSender());
+        for (int i = 0; i < 50; i++) {
+            parser.parseLine(":user" + i + "!user@host QUIT :*.net *.split");
+        }
+
+        // The users are removed straight away but the event waits for the end of the split
+        assertThat(channel.getUsers())
+                .containsOnly(server.getUser());
+        final int bufferSize = channel.getBuffer().size();
+        parser.parseLine(":other!user@host PRIVMSG #relay :hello");
+
+        assertThat(channel.getBuffer())
+                .hasSize(bufferSize + 2);
+        final ChannelEvent splitEvent = channel.getBuffer().get(bufferSize);
+        assertThat(((ChannelNetsplitEvent) splitEvent).users)
+                .hasSize(50);
+        assertThat(channel.getBuffer().get(bufferSize + 1))
+                .isInstanceOf(ChannelWorldMessageEvent.class);
+
+        parser.parseLine("@account=user0 :user0!user@host JOIN #relay");
+        parser.parseLine(":user1!user@host JOIN #relay");
+        // Users who were not split join as normal
+        parser.parseLine(":other!user@host JOIN #relay");
+
+        final ChannelNetjoinEvent joinEvent = (ChannelNetjoinEvent) channel.getBuffer()
+                .get(bufferSize + 2);
+        assertThat(joinEvent.users)
+                .hasSize(2);
+        assertThat(joinEvent.joins.get(0).tags.getAccount())
+                .isEqualTo("user0");
+        assertThat(channel.getUsers())
+                .hasSize(4);
+    }
+
+    @Test
+    public void testJoinFlushedWithoutFurtherLines() throws InterruptedException {
+        RelayConfigurationProvider.onInterfaceReceived(new TestUtils.DefaultRelayConfiguration());
+
+        final RelayServer server = TestUtils.getFreenodeServer();
+        final RelayUserChannelInterface userChannelInterface = server.getUserChannelInterface();
+        final RelayChannel channel = userChannelInterface.getNewChannel("#relay");
+        userChannelInterface.coupleUserAndChannel(server.getUser(), channel);
+        userChannelInterface.coupleUserAndChannel(
+                userChannelInterface.getNonNullUser("user0"), channel);
+
+        final CountDownLatch joined = new CountDownLatch(1);
+        server.getServerWideBus().registerHandler(ChannelNetjoinEvent.class,
+                event -> joined.countDown());
+
+        final ServerLineParser parser = new ServerLineParser(server, new RelayBaseSender());
+        parser.parseLine(":user0!user@host QUIT :*.net *.split");
+        parser.parseLine(":user0!user@host JOIN #relay");
+
+        // No other line arrives so the timer has to post the event
+        assertThat(joined.await(5, TimeUnit.SECONDS))
+                .isTrue();
+        assertThat(channel.getUsers())
+                .hasSize(2);
+    }
+}
@@ -0,0 +1,62 @@
+package co.fusionx.relay.internal.parser.main.code;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.base.TestUtils;
+import co.fusionx.relay.internal.constants.ServerReplyCodes;
+import co.fusionx.relay.internal.parser.main.ServerLineParser;
+import co.fusionx.relay.internal.sender.RelayBaseSender;
+import co.fusionx.relay.misc.RelayConfigurationProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NumericDispatchTableTest {
+
+    @After
+    public void tearDown() {
+        NumericDispatchTable.registerHandler(ServerReplyCodes.RPL_AWAY, null);
+    }
+
+    @Test
+    public void testRoutes() {
+        assertThat(NumericDispatchTable.getRoute(ServerReplyCodes.RPL_WELCOME))
+                .isEqualTo(NumericDispatchTable.ROUTE_GENERIC);
+        assertThat(NumericDispatchTable.getRoute(318))
+                .isEqualTo(NumericDispatchTable.ROUTE_WHOIS);
+        assertThat(NumericDispatchTable.getRoute(ServerReplyCodes.RPL_NAMREPLY))
+                .isEqualTo(NumericDispatchTable.ROUTE_NAMES);
+        assertThat(NumericDispatchTable.getRoute(ServerReplyCodes.RPL_AWAY))
+                .isEqualTo(NumericDispatchTable.ROUTE_IGNORED);
+        assertThat(NumericDispatchTable.getRoute(-1))
+                .isEqualTo(NumericDispatchTable.ROUTE_IGNORED);
+        assertThat(NumericDispatchTable.getRoute(1000))
+                .isEqualTo(NumericDispatchTable.ROUTE_IGNORED);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHandledNumericCannotBeRegistered() {
+        NumericDispatchTable.registerHandler(ServerReplyCodes.RPL_MOTD,
+                (server, code, parameters) -> {
+                });
+    }
+
+    @Test
+    public void testRegisteredHandlerReceivesNumeric() {
+        RelayConfigurationProvider.onInterfaceReceived(new TestUtils.DefaultRelayConfiguration());
+        final RelayServer server = TestUtils.getFreenodeServer();
+        final ServerLineParser parser = new ServerLineParser(server, new RelayBaseSender());
+
+        final List<String> received = new ArrayList<>();
+        NumericDispatchTable.registerHandler(ServerReplyCodes.RPL_AWAY,
+                (s, code, parameters) -> received.addAll(parameters));
+        parser.parseLine(":irc.freenode.net 301 holoirctester tilal :Gone for lunch");
+
+        assertThat(received)
+                .containsExactly("tilal", "Gone for lunch");
+    }
+}
@@ -4,9 +4,6 @@ import com.google.common.base.Optional;
 import com.google.common.collect.Iterables;
 
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
 
 import java.util.List;
 
@@ -22,8 +19,6 @@ import co.fusionx.relay.util.ParseUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@Config(emulateSdk = 18)
-@RunWith(RobolectricTestRunner.class)
 public class JoinParserTest {
 
     private RelayServer mServer;
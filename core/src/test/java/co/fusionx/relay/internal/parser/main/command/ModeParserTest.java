@@ -0,0 +1,87 @@
+package co.fusionx.relay.internal.parser.main.command;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import co.fusionx.relay.constants.UserLevel;
+import co.fusionx.relay.event.Event;
+import co.fusionx.relay.event.channel.ChannelModeChangeEvent;
+import co.fusionx.relay.internal.base.RelayChannel;
+import co.fusionx.relay.internal.base.RelayChannelUser;
+import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.base.RelayUserChannelInterface;
+import co.fusionx.relay.internal.base.TestUtils;
+import co.fusionx.relay.misc.RelayConfigurationProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ModeParserTest {
+
+    private final RelayServer mServer;
+
+    private final RelayUserChannelInterface mUserChannelInterface;
+
+    private final ModeParser mModeParser;
+
+    // Setup work for the tests
+    public ModeParserTest() {
+        RelayConfigurationProvider.onInterfaceReceived(new TestUtils.DefaultRelayConfiguration());
+
+        mServer = TestUtils.getFreenodeServer();
+        mUserChannelInterface = mServer.getUserChannelInterface();
+        mModeParser = new ModeParser(mServer);
+    }
+
+    @Test
+    public void testMultipleModes() {
+        final RelayChannel channel = mUserChannelInterface.getNewChannel("#relay");
+        mUserChannelInterface.coupleUserAndChannel(mServer.getUser(), channel);
+        final RelayChannelUser first = mUserChannelInterface.getNonNullUser("first");
+        mUserChannelInterface.coupleUserAndChannel(first, channel, UserLevel.VOICE);
+        final RelayChannelUser second = mUserChannelInterface.getNonNullUser("second");
+        mUserChannelInterface.coupleUserAndChannel(second, channel);
+
+        mModeParser.onParseCommand(Arrays.asList("#relay", "+ob-vk+lov", "first", "*!*@spam",
+                "first", "key", "10", "second", "second"), "ChanServ!services@services");
+
+        assertThat(first.getChannelPrivileges(channel))
+                .isEqualTo(UserLevel.OP);
+        assertThat(second.getChannelPrivileges(channel))
+                .isEqualTo(UserLevel.OP);
+
+        final Event event = channel.getBuffer().get(channel.getBuffer().size() - 1);
+        assertThat(event)
+                .isInstanceOf(ChannelModeChangeEvent.class);
+        final ChannelModeChangeEvent modeEvent = (ChannelModeChangeEvent) event;
+        assertThat(modeEvent.users.get(0))
+                .isSameAs(first);
+        assertThat(modeEvent.users.get(1))
+                .isSameAs(second);
+        assertThat(modeEvent.oldLevels)
+                .containsExactly(UserLevel.VOICE, UserLevel.NONE);
+        assertThat(modeEvent.newLevels)
+                .containsExactly(UserLevel.OP, UserLevel.OP);
+        assertThat(modeEvent.isUserListChangeEvent())
+                .isTrue();
+
+        mModeParser.onParseCommand(Arrays.asList("#relay", "+m"), "ChanServ!services@services");
+        final ChannelModeChangeEvent channelModeEvent = (ChannelModeChangeEvent) channel
+                .getBuffer().get(channel.getBuffer().size() - 1);
+        assertThat(channelModeEvent.isUserListChangeEvent())
+                .isFalse();
+    }
+
+    @Test
+    public void testRemoveLevel() {
+        final RelayChannel channel = mUserChannelInterface.getNewChannel("#relay");
+        mUserChannelInterface.coupleUserAndChannel(mServer.getUser(), channel);
+        final RelayChannelUser user = mUserChannelInterface.getNonNullUser("user");
+        mUserChannelInterface.coupleUserAndChannel(user, channel, UserLevel.OP);
+
+        mModeParser.onParseCommand(Arrays.asList("#relay", "-vo", "user", "user"),
+                "ChanServ!services@services");
+        assertThat(user.getChannelPrivileges(channel))
+                .isEqualTo(UserLevel.NONE);
+    }
+}
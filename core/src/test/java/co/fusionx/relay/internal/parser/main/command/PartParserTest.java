@@ -0,0 +1,11 @@
+package co.fusionx.relay.internal.parser.main.command;
+
+import org.junit.Test;
+
+public class PartParserTest {
+
+    @Test
+    public void test() {
+
+    }
+}
\ No newline at end of file
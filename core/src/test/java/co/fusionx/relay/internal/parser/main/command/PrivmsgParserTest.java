@@ -0,0 +1,113 @@
+package co.fusionx.relay.internal.parser.main.command;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import co.fusionx.relay.base.FormatSpanInfo;
+import co.fusionx.relay.event.Event;
+import co.fusionx.relay.event.channel.ChannelEvent;
+import co.fusionx.relay.event.channel.ChannelWorldMessageEvent;
+import co.fusionx.relay.internal.base.RelayChannel;
+import co.fusionx.relay.internal.base.RelayServer;
+import co.fusionx.relay.internal.base.TestUtils;
+import co.fusionx.relay.internal.parser.main.ServerLineParser;
+import co.fusionx.relay.internal.sender.RelayBaseSender;
+import co.fusionx.relay.misc.RelayConfigurationProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrivmsgParserTest {
+
+    private RelayServer mServer;
+
+    private PrivmsgParser mPrivmsgParser;
+
+    // Setup work for the tests
+    public PrivmsgParserTest() {
+        RelayConfigurationProvider.onInterfaceReceived(new TestUtils.DefaultRelayConfiguration());
+
+        mServer = TestUtils.getFreenodeServer();
+        mPrivmsgParser = new PrivmsgParser(mServer, null);
+    }
+
+    @Test
+    public void onParsePrivateMessageTest() {
+
+    }
+
+    @Test
+    public void onParsePrivateChannelTest() {
+
+    }
+
+    @Test
+    public void testChannelMessageIsParsedLazily() {
+        final RelayChannel channel = mServer.getUserChannelInterface().getNewChannel("#relay");
+        mServer.getUserChannelInterface().coupleUserAndChannel(mServer.getUser(), channel);
+        final String nick = mServer.getUser().getNick().getNickAsString();
+
+        mPrivmsgParser.onParseCommand(Arrays.asList("#relay", "hi \u0002" + nick + "\u0002"),
+                "other!other@host");
+
+        final Event event = channel.getBuffer().get(channel.getBuffer().size() - 1);
+        assertThat(event)
+                .isInstanceOf(ChannelWorldMessageEvent.class);
+
+        final ChannelWorldMessageEvent messageEvent = (ChannelWorldMessageEvent) event;
+        assertThat(messageEvent.body.isParsed())
+                .isFalse();
+        assertThat(messageEvent.getMessage())
+                .isEqualTo("hi " + nick);
+        assertThat(messageEvent.body.isParsed())
+                .isTrue();
+        assertThat(messageEvent.getFormats())
+                .containsExactly(new FormatSpanInfo(3, 3 + nick.length(),
+                        FormatSpanInfo.Format.BOLD));
+        assertThat(messageEvent.isUserMentioned())
+                .isTrue();
+        assertThat(messageEvent.getMessage())
+                .isSameAs(messageEvent.getMessage());
+    }
+
+    @Test
+    public void testOwnChannelMessageDoesNotMention() {
+        final RelayChannel channel = mServer.getUserChannelInterface().getNewChannel("#relay");
+        mServer.getUserChannelInterface().coupleUserAndChannel(mServer.getUser(), channel);
+        final String nick = mServer.getUser().getNick().getNickAsString();
+
+        mPrivmsgParser.onParseCommand(Arrays.asList("#relay", "hi " + nick),
+                nick + "!relay@host");
+
+        final ChannelWorldMessageEvent event = (ChannelWorldMessageEvent) channel.getBuffer()
+                .get(channel.getBuffer().size() - 1);
+        assertThat(event.isUserMentioned())
+                .isFalse();
+        assertThat(event.getMentionKeyword())
+                .isNull();
+    }
+
+    @Test
+    public void testOlderServerTimeIsKeptInOrder() {
+        final RelayChannel channel = mServer.getUserChannelInterface().getNewChannel("#relay");
+        mServer.getUserChannelInterface().coupleUserAndChannel(mServer.getUser(), channel);
+        final ServerLineParser parser = new ServerLineParser(mServer, new RelayBaseSender());
+
+        // A bouncer can play back history after a newer line has already been seen
+        parser.parseLine("@time=2011-10-19T16:40:52.000Z :other!other@host PRIVMSG #relay :new");
+        parser.parseLine("@time=2011-10-19T16:40:51.000Z :other!other@host PRIVMSG #relay :old");
+
+        final List<ChannelEvent> buffer = channel.getBuffer();
+        final ChannelWorldMessageEvent old =
+                (ChannelWorldMessageEvent) buffer.get(buffer.size() - 2);
+        assertThat(old.getMessage())
+                .isEqualTo("old");
+        assertThat(old.timestamp)
+                .isEqualTo(1319042451000L);
+
+        final List<ChannelEvent> before = channel.getEventsBefore(1319042452000L, 10);
+        assertThat(before.get(before.size() - 1))
+                .isSameAs(old);
+    }
+}
@@ -0,0 +1,73 @@
+package co.fusionx.relay.internal.sender;
+
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.StringWriter;
+
+import co.fusionx.relay.internal.packet.channel.ChannelMessagePacket;
+import co.fusionx.relay.internal.packet.server.JoinPacket;
+import co.fusionx.relay.internal.packet.server.QuitPacket;
+import co.fusionx.relay.internal.packet.server.internal.PongPacket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RelayBaseSenderTest {
+
+    @Test
+    public void testPacketsWrittenInOrder() throws InterruptedException {
+        final StringWriter output = new StringWriter();
+        final RelayBaseSender sender = new RelayBaseSender();
+        sender.onOutputStreamCreated(new BufferedWriter(output));
+
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            final String line = "JOIN #channel" + i;
+            sender.sendPacket(() -> line);
+            expected.append(line).append("\r\n");
+        }
+
+        waitForSentLines(sender, 500);
+
+        assertThat(output.toString())
+                .isEqualTo(expected.toString());
+        assertThat(sender.getQueueDepth())
+                .isZero();
+    }
+
+    @Test
+    public void testFloodControlKeepsOrderAndMergesJoins() throws InterruptedException {
+        final StringWriter output = new StringWriter();
+        final RelayBaseSender sender = new RelayBaseSender(1, 100);
+        sender.onOutputStreamCreated(new BufferedWriter(output));
+
+        sender.sendPacket(new ChannelMessagePacket("#relay", "first"));
+        waitForSentLines(sender, 1);
+
+        // The bucket is now empty so only the PONG can go out straight away - the rest must
+        // keep the order they were sent in
+        sender.sendPacket(new JoinPacket("#a"));
+        sender.sendPacket(new JoinPacket("#b"));
+        sender.sendPacket(new ChannelMessagePacket("#a", "second"));
+        sender.sendPacket(new QuitPacket("bye"));
+        sender.sendPacket(new PongPacket("irc.freenode.net"));
+        waitForSentLines(sender, 5);
+
+        assertThat(output.toString())
+                .isEqualTo("PRIVMSG #relay :first\r\n"
+                        + "PONG irc.freenode.net\r\n"
+                        + "JOIN #a,#b\r\n"
+                        + "PRIVMSG #a :second\r\n"
+                        + "QUIT :bye\r\n");
+        assertThat(sender.getMergedJoinCount())
+                .isEqualTo(1);
+    }
+
+    private static void waitForSentLines(final RelayBaseSender sender, final int count)
+            throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (sender.getSentLineCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
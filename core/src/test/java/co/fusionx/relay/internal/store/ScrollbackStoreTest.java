@@ -0,0 +1,167 @@
+package co.fusionx.relay.internal.store;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+
+import co.fusionx.relay.base.Conversation;
+import co.fusionx.relay.event.Event;
+import co.fusionx.relay.event.EventClock;
+import co.fusionx.relay.event.server.GenericServerEvent;
+import co.fusionx.relay.interfaces.EventCodec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScrollbackStoreTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Rule
+    public final TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws IOException {
+        ScrollbackStore.setStorage(mFolder.newFolder("scrollback"), new MessageCodec());
+    }
+
+    @After
+    public void tearDown() {
+        ScrollbackStore.setStorage(null, null);
+    }
+
+    @Test
+    public void testReadBefore() {
+        final ScrollbackStore store = ScrollbackStore.open("Freenode", "#relay");
+        for (int i = 0; i < 200; i++) {
+            store.append(getEvent(i));
+        }
+
+        final List<Event> events = store.readBefore(null, 150, 3);
+        assertThat(events)
+                .hasSize(3);
+        assertThat(((GenericServerEvent) events.get(0)).message)
+                .isEqualTo("147");
+        assertThat(events.get(2).timestamp)
+                .isEqualTo(149);
+
+        assertThat(store.readBefore(null, 2, 10))
+                .hasSize(2);
+        store.close();
+    }
+
+    @Test
+    public void testReopenKeepsEvents() {
+        final ScrollbackStore store = ScrollbackStore.open("Freenode", "#Relay");
+        for (int i = 0; i < 10; i++) {
+            store.append(getEvent(i));
+        }
+        store.close();
+
+        // Channel names are case insensitive so this is the same conversation
+        final ScrollbackStore reopened = ScrollbackStore.open("Freenode", "#relay");
+        final List<Event> events = reopened.readBefore(null, Long.MAX_VALUE, 100);
+        assertThat(events)
+                .hasSize(10);
+        assertThat(((GenericServerEvent) events.get(9)).message)
+                .isEqualTo("9");
+    }
+
+    @Test
+    public void testReadBeforeWithLateEvents() {
+        final ScrollbackStore store = ScrollbackStore.open("Freenode", "#relay");
+        for (int i = 100; i < 200; i++) {
+            store.append(getEvent(i));
+        }
+        // Played back history which is older than everything already stored
+        for (int i = 10; i < 20; i++) {
+            store.append(getEvent(i));
+        }
+
+        final List<Event> events = store.readBefore(null, 105, 10);
+        assertThat(events)
+                .hasSize(10);
+        assertThat(events.get(0).timestamp)
+                .isEqualTo(15);
+        assertThat(events.get(4).timestamp)
+                .isEqualTo(19);
+        assertThat(events.get(5).timestamp)
+                .isEqualTo(100);
+        assertThat(events.get(9).timestamp)
+                .isEqualTo(104);
+
+        final List<Event> late = store.readBefore(null, 20, 100);
+        assertThat(late)
+                .hasSize(10);
+        assertThat(late.get(0).timestamp)
+                .isEqualTo(10);
+        store.close();
+    }
+
+    @Test
+    public void testOldSegmentsAreDeleted() throws IOException {
+        final File directory = mFolder.newFolder("limited");
+        ScrollbackStore.setStorage(directory, new MessageCodec(), 1);
+
+        // Each event takes about 1KB so these fill a little over two segments
+        final char[] padding = new char[1000];
+        Arrays.fill(padding, 'a');
+        final ScrollbackStore store = ScrollbackStore.open("Freenode", "#relay");
+        for (int i = 0; i < 2100; i++) {
+            EventClock.setOverride(i);
+            try {
+                store.append(new GenericServerEvent(null, new String(padding)));
+            } finally {
+                EventClock.clearOverride();
+            }
+        }
+
+        // Only the newest segment is within the limit
+        final List<Event> events = store.readBefore(null, Long.MAX_VALUE, 10000);
+        assertThat(events.size())
+                .isLessThan(1100);
+        assertThat(events.get(events.size() - 1).timestamp)
+                .isEqualTo(2099);
+        store.close();
+
+        final File conversationDirectory = new File(directory, "freenode").listFiles()[0];
+        assertThat(conversationDirectory.listFiles())
+                .hasSize(1);
+
+        // New segments carry on from the newest one left after reopening
+        final ScrollbackStore reopened = ScrollbackStore.open("Freenode", "#relay");
+        reopened.append(getEvent(3000));
+        assertThat(reopened.readBefore(null, Long.MAX_VALUE, 1).get(0).timestamp)
+                .isEqualTo(3000);
+        reopened.close();
+    }
+
+    private static Event getEvent(final int index) {
+        EventClock.setOverride(index);
+        try {
+            return new GenericServerEvent(null, String.valueOf(index));
+        } finally {
+            EventClock.clearOverride();
+        }
+    }
+
+    private static class MessageCodec implements EventCodec {
+
+        @Override
+        public byte[] encode(final Event event) {
+            return ((GenericServerEvent) event).message.getBytes(UTF_8);
+        }
+
+        @Override
+        public Event decode(final Conversation<?> conversation, final byte[] data) {
+            return new GenericServerEvent(null, new String(data, UTF_8));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package co.fusionx.relay.internal.store;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import co.fusionx.relay.base.Conversation;
+import co.fusionx.relay.event.Event;
+import co.fusionx.relay.event.EventClock;
+import co.fusionx.relay.event.server.GenericServerEvent;
+import co.fusionx.relay.interfaces.EventCodec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScrollbackWriterTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Rule
+    public final TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws IOException {
+        ScrollbackStore.setStorage(mFolder.newFolder("scrollback"), new MessageCodec());
+    }
+
+    @After
+    public void tearDown() {
+        ScrollbackStore.setStorage(null, null);
+    }
+
+    @Test
+    public void testReadWaitsForPendingWrites() {
+        final ScrollbackWriter.Handle handle = new ScrollbackWriter(1000)
+                .newHandle(() -> ScrollbackStore.open("Freenode", "#relay"));
+        for (int i = 0; i < 100; i++) {
+            assertThat(handle.append(getEvent(i)))
+                    .isTrue();
+        }
+
+        final List<Event> events = handle.readBefore(null, Long.MAX_VALUE, 1000).get();
+        assertThat(events)
+                .hasSize(100);
+        assertThat(((GenericServerEvent) events.get(99)).message)
+                .isEqualTo("99");
+        handle.close();
+    }
+
+    @Test
+    public void testFullQueueDropsEvents() throws InterruptedException {
+        final CountDownLatch opening = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ScrollbackWriter writer = new ScrollbackWriter(1);
+        final ScrollbackWriter.Handle handle = writer.newHandle(() -> {
+            opening.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException ignored) {
+            }
+            return ScrollbackStore.open("Freenode", "#relay");
+        });
+
+        // The writer is held opening the store so only one more event fits in the queue
+        handle.append(getEvent(1));
+        assertThat(opening.await(5, TimeUnit.SECONDS))
+                .isTrue();
+        assertThat(handle.append(getEvent(2)))
+                .isTrue();
+        assertThat(handle.append(getEvent(3)))
+                .isFalse();
+        assertThat(writer.getDroppedEventCount())
+                .isEqualTo(1);
+
+        // Reads are never dropped and do not wait for the writer
+        final ScrollbackWriter.PendingRead read = handle.readBefore(null, Long.MAX_VALUE, 10);
+        handle.close();
+        release.countDown();
+        assertThat(read.get())
+                .hasSize(2);
+    }
+
+    private static Event getEvent(final int index) {
+        EventClock.setOverride(index);
+        try {
+            return new GenericServerEvent(null, String.valueOf(index));
+        } finally {
+            EventClock.clearOverride();
+        }
+    }
+
+    private static class MessageCodec implements EventCodec {
+
+        @Override
+        public byte[] encode(final Event event) {
+            return ((GenericServerEvent) event).message.getBytes(UTF_8);
+        }
+
+        @Override
+        public Event decode(final Conversation<?> conversation, final byte[] data) {
+            return new GenericServerEvent(null, new String(data, UTF_8));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package co.fusionx.relay.internal.transport;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LineFramerTest {
+
+    private static final Charset LATIN_1 = Charset.forName("ISO-8859-1");
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testLinesSplitAcrossReads() {
+        final LineFramer framer = new LineFramer(LATIN_1);
+        final List<String> lines = new ArrayList<>();
+        final byte[] data = "PING :a\r\n\r\nPRIVMSG #relay :café\r\nPING :b\n"
+                .getBytes(UTF_8);
+
+        // Feed a byte at a time so every line is split across reads
+        for (int i = 0; i < data.length; i++) {
+            framer.feed(data, i, 1, lines::add);
+        }
+
+        assertThat(lines)
+                .containsExactly("PING :a", "PRIVMSG #relay :café", "PING :b");
+    }
+
+    @Test
+    public void testFallbackCharset() {
+        final LineFramer framer = new LineFramer(LATIN_1);
+        final List<String> lines = new ArrayList<>();
+        final byte[] data = "PRIVMSG #relay :café\r\n".getBytes(LATIN_1);
+
+        framer.feed(data, 0, data.length, lines::add);
+
+        assertThat(lines)
+                .containsExactly("PRIVMSG #relay :café");
+
+        // Latin-1 bytes are not valid UTF-8 so the line cannot be decoded at all
+        final LineFramer strictFramer = new LineFramer(UTF_8);
+        strictFramer.feed(data, 0, data.length, lines::add);
+
+        assertThat(lines)
+                .hasSize(1);
+        assertThat(strictFramer.getDroppedInvalidLineCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testOversizeLinesDropped() {
+        final LineFramer framer = new LineFramer(LATIN_1);
+        final List<String> lines = new ArrayList<>();
+
+        final char[] message = new char[600];
+        Arrays.fill(message, 'a');
+        final char[] tags = new char[1000];
+        Arrays.fill(tags, 'b');
+        final String data = "PRIVMSG #relay :" + new String(message) + "\r\n"
+                + "@" + new String(tags) + " PING :a\r\n"
+                + "PING :b\r\n";
+        final byte[] bytes = data.getBytes(UTF_8);
+
+        framer.feed(bytes, 0, bytes.length, lines::add);
+
+        assertThat(lines)
+                .containsExactly("@" + new String(tags) + " PING :a", "PING :b");
+        assertThat(framer.getDroppedOversizeLineCount())
+                .isEqualTo(1);
+    }
+}
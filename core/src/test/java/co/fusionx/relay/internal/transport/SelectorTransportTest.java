@@ -0,0 +1,202 @@
+package co.fusionx.relay.internal.transport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.spongycastle.asn1.x500.X500Name;
+import org.spongycastle.cert.X509CertificateHolder;
+import org.spongycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.spongycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.spongycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+
+import co.fusionx.relay.base.ServerConfiguration;
+import co.fusionx.relay.internal.base.TestUtils;
+import co.fusionx.relay.misc.RelayConfigurationProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SelectorTransportTest {
+
+    private static final char[] KEY_PASSWORD = "relay".toCharArray();
+
+    private final BlockingQueue<BufferedWriter> mWriters = new LinkedBlockingQueue<>();
+
+    private final BlockingQueue<String> mLines = new LinkedBlockingQueue<>();
+
+    private final CountDownLatch mClosed = new CountDownLatch(1);
+
+    private final SelectorTransport.Callback mCallback = new SelectorTransport.Callback() {
+        @Override
+        public void onTransportConnected(final BufferedWriter writer) {
+            mWriters.add(writer);
+        }
+
+        @Override
+        public void onTransportLine(final String line) {
+            mLines.add(line);
+        }
+
+        @Override
+        public void onTransportClosed(final String message) {
+            mClosed.countDown();
+        }
+    };
+
+    private RelayEventLoop mEventLoop;
+
+    public SelectorTransportTest() {
+        RelayConfigurationProvider.onInterfaceReceived(new TestUtils.DefaultRelayConfiguration());
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        mEventLoop = new RelayEventLoop("testLoop");
+        mEventLoop.start();
+    }
+
+    @After
+    public void tearDown() {
+        mEventLoop.shutdown();
+    }
+
+    @Test
+    public void testPlain() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            final SelectorTransport transport = new SelectorTransport(mEventLoop,
+                    getConfiguration(serverSocket.getLocalPort(), false), mCallback);
+            transport.open();
+
+            exchangeLines(serverSocket.accept());
+        }
+    }
+
+    @Test
+    public void testTls() throws Exception {
+        final SSLContext context = getServerContext();
+        try (ServerSocket serverSocket = context.getServerSocketFactory()
+                .createServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            final SelectorTransport transport = new SelectorTransport(mEventLoop,
+                    getConfiguration(serverSocket.getLocalPort(), true), mCallback);
+            transport.open();
+
+            exchangeLines(serverSocket.accept());
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            final SelectorTransport transport = new SelectorTransport(mEventLoop,
+                    getConfiguration(serverSocket.getLocalPort(), false), mCallback);
+            transport.open();
+
+            try (Socket socket = serverSocket.accept()) {
+                assertThat(mWriters.poll(5, TimeUnit.SECONDS))
+                        .isNotNull();
+
+                transport.close();
+                assertThat(mClosed.await(5, TimeUnit.SECONDS))
+                        .isTrue();
+
+                // The server should see the end of the stream
+                socket.setSoTimeout(5000);
+                assertThat(socket.getInputStream().read())
+                        .isEqualTo(-1);
+            }
+        }
+    }
+
+    /**
+     * Sends a line each way and then closes the connection from the server side
+     */
+    private void exchangeLines(final Socket socket) throws Exception {
+        try {
+            socket.setSoTimeout(5000);
+            final BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), "UTF-8"));
+            final Writer serverWriter = new OutputStreamWriter(socket.getOutputStream(), "UTF-8");
+
+            final BufferedWriter writer = mWriters.poll(5, TimeUnit.SECONDS);
+            assertThat(writer)
+                    .isNotNull();
+            writer.write("NICK relay\r\n");
+            writer.flush();
+            assertThat(reader.readLine())
+                    .isEqualTo("NICK relay");
+
+            serverWriter.write(":irc.test 001 relay :Welcome\r\n");
+            serverWriter.flush();
+            assertThat(mLines.poll(5, TimeUnit.SECONDS))
+                    .isEqualTo(":irc.test 001 relay :Welcome");
+        } finally {
+            socket.close();
+        }
+
+        assertThat(mClosed.await(5, TimeUnit.SECONDS))
+                .isTrue();
+    }
+
+    private static ServerConfiguration getConfiguration(final int port, final boolean ssl) {
+        final ServerConfiguration.Builder builder = TestUtils.getFreenodeBuilder();
+        builder.setUrl(InetAddress.getLoopbackAddress().getHostAddress());
+        builder.setPort(port);
+        builder.setSsl(ssl);
+        builder.setSslAcceptAllCertificates(ssl);
+        return builder.build();
+    }
+
+    /**
+     * Creates a server context with a freshly generated self-signed certificate
+     */
+    private static SSLContext getServerContext() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        final KeyPair keyPair = generator.generateKeyPair();
+
+        final X500Name name = new X500Name("CN=localhost");
+        final long now = System.currentTimeMillis();
+        final X509CertificateHolder holder = new JcaX509v3CertificateBuilder(name,
+                BigInteger.valueOf(now), new Date(now - TimeUnit.DAYS.toMillis(1)),
+                new Date(now + TimeUnit.DAYS.toMillis(1)), name, keyPair.getPublic())
+                .build(new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate()));
+        final X509Certificate certificate = new JcaX509CertificateConverter()
+                .getCertificate(holder);
+
+        final KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        keyStore.load(null);
+        keyStore.setKeyEntry("server", keyPair.getPrivate(), KEY_PASSWORD,
+                new Certificate[]{certificate});
+
+        final KeyManagerFactory factory = KeyManagerFactory
+                .getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        factory.init(keyStore, KEY_PASSWORD);
+
+        final SSLContext context = SSLContext.getInstance("TLS");
+        context.init(factory.getKeyManagers(), null, null);
+        return context;
+    }
+}
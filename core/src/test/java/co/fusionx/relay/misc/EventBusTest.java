@@ -0,0 +1,92 @@
+package co.fusionx.relay.misc;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import co.fusionx.relay.event.Event;
+import co.fusionx.relay.event.server.GenericServerEvent;
+import co.fusionx.relay.event.server.ServerEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventBusTest {
+
+    private final List<String> mDelivered = new ArrayList<>();
+
+    @Test
+    public void testHandlerOrder() {
+        final EventBus<Event> bus = new EventBus<>();
+        bus.registerHandler(Event.class, event -> mDelivered.add("event"));
+        bus.registerHandler(ServerEvent.class, event -> mDelivered.add("server"), 10);
+        bus.registerHandler(GenericServerEvent.class, event -> mDelivered.add("generic"));
+
+        bus.post(new GenericServerEvent(null, "message"));
+        assertThat(mDelivered)
+                .containsExactly("server", "event", "generic");
+
+        mDelivered.clear();
+        bus.post(new Event());
+        assertThat(mDelivered)
+                .containsExactly("event");
+    }
+
+    @Test
+    public void testUnregisterHandler() {
+        final EventBus<Event> bus = new EventBus<>();
+        final EventHandler<Event> handler = event -> mDelivered.add("removed");
+        bus.registerHandler(Event.class, handler);
+        bus.registerHandler(ServerEvent.class, handler);
+        bus.registerHandler(Event.class, event -> mDelivered.add("kept"));
+
+        bus.post(new GenericServerEvent(null, "message"));
+        assertThat(mDelivered)
+                .containsExactly("removed", "removed", "kept");
+
+        mDelivered.clear();
+        bus.unregisterHandler(handler);
+        bus.post(new GenericServerEvent(null, "message"));
+        assertThat(mDelivered)
+                .containsExactly("kept");
+    }
+
+    @Test
+    public void testObjectsStillReceiveEvents() {
+        final EventBus<Event> bus = new EventBus<>();
+        final Object subscriber = new Object() {
+            public void onEvent(final ServerEvent event) {
+                mDelivered.add("object");
+            }
+        };
+        bus.register(subscriber, 500);
+        bus.registerHandler(ServerEvent.class, event -> mDelivered.add("handler"), -500);
+
+        // Objects and handlers are ordered together by priority
+        bus.post(new GenericServerEvent(null, "message"));
+        assertThat(mDelivered)
+                .containsExactly("object", "handler");
+
+        mDelivered.clear();
+        bus.unregister(subscriber);
+        bus.post(new GenericServerEvent(null, "message"));
+        assertThat(mDelivered)
+                .containsExactly("handler");
+    }
+
+    @Test
+    public void testObjectsAndHandlersWithSamePriority() {
+        final EventBus<Event> bus = new EventBus<>();
+        bus.registerHandler(ServerEvent.class, event -> mDelivered.add("first"));
+        bus.register(new Object() {
+            public void onEvent(final ServerEvent event) {
+                mDelivered.add("second");
+            }
+        });
+        bus.registerHandler(Event.class, event -> mDelivered.add("third"));
+
+        bus.post(new GenericServerEvent(null, "message"));
+        assertThat(mDelivered)
+                .containsExactly("first", "second", "third");
+    }
+}
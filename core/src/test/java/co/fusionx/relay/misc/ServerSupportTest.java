@@ -0,0 +1,57 @@
+package co.fusionx.relay.misc;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import co.fusionx.relay.constants.CaseMapping;
+import co.fusionx.relay.constants.UserLevel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ServerSupportTest {
+
+    @Test
+    public void testDefaults() {
+        final ServerSupport support = ServerSupport.DEFAULT;
+        assertThat(support.isChannel("!channel"))
+                .isTrue();
+        assertThat(support.isChannel("nick"))
+                .isFalse();
+        assertThat(support.getLevelFromPrefix('~'))
+                .isEqualTo(UserLevel.OWNER);
+        assertThat(support.getLevelFromMode('v'))
+                .isEqualTo(UserLevel.VOICE);
+        assertThat(support.getCaseMapping())
+                .isEqualTo(CaseMapping.RFC1459);
+    }
+
+    @Test
+    public void testWithTokens() {
+        final ServerSupport support = ServerSupport.DEFAULT.withTokens(Arrays.asList(
+                "CHANTYPES=#", "PREFIX=(Yov)!@+", "CHANMODES=b,k,l,imnt", "CASEMAPPING=ascii",
+                "NETWORK=Test\\x20Net", "EXCEPTS"));
+        assertThat(support.isChannel("&channel"))
+                .isFalse();
+        assertThat(support.getLevelFromPrefix('!'))
+                .isEqualTo(UserLevel.OP);
+        assertThat(support.getLevelFromPrefix('%'))
+                .isEqualTo(UserLevel.NONE);
+        assertThat(support.getLevelFromMode('h'))
+                .isEqualTo(UserLevel.NONE);
+        assertThat(support.getChannelModeType('o'))
+                .isEqualTo(ServerSupport.MODE_TYPE_PREFIX);
+        assertThat(support.getChannelModeType('l'))
+                .isEqualTo(ServerSupport.MODE_TYPE_SET_PARAMETER);
+        assertThat(support.getCaseMapping())
+                .isEqualTo(CaseMapping.ASCII);
+        assertThat(support.getNetwork())
+                .isEqualTo("Test Net");
+        assertThat(support.getValue("EXCEPTS"))
+                .isEmpty();
+
+        final ServerSupport negated = support.withTokens(Arrays.asList("-CHANTYPES"));
+        assertThat(negated.isChannel("&channel"))
+                .isTrue();
+    }
+}
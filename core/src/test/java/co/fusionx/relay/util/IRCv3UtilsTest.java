@@ -0,0 +1,28 @@
+package co.fusionx.relay.util;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IRCv3UtilsTest {
+
+    @Test
+    public void testParseServerTime() {
+        assertThat(IRCv3Utils.parseServerTime("2011-10-19T16:40:51.620Z"))
+                .isEqualTo(1319042451620L);
+        assertThat(IRCv3Utils.parseServerTime("2016-02-29T00:00:00Z"))
+                .isEqualTo(1456704000000L);
+        assertThat(IRCv3Utils.parseServerTime("2011-10-19T18:40:51.6203+02:00"))
+                .isEqualTo(1319042451620L);
+        // A millisecond before the epoch is a real time rather than an error
+        assertThat(IRCv3Utils.parseServerTime("1969-12-31T23:59:59.999Z"))
+                .isEqualTo(-1);
+
+        assertThat(IRCv3Utils.parseServerTime(null))
+                .isEqualTo(IRCv3Utils.INVALID_SERVER_TIME);
+        assertThat(IRCv3Utils.parseServerTime("1319042451"))
+                .isEqualTo(IRCv3Utils.INVALID_SERVER_TIME);
+        assertThat(IRCv3Utils.parseServerTime("2011-13-19T16:40:51.620Z"))
+                .isEqualTo(IRCv3Utils.INVALID_SERVER_TIME);
+    }
+}
@@ -1,21 +1,17 @@
 package co.fusionx.relay.util;
 
-import android.util.Pair;
+import co.fusionx.relay.misc.Pair;
 import co.fusionx.relay.base.FormatSpanInfo;
 import co.fusionx.relay.base.FormatSpanInfo.Color;
 import co.fusionx.relay.base.FormatSpanInfo.Format;
+import co.fusionx.relay.base.FormattedText;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
 
 import java.util.List;
 
 import static co.fusionx.relay.util.Utils.parseAndStripColorsFromMessage;
 import static org.assertj.core.api.Assertions.assertThat;
 
-@Config(emulateSdk = 18)
-@RunWith(RobolectricTestRunner.class)
 public class UtilsTest {
     private static final char IRC_BOLD = '\u0002';
     private static final char IRC_COLOR = '\u0003';
@@ -67,4 +63,32 @@ public class UtilsTest {
                 new FormatSpanInfo(2, 4, Format.UNDERLINED));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void parseAndStripColorsFromMessage_noFormatting() throws Exception {
+        String testMessage = "Test Message";
+        Pair<String, List<FormatSpanInfo>> actual = parseAndStripColorsFromMessage(testMessage);
+        assertThat(actual.first).isSameAs(testMessage);
+        assertThat(actual.second).isNull();
+    }
+
+    @Test
+    public void formattedText_packedSpans() throws Exception {
+        String testMessage = String.format(
+                "%1$s12,15Test%2$s Message%3$s",
+                IRC_COLOR,
+                IRC_BOLD,
+                IRC_RESET_FORMATTING);
+        FormattedText actual = FormattedText.parse(testMessage);
+        assertThat(actual.getText()).isEqualTo("Test Message");
+        assertThat(actual.getSpanCount()).isEqualTo(2);
+        assertThat(actual.getSpanFormat(0)).isEqualTo(Format.COLOR);
+        assertThat(actual.getSpanStart(0)).isEqualTo(0);
+        assertThat(actual.getSpanEnd(0)).isEqualTo(12);
+        assertThat(actual.getSpanForeground(0)).isEqualTo(Color.LIGHT_BLUE);
+        assertThat(actual.getSpanBackground(0)).isEqualTo(Color.LIGHT_GREY);
+        assertThat(actual.getFormats()).containsExactly(
+                new FormatSpanInfo(0, 12, Color.LIGHT_BLUE, Color.LIGHT_GREY),
+                new FormatSpanInfo(4, 12, Format.BOLD));
+        assertThat(FormattedText.strip("Plain")).isSameAs("Plain");
+    }
+}
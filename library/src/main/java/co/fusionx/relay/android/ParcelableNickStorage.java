@@ -0,0 +1,56 @@
+package co.fusionx.relay.android;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import co.fusionx.relay.misc.NickStorage;
+
+/**
+ * Puts a {@link NickStorage} into a {@link Parcel}
+ */
+public class ParcelableNickStorage implements Parcelable {
+
+    public static final Parcelable.Creator<ParcelableNickStorage> CREATOR =
+            new Parcelable.Creator<ParcelableNickStorage>() {
+                public ParcelableNickStorage createFromParcel(final Parcel in) {
+                    return new ParcelableNickStorage(read(in));
+                }
+
+                public ParcelableNickStorage[] newArray(final int size) {
+                    return new ParcelableNickStorage[size];
+                }
+            };
+
+    private final NickStorage mNickStorage;
+
+    public ParcelableNickStorage(final NickStorage nickStorage) {
+        mNickStorage = nickStorage;
+    }
+
+    public NickStorage getNickStorage() {
+        return mNickStorage;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(final Parcel out, final int flags) {
+        write(mNickStorage, out);
+    }
+
+    static void write(final NickStorage nickStorage, final Parcel out) {
+        out.writeStringList(nickStorage.getNicks());
+    }
+
+    static NickStorage read(final Parcel in) {
+        final List<String> nicks = new ArrayList<>();
+        in.readStringList(nicks);
+        return new NickStorage(nicks);
+    }
+}
@@ -0,0 +1,138 @@
+package co.fusionx.relay.android;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import co.fusionx.relay.base.ServerConfiguration;
+import co.fusionx.relay.constants.EventOverflowPolicy;
+
+/**
+ * Puts a {@link ServerConfiguration} into a {@link Parcel}
+ *
+ * The configuration is rebuilt through a {@link ServerConfiguration.Builder} when it is read
+ * back so it goes through the same checks as any other configuration.
+ */
+public class ParcelableServerConfiguration implements Parcelable {
+
+    public static final Parcelable.Creator<ParcelableServerConfiguration> CREATOR =
+            new Parcelable.Creator<ParcelableServerConfiguration>() {
+                public ParcelableServerConfiguration createFromParcel(final Parcel in) {
+                    return new ParcelableServerConfiguration(read(in).build());
+                }
+
+                public ParcelableServerConfiguration[] newArray(final int size) {
+                    return new ParcelableServerConfiguration[size];
+                }
+            };
+
+    private final ServerConfiguration mConfiguration;
+
+    public ParcelableServerConfiguration(final ServerConfiguration configuration) {
+        mConfiguration = configuration;
+    }
+
+    public ServerConfiguration getConfiguration() {
+        return mConfiguration;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(final Parcel out, final int flags) {
+        final ServerConfiguration configuration = mConfiguration;
+        out.writeString(configuration.getTitle());
+        out.writeString(configuration.getUrl());
+        out.writeInt(configuration.getPort());
+
+        out.writeInt(configuration.isSslEnabled() ? 1 : 0);
+        out.writeInt(configuration.shouldAcceptAllSSLCertificates() ? 1 : 0);
+
+        ParcelableNickStorage.write(configuration.getNickStorage(), out);
+        out.writeString(configuration.getRealName());
+        out.writeInt(configuration.isNickChangeable() ? 1 : 0);
+
+        out.writeString(configuration.getServerUserName());
+        out.writeString(configuration.getServerPassword());
+        out.writeString(configuration.getClientAuthenticationKeyPath());
+
+        out.writeString(configuration.getSaslUsername());
+        out.writeString(configuration.getSaslPassword());
+
+        out.writeString(configuration.getNickservPassword());
+
+        out.writeStringList(configuration.getAutoJoinChannels());
+
+        out.writeInt(configuration.getBufferEventLimit());
+        out.writeLong(configuration.getBufferByteLimit());
+
+        out.writeInt(configuration.getFloodBurst());
+        out.writeLong(configuration.getFloodInterval());
+
+        out.writeStringList(configuration.getHighlightWords());
+        out.writeStringList(configuration.getHighlightPatterns());
+
+        out.writeString(configuration.getFallbackCharset());
+
+        out.writeInt(configuration.getEventQueueCapacity());
+        out.writeInt(configuration.getEventOverflowPolicy().ordinal());
+    }
+
+    // The layout is shared with ParcelableServerConfigurationBuilder which adds the id first
+    static ServerConfiguration.Builder read(final Parcel in) {
+        final ServerConfiguration.Builder builder = new ServerConfiguration.Builder();
+        builder.setTitle(in.readString());
+        builder.setUrl(in.readString());
+        builder.setPort(in.readInt());
+
+        builder.setSsl(in.readInt() == 1);
+        builder.setSslAcceptAllCertificates(in.readInt() == 1);
+
+        builder.setNickStorage(ParcelableNickStorage.read(in));
+        builder.setRealName(in.readString());
+        builder.setNickChangeable(in.readInt() == 1);
+
+        builder.setServerUserName(in.readString());
+        builder.setServerPassword(in.readString());
+        builder.setClientAuthenticationKeyPath(in.readString());
+
+        builder.setSaslUsername(in.readString());
+        builder.setSaslPassword(in.readString());
+
+        builder.setNickservPassword(in.readString());
+
+        for (final String channel : readStringList(in)) {
+            builder.addAutoJoinChannel(channel);
+        }
+
+        builder.setBufferEventLimit(in.readInt());
+        builder.setBufferByteLimit(in.readLong());
+
+        builder.setFloodBurst(in.readInt());
+        builder.setFloodInterval(in.readLong());
+
+        for (final String word : readStringList(in)) {
+            builder.addHighlightWord(word);
+        }
+        for (final String pattern : readStringList(in)) {
+            builder.addHighlightPattern(pattern);
+        }
+
+        builder.setFallbackCharset(in.readString());
+
+        builder.setEventQueueCapacity(in.readInt());
+        builder.setEventOverflowPolicy(EventOverflowPolicy.values()[in.readInt()]);
+        return builder;
+    }
+
+    private static List<String> readStringList(final Parcel in) {
+        final List<String> list = new ArrayList<>();
+        in.readStringList(list);
+        return list;
+    }
+}
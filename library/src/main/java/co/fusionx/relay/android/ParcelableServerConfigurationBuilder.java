@@ -0,0 +1,85 @@
+package co.fusionx.relay.android;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import co.fusionx.relay.base.ServerConfiguration;
+
+/**
+ * Puts a {@link ServerConfiguration.Builder} into a {@link Parcel} - the builder does not need
+ * to be complete
+ */
+public class ParcelableServerConfigurationBuilder implements Parcelable {
+
+    public static final Parcelable.Creator<ParcelableServerConfigurationBuilder> CREATOR =
+            new Parcelable.Creator<ParcelableServerConfigurationBuilder>() {
+                public ParcelableServerConfigurationBuilder createFromParcel(final Parcel in) {
+                    final int id = in.readInt();
+                    final ServerConfiguration.Builder builder =
+                            ParcelableServerConfiguration.read(in);
+                    builder.setId(id);
+                    return new ParcelableServerConfigurationBuilder(builder);
+                }
+
+                public ParcelableServerConfigurationBuilder[] newArray(final int size) {
+                    return new ParcelableServerConfigurationBuilder[size];
+                }
+            };
+
+    private final ServerConfiguration.Builder mBuilder;
+
+    public ParcelableServerConfigurationBuilder(final ServerConfiguration.Builder builder) {
+        mBuilder = builder;
+    }
+
+    public ServerConfiguration.Builder getBuilder() {
+        return mBuilder;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(final Parcel out, final int flags) {
+        final ServerConfiguration.Builder builder = mBuilder;
+        out.writeInt(builder.getId());
+
+        out.writeString(builder.getTitle());
+        out.writeString(builder.getUrl());
+        out.writeInt(builder.getPort());
+
+        out.writeInt(builder.isSsl() ? 1 : 0);
+        out.writeInt(builder.isSslAcceptAllCertificates() ? 1 : 0);
+
+        ParcelableNickStorage.write(builder.getNickStorage(), out);
+        out.writeString(builder.getRealName());
+        out.writeInt(builder.isNickChangeable() ? 1 : 0);
+
+        out.writeString(builder.getServerUserName());
+        out.writeString(builder.getServerPassword());
+        out.writeString(builder.getClientAuthenticationKeyPath());
+
+        out.writeString(builder.getSaslUsername());
+        out.writeString(builder.getSaslPassword());
+
+        out.writeString(builder.getNickservPassword());
+
+        out.writeStringList(builder.getAutoJoinChannels());
+
+        out.writeInt(builder.getBufferEventLimit());
+        out.writeLong(builder.getBufferByteLimit());
+
+        out.writeInt(builder.getFloodBurst());
+        out.writeLong(builder.getFloodInterval());
+
+        out.writeStringList(builder.getHighlightWords());
+        out.writeStringList(builder.getHighlightPatterns());
+
+        out.writeString(builder.getFallbackCharset());
+
+        out.writeInt(builder.getEventQueueCapacity());
+        out.writeInt(builder.getEventOverflowPolicy().ordinal());
+    }
+}
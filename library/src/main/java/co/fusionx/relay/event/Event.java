@@ -1,13 +0,0 @@
-package co.fusionx.relay.event;
-
-import android.text.format.Time;
-
-public class Event {
-
-    public final Time timestamp;
-
-    public Event() {
-        timestamp = new Time();
-        timestamp.setToNow();
-    }
-}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package co.fusionx.relay.android;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import android.os.Parcel;
+
+import co.fusionx.relay.base.ServerConfiguration;
+import co.fusionx.relay.misc.NickStorage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Config(emulateSdk = 18)
+@RunWith(RobolectricTestRunner.class)
+public class ParcelableServerConfigurationTest {
+
+    @Test
+    public void testBuilderParcelling() {
+        final Parcel parcel = Parcel.obtain();
+        final ServerConfiguration.Builder expected = getFreenodeBuilder();
+        expected.setId(4);
+        new ParcelableServerConfigurationBuilder(expected).writeToParcel(parcel, 0);
+
+        // done writing, now reset parcel for reading
+        parcel.setDataPosition(0);
+
+        final ServerConfiguration.Builder actual = ParcelableServerConfigurationBuilder.CREATOR
+                .createFromParcel(parcel).getBuilder();
+
+        assertThat(actual)
+                .isNotNull()
+                .isEqualToComparingFieldByField(expected);
+    }
+
+    @Test
+    public void testParcelling() {
+        final Parcel parcel = Parcel.obtain();
+        final ServerConfiguration expected = getFreenodeBuilder().build();
+        new ParcelableServerConfiguration(expected).writeToParcel(parcel, 0);
+
+        // done writing, now reset parcel for reading
+        parcel.setDataPosition(0);
+
+        final ServerConfiguration actual = ParcelableServerConfiguration.CREATOR
+                .createFromParcel(parcel).getConfiguration();
+
+        assertThat(actual)
+                .isNotNull()
+                .isEqualToComparingFieldByField(expected);
+    }
+
+    private static ServerConfiguration.Builder getFreenodeBuilder() {
+        final ServerConfiguration.Builder builder = new ServerConfiguration.Builder();
+        builder.setTitle("Freenode");
+        builder.setUrl("irc.freenode.net");
+        builder.setPort(6667);
+        builder.setNickStorage(new NickStorage("holoirctester", "holoirctester", "holoirctester"));
+        builder.setServerUserName("holoirctester");
+        builder.addAutoJoinChannel("#relay");
+        builder.addHighlightPattern("relay.*");
+        return builder;
+    }
+}
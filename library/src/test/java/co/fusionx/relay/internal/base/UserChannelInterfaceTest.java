@@ -1,16 +0,0 @@
-package co.fusionx.relay.internal.base;
-
-import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
-
-@Config(emulateSdk = 18)
-@RunWith(RobolectricTestRunner.class)
-public class UserChannelInterfaceTest {
-
-    @Test
-    public void test() {
-
-    }
-}
\ No newline at end of file